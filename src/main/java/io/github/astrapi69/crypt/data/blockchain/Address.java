@@ -24,18 +24,22 @@
  */
 package io.github.astrapi69.crypt.data.blockchain;
 
+import java.io.Serializable;
 
 import io.github.astrapi69.crypt.api.algorithm.HashAlgorithm;
 import io.github.astrapi69.crypt.api.blockchain.IAddress;
-import io.github.astrapi69.crypt.data.hash.HashExtensions;
+import io.github.astrapi69.crypt.data.hash.HashInput;
 
 /**
  * The class {@link Address} represents a blockchain address, consisting of a name, a public key,
  * and a hash generated from these values using a specified hash algorithm.
  */
-public class Address implements IAddress
+public class Address implements IAddress, Serializable
 {
 
+	/** The Constant serialVersionUID */
+	private static final long serialVersionUID = 1L;
+
 	/** The hash of the address, generated from the name and public key. */
 	private byte[] hash;
 
@@ -65,7 +69,21 @@ public class Address implements IAddress
 	{
 		this.name = name;
 		this.publicKey = publicKey;
-		this.hash = HashExtensions.hash(name.getBytes(), publicKey, HashAlgorithm.SHA256);
+		this.hash = calculateHash(name, publicKey);
+	}
+
+	/**
+	 * Calculates the hash of an address from the given name and public key
+	 *
+	 * @param name
+	 *            the name of the address
+	 * @param publicKey
+	 *            the public key associated with the address
+	 * @return the hash of the address
+	 */
+	static byte[] calculateHash(String name, byte[] publicKey)
+	{
+		return HashInput.of(HashAlgorithm.SHA256).put(name.getBytes()).put(publicKey).digest();
 	}
 
 	/**
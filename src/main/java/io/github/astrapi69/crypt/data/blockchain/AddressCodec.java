@@ -0,0 +1,134 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.blockchain;
+
+import java.nio.ByteBuffer;
+
+import io.github.astrapi69.crypt.api.blockchain.IAddress;
+
+/**
+ * The class {@link AddressCodec} encodes addresses in a compact, versioned binary format and
+ * decodes them lazily:
+ *
+ * <pre>
+ * byte   version
+ * bytes  hash
+ * string name
+ * bytes  public key
+ * </pre>
+ *
+ * Byte arrays and strings are prefixed with their length as <code>int</code>, where -1 stands for
+ * <code>null</code>, and strings are encoded in UTF-8. A decoded address reads its fields from the
+ * buffer when they are accessed for the first time, so the buffer must not be modified while the
+ * address is in use.
+ */
+public final class AddressCodec
+{
+
+	/** The version of the encoding */
+	public static final byte VERSION = 1;
+
+	/** The index of the hash */
+	static final int HASH_INDEX = 1;
+
+	private AddressCodec()
+	{
+	}
+
+	/**
+	 * Gets the number of bytes of the encoding of the given address
+	 *
+	 * @param address
+	 *            the address
+	 * @return the number of bytes of the encoding
+	 */
+	public static int getEncodedLength(final IAddress address)
+	{
+		return HASH_INDEX + CodecExtensions.sizeOf(address.getHash())
+			+ CodecExtensions.sizeOf(address.getName())
+			+ CodecExtensions.sizeOf(address.getPublicKey());
+	}
+
+	/**
+	 * Encodes the given address into a new byte array
+	 *
+	 * @param address
+	 *            the address
+	 * @return the encoded address
+	 */
+	public static byte[] encode(final IAddress address)
+	{
+		final ByteBuffer buffer = ByteBuffer.allocate(getEncodedLength(address));
+		encode(address, buffer);
+		return buffer.array();
+	}
+
+	/**
+	 * Encodes the given address into the given buffer at its position and advances the position
+	 * behind the encoding
+	 *
+	 * @param address
+	 *            the address
+	 * @param buffer
+	 *            the buffer
+	 * @throws java.nio.BufferOverflowException
+	 *             if the remaining bytes of the buffer are not sufficient
+	 */
+	public static void encode(final IAddress address, final ByteBuffer buffer)
+	{
+		final ByteBuffer target = buffer.duplicate();
+		target.put(VERSION);
+		CodecExtensions.putBytes(target, address.getHash());
+		CodecExtensions.putString(target, address.getName());
+		CodecExtensions.putBytes(target, address.getPublicKey());
+		buffer.position(target.position());
+	}
+
+	/**
+	 * Decodes the address at the position of the given buffer and advances the position behind
+	 * the encoding. The fields of the returned address are read from the buffer when they are
+	 * accessed for the first time
+	 *
+	 * @param buffer
+	 *            the buffer
+	 * @return the decoded address
+	 * @throws IllegalArgumentException
+	 *             if the version of the encoding is not supported
+	 * @throws java.nio.BufferUnderflowException
+	 *             if the encoding exceeds the limit of the buffer
+	 */
+	public static Address decode(final ByteBuffer buffer)
+	{
+		final ByteBuffer source = buffer.duplicate();
+		final int position = source.position();
+		CodecExtensions.checkVersion(source, position, VERSION, "address");
+		int end = CodecExtensions.skip(source, position + HASH_INDEX);
+		end = CodecExtensions.skip(source, end);
+		end = CodecExtensions.skip(source, end);
+		final Address address = new LazyAddress(source.slice(position, end - position));
+		buffer.position(end);
+		return address;
+	}
+}
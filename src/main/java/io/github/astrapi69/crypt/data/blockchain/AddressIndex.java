@@ -0,0 +1,521 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.blockchain;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+import io.github.astrapi69.crypt.api.blockchain.IAddress;
+import io.github.astrapi69.crypt.api.blockchain.ITransaction;
+
+/**
+ * The class {@link AddressIndex} maps the hashes of addresses to the addresses. It is an open
+ * addressing hash table with linear probing whose keys are the raw hashes of 32 bytes, stored one
+ * after another in one byte array, so no key object is created for a lookup. A hash can also be
+ * added without an address, for instance the sender hash of a transaction whose address is not
+ * known yet.
+ * <br>
+ * <br>
+ * A {@link BloomFilter} in front of the table answers most lookups of unknown hashes without
+ * touching the table. The filter is rebuilt with twice the capacity when the index grows beyond
+ * the expected size, so the false positive rate stays below the configured rate.
+ * <br>
+ * <br>
+ * The index can be written to a file and read back with {@link #writeTo(Path)} and
+ * {@link #readFrom(Path)}, and it can be rebuilt from the sender hashes of the blocks of a
+ * {@link LedgerStore} with {@link #rebuild(LedgerStore, Function)}. The file has the format:
+ *
+ * <pre>
+ * byte version
+ * int  entry count
+ * entries of byte 1 and the encoding of {@link AddressCodec}
+ *         or byte 0 and the hash of an address that is not known
+ * </pre>
+ *
+ * This class is not thread safe.
+ */
+public final class AddressIndex
+{
+
+	/** The number of bytes of a hash */
+	public static final int HASH_LENGTH = 32;
+
+	/** The default expected number of addresses */
+	public static final int DEFAULT_EXPECTED_SIZE = 1 << 16;
+
+	/** The default false positive rate of the bloom filter */
+	public static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+
+	/** The version of the file format */
+	public static final byte VERSION = 1;
+
+	/** The initial number of entries */
+	private static final int INITIAL_CAPACITY = 16;
+
+	/** The number of bytes of the write buffer */
+	private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+	/** The entry flag of a hash without address */
+	private static final byte HASH_ENTRY = 0;
+
+	/** The entry flag of an address */
+	private static final byte ADDRESS_ENTRY = 1;
+
+	/** The false positive rate of the bloom filter */
+	private final double falsePositiveRate;
+
+	/** The number of keys the bloom filter is built for */
+	private long bloomCapacity;
+
+	/** The bloom filter of all keys */
+	private BloomFilter bloomFilter;
+
+	/** The keys of all entries in insertion order, {@link #HASH_LENGTH} bytes per entry */
+	private byte[] keys;
+
+	/** The addresses of all entries in insertion order or null if only the hash is known */
+	private IAddress[] addresses;
+
+	/** The index of the entry of every slot plus one or zero if the slot is empty */
+	private int[] slots;
+
+	/** The first eight bytes of the key of every slot */
+	private long[] slotPrefixes;
+
+	/** The number of entries */
+	private int size;
+
+	/**
+	 * Instantiates a new {@link AddressIndex} with the default expected size and the default false
+	 * positive rate
+	 */
+	public AddressIndex()
+	{
+		this(DEFAULT_EXPECTED_SIZE, DEFAULT_FALSE_POSITIVE_RATE);
+	}
+
+	/**
+	 * Instantiates a new {@link AddressIndex}
+	 *
+	 * @param expectedSize
+	 *            the expected number of addresses
+	 * @param falsePositiveRate
+	 *            the false positive rate of the bloom filter
+	 */
+	public AddressIndex(final int expectedSize, final double falsePositiveRate)
+	{
+		this.falsePositiveRate = falsePositiveRate;
+		this.bloomCapacity = expectedSize;
+		this.bloomFilter = new BloomFilter(expectedSize, falsePositiveRate);
+		this.keys = new byte[INITIAL_CAPACITY * HASH_LENGTH];
+		this.addresses = new IAddress[INITIAL_CAPACITY];
+		this.slots = new int[2 * INITIAL_CAPACITY];
+		this.slotPrefixes = new long[2 * INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Rebuilds an index from the sender hashes of all transactions of the given ledger
+	 *
+	 * @param ledger
+	 *            the ledger
+	 * @param addressResolver
+	 *            the function that resolves the address of a sender hash or returns null if the
+	 *            address is not known
+	 * @return the new index
+	 */
+	public static AddressIndex rebuild(final LedgerStore ledger,
+		final Function<byte[], ? extends IAddress> addressResolver)
+	{
+		final AddressIndex addressIndex = new AddressIndex(
+			(int)Math.min(Integer.MAX_VALUE, Math.max(DEFAULT_EXPECTED_SIZE, ledger.size())),
+			DEFAULT_FALSE_POSITIVE_RATE);
+		addressIndex.addSenders(ledger, 0, addressResolver);
+		return addressIndex;
+	}
+
+	/**
+	 * Reads an index from the file with the given path that was written with
+	 * {@link #writeTo(Path)}. The addresses are decoded lazily from a copy of the file in memory
+	 *
+	 * @param path
+	 *            the path of the file
+	 * @return the index
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 * @throws IllegalArgumentException
+	 *             if the version of the file format is not supported
+	 */
+	public static AddressIndex readFrom(final Path path) throws IOException
+	{
+		final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+		CodecExtensions.checkVersion(buffer, 0, VERSION, "address index");
+		final int count = buffer.getInt(1);
+		buffer.position(1 + Integer.BYTES);
+		final AddressIndex addressIndex = new AddressIndex(Math.max(DEFAULT_EXPECTED_SIZE, count),
+			DEFAULT_FALSE_POSITIVE_RATE);
+		for (int i = 0; i < count; i++)
+		{
+			if (buffer.get() == ADDRESS_ENTRY)
+			{
+				addressIndex.put(AddressCodec.decode(buffer));
+			}
+			else
+			{
+				final byte[] hash = new byte[HASH_LENGTH];
+				buffer.get(hash);
+				addressIndex.add(hash);
+			}
+		}
+		return addressIndex;
+	}
+
+	/**
+	 * Stores the given address. An address that is already stored with the same hash is replaced
+	 *
+	 * @param address
+	 *            the address
+	 * @throws IllegalArgumentException
+	 *             if the hash of the address does not have {@link #HASH_LENGTH} bytes
+	 */
+	public void put(final IAddress address)
+	{
+		Objects.requireNonNull(address);
+		final byte[] hash = address.getHash();
+		checkHash(hash);
+		final int entry = find(hash);
+		if (entry < 0)
+		{
+			insert(hash, address);
+		}
+		else
+		{
+			addresses[entry] = address;
+		}
+	}
+
+	/**
+	 * Adds the given hash without an address if it is not already stored
+	 *
+	 * @param hash
+	 *            the hash of an address
+	 * @return true if the hash was added, false if it was already stored
+	 * @throws IllegalArgumentException
+	 *             if the hash does not have {@link #HASH_LENGTH} bytes
+	 */
+	public boolean add(final byte[] hash)
+	{
+		checkHash(hash);
+		if (0 <= find(hash))
+		{
+			return false;
+		}
+		insert(hash, null);
+		return true;
+	}
+
+	/**
+	 * Gets the address with the given hash
+	 *
+	 * @param hash
+	 *            the hash of the address
+	 * @return the address or null if the hash is not stored or stored without an address
+	 */
+	public IAddress get(final byte[] hash)
+	{
+		if (!mightContain(hash))
+		{
+			return null;
+		}
+		final int entry = find(hash);
+		return entry < 0 ? null : addresses[entry];
+	}
+
+	/**
+	 * Checks if the given hash is stored, with or without an address
+	 *
+	 * @param hash
+	 *            the hash of an address
+	 * @return true if the hash is stored, otherwise false
+	 */
+	public boolean contains(final byte[] hash)
+	{
+		return mightContain(hash) && 0 <= find(hash);
+	}
+
+	/**
+	 * Checks with the bloom filter only if the given hash is possibly stored. A negative answer is
+	 * always correct, a positive answer is wrong with the configured false positive rate
+	 *
+	 * @param hash
+	 *            the hash of an address
+	 * @return false if the hash is definitely not stored, true if it is possibly stored
+	 */
+	public boolean mightContain(final byte[] hash)
+	{
+		Objects.requireNonNull(hash);
+		return hash.length == HASH_LENGTH
+			&& bloomFilter.mightContain(getBloomHash1(hash, 0), getBloomHash2(hash, 0));
+	}
+
+	/**
+	 * Gets the number of stored hashes
+	 *
+	 * @return the number of stored hashes
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Adds the sender hashes of all transactions of the blocks of the given ledger from the given
+	 * height on. The address of a sender hash that is not stored yet is resolved with the given
+	 * function, if it returns null or an address with another hash only the hash is added
+	 *
+	 * @param ledger
+	 *            the ledger
+	 * @param fromHeight
+	 *            the height of the first block
+	 * @param addressResolver
+	 *            the function that resolves the address of a sender hash or returns null if the
+	 *            address is not known
+	 * @return the number of added hashes
+	 */
+	public int addSenders(final LedgerStore ledger, final long fromHeight,
+		final Function<byte[], ? extends IAddress> addressResolver)
+	{
+		Objects.requireNonNull(addressResolver);
+		final int previousSize = size;
+		ledger.replay(fromHeight, (record, height) -> {
+			final List<ITransaction> transactions = BlockCodec.decode(record).getTransactions();
+			if (transactions == null)
+			{
+				return;
+			}
+			for (ITransaction transaction : transactions)
+			{
+				final byte[] senderHash = transaction.getSenderHash();
+				if (senderHash == null || senderHash.length != HASH_LENGTH
+					|| contains(senderHash))
+				{
+					continue;
+				}
+				final IAddress address = addressResolver.apply(senderHash);
+				if (address != null && Arrays.equals(address.getHash(), senderHash))
+				{
+					put(address);
+				}
+				else
+				{
+					add(senderHash);
+				}
+			}
+		});
+		return size - previousSize;
+	}
+
+	/**
+	 * Writes all entries of this index to the file with the given path. An existing file is
+	 * replaced
+	 *
+	 * @param path
+	 *            the path of the file
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public void writeTo(final Path path) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+			StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+		{
+			ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+			buffer.put(VERSION).putInt(size);
+			for (int entry = 0; entry < size; entry++)
+			{
+				final IAddress address = addresses[entry];
+				final int length = 1 + (address == null
+					? HASH_LENGTH
+					: AddressCodec.getEncodedLength(address));
+				if (buffer.remaining() < length)
+				{
+					write(channel, buffer);
+					if (buffer.capacity() < length)
+					{
+						buffer = ByteBuffer.allocate(length);
+					}
+				}
+				if (address == null)
+				{
+					buffer.put(HASH_ENTRY).put(keys, entry * HASH_LENGTH, HASH_LENGTH);
+				}
+				else
+				{
+					buffer.put(ADDRESS_ENTRY);
+					AddressCodec.encode(address, buffer);
+				}
+			}
+			write(channel, buffer);
+		}
+	}
+
+	private static void write(final FileChannel channel, final ByteBuffer buffer)
+		throws IOException
+	{
+		buffer.flip();
+		while (buffer.hasRemaining())
+		{
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	private int find(final byte[] hash)
+	{
+		final int mask = slots.length - 1;
+		final long prefix = getLong(hash, 0);
+		int slot = (int)mix(prefix) & mask;
+		while (true)
+		{
+			final int value = slots[slot];
+			if (value == 0)
+			{
+				return -1;
+			}
+			final int offset = (value - 1) * HASH_LENGTH;
+			if (slotPrefixes[slot] == prefix
+				&& Arrays.equals(keys, offset, offset + HASH_LENGTH, hash, 0, HASH_LENGTH))
+			{
+				return value - 1;
+			}
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	private void insert(final byte[] hash, final IAddress address)
+	{
+		if (size == addresses.length)
+		{
+			if (Integer.MAX_VALUE / (2 * HASH_LENGTH) < size)
+			{
+				throw new IllegalStateException("The address index is full");
+			}
+			keys = Arrays.copyOf(keys, 2 * size * HASH_LENGTH);
+			addresses = Arrays.copyOf(addresses, 2 * size);
+		}
+		if (slots.length <= 2 * (size + 1))
+		{
+			resizeSlots(2 * slots.length);
+		}
+		if (bloomCapacity <= size)
+		{
+			bloomCapacity *= 2;
+			rebuildBloomFilter();
+		}
+		final int entry = size++;
+		System.arraycopy(hash, 0, keys, entry * HASH_LENGTH, HASH_LENGTH);
+		addresses[entry] = address;
+		insertSlot(entry);
+		bloomFilter.put(getBloomHash1(hash, 0), getBloomHash2(hash, 0));
+	}
+
+	private void insertSlot(final int entry)
+	{
+		final int mask = slots.length - 1;
+		final long prefix = getLong(keys, entry * HASH_LENGTH);
+		int slot = (int)mix(prefix) & mask;
+		while (slots[slot] != 0)
+		{
+			slot = (slot + 1) & mask;
+		}
+		slots[slot] = entry + 1;
+		slotPrefixes[slot] = prefix;
+	}
+
+	private void resizeSlots(final int slotCount)
+	{
+		slots = new int[slotCount];
+		slotPrefixes = new long[slotCount];
+		for (int entry = 0; entry < size; entry++)
+		{
+			insertSlot(entry);
+		}
+	}
+
+	private void rebuildBloomFilter()
+	{
+		bloomFilter = new BloomFilter(bloomCapacity, falsePositiveRate);
+		for (int entry = 0; entry < size; entry++)
+		{
+			final int offset = entry * HASH_LENGTH;
+			bloomFilter.put(getBloomHash1(keys, offset), getBloomHash2(keys, offset));
+		}
+	}
+
+	private static void checkHash(final byte[] hash)
+	{
+		Objects.requireNonNull(hash);
+		if (hash.length != HASH_LENGTH)
+		{
+			throw new IllegalArgumentException(
+				"Hash must have " + HASH_LENGTH + " bytes: " + hash.length);
+		}
+	}
+
+	private static long getBloomHash1(final byte[] hash, final int offset)
+	{
+		return mix(getLong(hash, offset + Long.BYTES));
+	}
+
+	private static long getBloomHash2(final byte[] hash, final int offset)
+	{
+		return mix(getLong(hash, offset + 2 * Long.BYTES));
+	}
+
+	private static long getLong(final byte[] bytes, final int offset)
+	{
+		long value = 0;
+		for (int i = offset; i < offset + Long.BYTES; i++)
+		{
+			value = (value << 8) | (bytes[i] & 0xFF);
+		}
+		return value;
+	}
+
+	private static long mix(long value)
+	{
+		value ^= value >>> 33;
+		value *= 0xff51afd7ed558ccdL;
+		value ^= value >>> 33;
+		return value;
+	}
+}
@@ -24,23 +24,31 @@
  */
 package io.github.astrapi69.crypt.data.blockchain;
 
-import java.util.LinkedList;
+import java.io.Serializable;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 import io.github.astrapi69.crypt.api.algorithm.HashAlgorithm;
 import io.github.astrapi69.crypt.api.blockchain.IBlock;
 import io.github.astrapi69.crypt.api.blockchain.ITransaction;
-import io.github.astrapi69.crypt.data.hash.HashExtensions;
+import io.github.astrapi69.crypt.data.hash.HashInput;
+import io.github.astrapi69.crypt.data.hash.MerkleProof;
+import io.github.astrapi69.crypt.data.hash.MerkleTreeBuilder;
+import io.github.astrapi69.crypt.data.hash.ParallelMerkleTree;
 
 /**
  * The class {@link Block} represents a block in a blockchain. It contains the current block's hash,
  * the previous block's hash, the Merkle root of the transactions, a timestamp, a list of
  * transactions, a data field, and the number of attempts (tries) to find a valid hash.
  */
-public class Block implements IBlock
+public class Block implements IBlock, Serializable
 {
 
+	/** The Constant serialVersionUID */
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * The hash of the block, generated from the previous block hash, Merkle root, tries, and
 	 * timestamp.
@@ -90,12 +98,75 @@ public class Block implements IBlock
 		this.transactions = transactions;
 		this.tries = tries;
 		this.timestamp = System.currentTimeMillis();
-		this.merkleRoot = HashExtensions.getMerkleRootHash(
-			new LinkedList<>(
-				transactions.stream().map(ITransaction::getHash).collect(Collectors.toList())),
-			HashAlgorithm.SHA256);
-		this.hash = HashExtensions.hash(previousBlockHash, merkleRoot, tries, timestamp,
-			HashAlgorithm.SHA256);
+		this.merkleRoot = getMerkleRoot(transactions);
+		this.hash = calculateHash(previousBlockHash, merkleRoot, tries, timestamp);
+	}
+
+	/**
+	 * Calculates the hash of a block from the given values with the SHA-256 algorithm
+	 *
+	 * @param previousBlockHash
+	 *            the hash of the previous block
+	 * @param merkleRoot
+	 *            the Merkle root of the transactions
+	 * @param tries
+	 *            the number of attempts to find a valid hash
+	 * @param timestamp
+	 *            the timestamp of the block
+	 * @return the hash of the block
+	 */
+	static byte[] calculateHash(byte[] previousBlockHash, byte[] merkleRoot, long tries,
+		long timestamp)
+	{
+		return HashInput.of(HashAlgorithm.SHA256).put(previousBlockHash).put(merkleRoot)
+			.putLong(tries).putLong(timestamp).digest();
+	}
+
+	/**
+	 * Computes the Merkle root of the given transactions with the SHA-256 algorithm. Large lists
+	 * of transactions are hashed in parallel with a {@link ParallelMerkleTree}
+	 *
+	 * @param transactions
+	 *            the transactions
+	 * @return the Merkle root or null if the given list is empty
+	 */
+	static byte[] getMerkleRoot(List<ITransaction> transactions)
+	{
+		if (ParallelMerkleTree.DEFAULT_THRESHOLD < transactions.size())
+		{
+			return new ParallelMerkleTree(HashAlgorithm.SHA256).getMerkleRootHash(
+				transactions.stream().map(ITransaction::getHash).collect(Collectors.toList()));
+		}
+		final MerkleTreeBuilder merkleTreeBuilder = new MerkleTreeBuilder(HashAlgorithm.SHA256,
+			transactions.size());
+		transactions.forEach(transaction -> merkleTreeBuilder.add(transaction.getHash()));
+		return merkleTreeBuilder.build();
+	}
+
+	/**
+	 * Creates the {@link MerkleProof} of the given transaction. The proof can be verified against
+	 * the Merkle root of this block with {@link MerkleProof#verify(byte[], byte[], HashAlgorithm)}
+	 * and the SHA-256 algorithm
+	 *
+	 * @param transaction
+	 *            the transaction
+	 * @return the {@link MerkleProof} of the given transaction
+	 * @throws IllegalArgumentException
+	 *             if the given transaction is not part of this block
+	 */
+	public MerkleProof proofFor(ITransaction transaction)
+	{
+		Objects.requireNonNull(transaction);
+		final List<byte[]> transactionHashes = getTransactions().stream().map(ITransaction::getHash)
+			.collect(Collectors.toList());
+		for (int i = 0; i < transactionHashes.size(); i++)
+		{
+			if (Arrays.equals(transactionHashes.get(i), transaction.getHash()))
+			{
+				return MerkleProof.of(transactionHashes, i, HashAlgorithm.SHA256);
+			}
+		}
+		throw new IllegalArgumentException("The given transaction is not part of this block");
 	}
 
 	/** {@inheritDoc} */
@@ -152,6 +223,35 @@ public class Block implements IBlock
 		return getHash().length;
 	}
 
+	/**
+	 * Gets the number of leading zero bits of the hash of this block
+	 *
+	 * @return the number of leading zero bits
+	 */
+	public int getLeadingZeroBitsCount()
+	{
+		return getLeadingZeroBits(getHash());
+	}
+
+	/**
+	 * Gets the number of leading zero bits of the given hash
+	 *
+	 * @param hash
+	 *            the hash
+	 * @return the number of leading zero bits
+	 */
+	static int getLeadingZeroBits(byte[] hash)
+	{
+		for (int i = 0; i < hash.length; i++)
+		{
+			if (hash[i] != 0)
+			{
+				return i * Byte.SIZE + Integer.numberOfLeadingZeros(hash[i] & 0xFF) - 24;
+			}
+		}
+		return hash.length * Byte.SIZE;
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public byte[] getMerkleRoot()
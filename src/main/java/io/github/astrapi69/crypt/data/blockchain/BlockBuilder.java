@@ -0,0 +1,189 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.blockchain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import io.github.astrapi69.crypt.api.algorithm.HashAlgorithm;
+import io.github.astrapi69.crypt.api.blockchain.ITransaction;
+import io.github.astrapi69.crypt.data.hash.MerkleAccumulator;
+
+/**
+ * The class {@link BlockBuilder} assembles a {@link Block} from transactions that are added one at
+ * a time. The merkle root is maintained by a {@link MerkleAccumulator}, so a transaction that is
+ * added does not rehash the other transactions, and the block hash is only computed when it is
+ * read after a change. The built block is identical to a block that is created with
+ * {@link Block#Block(byte[], List, long)} from the same values.
+ */
+public final class BlockBuilder
+{
+
+	/** The hash of the previous block */
+	private final byte[] previousBlockHash;
+
+	/** The added transactions */
+	private final List<ITransaction> transactions = new ArrayList<>();
+
+	/** The accumulator of the merkle root of the transactions */
+	private final MerkleAccumulator merkleAccumulator = new MerkleAccumulator(
+		HashAlgorithm.SHA256);
+
+	/** The timestamp of the block */
+	private long timestamp = System.currentTimeMillis();
+
+	/** The number of attempts to find a valid hash */
+	private long tries;
+
+	/** The data field of the block */
+	private String data;
+
+	/** The hash of the block or null if it has to be computed */
+	private byte[] hash;
+
+	/**
+	 * Instantiates a new {@link BlockBuilder} for a block that follows the block with the given
+	 * hash. The timestamp is set to the current time
+	 *
+	 * @param previousBlockHash
+	 *            the hash of the previous block
+	 */
+	public BlockBuilder(final byte[] previousBlockHash)
+	{
+		this.previousBlockHash = previousBlockHash;
+	}
+
+	/**
+	 * Adds the given transaction to the block
+	 *
+	 * @param transaction
+	 *            the transaction
+	 * @return this {@link BlockBuilder} object
+	 */
+	public BlockBuilder addTransaction(final ITransaction transaction)
+	{
+		Objects.requireNonNull(transaction);
+		transactions.add(transaction);
+		merkleAccumulator.add(transaction.getHash());
+		hash = null;
+		return this;
+	}
+
+	/**
+	 * Sets the timestamp of the block
+	 *
+	 * @param timestamp
+	 *            the timestamp
+	 * @return this {@link BlockBuilder} object
+	 */
+	public BlockBuilder timestamp(final long timestamp)
+	{
+		this.timestamp = timestamp;
+		hash = null;
+		return this;
+	}
+
+	/**
+	 * Sets the number of attempts to find a valid hash
+	 *
+	 * @param tries
+	 *            the number of attempts
+	 * @return this {@link BlockBuilder} object
+	 */
+	public BlockBuilder tries(final long tries)
+	{
+		this.tries = tries;
+		hash = null;
+		return this;
+	}
+
+	/**
+	 * Sets the data field of the block, the data field is not part of the block hash
+	 *
+	 * @param data
+	 *            the data
+	 * @return this {@link BlockBuilder} object
+	 */
+	public BlockBuilder data(final String data)
+	{
+		this.data = data;
+		return this;
+	}
+
+	/**
+	 * Gets the number of added transactions
+	 *
+	 * @return the number of added transactions
+	 */
+	public int getTransactionCount()
+	{
+		return transactions.size();
+	}
+
+	/**
+	 * Gets the merkle root of the added transactions
+	 *
+	 * @return the merkle root or null if no transaction is added
+	 */
+	public byte[] getMerkleRoot()
+	{
+		return merkleAccumulator.getRoot();
+	}
+
+	/**
+	 * Gets the hash of the block, it is computed only if a transaction, the timestamp or the tries
+	 * are changed since it was read the last time
+	 *
+	 * @return the hash of the block
+	 */
+	public byte[] getHash()
+	{
+		if (hash == null)
+		{
+			hash = Block.calculateHash(previousBlockHash, getMerkleRoot(), tries, timestamp);
+		}
+		return hash;
+	}
+
+	/**
+	 * Builds the block from the current state of this builder. The builder can be used further
+	 * and does not change the built block
+	 *
+	 * @return the block
+	 */
+	public Block build()
+	{
+		final Block block = new Block();
+		block.setPreviousBlockHash(previousBlockHash);
+		block.setTransactions(new ArrayList<>(transactions));
+		block.setTimestamp(timestamp);
+		block.setTries(tries);
+		block.setMerkleRoot(getMerkleRoot());
+		block.setHash(getHash());
+		block.setData(data);
+		return block;
+	}
+}
@@ -0,0 +1,201 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.blockchain;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import io.github.astrapi69.crypt.api.blockchain.IBlock;
+import io.github.astrapi69.crypt.api.blockchain.ITransaction;
+
+/**
+ * The class {@link BlockCodec} encodes blocks in a compact, versioned binary format and decodes
+ * them lazily. All numbers are written in big-endian byte order:
+ *
+ * <pre>
+ * byte   version
+ * long   timestamp
+ * long   tries
+ * bytes  hash, previous block hash, merkle root
+ * string data
+ * int    number of transactions
+ * int    number of bytes of the transactions
+ * the transactions in the encoding of the {@link TransactionCodec}
+ * </pre>
+ *
+ * Byte arrays and strings are prefixed with their length as <code>int</code>, where -1 stands for
+ * <code>null</code>, and strings are encoded in UTF-8. A decoded block reads its fields from the
+ * buffer when they are accessed for the first time, and the transactions are decoded lazily as
+ * well, so the buffer must not be modified while the block is in use.
+ */
+public final class BlockCodec
+{
+
+	/** The version of the encoding */
+	public static final byte VERSION = 1;
+
+	/** The index of the timestamp */
+	static final int TIMESTAMP_INDEX = 1;
+
+	/** The index of the tries */
+	static final int TRIES_INDEX = TIMESTAMP_INDEX + Long.BYTES;
+
+	/** The index of the hash */
+	static final int HASH_INDEX = TRIES_INDEX + Long.BYTES;
+
+	private BlockCodec()
+	{
+	}
+
+	/**
+	 * Gets the number of bytes of the encoding of the given block
+	 *
+	 * @param block
+	 *            the block
+	 * @return the number of bytes of the encoding
+	 */
+	public static int getEncodedLength(final IBlock block)
+	{
+		return getHeaderLength(block) + getTransactionsLength(getTransactions(block));
+	}
+
+	/**
+	 * Encodes the given block into a new byte array
+	 *
+	 * @param block
+	 *            the block
+	 * @return the encoded block
+	 */
+	public static byte[] encode(final IBlock block)
+	{
+		final ByteBuffer buffer = ByteBuffer.allocate(getEncodedLength(block));
+		encode(block, buffer);
+		return buffer.array();
+	}
+
+	/**
+	 * Encodes the given block into the given buffer at its position and advances the position
+	 * behind the encoding
+	 *
+	 * @param block
+	 *            the block
+	 * @param buffer
+	 *            the buffer
+	 * @throws java.nio.BufferOverflowException
+	 *             if the remaining bytes of the buffer are not sufficient
+	 */
+	public static void encode(final IBlock block, final ByteBuffer buffer)
+	{
+		final List<ITransaction> transactions = getTransactions(block);
+		final ByteBuffer target = buffer.duplicate();
+		target.put(VERSION);
+		target.putLong(block.getTimestamp());
+		target.putLong(block.getTries());
+		CodecExtensions.putBytes(target, block.getHash());
+		CodecExtensions.putBytes(target, block.getPreviousBlockHash());
+		CodecExtensions.putBytes(target, block.getMerkleRoot());
+		CodecExtensions.putString(target, block.getData());
+		target.putInt(transactions.size());
+		target.putInt(getTransactionsLength(transactions));
+		for (ITransaction transaction : transactions)
+		{
+			TransactionCodec.encode(transaction, target);
+		}
+		buffer.position(target.position());
+	}
+
+	/**
+	 * Decodes the block at the position of the given buffer and advances the position behind the
+	 * encoding. The fields and the transactions of the returned block are read from the buffer
+	 * when they are accessed for the first time
+	 *
+	 * @param buffer
+	 *            the buffer
+	 * @return the decoded block
+	 * @throws IllegalArgumentException
+	 *             if the version of the encoding is not supported
+	 * @throws java.nio.BufferUnderflowException
+	 *             if the encoding exceeds the limit of the buffer
+	 */
+	public static Block decode(final ByteBuffer buffer)
+	{
+		final ByteBuffer source = buffer.duplicate();
+		final int position = source.position();
+		CodecExtensions.checkVersion(source, position, VERSION, "block");
+		final int countIndex = getTransactionCountIndex(source, position);
+		final int transactionsLength = source.getInt(countIndex + Integer.BYTES);
+		final int transactionsIndex = countIndex + 2 * Integer.BYTES;
+		if (transactionsLength < 0 || source.limit() - transactionsIndex < transactionsLength)
+		{
+			throw new BufferUnderflowException();
+		}
+		final int end = transactionsIndex + transactionsLength;
+		final Block block = new LazyBlock(source.slice(position, end - position));
+		buffer.position(end);
+		return block;
+	}
+
+	/**
+	 * Gets the index of the number of transactions of the encoded block at the given index of the
+	 * given buffer
+	 *
+	 * @param buffer
+	 *            the buffer
+	 * @param index
+	 *            the index of the encoded block
+	 * @return the index of the number of transactions
+	 */
+	static int getTransactionCountIndex(final ByteBuffer buffer, final int index)
+	{
+		int end = CodecExtensions.skip(buffer, index + HASH_INDEX);
+		end = CodecExtensions.skip(buffer, end);
+		end = CodecExtensions.skip(buffer, end);
+		return CodecExtensions.skip(buffer, end);
+	}
+
+	private static int getHeaderLength(final IBlock block)
+	{
+		return HASH_INDEX + CodecExtensions.sizeOf(block.getHash())
+			+ CodecExtensions.sizeOf(block.getPreviousBlockHash())
+			+ CodecExtensions.sizeOf(block.getMerkleRoot())
+			+ CodecExtensions.sizeOf(block.getData()) + 2 * Integer.BYTES;
+	}
+
+	private static int getTransactionsLength(final List<ITransaction> transactions)
+	{
+		int length = 0;
+		for (ITransaction transaction : transactions)
+		{
+			length += TransactionCodec.getEncodedLength(transaction);
+		}
+		return length;
+	}
+
+	private static List<ITransaction> getTransactions(final IBlock block)
+	{
+		return block.getTransactions() == null ? List.of() : block.getTransactions();
+	}
+}
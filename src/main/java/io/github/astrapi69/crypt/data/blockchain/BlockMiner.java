@@ -0,0 +1,305 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.blockchain;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.github.astrapi69.crypt.api.algorithm.HashAlgorithm;
+import io.github.astrapi69.crypt.api.blockchain.ITransaction;
+import io.github.astrapi69.crypt.data.hash.DigestPool;
+
+/**
+ * The class {@link BlockMiner} searches the number of tries of a {@link Block} whose hash has at
+ * least the configured number of leading zero bits. The Merkle root and the timestamp are computed
+ * once and the nonce space is interleaved across the worker threads, so worker <code>i</code> of
+ * <code>n</code> tries the nonces <code>i, i + n, i + 2n, ...</code>. Every worker re-hashes only
+ * the block header with its own reusable digest and all workers stop as soon as one of them has
+ * found a solution.
+ * <br>
+ * <br>
+ * The hash of a mined block is identical to the hash that the constructor
+ * {@link Block#Block(byte[], List, long)} computes from the same fields.
+ */
+public final class BlockMiner
+{
+
+	/** The number of leading zero bits that a block hash needs */
+	private final int difficultyBits;
+
+	/** The number of worker threads */
+	private final int threadCount;
+
+	/**
+	 * Instantiates a new {@link BlockMiner} with one worker thread per available processor
+	 *
+	 * @param difficultyBits
+	 *            the number of leading zero bits that a block hash needs
+	 */
+	public BlockMiner(final int difficultyBits)
+	{
+		this(difficultyBits, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Instantiates a new {@link BlockMiner}
+	 *
+	 * @param difficultyBits
+	 *            the number of leading zero bits that a block hash needs
+	 * @param threadCount
+	 *            the number of worker threads
+	 */
+	public BlockMiner(final int difficultyBits, final int threadCount)
+	{
+		if (difficultyBits < 0 || 256 < difficultyBits)
+		{
+			throw new IllegalArgumentException(
+				"difficultyBits must be between 0 and 256: " + difficultyBits);
+		}
+		if (threadCount < 1)
+		{
+			throw new IllegalArgumentException("threadCount must be positive: " + threadCount);
+		}
+		this.difficultyBits = difficultyBits;
+		this.threadCount = threadCount;
+	}
+
+	/**
+	 * Mines a new {@link Block} with the given previous block hash and the given transactions
+	 *
+	 * @param previousBlockHash
+	 *            the hash of the previous block
+	 * @param transactions
+	 *            the list of transactions included in the block
+	 * @return the {@link MiningResult} with the mined block
+	 * @throws InterruptedException
+	 *             is thrown if the current thread is interrupted while the workers are mining
+	 */
+	public MiningResult mine(final byte[] previousBlockHash, final List<ITransaction> transactions)
+		throws InterruptedException
+	{
+		Objects.requireNonNull(transactions);
+		final byte[] merkleRoot = Block.getMerkleRoot(transactions);
+		final long timestamp = System.currentTimeMillis();
+		final AtomicBoolean stopped = new AtomicBoolean();
+		final AtomicLong solution = new AtomicLong(-1);
+		final LongAdder hashCount = new LongAdder();
+		final Thread[] workers = new Thread[threadCount];
+		final long start = System.nanoTime();
+		for (int i = 0; i < threadCount; i++)
+		{
+			final Worker worker = new Worker(previousBlockHash, merkleRoot, timestamp, i, stopped,
+				solution, hashCount);
+			workers[i] = new Thread(worker, "block-miner-" + i);
+			workers[i].setDaemon(true);
+			workers[i].start();
+		}
+		try
+		{
+			for (Thread worker : workers)
+			{
+				worker.join();
+			}
+		}
+		finally
+		{
+			stopped.set(true);
+		}
+		final long elapsedNanos = System.nanoTime() - start;
+		if (solution.get() < 0)
+		{
+			throw new IllegalStateException("No solution found for " + difficultyBits + " bits");
+		}
+		final Block block = new Block();
+		block.setPreviousBlockHash(previousBlockHash);
+		block.setTransactions(transactions);
+		block.setMerkleRoot(merkleRoot);
+		block.setTimestamp(timestamp);
+		block.setTries(solution.get());
+		block.setHash(hashHeader(newMessageDigest(), previousBlockHash, merkleRoot,
+			solution.get(), timestamp, new byte[2 * Long.BYTES]));
+		return new MiningResult(block, hashCount.sum(), elapsedNanos, threadCount);
+	}
+
+	/**
+	 * Gets the number of leading zero bits that a block hash needs
+	 *
+	 * @return the difficulty in bits
+	 */
+	public int getDifficultyBits()
+	{
+		return difficultyBits;
+	}
+
+	/**
+	 * Gets the number of worker threads
+	 *
+	 * @return the number of worker threads
+	 */
+	public int getThreadCount()
+	{
+		return threadCount;
+	}
+
+	private static MessageDigest newMessageDigest()
+	{
+		try
+		{
+			return DigestPool.getInstance().borrow(HashAlgorithm.SHA_256);
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static byte[] hashHeader(final MessageDigest messageDigest,
+		final byte[] previousBlockHash, final byte[] merkleRoot, final long tries,
+		final long timestamp, final byte[] longBuffer)
+	{
+		updateHeader(messageDigest, previousBlockHash, merkleRoot, tries, timestamp, longBuffer);
+		final byte[] hash = messageDigest.digest();
+		DigestPool.getInstance().release(HashAlgorithm.SHA_256, messageDigest);
+		return hash;
+	}
+
+	private static void updateHeader(final MessageDigest messageDigest,
+		final byte[] previousBlockHash, final byte[] merkleRoot, final long tries,
+		final long timestamp, final byte[] longBuffer)
+	{
+		if (previousBlockHash != null)
+		{
+			messageDigest.update(previousBlockHash);
+		}
+		if (merkleRoot != null)
+		{
+			messageDigest.update(merkleRoot);
+		}
+		for (int i = 0; i < Long.BYTES; i++)
+		{
+			longBuffer[i] = (byte)(tries >>> (Long.SIZE - Byte.SIZE * (i + 1)));
+			longBuffer[Long.BYTES + i] = (byte)(timestamp >>> (Long.SIZE - Byte.SIZE * (i + 1)));
+		}
+		messageDigest.update(longBuffer, 0, longBuffer.length);
+	}
+
+	/**
+	 * Checks if the given hash has at least the given number of leading zero bits
+	 *
+	 * @param hash
+	 *            the hash
+	 * @param bits
+	 *            the number of leading zero bits
+	 * @return true if the given hash has at least the given number of leading zero bits
+	 */
+	static boolean hasLeadingZeroBits(final byte[] hash, final int bits)
+	{
+		final int fullBytes = bits >>> 3;
+		for (int i = 0; i < fullBytes; i++)
+		{
+			if (hash[i] != 0)
+			{
+				return false;
+			}
+		}
+		final int remainingBits = bits & 7;
+		return remainingBits == 0 || (hash[fullBytes] & 0xFF) >>> (Byte.SIZE - remainingBits) == 0;
+	}
+
+	/**
+	 * The worker that tries every n-th nonce
+	 */
+	private final class Worker implements Runnable
+	{
+
+		private final byte[] previousBlockHash;
+
+		private final byte[] merkleRoot;
+
+		private final long timestamp;
+
+		private final long firstNonce;
+
+		private final AtomicBoolean stopped;
+
+		private final AtomicLong solution;
+
+		private final LongAdder hashCount;
+
+		Worker(byte[] previousBlockHash, byte[] merkleRoot, long timestamp, long firstNonce,
+			AtomicBoolean stopped, AtomicLong solution, LongAdder hashCount)
+		{
+			this.previousBlockHash = previousBlockHash;
+			this.merkleRoot = merkleRoot;
+			this.timestamp = timestamp;
+			this.firstNonce = firstNonce;
+			this.stopped = stopped;
+			this.solution = solution;
+			this.hashCount = hashCount;
+		}
+
+		@Override
+		public void run()
+		{
+			final MessageDigest messageDigest = newMessageDigest();
+			final byte[] hash = new byte[messageDigest.getDigestLength()];
+			final byte[] longBuffer = new byte[2 * Long.BYTES];
+			long hashes = 0;
+			try
+			{
+				for (long nonce = firstNonce; 0 <= nonce && !stopped.get(); nonce += threadCount)
+				{
+					updateHeader(messageDigest, previousBlockHash, merkleRoot, nonce, timestamp,
+						longBuffer);
+					messageDigest.digest(hash, 0, hash.length);
+					hashes++;
+					if (hasLeadingZeroBits(hash, difficultyBits))
+					{
+						if (solution.compareAndSet(-1, nonce))
+						{
+							stopped.set(true);
+						}
+						return;
+					}
+				}
+			}
+			catch (DigestException e)
+			{
+				throw new IllegalStateException(e);
+			}
+			finally
+			{
+				hashCount.add(hashes);
+				DigestPool.getInstance().release(HashAlgorithm.SHA_256, messageDigest);
+			}
+		}
+	}
+}
@@ -0,0 +1,147 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.blockchain;
+
+/**
+ * The class {@link BloomFilter} is a bit set that answers if a key was possibly added or
+ * definitely not added. A key is given as two independent 64 bit hash values, the bit positions
+ * are derived from them with double hashing. The number of bits is a power of two and computed
+ * from the expected number of keys and the false positive rate.
+ */
+final class BloomFilter
+{
+
+	/** The smallest number of bits */
+	private static final long MIN_BIT_COUNT = Long.SIZE;
+
+	/** The largest number of bits */
+	private static final long MAX_BIT_COUNT = 1L << 36;
+
+	/** The bits of the filter */
+	private final long[] words;
+
+	/** The mask of a bit position, the number of bits minus one */
+	private final long mask;
+
+	/** The number of bits that are set for every key */
+	private final int hashCount;
+
+	/**
+	 * Instantiates a new {@link BloomFilter}
+	 *
+	 * @param expectedKeys
+	 *            the expected number of keys
+	 * @param falsePositiveRate
+	 *            the false positive rate at the expected number of keys
+	 */
+	BloomFilter(final long expectedKeys, final double falsePositiveRate)
+	{
+		if (expectedKeys < 1)
+		{
+			throw new IllegalArgumentException("Expected keys must be positive: " + expectedKeys);
+		}
+		if (!(0 < falsePositiveRate && falsePositiveRate < 1))
+		{
+			throw new IllegalArgumentException(
+				"False positive rate must be between 0 and 1: " + falsePositiveRate);
+		}
+		final double optimalBits = -expectedKeys * Math.log(falsePositiveRate)
+			/ (Math.log(2) * Math.log(2));
+		long bitCount = MIN_BIT_COUNT;
+		while (bitCount < optimalBits && bitCount < MAX_BIT_COUNT)
+		{
+			bitCount <<= 1;
+		}
+		this.words = new long[(int)(bitCount / Long.SIZE)];
+		this.mask = bitCount - 1;
+		this.hashCount = (int)Math.max(1,
+			Math.min(16, Math.round((double)bitCount / expectedKeys * Math.log(2))));
+	}
+
+	/**
+	 * Adds the key with the given hash values
+	 *
+	 * @param hash1
+	 *            the first hash value of the key
+	 * @param hash2
+	 *            the second hash value of the key
+	 */
+	void put(final long hash1, final long hash2)
+	{
+		final long step = hash2 | 1;
+		long position = hash1;
+		for (int i = 0; i < hashCount; i++)
+		{
+			final long bit = position & mask;
+			words[(int)(bit >>> 6)] |= 1L << bit;
+			position += step;
+		}
+	}
+
+	/**
+	 * Checks if the key with the given hash values was possibly added
+	 *
+	 * @param hash1
+	 *            the first hash value of the key
+	 * @param hash2
+	 *            the second hash value of the key
+	 * @return false if the key was definitely not added, true if it was possibly added
+	 */
+	boolean mightContain(final long hash1, final long hash2)
+	{
+		final long step = hash2 | 1;
+		long position = hash1;
+		for (int i = 0; i < hashCount; i++)
+		{
+			final long bit = position & mask;
+			if ((words[(int)(bit >>> 6)] & 1L << bit) == 0)
+			{
+				return false;
+			}
+			position += step;
+		}
+		return true;
+	}
+
+	/**
+	 * Gets the number of bits of the filter
+	 *
+	 * @return the number of bits
+	 */
+	long getBitCount()
+	{
+		return mask + 1;
+	}
+
+	/**
+	 * Gets the number of bits that are set for every key
+	 *
+	 * @return the number of bits per key
+	 */
+	int getHashCount()
+	{
+		return hashCount;
+	}
+}
@@ -0,0 +1,122 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.blockchain;
+
+/**
+ * The class {@link ChainValidationResult} holds the outcome of a {@link ChainValidator}: either the
+ * chain is valid or the height of the first invalid block and the reason why it is invalid
+ */
+public final class ChainValidationResult
+{
+
+	/**
+	 * The reasons why a block is invalid
+	 */
+	public enum Reason
+	{
+		/** The hash of a transaction does not match its content */
+		TRANSACTION_HASH,
+		/** The merkle root does not match the transactions */
+		MERKLE_ROOT,
+		/** The hash of the block does not match its header */
+		BLOCK_HASH,
+		/** The previous block hash does not match the hash of the preceding block */
+		PREVIOUS_BLOCK_HASH
+	}
+
+	/** The number of blocks of the validated chain */
+	private final int blockCount;
+
+	/** The height of the first invalid block or -1 if the chain is valid */
+	private final int invalidHeight;
+
+	/** The reason why the first invalid block is invalid or null if the chain is valid */
+	private final Reason reason;
+
+	/**
+	 * Instantiates a new {@link ChainValidationResult}
+	 *
+	 * @param blockCount
+	 *            the number of blocks of the validated chain
+	 * @param invalidHeight
+	 *            the height of the first invalid block or -1 if the chain is valid
+	 * @param reason
+	 *            the reason why the first invalid block is invalid or null if the chain is valid
+	 */
+	ChainValidationResult(final int blockCount, final int invalidHeight, final Reason reason)
+	{
+		this.blockCount = blockCount;
+		this.invalidHeight = invalidHeight;
+		this.reason = reason;
+	}
+
+	/**
+	 * Checks if the chain is valid
+	 *
+	 * @return true if the chain is valid
+	 */
+	public boolean isValid()
+	{
+		return invalidHeight < 0;
+	}
+
+	/**
+	 * Gets the number of blocks of the validated chain
+	 *
+	 * @return the number of blocks
+	 */
+	public int getBlockCount()
+	{
+		return blockCount;
+	}
+
+	/**
+	 * Gets the height of the first invalid block
+	 *
+	 * @return the height of the first invalid block or -1 if the chain is valid
+	 */
+	public int getInvalidHeight()
+	{
+		return invalidHeight;
+	}
+
+	/**
+	 * Gets the reason why the first invalid block is invalid
+	 *
+	 * @return the reason or null if the chain is valid
+	 */
+	public Reason getReason()
+	{
+		return reason;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public String toString()
+	{
+		return "ChainValidationResult(blockCount=" + blockCount + ", invalidHeight="
+			+ invalidHeight + ", reason=" + reason + ")";
+	}
+}
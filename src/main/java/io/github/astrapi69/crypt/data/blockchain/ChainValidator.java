@@ -0,0 +1,222 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.blockchain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.github.astrapi69.crypt.api.blockchain.IBlock;
+import io.github.astrapi69.crypt.api.blockchain.ITransaction;
+
+/**
+ * The class {@link ChainValidator} validates a chain of blocks. The content of every block, that
+ * is the hash of every transaction, the merkle root and the block hash, is recomputed in parallel
+ * on a {@link ForkJoinPool}. The links between the blocks are checked before in a sequential pass
+ * that only compares hashes.
+ * <br>
+ * <br>
+ * The validation stops early: the blocks behind the first invalid block that is known so far are
+ * skipped, while the blocks in front of it are still validated, so the result always reports the
+ * first invalid height of the chain.
+ */
+public final class ChainValidator
+{
+
+	/** The default number of blocks that are validated sequentially in one task */
+	public static final int DEFAULT_THRESHOLD = 64;
+
+	/** The pool that validates the blocks */
+	private final ForkJoinPool pool;
+
+	/** The number of blocks that are validated sequentially in one task */
+	private final int threshold;
+
+	/**
+	 * Instantiates a new {@link ChainValidator} that validates on the common pool
+	 */
+	public ChainValidator()
+	{
+		this(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+	}
+
+	/**
+	 * Instantiates a new {@link ChainValidator}
+	 *
+	 * @param pool
+	 *            the pool that validates the blocks
+	 * @param threshold
+	 *            the number of blocks that are validated sequentially in one task
+	 */
+	public ChainValidator(final ForkJoinPool pool, final int threshold)
+	{
+		if (threshold < 1)
+		{
+			throw new IllegalArgumentException("Threshold must be positive: " + threshold);
+		}
+		this.pool = Objects.requireNonNull(pool);
+		this.threshold = threshold;
+	}
+
+	/**
+	 * Validates the given chain of blocks. The first block is the block with the height zero, its
+	 * previous block hash is not checked
+	 *
+	 * @param chain
+	 *            the chain of blocks
+	 * @return the result of the validation
+	 */
+	public ChainValidationResult validate(final List<? extends IBlock> chain)
+	{
+		Objects.requireNonNull(chain);
+		final List<? extends IBlock> blocks = chain instanceof RandomAccess
+			? chain
+			: new ArrayList<>(chain);
+		final int brokenLink = findBrokenLink(blocks);
+		final AtomicInteger firstInvalid = new AtomicInteger(brokenLink);
+		if (0 < brokenLink)
+		{
+			pool.invoke(new ValidationTask(blocks, 0, brokenLink, firstInvalid));
+		}
+		final int invalidHeight = firstInvalid.get();
+		if (invalidHeight == blocks.size())
+		{
+			return new ChainValidationResult(blocks.size(), -1, null);
+		}
+		final ChainValidationResult.Reason reason = validateBlock(blocks.get(invalidHeight));
+		return new ChainValidationResult(blocks.size(), invalidHeight,
+			reason == null ? ChainValidationResult.Reason.PREVIOUS_BLOCK_HASH : reason);
+	}
+
+	/**
+	 * Finds the first block whose previous block hash does not match the hash of the preceding
+	 * block
+	 *
+	 * @param chain
+	 *            the chain of blocks
+	 * @return the height of the first block with a broken link or the size of the chain if all
+	 *         links are intact
+	 */
+	static int findBrokenLink(final List<? extends IBlock> chain)
+	{
+		for (int height = 1; height < chain.size(); height++)
+		{
+			if (!Arrays.equals(chain.get(height).getPreviousBlockHash(),
+				chain.get(height - 1).getHash()))
+			{
+				return height;
+			}
+		}
+		return chain.size();
+	}
+
+	/**
+	 * Validates the content of the given block by recomputing the hashes of its transactions, its
+	 * merkle root and its hash
+	 *
+	 * @param block
+	 *            the block
+	 * @return the reason why the block is invalid or null if the block is valid
+	 */
+	static ChainValidationResult.Reason validateBlock(final IBlock block)
+	{
+		final List<ITransaction> transactions = block.getTransactions() == null
+			? List.of()
+			: block.getTransactions();
+		for (ITransaction transaction : transactions)
+		{
+			if (transaction.getText() == null || !Arrays.equals(transaction.getHash(),
+				Transaction.calculateHash(transaction.getText(), transaction.getSenderHash(),
+					transaction.getSignature(), transaction.getTimestamp())))
+			{
+				return ChainValidationResult.Reason.TRANSACTION_HASH;
+			}
+		}
+		if (!Arrays.equals(block.getMerkleRoot(), Block.getMerkleRoot(transactions)))
+		{
+			return ChainValidationResult.Reason.MERKLE_ROOT;
+		}
+		if (!Arrays.equals(block.getHash(), Block.calculateHash(block.getPreviousBlockHash(),
+			block.getMerkleRoot(), block.getTries(), block.getTimestamp())))
+		{
+			return ChainValidationResult.Reason.BLOCK_HASH;
+		}
+		return null;
+	}
+
+	/**
+	 * The task that validates the content of a range of blocks
+	 */
+	private final class ValidationTask extends RecursiveAction
+	{
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<? extends IBlock> chain;
+
+		private final int from;
+
+		private final int to;
+
+		private final AtomicInteger firstInvalid;
+
+		ValidationTask(List<? extends IBlock> chain, int from, int to, AtomicInteger firstInvalid)
+		{
+			this.chain = chain;
+			this.from = from;
+			this.to = to;
+			this.firstInvalid = firstInvalid;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if (firstInvalid.get() <= from)
+			{
+				return;
+			}
+			if (to - from <= threshold)
+			{
+				for (int height = from; height < to && height < firstInvalid.get(); height++)
+				{
+					if (validateBlock(chain.get(height)) != null)
+					{
+						firstInvalid.accumulateAndGet(height, Math::min);
+						return;
+					}
+				}
+				return;
+			}
+			final int middle = (from + to) >>> 1;
+			invokeAll(new ValidationTask(chain, from, middle, firstInvalid),
+				new ValidationTask(chain, middle, to, firstInvalid));
+		}
+	}
+}
@@ -0,0 +1,206 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.blockchain;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The class {@link CodecExtensions} provides the field encodings that are shared by
+ * {@link BlockCodec}, {@link TransactionCodec} and {@link AddressCodec}. Byte arrays and strings
+ * are prefixed with their length as <code>int</code>, where -1 stands for <code>null</code>, and
+ * strings are encoded in UTF-8. The read methods take an absolute index and do not change the
+ * position of the buffer, so the fields can be read lazily in any order.
+ */
+final class CodecExtensions
+{
+
+	private CodecExtensions()
+	{
+	}
+
+	/**
+	 * Gets the number of bytes of the encoded given byte array
+	 *
+	 * @param bytes
+	 *            the byte array
+	 * @return the number of bytes of the encoding
+	 */
+	static int sizeOf(final byte[] bytes)
+	{
+		return Integer.BYTES + (bytes == null ? 0 : bytes.length);
+	}
+
+	/**
+	 * Gets the number of bytes of the encoded given string without encoding it
+	 *
+	 * @param string
+	 *            the string
+	 * @return the number of bytes of the encoding
+	 */
+	static int sizeOf(final String string)
+	{
+		if (string == null)
+		{
+			return Integer.BYTES;
+		}
+		int length = string.length();
+		for (int i = 0; i < string.length(); i++)
+		{
+			final char c = string.charAt(i);
+			if (0x800 <= c)
+			{
+				if (Character.isHighSurrogate(c) && i + 1 < string.length()
+					&& Character.isLowSurrogate(string.charAt(i + 1)))
+				{
+					length += 2;
+					i++;
+				}
+				else if (!Character.isSurrogate(c))
+				{
+					length += 2;
+				}
+			}
+			else if (0x80 <= c)
+			{
+				length++;
+			}
+		}
+		return Integer.BYTES + length;
+	}
+
+	/**
+	 * Writes the given byte array with its length to the given buffer
+	 *
+	 * @param buffer
+	 *            the buffer
+	 * @param bytes
+	 *            the byte array
+	 */
+	static void putBytes(final ByteBuffer buffer, final byte[] bytes)
+	{
+		if (bytes == null)
+		{
+			buffer.putInt(-1);
+			return;
+		}
+		buffer.putInt(bytes.length);
+		buffer.put(bytes);
+	}
+
+	/**
+	 * Writes the given string with its length to the given buffer
+	 *
+	 * @param buffer
+	 *            the buffer
+	 * @param string
+	 *            the string
+	 */
+	static void putString(final ByteBuffer buffer, final String string)
+	{
+		putBytes(buffer, string == null ? null : string.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Reads the byte array at the given index of the given buffer
+	 *
+	 * @param buffer
+	 *            the buffer
+	 * @param index
+	 *            the index of the length of the byte array
+	 * @return the byte array
+	 */
+	static byte[] getBytes(final ByteBuffer buffer, final int index)
+	{
+		final int length = buffer.getInt(index);
+		if (length < 0)
+		{
+			return null;
+		}
+		final byte[] bytes = new byte[length];
+		buffer.get(index + Integer.BYTES, bytes);
+		return bytes;
+	}
+
+	/**
+	 * Reads the string at the given index of the given buffer
+	 *
+	 * @param buffer
+	 *            the buffer
+	 * @param index
+	 *            the index of the length of the string
+	 * @return the string
+	 */
+	static String getString(final ByteBuffer buffer, final int index)
+	{
+		final byte[] bytes = getBytes(buffer, index);
+		return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Gets the index behind the byte array or string at the given index of the given buffer
+	 *
+	 * @param buffer
+	 *            the buffer
+	 * @param index
+	 *            the index of the length of the byte array or string
+	 * @return the index behind the field
+	 * @throws BufferUnderflowException
+	 *             if the field exceeds the limit of the buffer
+	 */
+	static int skip(final ByteBuffer buffer, final int index)
+	{
+		final int length = Math.max(0, buffer.getInt(index));
+		if (buffer.limit() - index - Integer.BYTES < length)
+		{
+			throw new BufferUnderflowException();
+		}
+		return index + Integer.BYTES + length;
+	}
+
+	/**
+	 * Checks the version byte at the given index of the given buffer
+	 *
+	 * @param buffer
+	 *            the buffer
+	 * @param index
+	 *            the index of the version
+	 * @param version
+	 *            the supported version
+	 * @param type
+	 *            the name of the encoded type for the error message
+	 */
+	static void checkVersion(final ByteBuffer buffer, final int index, final byte version,
+		final String type)
+	{
+		final byte actual = buffer.get(index);
+		if (actual != version)
+		{
+			throw new IllegalArgumentException(
+				"Unsupported " + type + " encoding version " + actual);
+		}
+	}
+}
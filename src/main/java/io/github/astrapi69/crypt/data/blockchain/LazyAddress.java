@@ -0,0 +1,148 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.blockchain;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The class {@link LazyAddress} is an {@link Address} that is decoded by the {@link AddressCodec}.
+ * Every field is read from the encoded address when it is accessed for the first time, a field
+ * that is set is not read anymore
+ */
+final class LazyAddress extends Address
+{
+
+	/** The Constant serialVersionUID */
+	private static final long serialVersionUID = 1L;
+
+	private static final int HASH = 1;
+
+	private static final int NAME = 1 << 1;
+
+	private static final int PUBLIC_KEY = 1 << 2;
+
+	/** The encoded address */
+	private final transient ByteBuffer encoded;
+
+	/** The bits of the fields that are already read or set */
+	private final AtomicInteger loaded = new AtomicInteger();
+
+	/**
+	 * Instantiates a new {@link LazyAddress} from the given encoded address
+	 *
+	 * @param encoded
+	 *            the encoded address
+	 */
+	LazyAddress(final ByteBuffer encoded)
+	{
+		this.encoded = encoded;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public byte[] getHash()
+	{
+		if (!isLoaded(HASH))
+		{
+			super.setHash(CodecExtensions.getBytes(encoded, AddressCodec.HASH_INDEX));
+			setLoaded(HASH);
+		}
+		return super.getHash();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void setHash(byte[] hash)
+	{
+		super.setHash(hash);
+		setLoaded(HASH);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public String getName()
+	{
+		if (!isLoaded(NAME))
+		{
+			super.setName(CodecExtensions.getString(encoded, getNameIndex()));
+			setLoaded(NAME);
+		}
+		return super.getName();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void setName(String name)
+	{
+		super.setName(name);
+		setLoaded(NAME);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public byte[] getPublicKey()
+	{
+		if (!isLoaded(PUBLIC_KEY))
+		{
+			super.setPublicKey(
+				CodecExtensions.getBytes(encoded, CodecExtensions.skip(encoded, getNameIndex())));
+			setLoaded(PUBLIC_KEY);
+		}
+		return super.getPublicKey();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void setPublicKey(byte[] publicKey)
+	{
+		super.setPublicKey(publicKey);
+		setLoaded(PUBLIC_KEY);
+	}
+
+	private boolean isLoaded(final int field)
+	{
+		return (loaded.get() & field) != 0;
+	}
+
+	private void setLoaded(final int field)
+	{
+		loaded.accumulateAndGet(field, (bits, bit) -> bits | bit);
+	}
+
+	private int getNameIndex()
+	{
+		return CodecExtensions.skip(encoded, AddressCodec.HASH_INDEX);
+	}
+
+	private Object writeReplace()
+	{
+		final Address address = new Address();
+		address.setHash(getHash());
+		address.setName(getName());
+		address.setPublicKey(getPublicKey());
+		return address;
+	}
+}
@@ -0,0 +1,259 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.blockchain;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.github.astrapi69.crypt.api.blockchain.ITransaction;
+
+/**
+ * The class {@link LazyBlock} is a {@link Block} that is decoded by the {@link BlockCodec}. Every
+ * field is read from the encoded block when it is accessed for the first time, a field that is set
+ * is not read anymore. The transactions are decoded as {@link LazyTransaction} objects
+ */
+final class LazyBlock extends Block
+{
+
+	/** The Constant serialVersionUID */
+	private static final long serialVersionUID = 1L;
+
+	private static final int HASH = 1;
+
+	private static final int PREVIOUS_BLOCK_HASH = 1 << 1;
+
+	private static final int MERKLE_ROOT = 1 << 2;
+
+	private static final int DATA = 1 << 3;
+
+	private static final int TIMESTAMP = 1 << 4;
+
+	private static final int TRIES = 1 << 5;
+
+	private static final int TRANSACTIONS = 1 << 6;
+
+	/** The encoded block */
+	private final transient ByteBuffer encoded;
+
+	/** The bits of the fields that are already read or set */
+	private final AtomicInteger loaded = new AtomicInteger();
+
+	/**
+	 * Instantiates a new {@link LazyBlock} from the given encoded block
+	 *
+	 * @param encoded
+	 *            the encoded block
+	 */
+	LazyBlock(final ByteBuffer encoded)
+	{
+		this.encoded = encoded;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public byte[] getHash()
+	{
+		if (!isLoaded(HASH))
+		{
+			super.setHash(CodecExtensions.getBytes(encoded, BlockCodec.HASH_INDEX));
+			setLoaded(HASH);
+		}
+		return super.getHash();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void setHash(byte[] hash)
+	{
+		super.setHash(hash);
+		setLoaded(HASH);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public byte[] getPreviousBlockHash()
+	{
+		if (!isLoaded(PREVIOUS_BLOCK_HASH))
+		{
+			super.setPreviousBlockHash(
+				CodecExtensions.getBytes(encoded, getPreviousBlockHashIndex()));
+			setLoaded(PREVIOUS_BLOCK_HASH);
+		}
+		return super.getPreviousBlockHash();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void setPreviousBlockHash(byte[] previousBlockHash)
+	{
+		super.setPreviousBlockHash(previousBlockHash);
+		setLoaded(PREVIOUS_BLOCK_HASH);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public byte[] getMerkleRoot()
+	{
+		if (!isLoaded(MERKLE_ROOT))
+		{
+			super.setMerkleRoot(CodecExtensions.getBytes(encoded, getMerkleRootIndex()));
+			setLoaded(MERKLE_ROOT);
+		}
+		return super.getMerkleRoot();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void setMerkleRoot(byte[] merkleRoot)
+	{
+		super.setMerkleRoot(merkleRoot);
+		setLoaded(MERKLE_ROOT);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public String getData()
+	{
+		if (!isLoaded(DATA))
+		{
+			super.setData(CodecExtensions.getString(encoded,
+				CodecExtensions.skip(encoded, getMerkleRootIndex())));
+			setLoaded(DATA);
+		}
+		return super.getData();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void setData(String data)
+	{
+		super.setData(data);
+		setLoaded(DATA);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public long getTimestamp()
+	{
+		if (!isLoaded(TIMESTAMP))
+		{
+			super.setTimestamp(encoded.getLong(BlockCodec.TIMESTAMP_INDEX));
+			setLoaded(TIMESTAMP);
+		}
+		return super.getTimestamp();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void setTimestamp(long timestamp)
+	{
+		super.setTimestamp(timestamp);
+		setLoaded(TIMESTAMP);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public long getTries()
+	{
+		if (!isLoaded(TRIES))
+		{
+			super.setTries(encoded.getLong(BlockCodec.TRIES_INDEX));
+			setLoaded(TRIES);
+		}
+		return super.getTries();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void setTries(long tries)
+	{
+		super.setTries(tries);
+		setLoaded(TRIES);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public List<ITransaction> getTransactions()
+	{
+		if (!isLoaded(TRANSACTIONS))
+		{
+			final int countIndex = BlockCodec.getTransactionCountIndex(encoded, 0);
+			final int transactionCount = encoded.getInt(countIndex);
+			final ByteBuffer buffer = encoded.duplicate()
+				.position(countIndex + 2 * Integer.BYTES);
+			final List<ITransaction> transactions = new ArrayList<>(transactionCount);
+			for (int i = 0; i < transactionCount; i++)
+			{
+				transactions.add(TransactionCodec.decode(buffer));
+			}
+			super.setTransactions(transactions);
+			setLoaded(TRANSACTIONS);
+		}
+		return super.getTransactions();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void setTransactions(List<ITransaction> transactions)
+	{
+		super.setTransactions(transactions);
+		setLoaded(TRANSACTIONS);
+	}
+
+	private boolean isLoaded(final int field)
+	{
+		return (loaded.get() & field) != 0;
+	}
+
+	private void setLoaded(final int field)
+	{
+		loaded.accumulateAndGet(field, (bits, bit) -> bits | bit);
+	}
+
+	private int getPreviousBlockHashIndex()
+	{
+		return CodecExtensions.skip(encoded, BlockCodec.HASH_INDEX);
+	}
+
+	private int getMerkleRootIndex()
+	{
+		return CodecExtensions.skip(encoded, getPreviousBlockHashIndex());
+	}
+
+	private Object writeReplace()
+	{
+		final Block block = new Block();
+		block.setHash(getHash());
+		block.setPreviousBlockHash(getPreviousBlockHash());
+		block.setMerkleRoot(getMerkleRoot());
+		block.setData(getData());
+		block.setTimestamp(getTimestamp());
+		block.setTries(getTries());
+		block.setTransactions(new ArrayList<>(getTransactions()));
+		return block;
+	}
+}
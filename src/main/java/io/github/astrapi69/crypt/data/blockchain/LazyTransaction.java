@@ -0,0 +1,199 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.blockchain;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The class {@link LazyTransaction} is a {@link Transaction} that is decoded by the
+ * {@link TransactionCodec}. Every field is read from the encoded transaction when it is accessed
+ * for the first time, a field that is set is not read anymore
+ */
+final class LazyTransaction extends Transaction
+{
+
+	/** The Constant serialVersionUID */
+	private static final long serialVersionUID = 1L;
+
+	private static final int HASH = 1;
+
+	private static final int SENDER_HASH = 1 << 1;
+
+	private static final int SIGNATURE = 1 << 2;
+
+	private static final int TEXT = 1 << 3;
+
+	private static final int TIMESTAMP = 1 << 4;
+
+	/** The encoded transaction */
+	private final transient ByteBuffer encoded;
+
+	/** The bits of the fields that are already read or set */
+	private final AtomicInteger loaded = new AtomicInteger();
+
+	/**
+	 * Instantiates a new {@link LazyTransaction} from the given encoded transaction
+	 *
+	 * @param encoded
+	 *            the encoded transaction
+	 */
+	LazyTransaction(final ByteBuffer encoded)
+	{
+		this.encoded = encoded;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public byte[] getHash()
+	{
+		if (!isLoaded(HASH))
+		{
+			super.setHash(CodecExtensions.getBytes(encoded, TransactionCodec.HASH_INDEX));
+			setLoaded(HASH);
+		}
+		return super.getHash();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void setHash(byte[] hash)
+	{
+		super.setHash(hash);
+		setLoaded(HASH);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public byte[] getSenderHash()
+	{
+		if (!isLoaded(SENDER_HASH))
+		{
+			super.setSenderHash(CodecExtensions.getBytes(encoded, getSenderHashIndex()));
+			setLoaded(SENDER_HASH);
+		}
+		return super.getSenderHash();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void setSenderHash(byte[] senderHash)
+	{
+		super.setSenderHash(senderHash);
+		setLoaded(SENDER_HASH);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public byte[] getSignature()
+	{
+		if (!isLoaded(SIGNATURE))
+		{
+			super.setSignature(CodecExtensions.getBytes(encoded, getSignatureIndex()));
+			setLoaded(SIGNATURE);
+		}
+		return super.getSignature();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void setSignature(byte[] signature)
+	{
+		super.setSignature(signature);
+		setLoaded(SIGNATURE);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public String getText()
+	{
+		if (!isLoaded(TEXT))
+		{
+			super.setText(CodecExtensions.getString(encoded,
+				CodecExtensions.skip(encoded, getSignatureIndex())));
+			setLoaded(TEXT);
+		}
+		return super.getText();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void setText(String text)
+	{
+		super.setText(text);
+		setLoaded(TEXT);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public long getTimestamp()
+	{
+		if (!isLoaded(TIMESTAMP))
+		{
+			super.setTimestamp(encoded.getLong(TransactionCodec.TIMESTAMP_INDEX));
+			setLoaded(TIMESTAMP);
+		}
+		return super.getTimestamp();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void setTimestamp(long timestamp)
+	{
+		super.setTimestamp(timestamp);
+		setLoaded(TIMESTAMP);
+	}
+
+	private boolean isLoaded(final int field)
+	{
+		return (loaded.get() & field) != 0;
+	}
+
+	private void setLoaded(final int field)
+	{
+		loaded.accumulateAndGet(field, (bits, bit) -> bits | bit);
+	}
+
+	private int getSenderHashIndex()
+	{
+		return CodecExtensions.skip(encoded, TransactionCodec.HASH_INDEX);
+	}
+
+	private int getSignatureIndex()
+	{
+		return CodecExtensions.skip(encoded, getSenderHashIndex());
+	}
+
+	private Object writeReplace()
+	{
+		final Transaction transaction = new Transaction();
+		transaction.setHash(getHash());
+		transaction.setSenderHash(getSenderHash());
+		transaction.setSignature(getSignature());
+		transaction.setText(getText());
+		transaction.setTimestamp(getTimestamp());
+		return transaction;
+	}
+}
@@ -0,0 +1,275 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.blockchain;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.LongPredicate;
+
+/**
+ * The class {@link LedgerHashIndex} is the on-disk index from block hashes to block heights of a
+ * {@link LedgerStore}. It is an open addressing hash table with linear probing in a memory-mapped
+ * file. Every slot holds the first eight bytes of a block hash and the height of the block plus
+ * one, so an empty slot is all zeros. Because only a prefix of the hash is stored the caller has
+ * to compare the full hash of the found record. The table is doubled when it is half full.
+ *
+ * <pre>
+ * long slot count
+ * long entry count
+ * slots of long hash prefix and long height + 1
+ * </pre>
+ */
+final class LedgerHashIndex implements AutoCloseable
+{
+
+	/** The number of bytes of the header of the index file */
+	private static final int HEADER_SIZE = 2 * Long.BYTES;
+
+	/** The number of bytes of one slot */
+	private static final int SLOT_SIZE = 2 * Long.BYTES;
+
+	/** The initial number of slots */
+	private static final int INITIAL_SLOT_COUNT = 1 << 16;
+
+	/** The largest number of slots that fits in one mapped buffer */
+	private static final long MAX_SLOT_COUNT = (Integer.MAX_VALUE - HEADER_SIZE) / SLOT_SIZE;
+
+	/** The file channel of the index file */
+	private final FileChannel channel;
+
+	/** The mapped index file */
+	private MappedByteBuffer buffer;
+
+	/** The number of slots, always a power of two */
+	private long slotCount;
+
+	/** The number of stored entries */
+	private long size;
+
+	/**
+	 * Opens the index file with the given path or creates it if it does not exist
+	 *
+	 * @param path
+	 *            the path of the index file
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	LedgerHashIndex(final Path path) throws IOException
+	{
+		this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+			StandardOpenOption.WRITE);
+		long storedSlotCount = channel.size() < HEADER_SIZE ? 0 : map(0).getLong(0);
+		if (storedSlotCount <= 0 || Long.bitCount(storedSlotCount) != 1
+			|| channel.size() < getFileSize(storedSlotCount))
+		{
+			reset(INITIAL_SLOT_COUNT);
+		}
+		else
+		{
+			this.slotCount = storedSlotCount;
+			this.buffer = map(getFileSize(slotCount));
+			this.size = buffer.getLong(Long.BYTES);
+		}
+	}
+
+	/**
+	 * Gets the number of stored entries
+	 *
+	 * @return the number of stored entries
+	 */
+	long size()
+	{
+		return size;
+	}
+
+	/**
+	 * Stores the given height for the given block hash
+	 *
+	 * @param hash
+	 *            the block hash
+	 * @param height
+	 *            the block height
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	void put(final byte[] hash, final long height) throws IOException
+	{
+		if (slotCount <= 2 * (size + 1))
+		{
+			grow();
+		}
+		insert(getPrefix(hash), height);
+		size++;
+		buffer.putLong(Long.BYTES, size);
+	}
+
+	/**
+	 * Gets the heights of all blocks whose hash starts with the same eight bytes as the given hash
+	 * and passes them to the given matcher until the matcher accepts one of them
+	 *
+	 * @param hash
+	 *            the block hash
+	 * @param matcher
+	 *            the matcher that checks the full hash of the block with the given height
+	 * @return the accepted height or -1 if no height is accepted
+	 */
+	long find(final byte[] hash, final LongPredicate matcher)
+	{
+		final MappedByteBuffer current = buffer;
+		final long mask = current.getLong(0) - 1;
+		final long prefix = getPrefix(hash);
+		long slot = mix(prefix) & mask;
+		while (true)
+		{
+			final int offset = getOffset(slot);
+			final long value = current.getLong(offset + Long.BYTES);
+			if (value == 0)
+			{
+				return -1;
+			}
+			if (current.getLong(offset) == prefix && matcher.test(value - 1))
+			{
+				return value - 1;
+			}
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	/**
+	 * Removes all entries
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	void clear() throws IOException
+	{
+		reset(INITIAL_SLOT_COUNT);
+	}
+
+	/**
+	 * Forces all changes of the index file to the storage device
+	 */
+	void force()
+	{
+		buffer.force();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		channel.close();
+	}
+
+	private void grow() throws IOException
+	{
+		if (MAX_SLOT_COUNT < 2 * slotCount)
+		{
+			throw new IllegalStateException("The hash index is full");
+		}
+		final MappedByteBuffer old = buffer;
+		final long oldSlotCount = slotCount;
+		final long[] entries = new long[(int)(2 * size)];
+		int count = 0;
+		for (long slot = 0; slot < oldSlotCount; slot++)
+		{
+			final int offset = getOffset(slot);
+			final long value = old.getLong(offset + Long.BYTES);
+			if (value != 0)
+			{
+				entries[count++] = old.getLong(offset);
+				entries[count++] = value - 1;
+			}
+		}
+		reset(2 * oldSlotCount);
+		for (int i = 0; i < count; i += 2)
+		{
+			insert(entries[i], entries[i + 1]);
+		}
+		size = count / 2;
+		buffer.putLong(Long.BYTES, size);
+	}
+
+	private void reset(final long newSlotCount) throws IOException
+	{
+		channel.truncate(0);
+		this.slotCount = newSlotCount;
+		this.buffer = map(getFileSize(newSlotCount));
+		buffer.putLong(0, newSlotCount);
+		buffer.putLong(Long.BYTES, 0);
+		this.size = 0;
+	}
+
+	private void insert(final long prefix, final long height)
+	{
+		final long mask = slotCount - 1;
+		long slot = mix(prefix) & mask;
+		while (buffer.getLong(getOffset(slot) + Long.BYTES) != 0)
+		{
+			slot = (slot + 1) & mask;
+		}
+		final int offset = getOffset(slot);
+		buffer.putLong(offset, prefix);
+		buffer.putLong(offset + Long.BYTES, height + 1);
+	}
+
+	private MappedByteBuffer map(final long length) throws IOException
+	{
+		return channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(length, HEADER_SIZE));
+	}
+
+	private static long getFileSize(final long slotCount)
+	{
+		return HEADER_SIZE + slotCount * SLOT_SIZE;
+	}
+
+	private static int getOffset(final long slot)
+	{
+		return (int)(HEADER_SIZE + slot * SLOT_SIZE);
+	}
+
+	private static long getPrefix(final byte[] hash)
+	{
+		long prefix = 0;
+		for (int i = 0; i < Long.BYTES; i++)
+		{
+			prefix = (prefix << 8) | (i < hash.length ? hash[i] & 0xFF : 0);
+		}
+		return prefix;
+	}
+
+	private static long mix(long value)
+	{
+		value ^= value >>> 33;
+		value *= 0xff51afd7ed558ccdL;
+		value ^= value >>> 33;
+		return value;
+	}
+}
@@ -0,0 +1,90 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.blockchain;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32C;
+
+/**
+ * The class {@link LedgerRecords} provides the framing of the block records of a
+ * {@link LedgerStore}. A record consists of the length of its body, the CRC32C checksum of its
+ * body and the body, which is the block in the encoding of the {@link BlockCodec}:
+ *
+ * <pre>
+ * int    body length
+ * int    CRC32C of the body
+ * bytes  body
+ * </pre>
+ *
+ * A body length of zero marks the end of the records of the store and a body length of
+ * {@link #END_OF_SEGMENT} marks the end of the records of a segment that is continued by the next
+ * segment. Less than four bytes at the end of a segment also mark the end of the segment.
+ */
+final class LedgerRecords
+{
+
+	/** The number of bytes in front of the body of a record */
+	static final int HEADER_SIZE = 2 * Integer.BYTES;
+
+	/** The body length that marks the end of the records of a segment */
+	static final int END_OF_SEGMENT = -1;
+
+	private LedgerRecords()
+	{
+	}
+
+	/**
+	 * Checks if the hash of the block in the given body of a record is equal to the given hash.
+	 * Only the hash is read from the body
+	 *
+	 * @param body
+	 *            the body of the record
+	 * @param hash
+	 *            the hash
+	 * @return true if the hash of the block is equal to the given hash
+	 */
+	static boolean hasHash(final ByteBuffer body, final byte[] hash)
+	{
+		final int index = body.position() + BlockCodec.HASH_INDEX;
+		final int length = body.getInt(index);
+		return length == hash.length
+			&& body.slice(index + Integer.BYTES, length).equals(ByteBuffer.wrap(hash));
+	}
+
+	/**
+	 * Computes the CRC32C checksum of the given body of a record. The position of the given buffer
+	 * is not changed
+	 *
+	 * @param body
+	 *            the body of the record
+	 * @return the checksum
+	 */
+	static int checksum(final ByteBuffer body)
+	{
+		final CRC32C crc = new CRC32C();
+		crc.update(body.duplicate());
+		return (int)crc.getValue();
+	}
+}
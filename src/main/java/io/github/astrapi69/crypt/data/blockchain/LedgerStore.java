@@ -0,0 +1,632 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.blockchain;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.ObjLongConsumer;
+
+import io.github.astrapi69.crypt.api.blockchain.IBlock;
+
+/**
+ * The class {@link LedgerStore} is an append-only store for a chain of blocks. The blocks are
+ * encoded by the {@link BlockCodec} and appended as records of {@link LedgerRecords} to segment
+ * files that are written and read through {@link MappedByteBuffer} objects, so no system call is
+ * needed per block. Two index files map the height of a block and the hash of a block to the
+ * position of its record.
+ * <br>
+ * <br>
+ * Every record carries a CRC32C checksum of its body. The appended blocks are written to the
+ * storage device by {@link #flush()} and {@link #close()}, which then record the number of
+ * written blocks as checkpoint in the height index. When a store is opened every record behind
+ * the checkpoint is validated against its checksum and indexed, and the tail is cut off at the
+ * first record that is incomplete or corrupt, for instance after a power failure. The recovery
+ * reads the segment files before they are mapped, so cut off segment files can be deleted.
+ * <br>
+ * <br>
+ * The records are read zero-copy: {@link #getRecord(long)} and
+ * {@link #replay(long, ObjLongConsumer)} give read-only views of the mapped segments. A store is
+ * meant for one writer. Reading blocks by height may run concurrently with appending, all other
+ * methods are synchronized.
+ */
+public final class LedgerStore implements AutoCloseable
+{
+
+	/** The default capacity of a segment file in bytes */
+	public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+	/** The file name of the height index */
+	static final String HEIGHT_INDEX_FILE_NAME = "heights.index";
+
+	/** The file name of the hash index */
+	static final String HASH_INDEX_FILE_NAME = "hashes.index";
+
+	/**
+	 * The number of bytes of the header of the height index, that holds the number of indexed
+	 * blocks and the checkpoint
+	 */
+	private static final int HEIGHT_INDEX_HEADER_SIZE = 2 * Long.BYTES;
+
+	/** The offset of the checkpoint in the height index */
+	private static final int CHECKPOINT_OFFSET = Long.BYTES;
+
+	/** The initial number of entries of the height index */
+	private static final int INITIAL_HEIGHT_CAPACITY = 1 << 16;
+
+	/** The largest number of entries of the height index */
+	private static final long MAX_HEIGHT_CAPACITY = (Integer.MAX_VALUE - HEIGHT_INDEX_HEADER_SIZE)
+		/ Long.BYTES;
+
+	/** The directory of the store */
+	private final Path directory;
+
+	/** The capacity of a new segment file in bytes */
+	private final int segmentSize;
+
+	/** The mapped segment files */
+	private final List<MappedByteBuffer> segments = new CopyOnWriteArrayList<>();
+
+	/** The file channel of the height index */
+	private final FileChannel heightChannel;
+
+	/** The index from block hashes to block heights */
+	private final LedgerHashIndex hashIndex;
+
+	/** The mapped height index that holds the record position of every block */
+	private volatile MappedByteBuffer heights;
+
+	/** The number of entries that fit into the mapped height index */
+	private long heightCapacity;
+
+	/** The number of stored blocks */
+	private volatile long size;
+
+	/** The position where the next record is written */
+	private long writePosition;
+
+	/** The index of the first segment that is not yet forced to the storage device */
+	private int unforcedSegment;
+
+	/** The flag if this store is closed */
+	private boolean closed;
+
+	/**
+	 * Opens the store in the given directory with the default segment size. The directory is
+	 * created if it does not exist
+	 *
+	 * @param directory
+	 *            the directory of the store
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public LedgerStore(final Path directory) throws IOException
+	{
+		this(directory, DEFAULT_SEGMENT_SIZE);
+	}
+
+	/**
+	 * Opens the store in the given directory. The directory is created if it does not exist. A
+	 * block whose record does not fit in a segment of the given size gets a larger segment of its
+	 * own
+	 *
+	 * @param directory
+	 *            the directory of the store
+	 * @param segmentSize
+	 *            the capacity of a new segment file in bytes
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public LedgerStore(final Path directory, final int segmentSize) throws IOException
+	{
+		Objects.requireNonNull(directory);
+		if (segmentSize < LedgerRecords.HEADER_SIZE + Integer.BYTES)
+		{
+			throw new IllegalArgumentException("Segment size is too small: " + segmentSize);
+		}
+		this.directory = Files.createDirectories(directory);
+		this.segmentSize = segmentSize;
+		this.heightChannel = FileChannel.open(directory.resolve(HEIGHT_INDEX_FILE_NAME),
+			StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		LedgerHashIndex index = null;
+		try
+		{
+			index = new LedgerHashIndex(directory.resolve(HASH_INDEX_FILE_NAME));
+			this.hashIndex = index;
+			mapHeights(Math.max(INITIAL_HEIGHT_CAPACITY,
+				(heightChannel.size() - HEIGHT_INDEX_HEADER_SIZE) / Long.BYTES));
+			recover();
+		}
+		catch (IOException | RuntimeException e)
+		{
+			segments.clear();
+			close(index, e);
+			close(heightChannel, e);
+			throw e;
+		}
+	}
+
+	/**
+	 * Appends the given block to this store
+	 *
+	 * @param block
+	 *            the block
+	 * @return the height of the appended block
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public synchronized long append(final IBlock block) throws IOException
+	{
+		checkOpen();
+		Objects.requireNonNull(block.getHash(), "The block has no hash");
+		final byte[] body = BlockCodec.encode(block);
+		final int recordSize = LedgerRecords.HEADER_SIZE + body.length;
+		int segmentIndex = getSegment(writePosition);
+		int offset = getOffset(writePosition);
+		if (segments.isEmpty() || segments.get(segmentIndex).capacity() - offset < recordSize)
+		{
+			if (!segments.isEmpty()
+				&& offset + Integer.BYTES <= segments.get(segmentIndex).capacity())
+			{
+				segments.get(segmentIndex).putInt(offset, LedgerRecords.END_OF_SEGMENT);
+			}
+			segmentIndex = segments.size();
+			offset = 0;
+			segments.add(map(getSegmentPath(segmentIndex),
+				Math.max(segmentSize, (long)recordSize + Integer.BYTES)));
+		}
+		final MappedByteBuffer segment = segments.get(segmentIndex);
+		segment.put(offset + LedgerRecords.HEADER_SIZE, body);
+		segment.putInt(offset + Integer.BYTES, LedgerRecords.checksum(ByteBuffer.wrap(body)));
+		final int end = offset + recordSize;
+		if (end + Integer.BYTES <= segment.capacity())
+		{
+			segment.putInt(end, 0);
+		}
+		segment.putInt(offset, body.length);
+		final long position = getPosition(segmentIndex, offset);
+		final long height = size;
+		putHeight(height, position);
+		hashIndex.put(block.getHash(), height);
+		writePosition = getPosition(segmentIndex, end);
+		size = height + 1;
+		return height;
+	}
+
+	/**
+	 * Gets the number of stored blocks
+	 *
+	 * @return the number of stored blocks
+	 */
+	public long size()
+	{
+		return size;
+	}
+
+	/**
+	 * Gets the body of the record of the block with the given height as read-only view of the
+	 * mapped segment without copying it
+	 *
+	 * @param height
+	 *            the height of the block
+	 * @return the body of the record
+	 */
+	public ByteBuffer getRecord(final long height)
+	{
+		Objects.checkIndex(height, size);
+		final long position = heights.getLong(getHeightOffset(height));
+		final ByteBuffer segment = segments.get(getSegment(position));
+		final int offset = getOffset(position);
+		return segment
+			.slice(offset + LedgerRecords.HEADER_SIZE, segment.getInt(offset))
+			.asReadOnlyBuffer();
+	}
+
+	/**
+	 * Gets the block with the given height. The block is decoded lazily from the mapped segment,
+	 * it is a view and not a copy: a field is read from the segment when it is accessed for the
+	 * first time. If the store is opened again and cuts off a corrupt tail, new blocks are appended
+	 * over the cut off records, so a block of the cut off tail that is still referenced decodes the
+	 * bytes of the new records. Access all fields that must stay stable before the store is opened
+	 * again
+	 *
+	 * @param height
+	 *            the height of the block
+	 * @return the block
+	 */
+	public Block getBlock(final long height)
+	{
+		return BlockCodec.decode(getRecord(height));
+	}
+
+	/**
+	 * Gets the block with the given hash. The block is a view of the mapped segment like the
+	 * blocks of {@link #getBlock(long)}
+	 *
+	 * @param hash
+	 *            the hash of the block
+	 * @return the block or null if no block with the given hash is stored
+	 */
+	public synchronized Block getBlock(final byte[] hash)
+	{
+		final long height = getHeight(hash);
+		return height < 0 ? null : getBlock(height);
+	}
+
+	/**
+	 * Gets the height of the block with the given hash
+	 *
+	 * @param hash
+	 *            the hash of the block
+	 * @return the height of the block or -1 if no block with the given hash is stored
+	 */
+	public synchronized long getHeight(final byte[] hash)
+	{
+		Objects.requireNonNull(hash);
+		checkOpen();
+		return hashIndex.find(hash, height -> LedgerRecords.hasHash(getRecord(height), hash));
+	}
+
+	/**
+	 * Passes the record bodies of all blocks from the given height on in order to the given
+	 * consumer. The records are read sequentially from the mapped segments, the given buffers are
+	 * read-only views of the segments and are only valid during the call of the consumer
+	 *
+	 * @param fromHeight
+	 *            the height of the first block
+	 * @param consumer
+	 *            the consumer that receives the body of a record and the height of its block
+	 */
+	public void replay(final long fromHeight, final ObjLongConsumer<ByteBuffer> consumer)
+	{
+		Objects.requireNonNull(consumer);
+		final long end = size;
+		if (fromHeight < 0 || end < fromHeight)
+		{
+			throw new IndexOutOfBoundsException("Height " + fromHeight + " out of bounds for size "
+				+ end);
+		}
+		if (fromHeight == end)
+		{
+			return;
+		}
+		final long start = heights.getLong(getHeightOffset(fromHeight));
+		int segmentIndex = getSegment(start);
+		int offset = getOffset(start);
+		ByteBuffer segment = segments.get(segmentIndex).asReadOnlyBuffer();
+		for (long height = fromHeight; height < end; height++)
+		{
+			int length = getLength(segment, offset);
+			if (length == LedgerRecords.END_OF_SEGMENT)
+			{
+				segment = segments.get(++segmentIndex).asReadOnlyBuffer();
+				offset = 0;
+				length = segment.getInt(0);
+			}
+			consumer.accept(segment.slice(offset + LedgerRecords.HEADER_SIZE, length), height);
+			offset += LedgerRecords.HEADER_SIZE + length;
+		}
+	}
+
+	/**
+	 * Forces all appended blocks and the indexes to the storage device
+	 */
+	public synchronized void flush()
+	{
+		checkOpen();
+		for (int i = unforcedSegment; i < segments.size(); i++)
+		{
+			segments.get(i).force();
+		}
+		unforcedSegment = Math.max(0, segments.size() - 1);
+		heights.force();
+		heights.putLong(CHECKPOINT_OFFSET, size);
+		heights.force(CHECKPOINT_OFFSET, Long.BYTES);
+		hashIndex.force();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void close() throws IOException
+	{
+		if (closed)
+		{
+			return;
+		}
+		flush();
+		closed = true;
+		heightChannel.close();
+		hashIndex.close();
+	}
+
+	private void recover() throws IOException
+	{
+		final List<FileChannel> channels = new ArrayList<>();
+		final long end;
+		try
+		{
+			Path segment;
+			while (Files.exists(segment = getSegmentPath(channels.size())))
+			{
+				channels.add(FileChannel.open(segment, StandardOpenOption.READ,
+					StandardOpenOption.WRITE));
+			}
+			end = scan(channels);
+			truncate(channels, end);
+		}
+		catch (IOException | RuntimeException e)
+		{
+			for (final FileChannel channel : channels)
+			{
+				close(channel, e);
+			}
+			throw e;
+		}
+		closeAll(channels);
+		Path segment;
+		while (Files.exists(segment = getSegmentPath(segments.size())))
+		{
+			segments.add(map(segment, Files.size(segment)));
+		}
+		final long count = heights.getLong(0);
+		size = count;
+		if (count < hashIndex.size())
+		{
+			hashIndex.clear();
+		}
+		for (long height = hashIndex.size(); height < count; height++)
+		{
+			hashIndex.put(getBlock(height).getHash(), height);
+		}
+		writePosition = end;
+		unforcedSegment = Math.max(0, getSegment(end));
+	}
+
+	private long scan(final List<FileChannel> channels) throws IOException
+	{
+		long count = Math.min(heights.getLong(0), heightCapacity);
+		count = Math.max(0, Math.min(count, heights.getLong(CHECKPOINT_OFFSET)));
+		while (0 < count && !isValid(channels, heights.getLong(getHeightOffset(count - 1))))
+		{
+			count--;
+		}
+		final long checkpoint = count;
+		long position = 0;
+		if (0 < count)
+		{
+			position = heights.getLong(getHeightOffset(count - 1));
+			position += LedgerRecords.HEADER_SIZE + getLength(channels, position);
+		}
+		long end = position;
+		while (getSegment(position) < channels.size())
+		{
+			final int length = getLength(channels, position);
+			if (length == LedgerRecords.END_OF_SEGMENT
+				&& getSegment(position) + 1 < channels.size())
+			{
+				position = getPosition(getSegment(position) + 1, 0);
+			}
+			else if (0 < length && isValid(channels, position))
+			{
+				putHeight(count++, position);
+				position += LedgerRecords.HEADER_SIZE + length;
+				end = position;
+			}
+			else
+			{
+				break;
+			}
+		}
+		heights.putLong(0, count);
+		heights.putLong(CHECKPOINT_OFFSET, checkpoint);
+		return end;
+	}
+
+	private void truncate(final List<FileChannel> channels, final long end) throws IOException
+	{
+		final int lastSegment = getSegment(end);
+		for (int i = channels.size() - 1; lastSegment < i; i--)
+		{
+			channels.remove(i).close();
+			Files.delete(getSegmentPath(i));
+		}
+		if (lastSegment < channels.size())
+		{
+			final FileChannel channel = channels.get(lastSegment);
+			if (getOffset(end) + Integer.BYTES <= channel.size())
+			{
+				channel.write(ByteBuffer.allocate(Integer.BYTES), getOffset(end));
+			}
+		}
+	}
+
+	private static boolean isValid(final List<FileChannel> channels, final long position)
+		throws IOException
+	{
+		if (channels.size() <= getSegment(position))
+		{
+			return false;
+		}
+		final FileChannel channel = channels.get(getSegment(position));
+		final int offset = getOffset(position);
+		final int length = getLength(channels, position);
+		if (length <= 0 || channel.size() - offset - LedgerRecords.HEADER_SIZE < length)
+		{
+			return false;
+		}
+		final ByteBuffer record = read(channel, offset, LedgerRecords.HEADER_SIZE + length);
+		return record.getInt(Integer.BYTES) == LedgerRecords
+			.checksum(record.slice(LedgerRecords.HEADER_SIZE, length));
+	}
+
+	private void putHeight(final long height, final long position) throws IOException
+	{
+		if (heightCapacity <= height)
+		{
+			if (MAX_HEIGHT_CAPACITY < 2 * heightCapacity)
+			{
+				throw new IllegalStateException("The height index is full");
+			}
+			mapHeights(2 * heightCapacity);
+		}
+		heights.putLong(getHeightOffset(height), position);
+		heights.putLong(0, height + 1);
+	}
+
+	private void mapHeights(final long capacity) throws IOException
+	{
+		heights = heightChannel.map(FileChannel.MapMode.READ_WRITE, 0,
+			getHeightOffset(capacity));
+		heightCapacity = capacity;
+	}
+
+	private void checkOpen()
+	{
+		if (closed)
+		{
+			throw new IllegalStateException("The ledger store is closed");
+		}
+	}
+
+	private Path getSegmentPath(final int index)
+	{
+		return directory.resolve(String.format("segment-%06d.ledger", index));
+	}
+
+	private static void closeAll(final List<FileChannel> channels) throws IOException
+	{
+		IOException failure = null;
+		for (final FileChannel channel : channels)
+		{
+			try
+			{
+				channel.close();
+			}
+			catch (IOException e)
+			{
+				if (failure == null)
+				{
+					failure = e;
+				}
+				else
+				{
+					failure.addSuppressed(e);
+				}
+			}
+		}
+		if (failure != null)
+		{
+			throw failure;
+		}
+	}
+
+	private static void close(final AutoCloseable closeable, final Exception cause)
+	{
+		if (closeable == null)
+		{
+			return;
+		}
+		try
+		{
+			closeable.close();
+		}
+		catch (Exception e)
+		{
+			cause.addSuppressed(e);
+		}
+	}
+
+	private static MappedByteBuffer map(final Path path, final long capacity) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+			StandardOpenOption.READ, StandardOpenOption.WRITE))
+		{
+			return channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+		}
+	}
+
+	private static int getLength(final ByteBuffer segment, final int offset)
+	{
+		return segment.capacity() - offset < Integer.BYTES
+			? LedgerRecords.END_OF_SEGMENT
+			: segment.getInt(offset);
+	}
+
+	private static int getLength(final List<FileChannel> channels, final long position)
+		throws IOException
+	{
+		final FileChannel channel = channels.get(getSegment(position));
+		final int offset = getOffset(position);
+		if (channel.size() - offset < Integer.BYTES)
+		{
+			return LedgerRecords.END_OF_SEGMENT;
+		}
+		return read(channel, offset, Integer.BYTES).getInt(0);
+	}
+
+	private static ByteBuffer read(final FileChannel channel, final long offset, final int length)
+		throws IOException
+	{
+		final ByteBuffer buffer = ByteBuffer.allocate(length);
+		while (buffer.hasRemaining())
+		{
+			if (channel.read(buffer, offset + buffer.position()) < 0)
+			{
+				throw new IOException("Unexpected end of segment file");
+			}
+		}
+		return buffer.flip();
+	}
+
+	private static int getHeightOffset(final long height)
+	{
+		return (int)(HEIGHT_INDEX_HEADER_SIZE + height * Long.BYTES);
+	}
+
+	private static long getPosition(final int segment, final int offset)
+	{
+		return ((long)segment << Integer.SIZE) | offset;
+	}
+
+	private static int getSegment(final long position)
+	{
+		return (int)(position >>> Integer.SIZE);
+	}
+
+	private static int getOffset(final long position)
+	{
+		return (int)position;
+	}
+}
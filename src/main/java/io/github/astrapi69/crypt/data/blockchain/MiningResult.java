@@ -0,0 +1,136 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.blockchain;
+
+import java.util.Objects;
+
+/**
+ * The class {@link MiningResult} holds the mined {@link Block} of a {@link BlockMiner} together
+ * with the statistics of the mining run, so the hash rate of the hardware can be measured
+ */
+public final class MiningResult
+{
+
+	/** The mined block */
+	private final Block block;
+
+	/** The number of hashes that are computed from all worker threads */
+	private final long hashCount;
+
+	/** The elapsed time of the mining run in nanoseconds */
+	private final long elapsedNanos;
+
+	/** The number of worker threads */
+	private final int threadCount;
+
+	/**
+	 * Instantiates a new {@link MiningResult}
+	 *
+	 * @param block
+	 *            the mined block
+	 * @param hashCount
+	 *            the number of hashes that are computed from all worker threads
+	 * @param elapsedNanos
+	 *            the elapsed time of the mining run in nanoseconds
+	 * @param threadCount
+	 *            the number of worker threads
+	 */
+	public MiningResult(final Block block, final long hashCount, final long elapsedNanos,
+		final int threadCount)
+	{
+		this.block = Objects.requireNonNull(block);
+		this.hashCount = hashCount;
+		this.elapsedNanos = elapsedNanos;
+		this.threadCount = threadCount;
+	}
+
+	/**
+	 * Gets the mined block
+	 *
+	 * @return the mined block
+	 */
+	public Block getBlock()
+	{
+		return block;
+	}
+
+	/**
+	 * Gets the number of hashes that are computed from all worker threads
+	 *
+	 * @return the number of hashes
+	 */
+	public long getHashCount()
+	{
+		return hashCount;
+	}
+
+	/**
+	 * Gets the elapsed time of the mining run in nanoseconds
+	 *
+	 * @return the elapsed time in nanoseconds
+	 */
+	public long getElapsedNanos()
+	{
+		return elapsedNanos;
+	}
+
+	/**
+	 * Gets the number of worker threads
+	 *
+	 * @return the number of worker threads
+	 */
+	public int getThreadCount()
+	{
+		return threadCount;
+	}
+
+	/**
+	 * Gets the number of hashes per second of all worker threads
+	 *
+	 * @return the hashes per second
+	 */
+	public double getHashesPerSecond()
+	{
+		return elapsedNanos == 0 ? 0 : hashCount * 1_000_000_000d / elapsedNanos;
+	}
+
+	/**
+	 * Gets the number of hashes per second of one worker thread
+	 *
+	 * @return the hashes per second of one worker thread
+	 */
+	public double getHashesPerSecondPerThread()
+	{
+		return getHashesPerSecond() / threadCount;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public String toString()
+	{
+		return "MiningResult(tries=" + block.getTries() + ", hashCount=" + hashCount
+			+ ", elapsedNanos=" + elapsedNanos + ", threadCount=" + threadCount + ")";
+	}
+}
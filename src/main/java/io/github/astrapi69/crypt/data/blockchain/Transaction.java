@@ -24,18 +24,23 @@
  */
 package io.github.astrapi69.crypt.data.blockchain;
 
+import java.io.Serializable;
+
 import io.github.astrapi69.crypt.api.algorithm.HashAlgorithm;
 import io.github.astrapi69.crypt.api.blockchain.ITransaction;
-import io.github.astrapi69.crypt.data.hash.HashExtensions;
+import io.github.astrapi69.crypt.data.hash.HashInput;
 
 /**
  * The class {@link Transaction} represents a transaction in a blockchain. It includes details such
  * as the sender's hash, a digital signature, the transaction text, a timestamp, and a hash
  * generated from these values.
  */
-public class Transaction implements ITransaction
+public class Transaction implements ITransaction, Serializable
 {
 
+	/** The Constant serialVersionUID */
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * The hash of the transaction, generated from the text, sender hash, signature, and timestamp.
 	 */
@@ -77,8 +82,26 @@ public class Transaction implements ITransaction
 		this.senderHash = senderHash;
 		this.signature = signature;
 		this.timestamp = System.currentTimeMillis();
-		this.hash = HashExtensions.hash(text.getBytes(), senderHash, signature, timestamp,
-			HashAlgorithm.SHA256);
+		this.hash = calculateHash(text, senderHash, signature, timestamp);
+	}
+
+	/**
+	 * Calculates the hash of a transaction from the given values with the SHA-256 algorithm
+	 *
+	 * @param text
+	 *            the text or message of the transaction
+	 * @param senderHash
+	 *            the hash of the sender
+	 * @param signature
+	 *            the digital signature of the transaction
+	 * @param timestamp
+	 *            the timestamp of the transaction
+	 * @return the hash of the transaction
+	 */
+	static byte[] calculateHash(String text, byte[] senderHash, byte[] signature, long timestamp)
+	{
+		return HashInput.of(HashAlgorithm.SHA256).put(text.getBytes()).put(senderHash)
+			.put(signature).putLong(timestamp).digest();
 	}
 
 	/** {@inheritDoc} */
@@ -134,7 +157,7 @@ public class Transaction implements ITransaction
 	@Override
 	public byte[] getSignableData()
 	{
-		return text.getBytes();
+		return getText().getBytes();
 	}
 
 	/** {@inheritDoc} */
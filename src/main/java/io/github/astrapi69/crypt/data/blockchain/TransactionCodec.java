@@ -0,0 +1,156 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.blockchain;
+
+import java.nio.ByteBuffer;
+
+import io.github.astrapi69.crypt.api.blockchain.ITransaction;
+
+/**
+ * The class {@link TransactionCodec} encodes transactions in a compact, versioned binary format
+ * and decodes them lazily. All numbers are written in big-endian byte order:
+ *
+ * <pre>
+ * byte   version
+ * long   timestamp
+ * bytes  hash, sender hash, signature
+ * string text
+ * </pre>
+ *
+ * Byte arrays and strings are prefixed with their length as <code>int</code>, where -1 stands for
+ * <code>null</code>, and strings are encoded in UTF-8. A decoded transaction reads its fields from
+ * the buffer when they are accessed for the first time, so the buffer must not be modified while
+ * the transaction is in use.
+ */
+public final class TransactionCodec
+{
+
+	/** The version of the encoding */
+	public static final byte VERSION = 1;
+
+	/** The index of the timestamp */
+	static final int TIMESTAMP_INDEX = 1;
+
+	/** The index of the hash */
+	static final int HASH_INDEX = TIMESTAMP_INDEX + Long.BYTES;
+
+	private TransactionCodec()
+	{
+	}
+
+	/**
+	 * Gets the number of bytes of the encoding of the given transaction
+	 *
+	 * @param transaction
+	 *            the transaction
+	 * @return the number of bytes of the encoding
+	 */
+	public static int getEncodedLength(final ITransaction transaction)
+	{
+		return HASH_INDEX + CodecExtensions.sizeOf(transaction.getHash())
+			+ CodecExtensions.sizeOf(transaction.getSenderHash())
+			+ CodecExtensions.sizeOf(transaction.getSignature())
+			+ CodecExtensions.sizeOf(transaction.getText());
+	}
+
+	/**
+	 * Encodes the given transaction into a new byte array
+	 *
+	 * @param transaction
+	 *            the transaction
+	 * @return the encoded transaction
+	 */
+	public static byte[] encode(final ITransaction transaction)
+	{
+		final ByteBuffer buffer = ByteBuffer.allocate(getEncodedLength(transaction));
+		encode(transaction, buffer);
+		return buffer.array();
+	}
+
+	/**
+	 * Encodes the given transaction into the given buffer at its position and advances the
+	 * position behind the encoding
+	 *
+	 * @param transaction
+	 *            the transaction
+	 * @param buffer
+	 *            the buffer
+	 * @throws java.nio.BufferOverflowException
+	 *             if the remaining bytes of the buffer are not sufficient
+	 */
+	public static void encode(final ITransaction transaction, final ByteBuffer buffer)
+	{
+		final ByteBuffer target = buffer.duplicate();
+		target.put(VERSION);
+		target.putLong(transaction.getTimestamp());
+		CodecExtensions.putBytes(target, transaction.getHash());
+		CodecExtensions.putBytes(target, transaction.getSenderHash());
+		CodecExtensions.putBytes(target, transaction.getSignature());
+		CodecExtensions.putString(target, transaction.getText());
+		buffer.position(target.position());
+	}
+
+	/**
+	 * Decodes the transaction at the position of the given buffer and advances the position behind
+	 * the encoding. The fields of the returned transaction are read from the buffer when they are
+	 * accessed for the first time
+	 *
+	 * @param buffer
+	 *            the buffer
+	 * @return the decoded transaction
+	 * @throws IllegalArgumentException
+	 *             if the version of the encoding is not supported
+	 * @throws java.nio.BufferUnderflowException
+	 *             if the encoding exceeds the limit of the buffer
+	 */
+	public static Transaction decode(final ByteBuffer buffer)
+	{
+		final ByteBuffer source = buffer.duplicate();
+		final int position = source.position();
+		final int end = getEnd(source, position);
+		final Transaction transaction = new LazyTransaction(
+			source.slice(position, end - position));
+		buffer.position(end);
+		return transaction;
+	}
+
+	/**
+	 * Gets the index behind the encoded transaction at the given index of the given buffer
+	 *
+	 * @param buffer
+	 *            the buffer
+	 * @param index
+	 *            the index of the encoded transaction
+	 * @return the index behind the encoded transaction
+	 */
+	static int getEnd(final ByteBuffer buffer, final int index)
+	{
+		CodecExtensions.checkVersion(buffer, index, VERSION, "transaction");
+		int end = CodecExtensions.skip(buffer, index + HASH_INDEX);
+		end = CodecExtensions.skip(buffer, end);
+		end = CodecExtensions.skip(buffer, end);
+		return CodecExtensions.skip(buffer, end);
+	}
+}
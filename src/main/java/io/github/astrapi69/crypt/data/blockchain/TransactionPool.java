@@ -0,0 +1,245 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.blockchain;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+import io.github.astrapi69.crypt.api.blockchain.ITransaction;
+
+/**
+ * The class {@link TransactionPool} holds the pending transactions that are not yet part of a
+ * block. The transactions are deduplicated by their hash in a {@link ConcurrentHashMap} and
+ * ordered by a priority in a {@link ConcurrentSkipListSet}, so many producer threads can add
+ * transactions without a global lock. The transactions with the highest priority are drained in
+ * batches, for instance directly into a new {@link Block}. A transaction is added to and removed
+ * from both collections in one atomic operation of the map, so a concurrent add and remove of the
+ * same hash can not leave a transaction in only one of them.
+ * <br>
+ * <br>
+ * A transaction is only rejected as duplicate as long as it is pending; after it is drained or
+ * removed the same transaction is accepted again. The hash of a transaction must not change while
+ * the transaction is in the pool.
+ */
+public final class TransactionPool
+{
+
+	/** The comparator that orders transactions by their hash to break ties */
+	private static final Comparator<ITransaction> BY_HASH = (left, right) -> Arrays
+		.compareUnsigned(left.getHash(), right.getHash());
+
+	/** The pending transactions by their hash */
+	private final ConcurrentMap<ByteBuffer, ITransaction> transactions = new ConcurrentHashMap<>();
+
+	/** The pending transactions in the order of their priority */
+	private final ConcurrentSkipListSet<ITransaction> queue;
+
+	/** The number of accepted transactions */
+	private final LongAdder insertCount = new LongAdder();
+
+	/** The number of rejected duplicate transactions */
+	private final LongAdder duplicateCount = new LongAdder();
+
+	/** The number of drained transactions */
+	private final LongAdder drainedCount = new LongAdder();
+
+	/** The creation time of this pool in nanoseconds */
+	private final long startNanos = System.nanoTime();
+
+	/**
+	 * Instantiates a new {@link TransactionPool} that drains the oldest transactions first
+	 */
+	public TransactionPool()
+	{
+		this(byTimestamp());
+	}
+
+	/**
+	 * Instantiates a new {@link TransactionPool} that drains the transactions in the order of the
+	 * given priority, the first transaction of the order is drained first
+	 *
+	 * @param priority
+	 *            the comparator that orders the transactions by priority
+	 */
+	public TransactionPool(final Comparator<ITransaction> priority)
+	{
+		this.queue = new ConcurrentSkipListSet<>(
+			Objects.requireNonNull(priority).thenComparing(BY_HASH));
+	}
+
+	/**
+	 * Gets the priority that orders transactions by their timestamp, the oldest first
+	 *
+	 * @return the comparator of the priority
+	 */
+	public static Comparator<ITransaction> byTimestamp()
+	{
+		return Comparator.comparingLong(ITransaction::getTimestamp);
+	}
+
+	/**
+	 * Gets the priority that orders transactions by the given fee, the highest fee first and the
+	 * oldest first among equal fees. The fee of a transaction must not change while the
+	 * transaction is in the pool
+	 *
+	 * @param fee
+	 *            the function that computes the fee of a transaction
+	 * @return the comparator of the priority
+	 */
+	public static Comparator<ITransaction> byFee(final ToLongFunction<ITransaction> fee)
+	{
+		Objects.requireNonNull(fee);
+		return Comparator.comparingLong(fee).reversed().thenComparing(byTimestamp());
+	}
+
+	/**
+	 * Adds the given transaction if no transaction with the same hash is pending
+	 *
+	 * @param transaction
+	 *            the transaction
+	 * @return true if the transaction is added or false if it is a duplicate
+	 */
+	public boolean add(final ITransaction transaction)
+	{
+		Objects.requireNonNull(transaction.getHash(), "The transaction has no hash");
+		final boolean[] added = new boolean[1];
+		transactions.computeIfAbsent(ByteBuffer.wrap(transaction.getHash()), key -> {
+			added[0] = queue.add(transaction);
+			return added[0] ? transaction : null;
+		});
+		if (!added[0])
+		{
+			duplicateCount.increment();
+			return false;
+		}
+		insertCount.increment();
+		return true;
+	}
+
+	/**
+	 * Removes the pending transaction with the given hash, for instance because it is part of a
+	 * block that is received from another node
+	 *
+	 * @param hash
+	 *            the hash of the transaction
+	 * @return true if a pending transaction is removed
+	 */
+	public boolean remove(final byte[] hash)
+	{
+		final boolean[] removed = new boolean[1];
+		transactions.computeIfPresent(ByteBuffer.wrap(hash), (key, transaction) -> {
+			removed[0] = queue.remove(transaction);
+			return null;
+		});
+		return removed[0];
+	}
+
+	/**
+	 * Checks if a transaction with the given hash is pending
+	 *
+	 * @param hash
+	 *            the hash of the transaction
+	 * @return true if a transaction with the given hash is pending
+	 */
+	public boolean contains(final byte[] hash)
+	{
+		return transactions.containsKey(ByteBuffer.wrap(hash));
+	}
+
+	/**
+	 * Gets the number of pending transactions
+	 *
+	 * @return the number of pending transactions
+	 */
+	public int size()
+	{
+		return transactions.size();
+	}
+
+	/**
+	 * Removes and returns up to the given number of pending transactions with the highest
+	 * priority
+	 *
+	 * @param maxTransactions
+	 *            the maximum number of transactions
+	 * @return the drained transactions in the order of their priority
+	 */
+	public List<ITransaction> drain(final int maxTransactions)
+	{
+		if (maxTransactions < 0)
+		{
+			throw new IllegalArgumentException(
+				"Maximum number of transactions must not be negative: " + maxTransactions);
+		}
+		final List<ITransaction> drained = new ArrayList<>(Math.min(maxTransactions, 1024));
+		ITransaction transaction;
+		while (drained.size() < maxTransactions && (transaction = queue.pollFirst()) != null)
+		{
+			final ITransaction polled = transaction;
+			// compare the identity, a transaction with the same hash may have been removed and
+			// added again after the poll and must stay pending
+			transactions.computeIfPresent(ByteBuffer.wrap(polled.getHash()),
+				(key, pending) -> pending == polled ? null : pending);
+			drained.add(polled);
+		}
+		drainedCount.add(drained.size());
+		return drained;
+	}
+
+	/**
+	 * Drains up to the given number of pending transactions with the highest priority into a new
+	 * {@link Block}
+	 *
+	 * @param previousBlockHash
+	 *            the hash of the previous block
+	 * @param maxTransactions
+	 *            the maximum number of transactions of the block
+	 * @return the new block
+	 */
+	public Block drainToBlock(final byte[] previousBlockHash, final int maxTransactions)
+	{
+		return new Block(previousBlockHash, drain(maxTransactions), 0);
+	}
+
+	/**
+	 * Gets a snapshot of the counters of this pool
+	 *
+	 * @return the metrics of this pool
+	 */
+	public TransactionPoolMetrics getMetrics()
+	{
+		return new TransactionPoolMetrics(insertCount.sum(), duplicateCount.sum(),
+			drainedCount.sum(), size(), System.nanoTime() - startNanos);
+	}
+}
@@ -0,0 +1,153 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.blockchain;
+
+/**
+ * The class {@link TransactionPoolMetrics} is a snapshot of the counters of a
+ * {@link TransactionPool}, so the insert throughput and the rate of rejected duplicates can be
+ * monitored
+ */
+public final class TransactionPoolMetrics
+{
+
+	/** The number of accepted transactions */
+	private final long insertCount;
+
+	/** The number of rejected duplicate transactions */
+	private final long duplicateCount;
+
+	/** The number of drained transactions */
+	private final long drainedCount;
+
+	/** The number of pending transactions */
+	private final int pendingCount;
+
+	/** The elapsed time since the creation of the pool in nanoseconds */
+	private final long elapsedNanos;
+
+	/**
+	 * Instantiates a new {@link TransactionPoolMetrics}
+	 *
+	 * @param insertCount
+	 *            the number of accepted transactions
+	 * @param duplicateCount
+	 *            the number of rejected duplicate transactions
+	 * @param drainedCount
+	 *            the number of drained transactions
+	 * @param pendingCount
+	 *            the number of pending transactions
+	 * @param elapsedNanos
+	 *            the elapsed time since the creation of the pool in nanoseconds
+	 */
+	public TransactionPoolMetrics(final long insertCount, final long duplicateCount,
+		final long drainedCount, final int pendingCount, final long elapsedNanos)
+	{
+		this.insertCount = insertCount;
+		this.duplicateCount = duplicateCount;
+		this.drainedCount = drainedCount;
+		this.pendingCount = pendingCount;
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	/**
+	 * Gets the number of accepted transactions
+	 *
+	 * @return the number of accepted transactions
+	 */
+	public long getInsertCount()
+	{
+		return insertCount;
+	}
+
+	/**
+	 * Gets the number of rejected duplicate transactions
+	 *
+	 * @return the number of rejected duplicate transactions
+	 */
+	public long getDuplicateCount()
+	{
+		return duplicateCount;
+	}
+
+	/**
+	 * Gets the number of drained transactions
+	 *
+	 * @return the number of drained transactions
+	 */
+	public long getDrainedCount()
+	{
+		return drainedCount;
+	}
+
+	/**
+	 * Gets the number of pending transactions
+	 *
+	 * @return the number of pending transactions
+	 */
+	public int getPendingCount()
+	{
+		return pendingCount;
+	}
+
+	/**
+	 * Gets the elapsed time since the creation of the pool in nanoseconds
+	 *
+	 * @return the elapsed time in nanoseconds
+	 */
+	public long getElapsedNanos()
+	{
+		return elapsedNanos;
+	}
+
+	/**
+	 * Gets the number of accepted transactions per second since the creation of the pool
+	 *
+	 * @return the inserts per second
+	 */
+	public double getInsertsPerSecond()
+	{
+		return elapsedNanos == 0 ? 0 : insertCount * 1_000_000_000d / elapsedNanos;
+	}
+
+	/**
+	 * Gets the share of rejected duplicates of all offered transactions
+	 *
+	 * @return the duplicate rate between 0 and 1
+	 */
+	public double getDuplicateRate()
+	{
+		final long offered = insertCount + duplicateCount;
+		return offered == 0 ? 0 : (double)duplicateCount / offered;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public String toString()
+	{
+		return "TransactionPoolMetrics(insertCount=" + insertCount + ", duplicateCount="
+			+ duplicateCount + ", drainedCount=" + drainedCount + ", pendingCount="
+			+ pendingCount + ", elapsedNanos=" + elapsedNanos + ")";
+	}
+}
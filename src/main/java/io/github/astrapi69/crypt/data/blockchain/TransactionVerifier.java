@@ -0,0 +1,350 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.blockchain;
+
+import java.nio.ByteBuffer;
+import java.security.InvalidKeyException;
+import java.security.KeyFactory;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.security.spec.InvalidKeySpecException;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import io.github.astrapi69.crypt.api.blockchain.IAddress;
+import io.github.astrapi69.crypt.api.blockchain.IBlock;
+import io.github.astrapi69.crypt.api.blockchain.ITransaction;
+
+/**
+ * The class {@link TransactionVerifier} verifies the signatures of transactions with the public
+ * key of their sender. The transactions of a block are verified in parallel on a
+ * {@link ForkJoinPool}.
+ * <br>
+ * <br>
+ * Every thread of the pool reuses its own {@link Signature} and {@link KeyFactory} object, so the
+ * provider lookup is done only once per thread. The public keys are decoded from the X.509
+ * encoding of {@link IAddress#getPublicKey()} only once and cached by the hash of the address.
+ * A transaction is valid if the hash of the resolved address equals the sender hash of the
+ * transaction and its signature matches {@link ITransaction#getSignableData()}
+ */
+public final class TransactionVerifier
+{
+
+	/** The default signature algorithm */
+	public static final String DEFAULT_SIGNATURE_ALGORITHM = "SHA256withRSA";
+
+	/** The default algorithm of the public keys */
+	public static final String DEFAULT_KEY_ALGORITHM = "RSA";
+
+	/** The default number of transactions that are verified sequentially in one task */
+	public static final int DEFAULT_THRESHOLD = 8;
+
+	/** The pool that verifies the transactions */
+	private final ForkJoinPool pool;
+
+	/** The number of transactions that are verified sequentially in one task */
+	private final int threshold;
+
+	/** The signature objects that are bound to the current thread */
+	private final ThreadLocal<Signature> signatures;
+
+	/** The key factories that are bound to the current thread */
+	private final ThreadLocal<KeyFactory> keyFactories;
+
+	/** The decoded public keys by the hash of their address */
+	private final Map<ByteBuffer, PublicKey> publicKeys = new ConcurrentHashMap<>();
+
+	/**
+	 * Instantiates a new {@link TransactionVerifier} with the default algorithms that verifies on
+	 * the common pool
+	 *
+	 * @throws NoSuchAlgorithmException
+	 *             if one of the default algorithms is not supported
+	 */
+	public TransactionVerifier() throws NoSuchAlgorithmException
+	{
+		this(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD, DEFAULT_SIGNATURE_ALGORITHM,
+			DEFAULT_KEY_ALGORITHM);
+	}
+
+	/**
+	 * Instantiates a new {@link TransactionVerifier}
+	 *
+	 * @param pool
+	 *            the pool that verifies the transactions
+	 * @param threshold
+	 *            the number of transactions that are verified sequentially in one task
+	 * @param signatureAlgorithm
+	 *            the signature algorithm, for instance 'SHA256withRSA'
+	 * @param keyAlgorithm
+	 *            the algorithm of the public keys, for instance 'RSA'
+	 * @throws NoSuchAlgorithmException
+	 *             if the signature algorithm or the key algorithm is not supported
+	 */
+	public TransactionVerifier(final ForkJoinPool pool, final int threshold,
+		final String signatureAlgorithm, final String keyAlgorithm)
+		throws NoSuchAlgorithmException
+	{
+		if (threshold < 1)
+		{
+			throw new IllegalArgumentException("Threshold must be positive: " + threshold);
+		}
+		this.pool = Objects.requireNonNull(pool);
+		this.threshold = threshold;
+		final Signature signature = Signature.getInstance(signatureAlgorithm);
+		final KeyFactory keyFactory = KeyFactory.getInstance(keyAlgorithm);
+		this.signatures = ThreadLocal.withInitial(() -> newSignature(signature.getAlgorithm()));
+		this.keyFactories = ThreadLocal
+			.withInitial(() -> newKeyFactory(keyFactory.getAlgorithm()));
+	}
+
+	/**
+	 * Verifies the signature of the given transaction with the public key of the given sender
+	 *
+	 * @param transaction
+	 *            the transaction
+	 * @param sender
+	 *            the address of the sender
+	 * @return true if the sender matches the sender hash of the transaction, the hash of the
+	 *         sender matches its name and public key and the signature is valid, otherwise false
+	 */
+	public boolean verify(final ITransaction transaction, final IAddress sender)
+	{
+		Objects.requireNonNull(transaction);
+		if (sender == null || transaction.getSignature() == null
+			|| !Arrays.equals(sender.getHash(), transaction.getSenderHash()))
+		{
+			return false;
+		}
+		final PublicKey publicKey = getPublicKey(sender);
+		if (publicKey == null)
+		{
+			return false;
+		}
+		final Signature signature = signatures.get();
+		try
+		{
+			signature.initVerify(publicKey);
+			signature.update(transaction.getSignableData());
+			return signature.verify(transaction.getSignature());
+		}
+		catch (InvalidKeyException | SignatureException e)
+		{
+			return false;
+		}
+	}
+
+	/**
+	 * Verifies the signatures of all transactions of the given block in parallel
+	 *
+	 * @param block
+	 *            the block
+	 * @param addressResolver
+	 *            the function that resolves the address of a sender from its hash
+	 * @return true if the signatures of all transactions are valid, otherwise false
+	 */
+	public boolean verify(final IBlock block,
+		final Function<byte[], ? extends IAddress> addressResolver)
+	{
+		Objects.requireNonNull(block);
+		return block.getTransactions() == null
+			|| findInvalid(block.getTransactions(), addressResolver) < 0;
+	}
+
+	/**
+	 * Verifies the signatures of the given transactions in parallel. The verification stops
+	 * early: the transactions behind the first invalid transaction that is known so far are
+	 * skipped
+	 *
+	 * @param transactions
+	 *            the transactions
+	 * @param addressResolver
+	 *            the function that resolves the address of a sender from its hash
+	 * @return the index of the first transaction with an invalid signature or -1 if all
+	 *         signatures are valid
+	 */
+	public int findInvalid(final List<? extends ITransaction> transactions,
+		final Function<byte[], ? extends IAddress> addressResolver)
+	{
+		Objects.requireNonNull(transactions);
+		Objects.requireNonNull(addressResolver);
+		final List<? extends ITransaction> list = transactions instanceof RandomAccess
+			? transactions
+			: new ArrayList<>(transactions);
+		final AtomicInteger firstInvalid = new AtomicInteger(list.size());
+		if (!list.isEmpty())
+		{
+			pool.invoke(new VerificationTask(list, addressResolver, 0, list.size(), firstInvalid));
+		}
+		final int index = firstInvalid.get();
+		return index == list.size() ? -1 : index;
+	}
+
+	/**
+	 * Gets the decoded public key of the given address. The hash of the address is recalculated
+	 * from its name and public key, so an address that pairs the hash of another address with a
+	 * foreign public key is rejected. The key is decoded only on the first call for the hash of
+	 * the address
+	 *
+	 * @param address
+	 *            the address
+	 * @return the public key or null if the hash of the address does not match its name and
+	 *         public key or the public key can not be decoded
+	 */
+	public PublicKey getPublicKey(final IAddress address)
+	{
+		Objects.requireNonNull(address);
+		if (address.getHash() == null || address.getName() == null
+			|| address.getPublicKey() == null || !Arrays.equals(address.getHash(),
+				Address.calculateHash(address.getName(), address.getPublicKey())))
+		{
+			return null;
+		}
+		return publicKeys.computeIfAbsent(ByteBuffer.wrap(address.getHash().clone()),
+			key -> decodePublicKey(address.getPublicKey()));
+	}
+
+	/**
+	 * Gets the number of cached public keys
+	 *
+	 * @return the number of cached public keys
+	 */
+	public int getCachedKeyCount()
+	{
+		return publicKeys.size();
+	}
+
+	/**
+	 * Removes all cached public keys
+	 */
+	public void clearCachedKeys()
+	{
+		publicKeys.clear();
+	}
+
+	private PublicKey decodePublicKey(final byte[] encoded)
+	{
+		try
+		{
+			return keyFactories.get().generatePublic(new X509EncodedKeySpec(encoded));
+		}
+		catch (InvalidKeySpecException e)
+		{
+			return null;
+		}
+	}
+
+	private static Signature newSignature(final String algorithm)
+	{
+		try
+		{
+			return Signature.getInstance(algorithm);
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static KeyFactory newKeyFactory(final String algorithm)
+	{
+		try
+		{
+			return KeyFactory.getInstance(algorithm);
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * The task that verifies the signatures of a range of transactions
+	 */
+	private final class VerificationTask extends RecursiveAction
+	{
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<? extends ITransaction> transactions;
+
+		private final Function<byte[], ? extends IAddress> addressResolver;
+
+		private final int from;
+
+		private final int to;
+
+		private final AtomicInteger firstInvalid;
+
+		VerificationTask(List<? extends ITransaction> transactions,
+			Function<byte[], ? extends IAddress> addressResolver, int from, int to,
+			AtomicInteger firstInvalid)
+		{
+			this.transactions = transactions;
+			this.addressResolver = addressResolver;
+			this.from = from;
+			this.to = to;
+			this.firstInvalid = firstInvalid;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if (firstInvalid.get() <= from)
+			{
+				return;
+			}
+			if (to - from <= threshold)
+			{
+				for (int index = from; index < to && index < firstInvalid.get(); index++)
+				{
+					final ITransaction transaction = transactions.get(index);
+					if (!verify(transaction, addressResolver.apply(transaction.getSenderHash())))
+					{
+						firstInvalid.accumulateAndGet(index, Math::min);
+						return;
+					}
+				}
+				return;
+			}
+			final int middle = (from + to) >>> 1;
+			invokeAll(
+				new VerificationTask(transactions, addressResolver, from, middle, firstInvalid),
+				new VerificationTask(transactions, addressResolver, middle, to, firstInvalid));
+		}
+	}
+}
@@ -0,0 +1,578 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.cipher;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+
+import io.github.astrapi69.crypt.data.factory.CipherFactory;
+import io.github.astrapi69.crypt.data.factory.SecretKeyFactoryExtensions;
+
+/**
+ * The class {@link ChunkedAeadContainer} encrypts files into a container of segments that are
+ * sealed independently with AES/GCM. The segments are encrypted and decrypted in parallel on a
+ * {@link ForkJoinPool} and a range of the plaintext can be decrypted by reading only the segments
+ * that cover it.
+ * <br>
+ * <br>
+ * The container starts with a header that holds a magic number, the format version, the segment
+ * size, the plaintext length and a random nonce prefix, followed by a GCM tag over these fields.
+ * The header is followed by the segments, every segment has the segment size plus the tag length
+ * except the last one that can be shorter. The nonce of a segment is the nonce prefix followed by
+ * the segment index and the header fields are the additional authenticated data of every segment,
+ * so segments can not be reordered, truncated or moved into another container unnoticed.
+ * <br>
+ * <br>
+ * The ciphers are borrowed from the {@link io.github.astrapi69.crypt.data.factory.CipherPool}
+ * with {@link CipherFactory#borrowCipher(int, java.security.Key,
+ * java.security.spec.AlgorithmParameterSpec, String)}
+ */
+public final class ChunkedAeadContainer
+{
+
+	/** The transformation of the segment ciphers */
+	public static final String TRANSFORMATION = "AES/GCM/NoPadding";
+
+	/** The default size of the plaintext of one segment in bytes */
+	public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024;
+
+	/** The magic number at the start of a container */
+	public static final int MAGIC = 0x43444143;
+
+	/** The version of the container format */
+	public static final byte VERSION = 1;
+
+	/** The length of the GCM tag in bytes */
+	public static final int TAG_LENGTH = 16;
+
+	/** The length of the nonce prefix in bytes */
+	public static final int NONCE_PREFIX_LENGTH = 8;
+
+	/** The length of the authenticated header fields in bytes */
+	static final int HEADER_FIELDS_LENGTH = 4 + 1 + 4 + 8 + NONCE_PREFIX_LENGTH;
+
+	/** The length of the header including its tag in bytes */
+	public static final int HEADER_LENGTH = HEADER_FIELDS_LENGTH + TAG_LENGTH;
+
+	/** The segment index that is used for the nonce of the header tag */
+	private static final int HEADER_INDEX = -1;
+
+	/** The source of the nonce prefixes */
+	private static final SecureRandom RANDOM = new SecureRandom();
+
+	/** The AES key */
+	private final SecretKey key;
+
+	/** The size of the plaintext of one segment in bytes for new containers */
+	private final int segmentSize;
+
+	/** The pool that encrypts and decrypts the segments */
+	private final ForkJoinPool pool;
+
+	/**
+	 * Instantiates a new {@link ChunkedAeadContainer} with the given key that uses the default
+	 * segment size and the common pool
+	 *
+	 * @param key
+	 *            the AES key
+	 */
+	public ChunkedAeadContainer(final SecretKey key)
+	{
+		this(key, DEFAULT_SEGMENT_SIZE, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Instantiates a new {@link ChunkedAeadContainer} with the given parameters
+	 *
+	 * @param key
+	 *            the AES key
+	 * @param segmentSize
+	 *            the size of the plaintext of one segment in bytes for new containers, existing
+	 *            containers are read with the segment size of their header
+	 * @param pool
+	 *            the pool that encrypts and decrypts the segments
+	 */
+	public ChunkedAeadContainer(final SecretKey key, final int segmentSize,
+		final ForkJoinPool pool)
+	{
+		Objects.requireNonNull(key);
+		Objects.requireNonNull(pool);
+		if (segmentSize < 1 || Integer.MAX_VALUE - TAG_LENGTH < segmentSize)
+		{
+			throw new IllegalArgumentException("segmentSize must be positive: " + segmentSize);
+		}
+		this.key = key;
+		this.segmentSize = segmentSize;
+		this.pool = pool;
+	}
+
+	/**
+	 * Factory method for creating a new random AES key with 256 bits for a container
+	 *
+	 * @return the new key
+	 * @throws NoSuchAlgorithmException
+	 *             if no provider supports AES
+	 */
+	public static SecretKey newKey() throws NoSuchAlgorithmException
+	{
+		return SecretKeyFactoryExtensions.newSecretKey("AES", 256);
+	}
+
+	/**
+	 * Encrypts the given source file into a new container in the given target file
+	 *
+	 * @param source
+	 *            the plaintext file
+	 * @param target
+	 *            the container file, an existing file is overwritten
+	 * @return the number of plaintext bytes
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred or the encryption fails
+	 */
+	public long encrypt(final Path source, final Path target) throws IOException
+	{
+		Objects.requireNonNull(source);
+		Objects.requireNonNull(target);
+		try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+			FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+		{
+			final byte[] noncePrefix = new byte[NONCE_PREFIX_LENGTH];
+			RANDOM.nextBytes(noncePrefix);
+			final Header header = new Header(segmentSize, in.size(), noncePrefix);
+			final ByteBuffer headerBuffer = ByteBuffer.allocate(HEADER_LENGTH);
+			headerBuffer.put(header.fields);
+			try
+			{
+				headerBuffer.put(header.computeTag(key));
+			}
+			catch (GeneralSecurityException e)
+			{
+				throw new IOException(e.getMessage(), e);
+			}
+			writeFully(out, headerBuffer.flip(), 0);
+			invoke(0, header.getSegmentCount(), index -> {
+				final ByteBuffer plaintext = ByteBuffer.allocate(header.getSegmentLength(index));
+				readFully(in, plaintext, header.getPlaintextOffset(index));
+				final ByteBuffer ciphertext = ByteBuffer
+					.allocate(plaintext.capacity() + TAG_LENGTH);
+				seal(header, index, Cipher.ENCRYPT_MODE, plaintext.flip(), ciphertext);
+				writeFully(out, ciphertext.flip(), header.getCiphertextOffset(index));
+			});
+			return header.plaintextLength;
+		}
+	}
+
+	/**
+	 * Decrypts the given container file into the given target file. If the decryption of a
+	 * segment fails the incomplete target file is deleted
+	 *
+	 * @param source
+	 *            the container file
+	 * @param target
+	 *            the plaintext file, an existing file is overwritten
+	 * @return the number of plaintext bytes
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred, the container is malformed or the
+	 *             authentication of the header or of a segment fails
+	 */
+	public long decrypt(final Path source, final Path target) throws IOException
+	{
+		Objects.requireNonNull(source);
+		Objects.requireNonNull(target);
+		try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ))
+		{
+			final Header header = readHeader(in);
+			try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+			{
+				invoke(0, header.getSegmentCount(), index -> {
+					final ByteBuffer plaintext = openSegment(in, header, index);
+					writeFully(out, plaintext, header.getPlaintextOffset(index));
+				});
+			}
+			catch (IOException | RuntimeException e)
+			{
+				try
+				{
+					Files.deleteIfExists(target);
+				}
+				catch (IOException deleteException)
+				{
+					e.addSuppressed(deleteException);
+				}
+				throw e;
+			}
+			return header.plaintextLength;
+		}
+	}
+
+	/**
+	 * Decrypts the given range of the plaintext of the given container file. Only the segments
+	 * that cover the range are read and decrypted
+	 *
+	 * @param source
+	 *            the container file
+	 * @param position
+	 *            the position of the first plaintext byte
+	 * @param length
+	 *            the number of plaintext bytes
+	 * @return the decrypted bytes
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred, the container is malformed or the
+	 *             authentication of the header or of a segment fails
+	 */
+	public byte[] decrypt(final Path source, final long position, final int length)
+		throws IOException
+	{
+		Objects.requireNonNull(source);
+		try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ))
+		{
+			final Header header = readHeader(in);
+			Objects.checkFromIndexSize(position, length, header.plaintextLength);
+			final byte[] result = new byte[length];
+			if (length == 0)
+			{
+				return result;
+			}
+			final int fromSegment = (int)(position / header.segmentSize);
+			final int toSegment = (int)((position + length - 1) / header.segmentSize) + 1;
+			invoke(fromSegment, toSegment, index -> {
+				final ByteBuffer plaintext = openSegment(in, header, index);
+				final long segmentOffset = header.getPlaintextOffset(index);
+				final long from = Math.max(position, segmentOffset);
+				final long to = Math.min(position + length, segmentOffset + plaintext.limit());
+				plaintext.position((int)(from - segmentOffset));
+				plaintext.get(result, (int)(from - position), (int)(to - from));
+			});
+			return result;
+		}
+	}
+
+	/**
+	 * Reads and authenticates the header of the given container file and gets the number of
+	 * plaintext bytes
+	 *
+	 * @param source
+	 *            the container file
+	 * @return the number of plaintext bytes
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred, the container is malformed or the
+	 *             authentication of the header fails
+	 */
+	public long getPlaintextLength(final Path source) throws IOException
+	{
+		Objects.requireNonNull(source);
+		try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ))
+		{
+			return readHeader(in).plaintextLength;
+		}
+	}
+
+	/**
+	 * Gets the size of the plaintext of one segment in bytes for new containers
+	 *
+	 * @return the segment size
+	 */
+	public int getSegmentSize()
+	{
+		return segmentSize;
+	}
+
+	private Header readHeader(final FileChannel in) throws IOException
+	{
+		final ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH);
+		readFully(in, buffer, 0);
+		buffer.flip();
+		if (buffer.getInt() != MAGIC)
+		{
+			throw new IOException("The file is not a chunked AEAD container");
+		}
+		final byte version = buffer.get();
+		if (version != VERSION)
+		{
+			throw new IOException("Unsupported container version: " + version);
+		}
+		final int headerSegmentSize = buffer.getInt();
+		final long plaintextLength = buffer.getLong();
+		if (headerSegmentSize < 1 || Integer.MAX_VALUE - TAG_LENGTH < headerSegmentSize
+			|| plaintextLength < 0)
+		{
+			throw new IOException("Malformed container header");
+		}
+		final byte[] noncePrefix = new byte[NONCE_PREFIX_LENGTH];
+		buffer.get(noncePrefix);
+		final byte[] tag = new byte[TAG_LENGTH];
+		buffer.get(tag);
+		final Header header = new Header(headerSegmentSize, plaintextLength, noncePrefix);
+		try
+		{
+			header.verifyTag(key, tag);
+		}
+		catch (GeneralSecurityException e)
+		{
+			throw new IOException("The authentication of the container header failed", e);
+		}
+		if (in.size() < header.getContainerLength())
+		{
+			throw new IOException("The container is truncated");
+		}
+		if (header.getContainerLength() < in.size())
+		{
+			throw new IOException("The container has trailing data");
+		}
+		return header;
+	}
+
+	private ByteBuffer openSegment(final FileChannel in, final Header header, final int index)
+		throws IOException
+	{
+		final int plaintextLength = header.getSegmentLength(index);
+		final ByteBuffer ciphertext = ByteBuffer.allocate(plaintextLength + TAG_LENGTH);
+		readFully(in, ciphertext, header.getCiphertextOffset(index));
+		final ByteBuffer plaintext = ByteBuffer.allocate(plaintextLength);
+		seal(header, index, Cipher.DECRYPT_MODE, ciphertext.flip(), plaintext);
+		return plaintext.flip();
+	}
+
+	private void seal(final Header header, final int index, final int operationMode,
+		final ByteBuffer input, final ByteBuffer output) throws IOException
+	{
+		try
+		{
+			final Cipher cipher = CipherFactory.borrowCipher(operationMode, key,
+				new GCMParameterSpec(TAG_LENGTH * Byte.SIZE, header.getNonce(index)),
+				TRANSFORMATION);
+			try
+			{
+				cipher.updateAAD(header.fields);
+				cipher.doFinal(input, output);
+			}
+			finally
+			{
+				CipherFactory.releaseCipher(TRANSFORMATION, cipher);
+			}
+		}
+		catch (GeneralSecurityException e)
+		{
+			throw new IOException("Segment " + index + ": " + e.getMessage(), e);
+		}
+	}
+
+	private void invoke(final int from, final int to, final SegmentProcessor processor)
+		throws IOException
+	{
+		if (from == to)
+		{
+			return;
+		}
+		try
+		{
+			pool.invoke(new SegmentTask(processor, from, to));
+		}
+		catch (UncheckedIOException e)
+		{
+			throw e.getCause();
+		}
+	}
+
+	private static void readFully(final FileChannel channel, final ByteBuffer buffer,
+		final long position) throws IOException
+	{
+		long offset = position;
+		while (buffer.hasRemaining())
+		{
+			final int read = channel.read(buffer, offset);
+			if (read < 0)
+			{
+				throw new IOException("Unexpected end of file at position " + offset);
+			}
+			offset += read;
+		}
+	}
+
+	private static void writeFully(final FileChannel channel, final ByteBuffer buffer,
+		final long position) throws IOException
+	{
+		long offset = position;
+		while (buffer.hasRemaining())
+		{
+			offset += channel.write(buffer, offset);
+		}
+	}
+
+	/**
+	 * The processor of one segment
+	 */
+	@FunctionalInterface
+	private interface SegmentProcessor
+	{
+		void process(int index) throws IOException;
+	}
+
+	/**
+	 * The authenticated fields of a container header
+	 */
+	private static final class Header
+	{
+
+		private final int segmentSize;
+
+		private final long plaintextLength;
+
+		private final byte[] noncePrefix;
+
+		private final byte[] fields;
+
+		Header(int segmentSize, long plaintextLength, byte[] noncePrefix) throws IOException
+		{
+			this.segmentSize = segmentSize;
+			this.plaintextLength = plaintextLength;
+			this.noncePrefix = noncePrefix;
+			this.fields = ByteBuffer.allocate(HEADER_FIELDS_LENGTH).putInt(MAGIC).put(VERSION)
+				.putInt(segmentSize).putLong(plaintextLength).put(noncePrefix).array();
+			if (Integer.MAX_VALUE < (plaintextLength + segmentSize - 1) / segmentSize)
+			{
+				throw new IOException("Too many segments for the plaintext length "
+					+ plaintextLength + " and the segment size " + segmentSize);
+			}
+		}
+
+		int getSegmentCount()
+		{
+			return (int)((plaintextLength + segmentSize - 1) / segmentSize);
+		}
+
+		int getSegmentLength(int index)
+		{
+			return (int)Math.min(segmentSize, plaintextLength - getPlaintextOffset(index));
+		}
+
+		long getPlaintextOffset(int index)
+		{
+			return (long)index * segmentSize;
+		}
+
+		long getCiphertextOffset(int index)
+		{
+			return HEADER_LENGTH + (long)index * (segmentSize + TAG_LENGTH);
+		}
+
+		long getContainerLength()
+		{
+			return HEADER_LENGTH + plaintextLength + (long)getSegmentCount() * TAG_LENGTH;
+		}
+
+		byte[] getNonce(int index)
+		{
+			return ByteBuffer.allocate(NONCE_PREFIX_LENGTH + Integer.BYTES).put(noncePrefix)
+				.putInt(index).array();
+		}
+
+		byte[] computeTag(SecretKey key) throws GeneralSecurityException
+		{
+			return processTag(key, Cipher.ENCRYPT_MODE, new byte[0]);
+		}
+
+		void verifyTag(SecretKey key, byte[] tag) throws GeneralSecurityException
+		{
+			processTag(key, Cipher.DECRYPT_MODE, tag);
+		}
+
+		private byte[] processTag(SecretKey key, int operationMode, byte[] input)
+			throws GeneralSecurityException
+		{
+			final Cipher cipher = CipherFactory.borrowCipher(operationMode, key,
+				new GCMParameterSpec(TAG_LENGTH * Byte.SIZE, getNonce(HEADER_INDEX)),
+				TRANSFORMATION);
+			try
+			{
+				cipher.updateAAD(fields);
+				return cipher.doFinal(input);
+			}
+			finally
+			{
+				CipherFactory.releaseCipher(TRANSFORMATION, cipher);
+			}
+		}
+	}
+
+	/**
+	 * The task that processes a range of segments
+	 */
+	private static final class SegmentTask extends RecursiveAction
+	{
+
+		private static final long serialVersionUID = 1L;
+
+		private final transient SegmentProcessor processor;
+
+		private final int from;
+
+		private final int to;
+
+		SegmentTask(SegmentProcessor processor, int from, int to)
+		{
+			this.processor = processor;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if (to - from == 1)
+			{
+				try
+				{
+					processor.process(from);
+				}
+				catch (IOException e)
+				{
+					throw new UncheckedIOException(e);
+				}
+				return;
+			}
+			final int middle = (from + to) >>> 1;
+			invokeAll(new SegmentTask(processor, from, middle),
+				new SegmentTask(processor, middle, to));
+		}
+	}
+}
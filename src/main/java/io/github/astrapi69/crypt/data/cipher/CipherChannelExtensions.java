@@ -0,0 +1,349 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.cipher;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.InvalidAlgorithmParameterException;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.security.spec.AlgorithmParameterSpec;
+import java.security.spec.InvalidKeySpecException;
+
+import javax.crypto.Cipher;
+import javax.crypto.NoSuchPaddingException;
+import javax.crypto.SecretKey;
+
+import io.github.astrapi69.crypt.data.factory.CipherFactory;
+import io.github.astrapi69.crypt.data.model.CryptModel;
+
+/**
+ * The class {@link CipherChannelExtensions} provides factory methods for the encrypting and
+ * decrypting channels and streams with ciphers from the {@link CipherFactory} and methods for
+ * processing whole files with a constant amount of memory
+ */
+public final class CipherChannelExtensions
+{
+
+	private CipherChannelExtensions()
+	{
+	}
+
+	/**
+	 * Factory method for creating a new {@link EncryptingChannel} with a cipher that is created
+	 * from the given model. The operation mode of the model decides whether the channel encrypts
+	 * or decrypts
+	 *
+	 * @param channel
+	 *            the underlying channel that receives the processed bytes
+	 * @param model
+	 *            the model bean for creating the cipher
+	 * @return the new {@link EncryptingChannel}
+	 * @throws NoSuchAlgorithmException
+	 *             if instantiation of the SecretKeyFactory object fails
+	 * @throws InvalidKeySpecException
+	 *             if generation of the SecretKey object fails
+	 * @throws NoSuchPaddingException
+	 *             if instantiation of the cipher object fails
+	 * @throws InvalidKeyException
+	 *             if initialization of the cipher object fails
+	 * @throws InvalidAlgorithmParameterException
+	 *             if initialization of the cipher object fails
+	 * @throws UnsupportedEncodingException
+	 *             if the named charset is not supported
+	 */
+	public static EncryptingChannel newEncryptingChannel(final WritableByteChannel channel,
+		final CryptModel<Cipher, String, String> model)
+		throws NoSuchAlgorithmException, InvalidKeySpecException, NoSuchPaddingException,
+		InvalidKeyException, InvalidAlgorithmParameterException, UnsupportedEncodingException
+	{
+		return new EncryptingChannel(channel, CipherFactory.newCipher(model));
+	}
+
+	/**
+	 * Factory method for creating a new {@link EncryptingChannel} with a cipher in encrypt mode
+	 * that is created from the given parameters
+	 *
+	 * @param channel
+	 *            the underlying channel that receives the encrypted bytes
+	 * @param key
+	 *            the key
+	 * @param paramSpec
+	 *            the param spec
+	 * @param algorithm
+	 *            the algorithm
+	 * @return the new {@link EncryptingChannel}
+	 * @throws NoSuchAlgorithmException
+	 *             if instantiation of the cipher object fails
+	 * @throws NoSuchPaddingException
+	 *             if instantiation of the cipher object fails
+	 * @throws InvalidKeyException
+	 *             if initialization of the cipher object fails
+	 * @throws InvalidAlgorithmParameterException
+	 *             if initialization of the cipher object fails
+	 */
+	public static EncryptingChannel newEncryptingChannel(final WritableByteChannel channel,
+		final SecretKey key, final AlgorithmParameterSpec paramSpec, final String algorithm)
+		throws NoSuchAlgorithmException, NoSuchPaddingException, InvalidKeyException,
+		InvalidAlgorithmParameterException
+	{
+		return new EncryptingChannel(channel,
+			CipherFactory.newCipher(Cipher.ENCRYPT_MODE, key, paramSpec, algorithm));
+	}
+
+	/**
+	 * Factory method for creating a new {@link DecryptingChannel} with a cipher that is created
+	 * from the given model. The operation mode of the model decides whether the channel encrypts
+	 * or decrypts
+	 *
+	 * @param channel
+	 *            the underlying channel that provides the bytes to process
+	 * @param model
+	 *            the model bean for creating the cipher
+	 * @return the new {@link DecryptingChannel}
+	 * @throws NoSuchAlgorithmException
+	 *             if instantiation of the SecretKeyFactory object fails
+	 * @throws InvalidKeySpecException
+	 *             if generation of the SecretKey object fails
+	 * @throws NoSuchPaddingException
+	 *             if instantiation of the cipher object fails
+	 * @throws InvalidKeyException
+	 *             if initialization of the cipher object fails
+	 * @throws InvalidAlgorithmParameterException
+	 *             if initialization of the cipher object fails
+	 * @throws UnsupportedEncodingException
+	 *             if the named charset is not supported
+	 */
+	public static DecryptingChannel newDecryptingChannel(final ReadableByteChannel channel,
+		final CryptModel<Cipher, String, String> model)
+		throws NoSuchAlgorithmException, InvalidKeySpecException, NoSuchPaddingException,
+		InvalidKeyException, InvalidAlgorithmParameterException, UnsupportedEncodingException
+	{
+		return new DecryptingChannel(channel, CipherFactory.newCipher(model));
+	}
+
+	/**
+	 * Factory method for creating a new {@link DecryptingChannel} with a cipher in decrypt mode
+	 * that is created from the given parameters
+	 *
+	 * @param channel
+	 *            the underlying channel that provides the encrypted bytes
+	 * @param key
+	 *            the key
+	 * @param paramSpec
+	 *            the param spec
+	 * @param algorithm
+	 *            the algorithm
+	 * @return the new {@link DecryptingChannel}
+	 * @throws NoSuchAlgorithmException
+	 *             if instantiation of the cipher object fails
+	 * @throws NoSuchPaddingException
+	 *             if instantiation of the cipher object fails
+	 * @throws InvalidKeyException
+	 *             if initialization of the cipher object fails
+	 * @throws InvalidAlgorithmParameterException
+	 *             if initialization of the cipher object fails
+	 */
+	public static DecryptingChannel newDecryptingChannel(final ReadableByteChannel channel,
+		final SecretKey key, final AlgorithmParameterSpec paramSpec, final String algorithm)
+		throws NoSuchAlgorithmException, NoSuchPaddingException, InvalidKeyException,
+		InvalidAlgorithmParameterException
+	{
+		return new DecryptingChannel(channel,
+			CipherFactory.newCipher(Cipher.DECRYPT_MODE, key, paramSpec, algorithm));
+	}
+
+	/**
+	 * Factory method for creating a new {@link EncryptingOutputStream} with a cipher that is
+	 * created from the given model. The operation mode of the model decides whether the stream
+	 * encrypts or decrypts
+	 *
+	 * @param outputStream
+	 *            the underlying output stream that receives the processed bytes
+	 * @param model
+	 *            the model bean for creating the cipher
+	 * @return the new {@link EncryptingOutputStream}
+	 * @throws NoSuchAlgorithmException
+	 *             if instantiation of the SecretKeyFactory object fails
+	 * @throws InvalidKeySpecException
+	 *             if generation of the SecretKey object fails
+	 * @throws NoSuchPaddingException
+	 *             if instantiation of the cipher object fails
+	 * @throws InvalidKeyException
+	 *             if initialization of the cipher object fails
+	 * @throws InvalidAlgorithmParameterException
+	 *             if initialization of the cipher object fails
+	 * @throws UnsupportedEncodingException
+	 *             if the named charset is not supported
+	 */
+	public static EncryptingOutputStream newEncryptingOutputStream(final OutputStream outputStream,
+		final CryptModel<Cipher, String, String> model)
+		throws NoSuchAlgorithmException, InvalidKeySpecException, NoSuchPaddingException,
+		InvalidKeyException, InvalidAlgorithmParameterException, UnsupportedEncodingException
+	{
+		return new EncryptingOutputStream(outputStream, CipherFactory.newCipher(model));
+	}
+
+	/**
+	 * Factory method for creating a new {@link DecryptingInputStream} with a cipher that is
+	 * created from the given model. The operation mode of the model decides whether the stream
+	 * encrypts or decrypts
+	 *
+	 * @param inputStream
+	 *            the underlying input stream that provides the bytes to process
+	 * @param model
+	 *            the model bean for creating the cipher
+	 * @return the new {@link DecryptingInputStream}
+	 * @throws NoSuchAlgorithmException
+	 *             if instantiation of the SecretKeyFactory object fails
+	 * @throws InvalidKeySpecException
+	 *             if generation of the SecretKey object fails
+	 * @throws NoSuchPaddingException
+	 *             if instantiation of the cipher object fails
+	 * @throws InvalidKeyException
+	 *             if initialization of the cipher object fails
+	 * @throws InvalidAlgorithmParameterException
+	 *             if initialization of the cipher object fails
+	 * @throws UnsupportedEncodingException
+	 *             if the named charset is not supported
+	 */
+	public static DecryptingInputStream newDecryptingInputStream(final InputStream inputStream,
+		final CryptModel<Cipher, String, String> model)
+		throws NoSuchAlgorithmException, InvalidKeySpecException, NoSuchPaddingException,
+		InvalidKeyException, InvalidAlgorithmParameterException, UnsupportedEncodingException
+	{
+		return new DecryptingInputStream(inputStream, CipherFactory.newCipher(model));
+	}
+
+	/**
+	 * Passes the content of the given source file through the given initialized cipher and writes
+	 * the result to the given target file. The source file is transferred with
+	 * {@link FileChannel#transferTo(long, long, WritableByteChannel)} in chunks, so the memory
+	 * usage does not depend on the size of the file
+	 *
+	 * @param source
+	 *            the source file
+	 * @param target
+	 *            the target file, an existing file is overwritten and the incomplete file is
+	 *            deleted if the encryption fails
+	 * @param cipher
+	 *            the initialized cipher
+	 * @return the number of bytes that are read from the source file
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred or the cipher fails
+	 */
+	public static long encryptFile(final Path source, final Path target, final Cipher cipher)
+		throws IOException
+	{
+		try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ))
+		{
+			try (EncryptingChannel out = new EncryptingChannel(newTargetChannel(target), cipher))
+			{
+				final long size = in.size();
+				long position = 0;
+				while (position < size)
+				{
+					position += in.transferTo(position, size - position, out);
+				}
+				return position;
+			}
+			catch (IOException | RuntimeException e)
+			{
+				deleteTarget(target, e);
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * Reads the content of the given source file through the given initialized cipher and writes
+	 * the result to the given target file. The target file is filled with
+	 * {@link FileChannel#transferFrom(ReadableByteChannel, long, long)} in chunks, so the memory
+	 * usage does not depend on the size of the file, except for authenticated ciphers like AES/GCM
+	 * that need memory proportional to the size of the file as described in
+	 * {@link DecryptingChannel}
+	 *
+	 * @param source
+	 *            the source file
+	 * @param target
+	 *            the target file, an existing file is overwritten and the incomplete file is
+	 *            deleted if the decryption fails, for example if the authentication fails
+	 * @param cipher
+	 *            the initialized cipher
+	 * @return the number of bytes that are written to the target file
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred or the cipher fails
+	 */
+	public static long decryptFile(final Path source, final Path target, final Cipher cipher)
+		throws IOException
+	{
+		try (DecryptingChannel in = new DecryptingChannel(
+			FileChannel.open(source, StandardOpenOption.READ), cipher))
+		{
+			try (FileChannel out = newTargetChannel(target))
+			{
+				long position = 0;
+				long transferred;
+				while ((transferred = out.transferFrom(in, position,
+					DecryptingChannel.DEFAULT_CHUNK_SIZE)) > 0)
+				{
+					position += transferred;
+				}
+				return position;
+			}
+			catch (IOException | RuntimeException e)
+			{
+				deleteTarget(target, e);
+				throw e;
+			}
+		}
+	}
+
+	private static void deleteTarget(final Path target, final Exception cause)
+	{
+		try
+		{
+			Files.deleteIfExists(target);
+		}
+		catch (IOException e)
+		{
+			cause.addSuppressed(e);
+		}
+	}
+
+	private static FileChannel newTargetChannel(final Path target) throws IOException
+	{
+		return FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+			StandardOpenOption.TRUNCATE_EXISTING);
+	}
+}
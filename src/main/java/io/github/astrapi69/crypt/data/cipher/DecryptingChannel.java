@@ -0,0 +1,191 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.cipher;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.security.GeneralSecurityException;
+import java.util.Objects;
+
+import javax.crypto.Cipher;
+
+/**
+ * The class {@link DecryptingChannel} reads bytes from the underlying channel, passes them through
+ * an initialized {@link Cipher} and provides the result. The bytes are read in chunks into a
+ * reusable direct buffer and processed with {@link Cipher#update(ByteBuffer, ByteBuffer)} into
+ * another one, so the memory usage does not depend on the size of the payload. The final block is
+ * processed when the underlying channel reaches its end. The underlying channel has to be in
+ * blocking mode.
+ * <br>
+ * <br>
+ * Authenticated ciphers like AES/GCM hold back the whole plaintext until the tag of the final
+ * block is verified, so with such a cipher the output buffer grows to the size of the payload and
+ * the decryption needs memory proportional to it. Large files should be encrypted with a
+ * {@link ChunkedAeadContainer} instead, which authenticates every segment on its own.
+ */
+public class DecryptingChannel implements ReadableByteChannel
+{
+
+	/** The default number of bytes that are processed in one chunk */
+	public static final int DEFAULT_CHUNK_SIZE = 8192;
+
+	/** The underlying channel that provides the bytes to process */
+	private final ReadableByteChannel channel;
+
+	/** The initialized cipher */
+	private final Cipher cipher;
+
+	/** The direct buffer that receives the bytes of one chunk from the underlying channel */
+	private final ByteBuffer input;
+
+	/** The direct buffer with the processed bytes that are not read yet */
+	private ByteBuffer output;
+
+	/** The flag if the final block is processed */
+	private boolean finished;
+
+	/** The flag if this channel is closed */
+	private boolean closed;
+
+	/**
+	 * Instantiates a new {@link DecryptingChannel}
+	 *
+	 * @param channel
+	 *            the underlying channel that provides the bytes to process
+	 * @param cipher
+	 *            the initialized cipher
+	 */
+	public DecryptingChannel(final ReadableByteChannel channel, final Cipher cipher)
+	{
+		this(channel, cipher, DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * Instantiates a new {@link DecryptingChannel}
+	 *
+	 * @param channel
+	 *            the underlying channel that provides the bytes to process
+	 * @param cipher
+	 *            the initialized cipher
+	 * @param chunkSize
+	 *            the number of bytes that are processed in one chunk
+	 */
+	public DecryptingChannel(final ReadableByteChannel channel, final Cipher cipher,
+		final int chunkSize)
+	{
+		Objects.requireNonNull(channel);
+		Objects.requireNonNull(cipher);
+		if (chunkSize < 1)
+		{
+			throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+		}
+		this.channel = channel;
+		this.cipher = cipher;
+		this.input = ByteBuffer.allocateDirect(chunkSize);
+		this.output = ByteBuffer.allocateDirect(cipher.getOutputSize(chunkSize));
+		this.output.flip();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public int read(final ByteBuffer dst) throws IOException
+	{
+		if (closed)
+		{
+			throw new ClosedChannelException();
+		}
+		if (!dst.hasRemaining())
+		{
+			return 0;
+		}
+		while (!output.hasRemaining())
+		{
+			if (finished)
+			{
+				return -1;
+			}
+			fill();
+		}
+		final int length = Math.min(dst.remaining(), output.remaining());
+		final int limit = output.limit();
+		output.limit(output.position() + length);
+		dst.put(output);
+		output.limit(limit);
+		return length;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public boolean isOpen()
+	{
+		return !closed && channel.isOpen();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void close() throws IOException
+	{
+		closed = true;
+		channel.close();
+	}
+
+	private void fill() throws IOException
+	{
+		input.clear();
+		final int read = channel.read(input);
+		input.flip();
+		try
+		{
+			if (read < 0)
+			{
+				prepareOutput(cipher.getOutputSize(0));
+				cipher.doFinal(input, output);
+				finished = true;
+			}
+			else
+			{
+				prepareOutput(cipher.getOutputSize(input.remaining()));
+				cipher.update(input, output);
+			}
+		}
+		catch (GeneralSecurityException e)
+		{
+			throw new IOException(e.getMessage(), e);
+		}
+		output.flip();
+	}
+
+	private void prepareOutput(final int outputSize)
+	{
+		if (output.capacity() < outputSize)
+		{
+			output = ByteBuffer.allocateDirect(
+				(int)Math.min(Integer.MAX_VALUE, Math.max(outputSize, 2L * output.capacity())));
+		}
+		output.clear();
+	}
+}
@@ -0,0 +1,104 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.cipher;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+
+import javax.crypto.Cipher;
+
+/**
+ * The class {@link DecryptingInputStream} is an {@link InputStream} view of a
+ * {@link DecryptingChannel}. In difference to {@link javax.crypto.CipherInputStream} the cipher
+ * processes the bytes into a reusable direct buffer and a failure of the final block is thrown
+ * and not swallowed
+ */
+public class DecryptingInputStream extends InputStream
+{
+
+	/** The channel that provides the processed bytes */
+	private final DecryptingChannel channel;
+
+	/** The buffer for single bytes */
+	private final ByteBuffer single = ByteBuffer.allocate(1);
+
+	/**
+	 * Instantiates a new {@link DecryptingInputStream}
+	 *
+	 * @param inputStream
+	 *            the underlying input stream that provides the bytes to process
+	 * @param cipher
+	 *            the initialized cipher
+	 */
+	public DecryptingInputStream(final InputStream inputStream, final Cipher cipher)
+	{
+		this(new DecryptingChannel(Channels.newChannel(inputStream), cipher));
+	}
+
+	/**
+	 * Instantiates a new {@link DecryptingInputStream}
+	 *
+	 * @param channel
+	 *            the channel that provides the processed bytes
+	 */
+	public DecryptingInputStream(final DecryptingChannel channel)
+	{
+		this.channel = channel;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public int read() throws IOException
+	{
+		single.clear();
+		int read;
+		do
+		{
+			read = channel.read(single);
+		}
+		while (read == 0);
+		return read < 0 ? -1 : single.get(0) & 0xff;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public int read(final byte[] b, final int off, final int len) throws IOException
+	{
+		if (len == 0)
+		{
+			return 0;
+		}
+		return channel.read(ByteBuffer.wrap(b, off, len));
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void close() throws IOException
+	{
+		channel.close();
+	}
+}
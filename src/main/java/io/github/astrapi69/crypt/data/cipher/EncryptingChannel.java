@@ -0,0 +1,198 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.cipher;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+import java.security.GeneralSecurityException;
+import java.util.Objects;
+
+import javax.crypto.Cipher;
+
+/**
+ * The class {@link EncryptingChannel} passes all written bytes through an initialized
+ * {@link Cipher} and writes the result to the underlying channel. The bytes are processed in
+ * chunks with {@link Cipher#update(ByteBuffer, ByteBuffer)} into a reusable direct buffer, so the
+ * memory usage does not depend on the size of the payload. The final block is written when the
+ * channel is closed. Every write blocks until all processed bytes are written, so the underlying
+ * channel has to be in blocking mode.
+ * <br>
+ * <br>
+ * The channel is named after its common use with a cipher in encrypt mode, but it works with a
+ * cipher in any mode
+ */
+public class EncryptingChannel implements WritableByteChannel
+{
+
+	/** The default number of bytes that are processed in one chunk */
+	public static final int DEFAULT_CHUNK_SIZE = 8192;
+
+	/** The empty input of the final block */
+	private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+	/** The underlying channel that receives the processed bytes */
+	private final WritableByteChannel channel;
+
+	/** The initialized cipher */
+	private final Cipher cipher;
+
+	/** The number of bytes that are processed in one chunk */
+	private final int chunkSize;
+
+	/** The direct buffer that receives the processed bytes of one chunk */
+	private ByteBuffer output;
+
+	/** The flag if this channel is closed */
+	private boolean closed;
+
+	/**
+	 * Instantiates a new {@link EncryptingChannel}
+	 *
+	 * @param channel
+	 *            the underlying channel that receives the processed bytes
+	 * @param cipher
+	 *            the initialized cipher
+	 */
+	public EncryptingChannel(final WritableByteChannel channel, final Cipher cipher)
+	{
+		this(channel, cipher, DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * Instantiates a new {@link EncryptingChannel}
+	 *
+	 * @param channel
+	 *            the underlying channel that receives the processed bytes
+	 * @param cipher
+	 *            the initialized cipher
+	 * @param chunkSize
+	 *            the number of bytes that are processed in one chunk
+	 */
+	public EncryptingChannel(final WritableByteChannel channel, final Cipher cipher,
+		final int chunkSize)
+	{
+		Objects.requireNonNull(channel);
+		Objects.requireNonNull(cipher);
+		if (chunkSize < 1)
+		{
+			throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+		}
+		this.channel = channel;
+		this.cipher = cipher;
+		this.chunkSize = chunkSize;
+		this.output = ByteBuffer.allocateDirect(cipher.getOutputSize(chunkSize));
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public int write(final ByteBuffer src) throws IOException
+	{
+		if (closed)
+		{
+			throw new ClosedChannelException();
+		}
+		final int length = src.remaining();
+		final int limit = src.limit();
+		try
+		{
+			while (src.hasRemaining())
+			{
+				src.limit(src.position() + Math.min(chunkSize, src.remaining()));
+				prepareOutput(cipher.getOutputSize(src.remaining()));
+				cipher.update(src, output);
+				src.limit(limit);
+				writeOutput();
+			}
+		}
+		catch (GeneralSecurityException e)
+		{
+			throw new IOException(e.getMessage(), e);
+		}
+		finally
+		{
+			src.limit(limit);
+		}
+		return length;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public boolean isOpen()
+	{
+		return !closed && channel.isOpen();
+	}
+
+	/**
+	 * Writes the final block of the cipher and closes the underlying channel
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred or the final block can not be
+	 *             processed
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		if (closed)
+		{
+			return;
+		}
+		closed = true;
+		try
+		{
+			prepareOutput(cipher.getOutputSize(0));
+			cipher.doFinal(EMPTY.duplicate(), output);
+			writeOutput();
+		}
+		catch (GeneralSecurityException e)
+		{
+			throw new IOException(e.getMessage(), e);
+		}
+		finally
+		{
+			channel.close();
+		}
+	}
+
+	private void prepareOutput(final int outputSize)
+	{
+		if (output.capacity() < outputSize)
+		{
+			output = ByteBuffer.allocateDirect(
+				(int)Math.min(Integer.MAX_VALUE, Math.max(outputSize, 2L * output.capacity())));
+		}
+		output.clear();
+	}
+
+	private void writeOutput() throws IOException
+	{
+		output.flip();
+		while (output.hasRemaining())
+		{
+			channel.write(output);
+		}
+	}
+}
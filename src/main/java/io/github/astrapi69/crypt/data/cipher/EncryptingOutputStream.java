@@ -0,0 +1,96 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.cipher;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+
+import javax.crypto.Cipher;
+
+/**
+ * The class {@link EncryptingOutputStream} is an {@link OutputStream} view of an
+ * {@link EncryptingChannel}. In difference to {@link javax.crypto.CipherOutputStream} the cipher
+ * processes the bytes into a reusable direct buffer and a failure of the final block is not
+ * swallowed but thrown on {@link #close()}
+ */
+public class EncryptingOutputStream extends OutputStream
+{
+
+	/** The channel that processes the written bytes */
+	private final EncryptingChannel channel;
+
+	/** The buffer for single bytes */
+	private final ByteBuffer single = ByteBuffer.allocate(1);
+
+	/**
+	 * Instantiates a new {@link EncryptingOutputStream}
+	 *
+	 * @param outputStream
+	 *            the underlying output stream that receives the processed bytes
+	 * @param cipher
+	 *            the initialized cipher
+	 */
+	public EncryptingOutputStream(final OutputStream outputStream, final Cipher cipher)
+	{
+		this(new EncryptingChannel(Channels.newChannel(outputStream), cipher));
+	}
+
+	/**
+	 * Instantiates a new {@link EncryptingOutputStream}
+	 *
+	 * @param channel
+	 *            the channel that processes the written bytes
+	 */
+	public EncryptingOutputStream(final EncryptingChannel channel)
+	{
+		this.channel = channel;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void write(final int b) throws IOException
+	{
+		single.clear();
+		single.put((byte)b);
+		single.flip();
+		channel.write(single);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void write(final byte[] b, final int off, final int len) throws IOException
+	{
+		channel.write(ByteBuffer.wrap(b, off, len));
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void close() throws IOException
+	{
+		channel.close();
+	}
+}
@@ -0,0 +1,555 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.cipher;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.GeneralSecurityException;
+import java.security.InvalidKeyException;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.spec.MGF1ParameterSpec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.OAEPParameterSpec;
+import javax.crypto.spec.PSource;
+
+import io.github.astrapi69.crypt.api.algorithm.HashAlgorithm;
+import io.github.astrapi69.crypt.data.factory.CipherFactory;
+import io.github.astrapi69.crypt.data.factory.SecretKeyFactoryExtensions;
+import io.github.astrapi69.crypt.data.hash.DigestPool;
+import io.github.astrapi69.crypt.data.model.AesRsaCryptModel;
+
+/**
+ * The class {@link EnvelopeCryptor} encrypts payloads with a fresh AES data key in AES/GCM and
+ * wraps the data key with RSA/OAEP for every recipient. An envelope for several recipients holds
+ * the payload only once, so an envelope for <code>n</code> recipients costs <code>n</code> RSA
+ * operations and one bulk encryption. The ciphers are borrowed from the
+ * {@link io.github.astrapi69.crypt.data.factory.CipherPool}.
+ * <br>
+ * <br>
+ * A single recipient envelope is represented by an {@link AesRsaCryptModel}, the encrypted key is
+ * the wrapped data key and the symmetric key encrypted object is the nonce followed by the
+ * ciphertext. The binary form of an envelope for several recipients consists of a magic number,
+ * the format version, the number of recipients, for every recipient the SHA-256 hash of its
+ * encoded public key and its wrapped data key, the nonce and the ciphertext. The bytes in front of
+ * the ciphertext are the additional authenticated data of the payload.
+ * <br>
+ * <br>
+ * The payload is streamed in chunks. On decryption the SunJCE provider holds back the plaintext
+ * of AES/GCM until the tag is verified, large payloads are better placed in a
+ * {@link ChunkedAeadContainer} whose key is sent in an envelope.
+ */
+public final class EnvelopeCryptor
+{
+
+	/** The transformation of the payload cipher */
+	public static final String PAYLOAD_TRANSFORMATION = "AES/GCM/NoPadding";
+
+	/** The transformation of the key wrapping cipher */
+	public static final String KEY_TRANSFORMATION = "RSA/ECB/OAEPWithSHA-256AndMGF1Padding";
+
+	/** The default size of the data key in bits */
+	public static final int DEFAULT_KEY_SIZE = 256;
+
+	/** The magic number at the start of an envelope */
+	public static final int MAGIC = 0x43444556;
+
+	/** The version of the envelope format */
+	public static final byte VERSION = 1;
+
+	/** The length of the nonce in bytes */
+	public static final int NONCE_LENGTH = 12;
+
+	/** The length of the GCM tag in bytes */
+	public static final int TAG_LENGTH = 16;
+
+	/** The length of the recipient ids in bytes */
+	public static final int KEY_ID_LENGTH = 32;
+
+	/** The maximum number of recipients of an envelope */
+	public static final int MAX_RECIPIENTS = 0xFFFF;
+
+	/** The maximum length of a wrapped data key in bytes */
+	static final int MAX_WRAPPED_KEY_LENGTH = 2048;
+
+	/** The number of bytes that are processed in one chunk */
+	static final int CHUNK_SIZE = 8192;
+
+	/** The OAEP parameters with SHA-256 for the hash and for MGF1 */
+	private static final OAEPParameterSpec OAEP_PARAMETER_SPEC = new OAEPParameterSpec("SHA-256",
+		"MGF1", MGF1ParameterSpec.SHA256, PSource.PSpecified.DEFAULT);
+
+	/** The source of the nonces */
+	private static final SecureRandom RANDOM = new SecureRandom();
+
+	/** The size of the data keys in bits */
+	private final int keySize;
+
+	/**
+	 * Instantiates a new {@link EnvelopeCryptor} with the default key size
+	 */
+	public EnvelopeCryptor()
+	{
+		this(DEFAULT_KEY_SIZE);
+	}
+
+	/**
+	 * Instantiates a new {@link EnvelopeCryptor} with the given key size
+	 *
+	 * @param keySize
+	 *            the size of the data keys in bits, 128, 192 or 256
+	 */
+	public EnvelopeCryptor(final int keySize)
+	{
+		if (keySize != 128 && keySize != 192 && keySize != 256)
+		{
+			throw new IllegalArgumentException("keySize must be 128, 192 or 256: " + keySize);
+		}
+		this.keySize = keySize;
+	}
+
+	/**
+	 * Encrypts the given payload for the given recipient
+	 *
+	 * @param payload
+	 *            the payload
+	 * @param publicKey
+	 *            the RSA public key of the recipient
+	 * @return the new {@link AesRsaCryptModel} with the wrapped data key and the encrypted payload
+	 * @throws GeneralSecurityException
+	 *             if the data key can not be created or wrapped or the encryption fails
+	 */
+	public AesRsaCryptModel encrypt(final byte[] payload, final PublicKey publicKey)
+		throws GeneralSecurityException
+	{
+		Objects.requireNonNull(payload);
+		Objects.requireNonNull(publicKey);
+		final SecretKey dataKey = newDataKey();
+		final byte[] encryptedKey = wrap(dataKey, publicKey);
+		final byte[] nonce = newNonce();
+		final byte[] encryptedObject = new byte[NONCE_LENGTH + payload.length + TAG_LENGTH];
+		System.arraycopy(nonce, 0, encryptedObject, 0, NONCE_LENGTH);
+		final Cipher cipher = borrowPayloadCipher(Cipher.ENCRYPT_MODE, dataKey, nonce);
+		try
+		{
+			cipher.updateAAD(encryptedKey);
+			cipher.doFinal(payload, 0, payload.length, encryptedObject, NONCE_LENGTH);
+		}
+		finally
+		{
+			CipherFactory.releaseCipher(PAYLOAD_TRANSFORMATION, cipher);
+		}
+		return new AesRsaCryptModel(encryptedKey, encryptedObject);
+	}
+
+	/**
+	 * Decrypts the payload of the given {@link AesRsaCryptModel}
+	 *
+	 * @param model
+	 *            the model with the wrapped data key and the encrypted payload
+	 * @param privateKey
+	 *            the RSA private key of the recipient
+	 * @return the payload
+	 * @throws GeneralSecurityException
+	 *             if the data key can not be unwrapped or the authentication of the payload fails
+	 */
+	public byte[] decrypt(final AesRsaCryptModel model, final PrivateKey privateKey)
+		throws GeneralSecurityException
+	{
+		Objects.requireNonNull(model);
+		Objects.requireNonNull(privateKey);
+		final byte[] encryptedObject = model.getSymmetricKeyEncryptedObject();
+		if (encryptedObject.length < NONCE_LENGTH + TAG_LENGTH)
+		{
+			throw new GeneralSecurityException("The encrypted object is too short");
+		}
+		final Key dataKey = unwrap(model.getEncryptedKey(), privateKey);
+		final Cipher cipher = borrowPayloadCipher(Cipher.DECRYPT_MODE, dataKey,
+			Arrays.copyOf(encryptedObject, NONCE_LENGTH));
+		try
+		{
+			cipher.updateAAD(model.getEncryptedKey());
+			return cipher.doFinal(encryptedObject, NONCE_LENGTH,
+				encryptedObject.length - NONCE_LENGTH);
+		}
+		finally
+		{
+			CipherFactory.releaseCipher(PAYLOAD_TRANSFORMATION, cipher);
+		}
+	}
+
+	/**
+	 * Encrypts the given payload for the given recipients into the binary form of an envelope
+	 *
+	 * @param payload
+	 *            the payload
+	 * @param publicKeys
+	 *            the RSA public keys of the recipients
+	 * @return the binary form of the envelope
+	 * @throws GeneralSecurityException
+	 *             if the data key can not be created or wrapped or the encryption fails
+	 */
+	public byte[] encrypt(final byte[] payload, final Collection<? extends PublicKey> publicKeys)
+		throws GeneralSecurityException
+	{
+		Objects.requireNonNull(payload);
+		Objects.requireNonNull(publicKeys);
+		final ByteArrayOutputStream envelope = new ByteArrayOutputStream(
+			payload.length + TAG_LENGTH + 512 * publicKeys.size());
+		try
+		{
+			encrypt(new ByteArrayInputStream(payload), envelope, publicKeys);
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+		return envelope.toByteArray();
+	}
+
+	/**
+	 * Decrypts the payload of the given binary form of an envelope. Because the recipient is not
+	 * known the wrapped data keys are tried in order until one can be unwrapped with the given
+	 * private key
+	 *
+	 * @param envelope
+	 *            the binary form of the envelope
+	 * @param privateKey
+	 *            the RSA private key of the recipient
+	 * @return the payload
+	 * @throws GeneralSecurityException
+	 *             if no data key can be unwrapped or the authentication of the payload fails
+	 * @throws IOException
+	 *             if the envelope is malformed
+	 */
+	public byte[] decrypt(final byte[] envelope, final PrivateKey privateKey)
+		throws GeneralSecurityException, IOException
+	{
+		return decrypt(envelope, privateKey, null);
+	}
+
+	/**
+	 * Decrypts the payload of the given binary form of an envelope with the wrapped data key of
+	 * the given recipient
+	 *
+	 * @param envelope
+	 *            the binary form of the envelope
+	 * @param privateKey
+	 *            the RSA private key of the recipient
+	 * @param publicKey
+	 *            the RSA public key of the recipient that selects the wrapped data key or null if
+	 *            the wrapped data keys are tried in order
+	 * @return the payload
+	 * @throws GeneralSecurityException
+	 *             if the data key can not be unwrapped or the authentication of the payload fails
+	 * @throws IOException
+	 *             if the envelope is malformed
+	 */
+	public byte[] decrypt(final byte[] envelope, final PrivateKey privateKey,
+		final PublicKey publicKey) throws GeneralSecurityException, IOException
+	{
+		Objects.requireNonNull(envelope);
+		final ByteArrayOutputStream payload = new ByteArrayOutputStream(envelope.length);
+		decrypt(new ByteArrayInputStream(envelope), payload, privateKey, publicKey);
+		return payload.toByteArray();
+	}
+
+	/**
+	 * Encrypts the payload of the given input stream for the given recipients and writes the
+	 * binary form of the envelope to the given output stream. The streams are not closed
+	 *
+	 * @param payload
+	 *            the input stream of the payload
+	 * @param envelope
+	 *            the output stream that receives the binary form of the envelope
+	 * @param publicKeys
+	 *            the RSA public keys of the recipients
+	 * @throws GeneralSecurityException
+	 *             if the data key can not be created or wrapped or the encryption fails
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public void encrypt(final InputStream payload, final OutputStream envelope,
+		final Collection<? extends PublicKey> publicKeys)
+		throws GeneralSecurityException, IOException
+	{
+		Objects.requireNonNull(payload);
+		Objects.requireNonNull(envelope);
+		Objects.requireNonNull(publicKeys);
+		if (publicKeys.isEmpty() || MAX_RECIPIENTS < publicKeys.size())
+		{
+			throw new IllegalArgumentException(
+				"The number of recipients must be between 1 and " + MAX_RECIPIENTS);
+		}
+		final SecretKey dataKey = newDataKey();
+		final ByteArrayOutputStream headerBytes = new ByteArrayOutputStream(
+			16 + publicKeys.size() * 300);
+		final DataOutputStream header = new DataOutputStream(headerBytes);
+		header.writeInt(MAGIC);
+		header.writeByte(VERSION);
+		header.writeShort(publicKeys.size());
+		for (PublicKey publicKey : publicKeys)
+		{
+			final byte[] wrappedKey = wrap(dataKey, publicKey);
+			header.write(getKeyId(publicKey));
+			header.writeShort(wrappedKey.length);
+			header.write(wrappedKey);
+		}
+		final byte[] nonce = newNonce();
+		header.write(nonce);
+		final byte[] aad = headerBytes.toByteArray();
+		envelope.write(aad);
+		final Cipher cipher = borrowPayloadCipher(Cipher.ENCRYPT_MODE, dataKey, nonce);
+		try
+		{
+			cipher.updateAAD(aad);
+			process(cipher, payload, envelope);
+		}
+		finally
+		{
+			CipherFactory.releaseCipher(PAYLOAD_TRANSFORMATION, cipher);
+		}
+	}
+
+	/**
+	 * Reads the binary form of an envelope from the given input stream and writes the decrypted
+	 * payload to the given output stream. The streams are not closed. If the authentication of
+	 * the payload fails the written payload has to be discarded
+	 *
+	 * @param envelope
+	 *            the input stream of the binary form of the envelope
+	 * @param payload
+	 *            the output stream that receives the payload
+	 * @param privateKey
+	 *            the RSA private key of the recipient
+	 * @param publicKey
+	 *            the RSA public key of the recipient that selects the wrapped data key or null if
+	 *            the wrapped data keys are tried in order
+	 * @throws GeneralSecurityException
+	 *             if the data key can not be unwrapped or the authentication of the payload fails
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred or the envelope is malformed
+	 */
+	public void decrypt(final InputStream envelope, final OutputStream payload,
+		final PrivateKey privateKey, final PublicKey publicKey)
+		throws GeneralSecurityException, IOException
+	{
+		Objects.requireNonNull(envelope);
+		Objects.requireNonNull(payload);
+		Objects.requireNonNull(privateKey);
+		final ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+		final DataInputStream header = new DataInputStream(envelope);
+		final DataOutputStream aad = new DataOutputStream(headerBytes);
+		final int magic = header.readInt();
+		if (magic != MAGIC)
+		{
+			throw new IOException("The input is not an envelope");
+		}
+		final byte version = header.readByte();
+		if (version != VERSION)
+		{
+			throw new IOException("Unsupported envelope version: " + version);
+		}
+		final int recipientCount = header.readUnsignedShort();
+		aad.writeInt(magic);
+		aad.writeByte(version);
+		aad.writeShort(recipientCount);
+		final byte[] keyId = publicKey == null ? null : getKeyId(publicKey);
+		final List<byte[]> wrappedKeys = new ArrayList<>();
+		for (int i = 0; i < recipientCount; i++)
+		{
+			final byte[] recipientId = new byte[KEY_ID_LENGTH];
+			header.readFully(recipientId);
+			final int wrappedKeyLength = header.readUnsignedShort();
+			if (MAX_WRAPPED_KEY_LENGTH < wrappedKeyLength)
+			{
+				throw new IOException("Wrapped key too long: " + wrappedKeyLength);
+			}
+			final byte[] wrappedKey = new byte[wrappedKeyLength];
+			header.readFully(wrappedKey);
+			aad.write(recipientId);
+			aad.writeShort(wrappedKeyLength);
+			aad.write(wrappedKey);
+			if (keyId == null || MessageDigest.isEqual(keyId, recipientId))
+			{
+				wrappedKeys.add(wrappedKey);
+			}
+		}
+		final byte[] nonce = new byte[NONCE_LENGTH];
+		header.readFully(nonce);
+		aad.write(nonce);
+		final Key dataKey = unwrapAny(wrappedKeys, privateKey);
+		final Cipher cipher = borrowPayloadCipher(Cipher.DECRYPT_MODE, dataKey, nonce);
+		try
+		{
+			cipher.updateAAD(headerBytes.toByteArray());
+			process(cipher, envelope, payload);
+		}
+		finally
+		{
+			CipherFactory.releaseCipher(PAYLOAD_TRANSFORMATION, cipher);
+		}
+	}
+
+	/**
+	 * Gets the id of the given public key that identifies a recipient in an envelope, the SHA-256
+	 * hash of the encoded key
+	 *
+	 * @param publicKey
+	 *            the public key
+	 * @return the id of the public key
+	 * @throws NoSuchAlgorithmException
+	 *             if instantiation of the MessageDigest object fails
+	 */
+	public static byte[] getKeyId(final PublicKey publicKey) throws NoSuchAlgorithmException
+	{
+		Objects.requireNonNull(publicKey);
+		return DigestPool.getInstance().getThreadLocal(HashAlgorithm.SHA_256)
+			.digest(publicKey.getEncoded());
+	}
+
+	/**
+	 * Gets the size of the data keys in bits
+	 *
+	 * @return the key size
+	 */
+	public int getKeySize()
+	{
+		return keySize;
+	}
+
+	private SecretKey newDataKey() throws NoSuchAlgorithmException
+	{
+		return SecretKeyFactoryExtensions.newSecretKey("AES", keySize);
+	}
+
+	private static byte[] newNonce()
+	{
+		final byte[] nonce = new byte[NONCE_LENGTH];
+		RANDOM.nextBytes(nonce);
+		return nonce;
+	}
+
+	private static byte[] wrap(final SecretKey dataKey, final PublicKey publicKey)
+		throws GeneralSecurityException
+	{
+		final Cipher cipher = CipherFactory.borrowCipher(Cipher.WRAP_MODE, publicKey,
+			OAEP_PARAMETER_SPEC, KEY_TRANSFORMATION);
+		try
+		{
+			return cipher.wrap(dataKey);
+		}
+		finally
+		{
+			CipherFactory.releaseCipher(KEY_TRANSFORMATION, cipher);
+		}
+	}
+
+	private static Key unwrap(final byte[] wrappedKey, final PrivateKey privateKey)
+		throws GeneralSecurityException
+	{
+		final Cipher cipher = CipherFactory.borrowCipher(Cipher.UNWRAP_MODE, privateKey,
+			OAEP_PARAMETER_SPEC, KEY_TRANSFORMATION);
+		try
+		{
+			return cipher.unwrap(wrappedKey, "AES", Cipher.SECRET_KEY);
+		}
+		finally
+		{
+			CipherFactory.releaseCipher(KEY_TRANSFORMATION, cipher);
+		}
+	}
+
+	private static Key unwrapAny(final List<byte[]> wrappedKeys, final PrivateKey privateKey)
+		throws GeneralSecurityException
+	{
+		GeneralSecurityException failure = null;
+		for (byte[] wrappedKey : wrappedKeys)
+		{
+			try
+			{
+				return unwrap(wrappedKey, privateKey);
+			}
+			catch (GeneralSecurityException e)
+			{
+				failure = e;
+			}
+		}
+		final InvalidKeyException exception = new InvalidKeyException(
+			"No data key of the envelope can be unwrapped with the given private key");
+		if (failure != null)
+		{
+			exception.initCause(failure);
+		}
+		throw exception;
+	}
+
+	private static Cipher borrowPayloadCipher(final int operationMode, final Key dataKey,
+		final byte[] nonce) throws GeneralSecurityException
+	{
+		return CipherFactory.borrowCipher(operationMode, dataKey,
+			new GCMParameterSpec(TAG_LENGTH * Byte.SIZE, nonce), PAYLOAD_TRANSFORMATION);
+	}
+
+	private static void process(final Cipher cipher, final InputStream input,
+		final OutputStream output) throws GeneralSecurityException, IOException
+	{
+		final byte[] buffer = new byte[CHUNK_SIZE];
+		byte[] processed = new byte[cipher.getOutputSize(CHUNK_SIZE)];
+		int read;
+		while ((read = input.read(buffer)) >= 0)
+		{
+			processed = ensureCapacity(processed, cipher.getOutputSize(read));
+			output.write(processed, 0, cipher.update(buffer, 0, read, processed, 0));
+		}
+		processed = ensureCapacity(processed, cipher.getOutputSize(0));
+		output.write(processed, 0, cipher.doFinal(processed, 0));
+	}
+
+	private static byte[] ensureCapacity(final byte[] array, final int length)
+	{
+		return length <= array.length
+			? array
+			: new byte[(int)Math.min(Integer.MAX_VALUE, Math.max(length, 2L * array.length))];
+	}
+}
@@ -0,0 +1,5 @@
+/**
+ * This package provides channels and streams that encrypt and decrypt their content with a
+ * cipher
+ */
+package io.github.astrapi69.crypt.data.cipher;
\ No newline at end of file
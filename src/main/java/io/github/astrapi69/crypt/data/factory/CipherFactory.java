@@ -27,19 +27,23 @@ package io.github.astrapi69.crypt.data.factory;
 import java.io.UnsupportedEncodingException;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
+import java.security.Key;
 import java.security.NoSuchAlgorithmException;
 import java.security.NoSuchProviderException;
 import java.security.spec.AlgorithmParameterSpec;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.KeySpec;
 import java.text.Normalizer;
+import java.util.Arrays;
 
 import javax.crypto.Cipher;
 import javax.crypto.NoSuchPaddingException;
 import javax.crypto.SecretKey;
 import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.PBEKeySpec;
 import javax.crypto.spec.PBEParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
 
 import io.github.astrapi69.crypt.api.algorithm.compound.CompoundAlgorithm;
 import io.github.astrapi69.crypt.data.model.CryptModel;
@@ -55,13 +59,20 @@ public final class CipherFactory
 	}
 
 	/**
-	 * Factory method for creating a new {@link Cipher} from the given parameters
+	 * Factory method for creating a new {@link Cipher} from the given parameters. If the flag
+	 * derivedKeyCached of the given model is set the cipher key and the initialization vector
+	 * that the PBES1 algorithm derives from the password are taken from the shared
+	 * {@link DerivedKeyCache}, and the returned cipher is the underlying CBC cipher, for instance
+	 * 'DES/CBC/PKCS5Padding' for 'PBEWithMD5AndDES', that produces the same result without
+	 * running the iterations again. Only 'PBEWithMD5AndDES' and 'PBEWithMD5AndTripleDES' can be
+	 * cached
 	 *
 	 * @param model
 	 *            the model bean for creating the cipher
 	 * @return the cipher
 	 * @throws NoSuchAlgorithmException
-	 *             if instantiation of the SecretKeyFactory object fails
+	 *             if instantiation of the SecretKeyFactory object fails or the derived key of
+	 *             the algorithm can not be cached
 	 * @throws InvalidKeySpecException
 	 *             if generation of the SecretKey object fails
 	 * @throws NoSuchPaddingException
@@ -77,6 +88,10 @@ public final class CipherFactory
 		throws NoSuchAlgorithmException, InvalidKeySpecException, NoSuchPaddingException,
 		InvalidKeyException, InvalidAlgorithmParameterException, UnsupportedEncodingException
 	{
+		if (model.isDerivedKeyCached())
+		{
+			return newCipherWithCachedKey(model);
+		}
 		final KeySpec keySpec = KeySpecFactory.newPBEKeySpec(model.getKey(), model.getSalt(),
 			model.getIterationCount());
 		final SecretKeyFactory factory = SecretKeyFactoryExtensions
@@ -87,6 +102,51 @@ public final class CipherFactory
 		return newCipher(model.getOperationMode(), key, paramSpec, key.getAlgorithm());
 	}
 
+	/**
+	 * Creates the CBC cipher of the given PBES1 model from the cached cipher key and
+	 * initialization vector
+	 *
+	 * @param model
+	 *            the model
+	 * @return the new {@link Cipher}
+	 * @throws NoSuchAlgorithmException
+	 *             if the derived key of the algorithm can not be cached
+	 * @throws InvalidKeySpecException
+	 *             if the password, the salt or the iteration count is not valid
+	 * @throws NoSuchPaddingException
+	 *             if instantiation of the cipher object fails
+	 * @throws InvalidKeyException
+	 *             if initialization of the cipher object fails
+	 * @throws InvalidAlgorithmParameterException
+	 *             if initialization of the cipher object fails
+	 */
+	private static Cipher newCipherWithCachedKey(final CryptModel<Cipher, String, String> model)
+		throws NoSuchAlgorithmException, InvalidKeySpecException, NoSuchPaddingException,
+		InvalidKeyException, InvalidAlgorithmParameterException
+	{
+		final String algorithm = model.getAlgorithm().getAlgorithm();
+		final String password = model.getKey() == null
+			? CompoundAlgorithm.PASSWORD
+			: model.getKey();
+		final byte[] derived = DerivedKeyCache.getInstance()
+			.getOrDeriveCipherKey(algorithm, password.toCharArray(), model.getSalt(),
+				model.getIterationCount())
+			.getEncoded();
+		try
+		{
+			final int keyLength = derived.length - PBECipherKeyDerivation.IV_LENGTH;
+			final SecretKey key = new SecretKeySpec(derived, 0, keyLength,
+				PBECipherKeyDerivation.getKeyAlgorithm(algorithm));
+			return newCipher(model.getOperationMode(), key,
+				new IvParameterSpec(derived, keyLength, PBECipherKeyDerivation.IV_LENGTH),
+				PBECipherKeyDerivation.getTransformation(algorithm));
+		}
+		finally
+		{
+			Arrays.fill(derived, (byte)0);
+		}
+	}
+
 	/**
 	 * Factory method for creating a new {@link Cipher} from the given parameters
 	 *
@@ -184,6 +244,155 @@ public final class CipherFactory
 		return cipher;
 	}
 
+	/**
+	 * Borrows a {@link Cipher} of the given algorithm from the shared {@link CipherPool} and
+	 * initializes it with the given parameters. The cipher has to be given back with
+	 * {@link #releaseCipher(String, Cipher)}
+	 *
+	 * @param operationMode
+	 *            the operation mode
+	 * @param key
+	 *            the key
+	 * @param algorithm
+	 *            the algorithm
+	 * @return the borrowed and initialized {@link Cipher}
+	 * @throws NoSuchAlgorithmException
+	 *             if instantiation of the cipher object fails
+	 * @throws NoSuchPaddingException
+	 *             if instantiation of the cipher object fails
+	 * @throws InvalidKeyException
+	 *             if initialization of the cipher object fails
+	 */
+	public static Cipher borrowCipher(final int operationMode, final Key key,
+		final String algorithm)
+		throws NoSuchAlgorithmException, NoSuchPaddingException, InvalidKeyException
+	{
+		final Cipher cipher = CipherPool.getInstance().borrow(algorithm);
+		try
+		{
+			cipher.init(operationMode, key);
+			return cipher;
+		}
+		catch (InvalidKeyException | RuntimeException e)
+		{
+			CipherPool.getInstance().release(algorithm, cipher);
+			throw e;
+		}
+	}
+
+	/**
+	 * Borrows a {@link Cipher} of the given algorithm from the shared {@link CipherPool} and
+	 * initializes it with the given parameters. The cipher has to be given back with
+	 * {@link #releaseCipher(String, Cipher)}
+	 *
+	 * @param operationMode
+	 *            the operation mode
+	 * @param key
+	 *            the key
+	 * @param paramSpec
+	 *            the param spec
+	 * @param algorithm
+	 *            the algorithm
+	 * @return the borrowed and initialized {@link Cipher}
+	 * @throws NoSuchAlgorithmException
+	 *             if instantiation of the cipher object fails
+	 * @throws NoSuchPaddingException
+	 *             if instantiation of the cipher object fails
+	 * @throws InvalidKeyException
+	 *             if initialization of the cipher object fails
+	 * @throws InvalidAlgorithmParameterException
+	 *             if initialization of the cipher object fails
+	 */
+	public static Cipher borrowCipher(final int operationMode, final Key key,
+		final AlgorithmParameterSpec paramSpec, final String algorithm)
+		throws NoSuchAlgorithmException, NoSuchPaddingException, InvalidKeyException,
+		InvalidAlgorithmParameterException
+	{
+		try
+		{
+			return borrowCipher(operationMode, key, paramSpec, algorithm, null);
+		}
+		catch (NoSuchProviderException e)
+		{
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Borrows a {@link Cipher} of the given algorithm and provider from the shared
+	 * {@link CipherPool} and initializes it with the given parameters. The cipher has to be given
+	 * back with {@link #releaseCipher(String, String, Cipher)}
+	 *
+	 * @param operationMode
+	 *            the operation mode
+	 * @param key
+	 *            the key
+	 * @param paramSpec
+	 *            the param spec
+	 * @param algorithm
+	 *            the algorithm
+	 * @param provider
+	 *            the name of the provider or null for the preferred provider
+	 * @return the borrowed and initialized {@link Cipher}
+	 * @throws NoSuchAlgorithmException
+	 *             if instantiation of the cipher object fails
+	 * @throws NoSuchProviderException
+	 *             if the specified provider is not registered in the security provider list
+	 * @throws NoSuchPaddingException
+	 *             if instantiation of the cipher object fails
+	 * @throws InvalidKeyException
+	 *             if initialization of the cipher object fails
+	 * @throws InvalidAlgorithmParameterException
+	 *             if initialization of the cipher object fails
+	 */
+	public static Cipher borrowCipher(final int operationMode, final Key key,
+		final AlgorithmParameterSpec paramSpec, final String algorithm, final String provider)
+		throws NoSuchAlgorithmException, NoSuchProviderException, NoSuchPaddingException,
+		InvalidKeyException, InvalidAlgorithmParameterException
+	{
+		final Cipher cipher = CipherPool.getInstance().borrow(algorithm, provider);
+		try
+		{
+			cipher.init(operationMode, key, paramSpec);
+			return cipher;
+		}
+		catch (InvalidKeyException | InvalidAlgorithmParameterException | RuntimeException e)
+		{
+			CipherPool.getInstance().release(algorithm, provider, cipher);
+			throw e;
+		}
+	}
+
+	/**
+	 * Gives the given {@link Cipher} back to the shared {@link CipherPool}
+	 *
+	 * @param algorithm
+	 *            the algorithm the cipher was borrowed for
+	 * @param cipher
+	 *            the borrowed cipher
+	 */
+	public static void releaseCipher(final String algorithm, final Cipher cipher)
+	{
+		CipherPool.getInstance().release(algorithm, cipher);
+	}
+
+	/**
+	 * Gives the given {@link Cipher} back to the shared {@link CipherPool}
+	 *
+	 * @param algorithm
+	 *            the algorithm the cipher was borrowed for
+	 * @param provider
+	 *            the name of the provider the cipher was borrowed for or null for the preferred
+	 *            provider
+	 * @param cipher
+	 *            the borrowed cipher
+	 */
+	public static void releaseCipher(final String algorithm, final String provider,
+		final Cipher cipher)
+	{
+		CipherPool.getInstance().release(algorithm, provider, cipher);
+	}
+
 	/**
 	 * Factory method for creating a new {@link Cipher} from the given parameters
 	 *
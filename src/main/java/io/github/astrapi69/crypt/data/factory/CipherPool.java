@@ -0,0 +1,373 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.factory;
+
+import java.security.InvalidKeyException;
+import java.security.Key;
+import java.security.NoSuchAlgorithmException;
+import java.security.NoSuchProviderException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.crypto.Cipher;
+import javax.crypto.NoSuchPaddingException;
+
+/**
+ * The class {@link CipherPool} hands out reusable {@link Cipher} objects keyed by transformation
+ * and provider, so the provider lookup of {@link Cipher#getInstance(String)} is done only once per
+ * pooled instance. A borrowed cipher has to be given back with
+ * {@link #release(String, Cipher)} or {@link #release(String, String, Cipher)} and the same
+ * transformation and provider it was borrowed for. The number of idle ciphers per key is bounded,
+ * a cipher that is given back to a full pool is dropped.
+ * <br>
+ * <br>
+ * A cipher that is given back is reset to the uninitialized state, so the key and the parameters
+ * of its last use can not be used by the next borrower. Like a new cipher of
+ * {@link Cipher#getInstance(String)} a borrowed cipher has to be initialized before it is used, its
+ * update and doFinal methods throw an {@link IllegalStateException} otherwise. The borrowCipher
+ * methods of {@link CipherFactory} borrow a cipher from the shared instance and initialize it in
+ * one step.
+ * <br>
+ * <br>
+ * The hit, miss and drop counters, the number of borrowed and idle ciphers and the time spent in
+ * {@link #borrow(String, String)} show how well the pool fits the load
+ */
+public final class CipherPool
+{
+
+	/** The default maximum number of idle ciphers per transformation and provider */
+	public static final int DEFAULT_MAX_IDLE = 2 * Runtime.getRuntime().availableProcessors();
+
+	/** The shared instance */
+	private static final CipherPool INSTANCE = new CipherPool(DEFAULT_MAX_IDLE);
+
+	/** The idle ciphers by transformation and provider */
+	private final Map<CipherKey, BlockingQueue<Cipher>> idleCiphers = new ConcurrentHashMap<>();
+
+	/** The maximum number of idle ciphers per transformation and provider */
+	private final int maxIdle;
+
+	/** The number of requests that reused a cipher */
+	private final LongAdder hits = new LongAdder();
+
+	/** The number of requests that created a new cipher */
+	private final LongAdder misses = new LongAdder();
+
+	/**
+	 * The number of given back ciphers that are dropped because the pool was full or they could
+	 * not be reset
+	 */
+	private final LongAdder drops = new LongAdder();
+
+	/** The number of ciphers that are borrowed and not given back yet */
+	private final LongAdder borrowed = new LongAdder();
+
+	/** The nanoseconds spent in all borrow requests */
+	private final LongAdder borrowNanos = new LongAdder();
+
+	/**
+	 * Instantiates a new {@link CipherPool} with the given maximum number of idle ciphers per
+	 * transformation and provider
+	 *
+	 * @param maxIdle
+	 *            the maximum number of idle ciphers per transformation and provider
+	 */
+	public CipherPool(final int maxIdle)
+	{
+		if (maxIdle < 1)
+		{
+			throw new IllegalArgumentException("maxIdle must be positive: " + maxIdle);
+		}
+		this.maxIdle = maxIdle;
+	}
+
+	/**
+	 * Gets the shared instance
+	 *
+	 * @return the shared instance
+	 */
+	public static CipherPool getInstance()
+	{
+		return INSTANCE;
+	}
+
+	/**
+	 * Borrows a cipher of the given transformation from the pool. The cipher has to be given back
+	 * with {@link #release(String, Cipher)}
+	 *
+	 * @param transformation
+	 *            the transformation, for instance 'AES/GCM/NoPadding'
+	 * @return the borrowed cipher that has to be initialized before it is used
+	 * @throws NoSuchAlgorithmException
+	 *             if instantiation of the cipher object fails
+	 * @throws NoSuchPaddingException
+	 *             if the transformation contains a padding scheme that is not available
+	 */
+	public Cipher borrow(final String transformation)
+		throws NoSuchAlgorithmException, NoSuchPaddingException
+	{
+		try
+		{
+			return borrow(transformation, null);
+		}
+		catch (NoSuchProviderException e)
+		{
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Borrows a cipher of the given transformation and provider from the pool. The cipher has to
+	 * be given back with {@link #release(String, String, Cipher)}
+	 *
+	 * @param transformation
+	 *            the transformation, for instance 'AES/GCM/NoPadding'
+	 * @param provider
+	 *            the name of the provider or null for the preferred provider
+	 * @return the borrowed cipher that has to be initialized before it is used
+	 * @throws NoSuchAlgorithmException
+	 *             if instantiation of the cipher object fails
+	 * @throws NoSuchProviderException
+	 *             if the specified provider is not registered in the security provider list
+	 * @throws NoSuchPaddingException
+	 *             if the transformation contains a padding scheme that is not available
+	 */
+	public Cipher borrow(final String transformation, final String provider)
+		throws NoSuchAlgorithmException, NoSuchProviderException, NoSuchPaddingException
+	{
+		Objects.requireNonNull(transformation);
+		final long start = System.nanoTime();
+		try
+		{
+			final BlockingQueue<Cipher> queue = idleCiphers.get(new CipherKey(transformation,
+				provider));
+			final Cipher idle = queue == null ? null : queue.poll();
+			if (idle != null)
+			{
+				hits.increment();
+				borrowed.increment();
+				return idle;
+			}
+			final Cipher cipher = provider == null
+				? Cipher.getInstance(transformation)
+				: Cipher.getInstance(transformation, provider);
+			misses.increment();
+			borrowed.increment();
+			return cipher;
+		}
+		finally
+		{
+			borrowNanos.add(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Gives the given cipher back to the pool that was borrowed with
+	 * {@link #borrow(String)}. The cipher is reset to the uninitialized state. If the pool of the
+	 * given transformation is full or the cipher can not be reset the cipher is dropped
+	 *
+	 * @param transformation
+	 *            the transformation the cipher was borrowed for
+	 * @param cipher
+	 *            the borrowed cipher
+	 */
+	public void release(final String transformation, final Cipher cipher)
+	{
+		release(transformation, null, cipher);
+	}
+
+	/**
+	 * Gives the given cipher back to the pool that was borrowed with
+	 * {@link #borrow(String, String)}. The cipher is reset to the uninitialized state. If the pool
+	 * of the given transformation and provider is full or the cipher can not be reset the cipher
+	 * is dropped
+	 *
+	 * @param transformation
+	 *            the transformation the cipher was borrowed for
+	 * @param provider
+	 *            the name of the provider the cipher was borrowed for or null for the preferred
+	 *            provider
+	 * @param cipher
+	 *            the borrowed cipher
+	 */
+	public void release(final String transformation, final String provider, final Cipher cipher)
+	{
+		Objects.requireNonNull(transformation);
+		Objects.requireNonNull(cipher);
+		borrowed.decrement();
+		final BlockingQueue<Cipher> queue = idleCiphers.computeIfAbsent(
+			new CipherKey(transformation, provider), key -> new ArrayBlockingQueue<>(maxIdle));
+		if (!reset(cipher) || !queue.offer(cipher))
+		{
+			drops.increment();
+		}
+	}
+
+	/**
+	 * Resets the given cipher to the uninitialized state. {@link Cipher} has no method for this,
+	 * but every init method marks the cipher as uninitialized before it initializes the provider
+	 * implementation, so an init without a key leaves the cipher uninitialized
+	 *
+	 * @param cipher
+	 *            the cipher
+	 * @return true if the cipher is uninitialized or false if the init without a key succeeded
+	 */
+	static boolean reset(final Cipher cipher)
+	{
+		try
+		{
+			cipher.init(Cipher.ENCRYPT_MODE, (Key)null);
+		}
+		catch (InvalidKeyException | RuntimeException e)
+		{
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Gets the number of requests that reused a cipher
+	 *
+	 * @return the number of hits
+	 */
+	public long getHitCount()
+	{
+		return hits.sum();
+	}
+
+	/**
+	 * Gets the number of requests that created a new cipher
+	 *
+	 * @return the number of misses
+	 */
+	public long getMissCount()
+	{
+		return misses.sum();
+	}
+
+	/**
+	 * Gets the number of given back ciphers that are dropped because the pool was full or they
+	 * could not be reset
+	 *
+	 * @return the number of drops
+	 */
+	public long getDropCount()
+	{
+		return drops.sum();
+	}
+
+	/**
+	 * Gets the number of ciphers that are borrowed and not given back yet
+	 *
+	 * @return the number of borrowed ciphers
+	 */
+	public long getBorrowedCount()
+	{
+		return borrowed.sum();
+	}
+
+	/**
+	 * Gets the number of idle ciphers of all transformations and providers
+	 *
+	 * @return the number of idle ciphers
+	 */
+	public int getIdleCount()
+	{
+		int idleCount = 0;
+		for (BlockingQueue<Cipher> queue : idleCiphers.values())
+		{
+			idleCount += queue.size();
+		}
+		return idleCount;
+	}
+
+	/**
+	 * Gets the average nanoseconds of a borrow request, including the creation of new ciphers
+	 *
+	 * @return the average nanoseconds of a borrow request or zero if nothing is borrowed yet
+	 */
+	public double getAverageBorrowNanos()
+	{
+		final long requests = hits.sum() + misses.sum();
+		return requests == 0 ? 0 : (double)borrowNanos.sum() / requests;
+	}
+
+	/**
+	 * Resets the hit, miss and drop counters and the borrow time
+	 */
+	public void resetStatistics()
+	{
+		hits.reset();
+		misses.reset();
+		drops.reset();
+		borrowNanos.reset();
+	}
+
+	/**
+	 * Removes all idle ciphers
+	 */
+	public void clear()
+	{
+		idleCiphers.clear();
+	}
+
+	/**
+	 * The key of the idle ciphers of a transformation and a provider
+	 */
+	private static final class CipherKey
+	{
+
+		private final String transformation;
+
+		private final String provider;
+
+		CipherKey(String transformation, String provider)
+		{
+			this.transformation = transformation;
+			this.provider = provider;
+		}
+
+		@Override
+		public boolean equals(Object o)
+		{
+			if (o == this)
+				return true;
+			if (!(o instanceof CipherKey other))
+				return false;
+			return transformation.equals(other.transformation)
+				&& Objects.equals(provider, other.provider);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return 31 * transformation.hashCode() + Objects.hashCode(provider);
+		}
+	}
+}
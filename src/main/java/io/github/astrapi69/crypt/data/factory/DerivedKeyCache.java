@@ -0,0 +1,540 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.factory;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.security.spec.InvalidKeySpecException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+import javax.security.auth.DestroyFailedException;
+
+/**
+ * The class {@link DerivedKeyCache} caches the password based {@link SecretKey} objects that a
+ * {@link javax.crypto.SecretKeyFactory} like 'PBKDF2WithHmacSHA256' derives from a password, a
+ * salt and an iteration count, so the key derivation runs only once for the same parameters. The
+ * cache is bounded by a maximum number of keys and every key expires after a time to live.
+ * <br>
+ * <br>
+ * The secret key factories of the 'PBEWith' algorithms do not derive anything, they only wrap the
+ * password and the iterations run in {@link javax.crypto.Cipher#init(int, java.security.Key,
+ * java.security.spec.AlgorithmParameterSpec)}, so they are rejected. For the PBES1 algorithms
+ * 'PBEWithMD5AndDES' and 'PBEWithMD5AndTripleDES' the cache holds the derived cipher key and
+ * initialization vector instead, which
+ * {@link CipherFactory#newCipher(io.github.astrapi69.crypt.data.model.CryptModel)} passes to the
+ * underlying CBC cipher.
+ * <br>
+ * <br>
+ * The cache does not hold the password. An entry is found by the HMAC-SHA256 of the algorithm,
+ * the password, the salt and the iteration count under a random secret of the cache instance.
+ * The cached keys are never handed out, every request returns a new {@link SecretKeySpec} copy
+ * with the encoded key and the algorithm of the cached key that belongs to the caller. A cached
+ * key that is evicted because the cache is full, because it expired or because the cache is
+ * cleared is destroyed with {@link SecretKey#destroy()}, keys of providers that do not support
+ * destroying are left to the garbage collector. The copies that are handed out stay usable.
+ * <br>
+ * <br>
+ * The hit and miss counters show how often a derivation could be saved. The cache is used from
+ * {@link CipherFactory#newCipher(io.github.astrapi69.crypt.data.model.CryptModel)} if the flag
+ * derivedKeyCached of the model is set.
+ */
+public final class DerivedKeyCache
+{
+
+	/** The default maximum number of cached keys */
+	public static final int DEFAULT_MAX_SIZE = 256;
+
+	/** The default time to live of a cached key */
+	public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(10);
+
+	/** The algorithm of the MAC that computes the entry keys */
+	private static final String MAC_ALGORITHM = "HmacSHA256";
+
+	/** The shared instance */
+	private static final DerivedKeyCache INSTANCE = new DerivedKeyCache(DEFAULT_MAX_SIZE,
+		DEFAULT_TIME_TO_LIVE);
+
+	/** The cached keys in access order */
+	private final Map<ByteBuffer, Entry> entries;
+
+	/** The maximum number of cached keys */
+	private final int maxSize;
+
+	/** The time to live of a cached key in nanoseconds */
+	private final long timeToLiveNanos;
+
+	/** The source of the current time in nanoseconds */
+	private final LongSupplier nanoTime;
+
+	/** The random secret of the MAC that computes the entry keys */
+	private final SecretKey macKey;
+
+	/** The MAC objects that are bound to the current thread */
+	private final ThreadLocal<Mac> macs;
+
+	/** The number of requests that found a cached key */
+	private final LongAdder hits = new LongAdder();
+
+	/** The number of requests that derived a new key */
+	private final LongAdder misses = new LongAdder();
+
+	/** The number of keys that are evicted */
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * Instantiates a new {@link DerivedKeyCache}
+	 *
+	 * @param maxSize
+	 *            the maximum number of cached keys
+	 * @param timeToLive
+	 *            the time to live of a cached key
+	 */
+	public DerivedKeyCache(final int maxSize, final Duration timeToLive)
+	{
+		this(maxSize, timeToLive, System::nanoTime);
+	}
+
+	/**
+	 * Instantiates a new {@link DerivedKeyCache} with the given source of the current time
+	 *
+	 * @param maxSize
+	 *            the maximum number of cached keys
+	 * @param timeToLive
+	 *            the time to live of a cached key
+	 * @param nanoTime
+	 *            the source of the current time in nanoseconds
+	 */
+	DerivedKeyCache(final int maxSize, final Duration timeToLive, final LongSupplier nanoTime)
+	{
+		if (maxSize < 1)
+		{
+			throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+		}
+		if (timeToLive.isNegative() || timeToLive.isZero())
+		{
+			throw new IllegalArgumentException("timeToLive must be positive: " + timeToLive);
+		}
+		this.maxSize = maxSize;
+		this.timeToLiveNanos = timeToLive.toNanos();
+		this.nanoTime = Objects.requireNonNull(nanoTime);
+		this.entries = new LinkedHashMap<>(16, 0.75f, true);
+		final byte[] secret = new byte[32];
+		new SecureRandom().nextBytes(secret);
+		this.macKey = new SecretKeySpec(secret, MAC_ALGORITHM);
+		Arrays.fill(secret, (byte)0);
+		this.macs = ThreadLocal.withInitial(this::newMac);
+	}
+
+	/**
+	 * Gets the shared instance
+	 *
+	 * @return the shared instance
+	 */
+	public static DerivedKeyCache getInstance()
+	{
+		return INSTANCE;
+	}
+
+	/**
+	 * Gets the cached key that is derived from the given parameters or derives and caches a new
+	 * key if no such key is cached or the cached key is expired
+	 *
+	 * @param algorithm
+	 *            the algorithm of the {@link javax.crypto.SecretKeyFactory}
+	 * @param password
+	 *            the password
+	 * @param salt
+	 *            the salt
+	 * @param iterationCount
+	 *            the iteration count
+	 * @return a copy of the derived key that belongs to the caller
+	 * @throws NoSuchAlgorithmException
+	 *             if instantiation of the SecretKeyFactory object fails
+	 * @throws InvalidKeySpecException
+	 *             if generation of the SecretKey object fails or the algorithm is a 'PBEWith'
+	 *             algorithm whose SecretKeyFactory does not derive a key
+	 */
+	public SecretKey getOrDerive(final String algorithm, final char[] password, final byte[] salt,
+		final int iterationCount) throws NoSuchAlgorithmException, InvalidKeySpecException
+	{
+		return getOrDerive(algorithm, password, salt, iterationCount, 0);
+	}
+
+	/**
+	 * Gets the cached key that is derived from the given parameters or derives and caches a new
+	 * key if no such key is cached or the cached key is expired
+	 *
+	 * @param algorithm
+	 *            the algorithm of the {@link javax.crypto.SecretKeyFactory}
+	 * @param password
+	 *            the password
+	 * @param salt
+	 *            the salt
+	 * @param iterationCount
+	 *            the iteration count
+	 * @param keyLength
+	 *            the length of the derived key in bits, for instance for 'PBKDF2WithHmacSHA256',
+	 *            or zero if the algorithm determines the length
+	 * @return a copy of the derived key that belongs to the caller
+	 * @throws NoSuchAlgorithmException
+	 *             if instantiation of the SecretKeyFactory object fails
+	 * @throws InvalidKeySpecException
+	 *             if generation of the SecretKey object fails or the algorithm is a 'PBEWith'
+	 *             algorithm whose SecretKeyFactory does not derive a key
+	 */
+	public SecretKey getOrDerive(final String algorithm, final char[] password, final byte[] salt,
+		final int iterationCount, final int keyLength)
+		throws NoSuchAlgorithmException, InvalidKeySpecException
+	{
+		Objects.requireNonNull(algorithm);
+		Objects.requireNonNull(password);
+		if (algorithm.regionMatches(true, 0, "PBEWith", 0, "PBEWith".length()))
+		{
+			throw new InvalidKeySpecException("The SecretKeyFactory of " + algorithm
+				+ " does not derive a key, the key derivation runs in Cipher.init");
+		}
+		return getOrDerive(newEntryKey(algorithm, password, salt, iterationCount, keyLength),
+			() -> {
+				final PBEKeySpec keySpec = keyLength == 0
+					? new PBEKeySpec(password, salt, iterationCount)
+					: new PBEKeySpec(password, salt, iterationCount, keyLength);
+				try
+				{
+					return SecretKeyFactoryExtensions.newSecretKeyFactory(algorithm)
+						.generateSecret(keySpec);
+				}
+				finally
+				{
+					keySpec.clearPassword();
+				}
+			});
+	}
+
+	/**
+	 * Gets the cached cipher key and initialization vector that are derived from the given
+	 * parameters with the given PBES1 algorithm or derives and caches them if they are not cached
+	 * or expired. The encoded key of the returned {@link SecretKey} is the cipher key followed by
+	 * the initialization vector of {@link PBECipherKeyDerivation#IV_LENGTH} bytes
+	 *
+	 * @param algorithm
+	 *            the PBE algorithm, 'PBEWithMD5AndDES' or 'PBEWithMD5AndTripleDES'
+	 * @param password
+	 *            the password
+	 * @param salt
+	 *            the salt
+	 * @param iterationCount
+	 *            the iteration count
+	 * @return a copy of the derived cipher key and initialization vector that belongs to the
+	 *         caller
+	 * @throws NoSuchAlgorithmException
+	 *             if the key derivation of the given algorithm is not supported
+	 * @throws InvalidKeySpecException
+	 *             if the password, the salt or the iteration count is invalid
+	 */
+	SecretKey getOrDeriveCipherKey(final String algorithm, final char[] password,
+		final byte[] salt, final int iterationCount)
+		throws NoSuchAlgorithmException, InvalidKeySpecException
+	{
+		Objects.requireNonNull(algorithm);
+		Objects.requireNonNull(password);
+		if (!PBECipherKeyDerivation.isSupported(algorithm))
+		{
+			throw new NoSuchAlgorithmException(
+				"The cipher key derivation of " + algorithm + " is not supported");
+		}
+		return getOrDerive(newEntryKey(algorithm, password, salt, iterationCount, -1), () -> {
+			final byte[] derived = PBECipherKeyDerivation.derive(algorithm, password, salt,
+				iterationCount);
+			try
+			{
+				return new SecretKeySpec(derived, algorithm);
+			}
+			finally
+			{
+				Arrays.fill(derived, (byte)0);
+			}
+		});
+	}
+
+	/**
+	 * Gets the number of requests that found a cached key
+	 *
+	 * @return the number of hits
+	 */
+	public long getHitCount()
+	{
+		return hits.sum();
+	}
+
+	/**
+	 * Gets the number of requests that derived a new key
+	 *
+	 * @return the number of misses
+	 */
+	public long getMissCount()
+	{
+		return misses.sum();
+	}
+
+	/**
+	 * Gets the rate of the requests that found a cached key
+	 *
+	 * @return the hit rate between zero and one or zero if nothing is requested yet
+	 */
+	public double getHitRate()
+	{
+		final long hitCount = hits.sum();
+		final long requests = hitCount + misses.sum();
+		return requests == 0 ? 0 : (double)hitCount / requests;
+	}
+
+	/**
+	 * Gets the number of keys that are evicted because the cache was full or they expired
+	 *
+	 * @return the number of evictions
+	 */
+	public long getEvictionCount()
+	{
+		return evictions.sum();
+	}
+
+	/**
+	 * Gets the number of cached keys, including expired keys that are not evicted yet
+	 *
+	 * @return the number of cached keys
+	 */
+	public synchronized int size()
+	{
+		return entries.size();
+	}
+
+	/**
+	 * Resets the hit, miss and eviction counters
+	 */
+	public void resetStatistics()
+	{
+		hits.reset();
+		misses.reset();
+		evictions.reset();
+	}
+
+	/**
+	 * Removes and destroys all cached keys, the copies that are handed out are not affected
+	 */
+	public synchronized void clear()
+	{
+		for (Entry entry : entries.values())
+		{
+			destroy(entry.key);
+		}
+		entries.clear();
+	}
+
+	private SecretKey getOrDerive(final byte[] entryKey, final Derivation derivation)
+		throws NoSuchAlgorithmException, InvalidKeySpecException
+	{
+		final ByteBuffer key = ByteBuffer.wrap(entryKey);
+		final SecretKey cached = get(key);
+		if (cached != null)
+		{
+			hits.increment();
+			return cached;
+		}
+		misses.increment();
+		return put(key, derivation.derive());
+	}
+
+	private synchronized SecretKey get(final ByteBuffer entryKey)
+	{
+		final Entry entry = entries.get(entryKey);
+		if (entry == null)
+		{
+			return null;
+		}
+		if (isExpired(entry))
+		{
+			entries.remove(entryKey);
+			evict(entry);
+			return null;
+		}
+		return copy(entry.key);
+	}
+
+	private synchronized SecretKey put(final ByteBuffer entryKey, final SecretKey key)
+	{
+		final Entry existing = entries.get(entryKey);
+		if (existing != null && !isExpired(existing))
+		{
+			destroy(key);
+			return copy(existing.key);
+		}
+		if (existing != null)
+		{
+			evict(existing);
+		}
+		entries.put(entryKey, new Entry(key, nanoTime.getAsLong() + timeToLiveNanos));
+		final Iterator<Entry> iterator = entries.values().iterator();
+		while (iterator.hasNext())
+		{
+			final Entry entry = iterator.next();
+			if (maxSize < entries.size() || isExpired(entry))
+			{
+				iterator.remove();
+				evict(entry);
+			}
+			else
+			{
+				break;
+			}
+		}
+		return copy(key);
+	}
+
+	private boolean isExpired(final Entry entry)
+	{
+		return entry.expiresAt - nanoTime.getAsLong() <= 0;
+	}
+
+	private void evict(final Entry entry)
+	{
+		evictions.increment();
+		destroy(entry.key);
+	}
+
+	private static SecretKey copy(final SecretKey key)
+	{
+		final byte[] encoded = key.getEncoded();
+		try
+		{
+			return new SecretKeySpec(encoded, key.getAlgorithm());
+		}
+		finally
+		{
+			Arrays.fill(encoded, (byte)0);
+		}
+	}
+
+	private static void destroy(final SecretKey key)
+	{
+		if (key.isDestroyed())
+		{
+			return;
+		}
+		try
+		{
+			key.destroy();
+		}
+		catch (DestroyFailedException e)
+		{
+			// the provider does not support destroying, the key is left to the garbage collector
+		}
+	}
+
+	private byte[] newEntryKey(final String algorithm, final char[] password, final byte[] salt,
+		final int iterationCount, final int keyLength)
+	{
+		final Mac mac = macs.get();
+		final byte[] algorithmBytes = algorithm.getBytes(StandardCharsets.UTF_8);
+		final ByteBuffer buffer = ByteBuffer.allocate(2 * Integer.BYTES + 2 * password.length);
+		buffer.putInt(algorithmBytes.length);
+		mac.update(buffer.array(), 0, Integer.BYTES);
+		mac.update(algorithmBytes);
+		buffer.clear();
+		buffer.putInt(password.length);
+		for (char character : password)
+		{
+			buffer.putChar(character);
+		}
+		mac.update(buffer.array());
+		Arrays.fill(buffer.array(), (byte)0);
+		buffer.clear();
+		buffer.putInt(salt == null ? -1 : salt.length);
+		mac.update(buffer.array(), 0, Integer.BYTES);
+		if (salt != null)
+		{
+			mac.update(salt);
+		}
+		buffer.clear();
+		buffer.putInt(iterationCount);
+		buffer.putInt(keyLength);
+		mac.update(buffer.array(), 0, 2 * Integer.BYTES);
+		return mac.doFinal();
+	}
+
+	private Mac newMac()
+	{
+		try
+		{
+			final Mac mac = Mac.getInstance(MAC_ALGORITHM);
+			mac.init(macKey);
+			return mac;
+		}
+		catch (NoSuchAlgorithmException | InvalidKeyException e)
+		{
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * The derivation of a key that is not cached
+	 */
+	@FunctionalInterface
+	private interface Derivation
+	{
+
+		SecretKey derive() throws NoSuchAlgorithmException, InvalidKeySpecException;
+	}
+
+	/**
+	 * A cached key and the time it expires in nanoseconds
+	 */
+	private static final class Entry
+	{
+
+		private final SecretKey key;
+
+		private final long expiresAt;
+
+		Entry(SecretKey key, long expiresAt)
+		{
+			this.key = key;
+			this.expiresAt = expiresAt;
+		}
+	}
+}
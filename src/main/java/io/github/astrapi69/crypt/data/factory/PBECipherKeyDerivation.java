@@ -0,0 +1,207 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.factory;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.spec.InvalidKeySpecException;
+import java.util.Arrays;
+
+/**
+ * The class {@link PBECipherKeyDerivation} derives the cipher key and the initialization vector
+ * of the PBES1 algorithms 'PBEWithMD5AndDES' and 'PBEWithMD5AndTripleDES' like the SunJCE
+ * provider does in {@link javax.crypto.Cipher#init(int, java.security.Key,
+ * java.security.spec.AlgorithmParameterSpec)}. The secret key factories of these algorithms do
+ * not derive anything, they only wrap the password, and all iterations run when the cipher is
+ * initialized. With the derived key and initialization vector the same encryption is done by the
+ * underlying CBC cipher without running the iterations again.
+ */
+final class PBECipherKeyDerivation
+{
+
+	/** The number of bytes of the initialization vector at the end of the derived bytes */
+	static final int IV_LENGTH = 8;
+
+	/** The number of bytes of the salt */
+	private static final int SALT_LENGTH = 8;
+
+	private PBECipherKeyDerivation()
+	{
+	}
+
+	/**
+	 * Checks if the key derivation of the given PBE algorithm is supported
+	 *
+	 * @param algorithm
+	 *            the PBE algorithm
+	 * @return true if the key derivation of the given algorithm is supported
+	 */
+	static boolean isSupported(final String algorithm)
+	{
+		return getKeyAlgorithm(algorithm) != null;
+	}
+
+	/**
+	 * Gets the algorithm of the derived cipher key
+	 *
+	 * @param algorithm
+	 *            the PBE algorithm
+	 * @return the algorithm of the cipher key or null if the given algorithm is not supported
+	 */
+	static String getKeyAlgorithm(final String algorithm)
+	{
+		if ("PBEWithMD5AndDES".equalsIgnoreCase(algorithm))
+		{
+			return "DES";
+		}
+		if ("PBEWithMD5AndTripleDES".equalsIgnoreCase(algorithm))
+		{
+			return "DESede";
+		}
+		return null;
+	}
+
+	/**
+	 * Gets the transformation of the underlying cipher of the given PBE algorithm
+	 *
+	 * @param algorithm
+	 *            the PBE algorithm
+	 * @return the transformation of the underlying cipher
+	 */
+	static String getTransformation(final String algorithm)
+	{
+		return getKeyAlgorithm(algorithm) + "/CBC/PKCS5Padding";
+	}
+
+	/**
+	 * Derives the cipher key and the initialization vector of the given PBE algorithm from the
+	 * given parameters
+	 *
+	 * @param algorithm
+	 *            the PBE algorithm
+	 * @param password
+	 *            the password that consists of printable ASCII characters
+	 * @param salt
+	 *            the salt of eight bytes
+	 * @param iterationCount
+	 *            the iteration count
+	 * @return the cipher key followed by the initialization vector of {@link #IV_LENGTH} bytes
+	 * @throws NoSuchAlgorithmException
+	 *             if the key derivation of the given algorithm is not supported
+	 * @throws InvalidKeySpecException
+	 *             if the password, the salt or the iteration count is invalid
+	 */
+	static byte[] derive(final String algorithm, final char[] password, final byte[] salt,
+		final int iterationCount) throws NoSuchAlgorithmException, InvalidKeySpecException
+	{
+		final String keyAlgorithm = getKeyAlgorithm(algorithm);
+		if (keyAlgorithm == null)
+		{
+			throw new NoSuchAlgorithmException(
+				"The cipher key derivation of " + algorithm + " is not supported");
+		}
+		if (salt == null || salt.length != SALT_LENGTH)
+		{
+			throw new InvalidKeySpecException("Salt must be 8 bytes long");
+		}
+		if (iterationCount < 1)
+		{
+			throw new InvalidKeySpecException(
+				"iterationCount must be positive: " + iterationCount);
+		}
+		final byte[] passwordBytes = new byte[password.length];
+		try
+		{
+			for (int i = 0; i < password.length; i++)
+			{
+				if (password[i] < ' ' || '~' < password[i])
+				{
+					throw new InvalidKeySpecException("Password is not ASCII");
+				}
+				passwordBytes[i] = (byte)password[i];
+			}
+			final MessageDigest md5 = MessageDigest.getInstance("MD5");
+			return "DES".equals(keyAlgorithm)
+				? deriveDes(md5, passwordBytes, salt, iterationCount)
+				: deriveDesede(md5, passwordBytes, salt.clone(), iterationCount);
+		}
+		catch (DigestException e)
+		{
+			throw new IllegalStateException(e);
+		}
+		finally
+		{
+			Arrays.fill(passwordBytes, (byte)0);
+		}
+	}
+
+	private static byte[] deriveDes(final MessageDigest md5, final byte[] password,
+		final byte[] salt, final int iterationCount) throws DigestException
+	{
+		md5.update(password);
+		md5.update(salt);
+		final byte[] hash = md5.digest();
+		for (int i = 1; i < iterationCount; i++)
+		{
+			md5.update(hash);
+			md5.digest(hash, 0, hash.length);
+		}
+		return hash;
+	}
+
+	private static byte[] deriveDesede(final MessageDigest md5, final byte[] password,
+		final byte[] salt, final int iterationCount) throws DigestException
+	{
+		if (Arrays.equals(salt, 0, SALT_LENGTH / 2, salt, SALT_LENGTH / 2, SALT_LENGTH))
+		{
+			// equal salt halves, the first half is reversed
+			for (int i = 0; i < SALT_LENGTH / 4; i++)
+			{
+				final byte swap = salt[i];
+				salt[i] = salt[SALT_LENGTH / 2 - 1 - i];
+				salt[SALT_LENGTH / 2 - 1 - i] = swap;
+			}
+		}
+		final int digestLength = md5.getDigestLength();
+		final byte[] result = new byte[2 * digestLength];
+		final byte[] hash = new byte[digestLength];
+		for (int half = 0; half < 2; half++)
+		{
+			md5.update(salt, half * SALT_LENGTH / 2, SALT_LENGTH / 2);
+			md5.update(password);
+			md5.digest(hash, 0, digestLength);
+			for (int i = 1; i < iterationCount; i++)
+			{
+				md5.update(hash);
+				md5.update(password);
+				md5.digest(hash, 0, digestLength);
+			}
+			System.arraycopy(hash, 0, result, half * digestLength, digestLength);
+		}
+		Arrays.fill(hash, (byte)0);
+		return result;
+	}
+}
@@ -0,0 +1,236 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.hash;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import io.github.astrapi69.crypt.api.algorithm.HashAlgorithm;
+
+/**
+ * The class {@link ChunkedFileHasher} computes the {@link ChunkedMerkleDigest} of a file. The file
+ * is split into chunks of a fixed size and the chunks are mapped into memory and hashed in
+ * parallel on a {@link ForkJoinPool}, so the throughput scales with the number of cores. The
+ * chunk hashes are combined with the {@link ParallelMerkleTree}.
+ * <br>
+ * <br>
+ * Algorithms other than SHA-1, SHA-384 and SHA-512 fall back to SHA-256 like the merkle
+ * algorithms do.
+ */
+public final class ChunkedFileHasher
+{
+
+	/** The default size of the chunks in bytes */
+	public static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+
+	/** The resolved hash algorithm */
+	private final HashAlgorithm algorithm;
+
+	/** The size of the chunks in bytes */
+	private final int chunkSize;
+
+	/** The pool that hashes the chunks */
+	private final ForkJoinPool pool;
+
+	/**
+	 * Instantiates a new {@link ChunkedFileHasher} with the given hash algorithm that uses the
+	 * default chunk size and the common pool
+	 *
+	 * @param algorithm
+	 *            the hash algorithm
+	 */
+	public ChunkedFileHasher(final HashAlgorithm algorithm)
+	{
+		this(algorithm, DEFAULT_CHUNK_SIZE, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Instantiates a new {@link ChunkedFileHasher} with the given parameters
+	 *
+	 * @param algorithm
+	 *            the hash algorithm
+	 * @param chunkSize
+	 *            the size of the chunks in bytes
+	 * @param pool
+	 *            the pool that hashes the chunks
+	 */
+	public ChunkedFileHasher(final HashAlgorithm algorithm, final int chunkSize,
+		final ForkJoinPool pool)
+	{
+		Objects.requireNonNull(algorithm);
+		Objects.requireNonNull(pool);
+		if (chunkSize < 1)
+		{
+			throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+		}
+		this.algorithm = DigestPool.resolveDigestAlgorithm(algorithm);
+		this.chunkSize = chunkSize;
+		this.pool = pool;
+	}
+
+	/**
+	 * Computes the chunked merkle digest of the given file
+	 *
+	 * @param path
+	 *            the path of the file
+	 * @return the chunked merkle digest
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public ChunkedMerkleDigest hash(final Path path) throws IOException
+	{
+		Objects.requireNonNull(path);
+		try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ))
+		{
+			final long length = fileChannel.size();
+			final byte[][] chunkHashes = new byte[ChunkedMerkleDigest.getChunkCount(length,
+				chunkSize)][];
+			try
+			{
+				pool.invoke(new ChunkTask(fileChannel, length, chunkHashes, 0, chunkHashes.length));
+			}
+			catch (UncheckedIOException e)
+			{
+				throw e.getCause();
+			}
+			final byte[] root = new ParallelMerkleTree(algorithm, pool,
+				ParallelMerkleTree.DEFAULT_THRESHOLD).getMerkleRootHash(Arrays.asList(chunkHashes));
+			return new ChunkedMerkleDigest(algorithm, chunkSize, length, root, chunkHashes);
+		}
+	}
+
+	/**
+	 * Verifies the chunks in the given range of the given file against the given digest
+	 *
+	 * @param path
+	 *            the path of the file
+	 * @param digest
+	 *            the chunked merkle digest of the file
+	 * @param fromChunk
+	 *            the index of the first chunk, inclusive
+	 * @param toChunk
+	 *            the index of the last chunk, exclusive
+	 * @return the index of the first chunk that does not match or -1 if all chunks match
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public static int verifyChunks(final Path path, final ChunkedMerkleDigest digest,
+		final int fromChunk, final int toChunk) throws IOException
+	{
+		Objects.requireNonNull(path);
+		Objects.requireNonNull(digest);
+		Objects.checkFromToIndex(fromChunk, toChunk, digest.getChunkCount());
+		try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ))
+		{
+			for (int index = fromChunk; index < toChunk; index++)
+			{
+				final long offset = digest.getChunkOffset(index);
+				final long available = Math.max(0, fileChannel.size() - offset);
+				if (!digest.verifyChunk(index, fileChannel.map(FileChannel.MapMode.READ_ONLY,
+					offset, Math.min(available, digest.getChunkLength(index)))))
+				{
+					return index;
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Gets the size of the chunks in bytes
+	 *
+	 * @return the chunk size
+	 */
+	public int getChunkSize()
+	{
+		return chunkSize;
+	}
+
+	/**
+	 * The task that hashes a range of chunks of a file
+	 */
+	private final class ChunkTask extends RecursiveAction
+	{
+
+		private static final long serialVersionUID = 1L;
+
+		private final FileChannel fileChannel;
+
+		private final long length;
+
+		private final byte[][] chunkHashes;
+
+		private final int from;
+
+		private final int to;
+
+		ChunkTask(FileChannel fileChannel, long length, byte[][] chunkHashes, int from, int to)
+		{
+			this.fileChannel = fileChannel;
+			this.length = length;
+			this.chunkHashes = chunkHashes;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if (to - from == 1)
+			{
+				chunkHashes[from] = hashChunk(from);
+				return;
+			}
+			final int middle = (from + to) >>> 1;
+			invokeAll(new ChunkTask(fileChannel, length, chunkHashes, from, middle),
+				new ChunkTask(fileChannel, length, chunkHashes, middle, to));
+		}
+
+		private byte[] hashChunk(int index)
+		{
+			final long offset = (long)index * chunkSize;
+			final MessageDigest messageDigest = DigestPool.getInstance()
+				.getResolvedThreadLocal(algorithm);
+			try
+			{
+				messageDigest.update(fileChannel.map(FileChannel.MapMode.READ_ONLY, offset,
+					Math.min(chunkSize, length - offset)));
+			}
+			catch (IOException e)
+			{
+				throw new UncheckedIOException(e);
+			}
+			return messageDigest.digest();
+		}
+	}
+}
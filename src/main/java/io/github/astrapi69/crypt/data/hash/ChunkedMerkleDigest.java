@@ -0,0 +1,272 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.hash;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Objects;
+
+import io.github.astrapi69.crypt.api.algorithm.HashAlgorithm;
+
+/**
+ * The class {@link ChunkedMerkleDigest} is the result of {@link ChunkedFileHasher}. It is a
+ * chunked merkle digest of some content, that is computed as follows:
+ * <ul>
+ * <li>the content is split into chunks of {@link #getChunkSize()} bytes, only the last chunk may be
+ * shorter and an empty content consists of one empty chunk</li>
+ * <li>every chunk is hashed with the hash algorithm</li>
+ * <li>the root is the merkle root of the chunk hashes as computed by
+ * {@link HashExtensions#getMerkleRootHash(java.util.Queue, HashAlgorithm)}</li>
+ * </ul>
+ * So a content that fits into one chunk has the plain hash of the content as root. The root
+ * depends on the chunk size, which is therefore part of the digest. The chunk hashes are kept so
+ * that ranges of the content can be verified later without hashing the whole content again.
+ */
+public final class ChunkedMerkleDigest
+{
+
+	/** The hash algorithm of the chunk hashes and the merkle root */
+	private final HashAlgorithm algorithm;
+
+	/** The size of the chunks in bytes */
+	private final int chunkSize;
+
+	/** The length of the content in bytes */
+	private final long length;
+
+	/** The merkle root of the chunk hashes */
+	private final byte[] root;
+
+	/** The hashes of the chunks */
+	private final byte[][] chunkHashes;
+
+	/**
+	 * Instantiates a new {@link ChunkedMerkleDigest}
+	 *
+	 * @param algorithm
+	 *            the hash algorithm of the chunk hashes and the merkle root
+	 * @param chunkSize
+	 *            the size of the chunks in bytes
+	 * @param length
+	 *            the length of the content in bytes
+	 * @param root
+	 *            the merkle root of the chunk hashes
+	 * @param chunkHashes
+	 *            the hashes of the chunks
+	 */
+	public ChunkedMerkleDigest(final HashAlgorithm algorithm, final int chunkSize,
+		final long length, final byte[] root, final byte[][] chunkHashes)
+	{
+		Objects.requireNonNull(algorithm);
+		Objects.requireNonNull(root);
+		Objects.requireNonNull(chunkHashes);
+		if (chunkSize < 1)
+		{
+			throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+		}
+		if (chunkHashes.length != getChunkCount(length, chunkSize))
+		{
+			throw new IllegalArgumentException("Expected " + getChunkCount(length, chunkSize)
+				+ " chunk hashes but got " + chunkHashes.length);
+		}
+		this.algorithm = algorithm;
+		this.chunkSize = chunkSize;
+		this.length = length;
+		this.root = root.clone();
+		this.chunkHashes = new byte[chunkHashes.length][];
+		for (int i = 0; i < chunkHashes.length; i++)
+		{
+			this.chunkHashes[i] = chunkHashes[i].clone();
+		}
+	}
+
+	/**
+	 * Gets the number of chunks of a content with the given length and the given chunk size
+	 *
+	 * @param length
+	 *            the length of the content in bytes
+	 * @param chunkSize
+	 *            the size of the chunks in bytes
+	 * @return the number of chunks
+	 */
+	static int getChunkCount(final long length, final int chunkSize)
+	{
+		if (length < 0)
+		{
+			throw new IllegalArgumentException("length must not be negative: " + length);
+		}
+		final long chunkCount = Math.max(1, (length + chunkSize - 1) / chunkSize);
+		if (Integer.MAX_VALUE < chunkCount)
+		{
+			throw new IllegalArgumentException(
+				"The chunk size " + chunkSize + " is too small for " + length + " bytes");
+		}
+		return (int)chunkCount;
+	}
+
+	/**
+	 * Verifies the given content of the chunk with the given index against the recorded chunk
+	 * hash. The position of the given buffer is advanced to its limit
+	 *
+	 * @param index
+	 *            the index of the chunk
+	 * @param chunk
+	 *            the content of the chunk
+	 * @return true if the content matches the recorded chunk hash otherwise false
+	 */
+	public boolean verifyChunk(final int index, final ByteBuffer chunk)
+	{
+		Objects.requireNonNull(chunk);
+		if (chunk.remaining() != getChunkLength(index))
+		{
+			return false;
+		}
+		final MessageDigest messageDigest = DigestPool.getInstance()
+			.getResolvedThreadLocal(algorithm);
+		messageDigest.update(chunk);
+		return MessageDigest.isEqual(chunkHashes[index], messageDigest.digest());
+	}
+
+	/**
+	 * Gets the offset of the chunk with the given index in the content
+	 *
+	 * @param index
+	 *            the index of the chunk
+	 * @return the offset of the chunk in bytes
+	 */
+	public long getChunkOffset(final int index)
+	{
+		Objects.checkIndex(index, chunkHashes.length);
+		return (long)index * chunkSize;
+	}
+
+	/**
+	 * Gets the length of the chunk with the given index
+	 *
+	 * @param index
+	 *            the index of the chunk
+	 * @return the length of the chunk in bytes
+	 */
+	public int getChunkLength(final int index)
+	{
+		return (int)Math.min(chunkSize, length - getChunkOffset(index));
+	}
+
+	/**
+	 * Gets the hash of the chunk with the given index
+	 *
+	 * @param index
+	 *            the index of the chunk
+	 * @return the hash of the chunk
+	 */
+	public byte[] getChunkHash(final int index)
+	{
+		return chunkHashes[index].clone();
+	}
+
+	/**
+	 * Gets the number of chunks
+	 *
+	 * @return the number of chunks
+	 */
+	public int getChunkCount()
+	{
+		return chunkHashes.length;
+	}
+
+	/**
+	 * Gets the hash algorithm of the chunk hashes and the merkle root
+	 *
+	 * @return the hash algorithm
+	 */
+	public HashAlgorithm getAlgorithm()
+	{
+		return algorithm;
+	}
+
+	/**
+	 * Gets the size of the chunks in bytes
+	 *
+	 * @return the chunk size
+	 */
+	public int getChunkSize()
+	{
+		return chunkSize;
+	}
+
+	/**
+	 * Gets the length of the content in bytes
+	 *
+	 * @return the length of the content
+	 */
+	public long getLength()
+	{
+		return length;
+	}
+
+	/**
+	 * Gets the merkle root of the chunk hashes
+	 *
+	 * @return the merkle root
+	 */
+	public byte[] getRoot()
+	{
+		return root.clone();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public boolean equals(final Object o)
+	{
+		if (o == this)
+			return true;
+		if (!(o instanceof ChunkedMerkleDigest other))
+			return false;
+		if (this.algorithm != other.algorithm)
+			return false;
+		if (this.chunkSize != other.chunkSize)
+			return false;
+		if (this.length != other.length)
+			return false;
+		if (!Arrays.equals(this.root, other.root))
+			return false;
+		return Arrays.deepEquals(this.chunkHashes, other.chunkHashes);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public int hashCode()
+	{
+		final int PRIME = 59;
+		int result = 1;
+		result = result * PRIME + this.algorithm.hashCode();
+		result = result * PRIME + this.chunkSize;
+		result = result * PRIME + Long.hashCode(this.length);
+		result = result * PRIME + Arrays.hashCode(this.root);
+		result = result * PRIME + Arrays.deepHashCode(this.chunkHashes);
+		return result;
+	}
+}
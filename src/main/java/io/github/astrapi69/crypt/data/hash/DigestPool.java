@@ -0,0 +1,262 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.hash;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.github.astrapi69.crypt.api.algorithm.HashAlgorithm;
+
+/**
+ * The class {@link DigestPool} hands out reusable {@link MessageDigest} objects keyed by
+ * {@link HashAlgorithm}, so the provider lookup of {@link MessageDigest#getInstance(String)} is
+ * done only once per thread or pooled instance. Every handed out digest is reset.
+ * <br>
+ * <br>
+ * There are two ways to get a digest:
+ * <ul>
+ * <li>{@link #getThreadLocal(HashAlgorithm)} returns the digest that is bound to the current
+ * thread. It must be used and completed before the next call with the same algorithm on the same
+ * thread and must not be passed to other threads</li>
+ * <li>{@link #borrow(HashAlgorithm)} takes a digest from a bounded pool, it has to be given back
+ * with {@link #release(HashAlgorithm, MessageDigest)}</li>
+ * </ul>
+ * The hit and miss counters show how often a digest could be reused and how often a new one had
+ * to be created
+ */
+public final class DigestPool
+{
+
+	/** The default maximum number of idle digests per algorithm in the borrow pool */
+	public static final int DEFAULT_MAX_IDLE = 2 * Runtime.getRuntime().availableProcessors();
+
+	/** The shared instance */
+	private static final DigestPool INSTANCE = new DigestPool(DEFAULT_MAX_IDLE);
+
+	/** The digests that are bound to the current thread */
+	private final ThreadLocal<Map<HashAlgorithm, MessageDigest>> threadLocalDigests = ThreadLocal
+		.withInitial(() -> new EnumMap<>(HashAlgorithm.class));
+
+	/** The idle digests of the borrow pool */
+	private final Map<HashAlgorithm, BlockingQueue<MessageDigest>> idleDigests;
+
+	/** The maximum number of idle digests per algorithm in the borrow pool */
+	private final int maxIdle;
+
+	/** The number of requests that reused a digest */
+	private final LongAdder hits = new LongAdder();
+
+	/** The number of requests that created a new digest */
+	private final LongAdder misses = new LongAdder();
+
+	/**
+	 * Instantiates a new {@link DigestPool} with the given maximum number of idle digests per
+	 * algorithm
+	 *
+	 * @param maxIdle
+	 *            the maximum number of idle digests per algorithm in the borrow pool
+	 */
+	public DigestPool(final int maxIdle)
+	{
+		if (maxIdle < 1)
+		{
+			throw new IllegalArgumentException("maxIdle must be positive: " + maxIdle);
+		}
+		this.maxIdle = maxIdle;
+		this.idleDigests = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Gets the shared instance
+	 *
+	 * @return the shared instance
+	 */
+	public static DigestPool getInstance()
+	{
+		return INSTANCE;
+	}
+
+	/**
+	 * Resolves the algorithm that is used from the methods of {@link HashExtensions} that do not
+	 * throw a {@link NoSuchAlgorithmException}. Algorithms other than SHA-1, SHA-384 and SHA-512
+	 * fall back to SHA-256
+	 *
+	 * @param algorithm
+	 *            the hash algorithm
+	 * @return the resolved hash algorithm
+	 */
+	static HashAlgorithm resolveDigestAlgorithm(final HashAlgorithm algorithm)
+	{
+		switch (algorithm)
+		{
+			case SHA1 :
+			case SHA_1 :
+				return HashAlgorithm.SHA_1;
+			case SHA384 :
+			case SHA_384 :
+				return HashAlgorithm.SHA_384;
+			case SHA512 :
+			case SHA_512 :
+				return HashAlgorithm.SHA_512;
+			default :
+				return HashAlgorithm.SHA_256;
+		}
+	}
+
+	/**
+	 * Gets the reset digest of the given algorithm that is bound to the current thread
+	 *
+	 * @param algorithm
+	 *            the hash algorithm
+	 * @return the reset digest of the current thread
+	 * @throws NoSuchAlgorithmException
+	 *             is thrown if instantiation of the MessageDigest object fails
+	 */
+	public MessageDigest getThreadLocal(final HashAlgorithm algorithm)
+		throws NoSuchAlgorithmException
+	{
+		Objects.requireNonNull(algorithm);
+		final Map<HashAlgorithm, MessageDigest> digests = threadLocalDigests.get();
+		MessageDigest messageDigest = digests.get(algorithm);
+		if (messageDigest == null)
+		{
+			messageDigest = newMessageDigest(algorithm);
+			digests.put(algorithm, messageDigest);
+			return messageDigest;
+		}
+		hits.increment();
+		messageDigest.reset();
+		return messageDigest;
+	}
+
+	/**
+	 * Gets the reset digest of the resolved algorithm that is bound to the current thread
+	 *
+	 * @see #resolveDigestAlgorithm(HashAlgorithm)
+	 *
+	 * @param algorithm
+	 *            the hash algorithm
+	 * @return the reset digest of the current thread
+	 */
+	MessageDigest getResolvedThreadLocal(final HashAlgorithm algorithm)
+	{
+		try
+		{
+			return getThreadLocal(resolveDigestAlgorithm(algorithm));
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Borrows a reset digest of the given algorithm from the pool. The digest has to be given back
+	 * with {@link #release(HashAlgorithm, MessageDigest)}
+	 *
+	 * @param algorithm
+	 *            the hash algorithm
+	 * @return the borrowed digest
+	 * @throws NoSuchAlgorithmException
+	 *             is thrown if instantiation of the MessageDigest object fails
+	 */
+	public MessageDigest borrow(final HashAlgorithm algorithm) throws NoSuchAlgorithmException
+	{
+		Objects.requireNonNull(algorithm);
+		final MessageDigest messageDigest = getIdleDigests(algorithm).poll();
+		if (messageDigest == null)
+		{
+			return newMessageDigest(algorithm);
+		}
+		hits.increment();
+		return messageDigest;
+	}
+
+	/**
+	 * Gives the given borrowed digest back to the pool. If the pool of the given algorithm is full
+	 * the digest is dropped
+	 *
+	 * @param algorithm
+	 *            the hash algorithm the digest was borrowed for
+	 * @param messageDigest
+	 *            the borrowed digest
+	 */
+	public void release(final HashAlgorithm algorithm, final MessageDigest messageDigest)
+	{
+		Objects.requireNonNull(algorithm);
+		Objects.requireNonNull(messageDigest);
+		messageDigest.reset();
+		getIdleDigests(algorithm).offer(messageDigest);
+	}
+
+	/**
+	 * Gets the number of requests that reused a digest
+	 *
+	 * @return the number of hits
+	 */
+	public long getHitCount()
+	{
+		return hits.sum();
+	}
+
+	/**
+	 * Gets the number of requests that created a new digest
+	 *
+	 * @return the number of misses
+	 */
+	public long getMissCount()
+	{
+		return misses.sum();
+	}
+
+	/**
+	 * Resets the hit and miss counters
+	 */
+	public void resetStatistics()
+	{
+		hits.reset();
+		misses.reset();
+	}
+
+	private BlockingQueue<MessageDigest> getIdleDigests(final HashAlgorithm algorithm)
+	{
+		return idleDigests.computeIfAbsent(algorithm, key -> new ArrayBlockingQueue<>(maxIdle));
+	}
+
+	private MessageDigest newMessageDigest(final HashAlgorithm algorithm)
+		throws NoSuchAlgorithmException
+	{
+		final MessageDigest messageDigest = MessageDigest.getInstance(algorithm.getAlgorithm());
+		misses.increment();
+		return messageDigest;
+	}
+}
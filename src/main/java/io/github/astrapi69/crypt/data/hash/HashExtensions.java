@@ -24,17 +24,24 @@
  */
 package io.github.astrapi69.crypt.data.hash;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import org.apache.commons.codec.binary.Base64;
-import org.apache.commons.codec.digest.DigestUtils;
-import org.apache.commons.lang3.ArrayUtils;
-
-import com.google.common.primitives.Longs;
 
 import io.github.astrapi69.crypt.api.algorithm.HashAlgorithm;
 
@@ -44,6 +51,12 @@ import io.github.astrapi69.crypt.api.algorithm.HashAlgorithm;
 public final class HashExtensions
 {
 
+	/** The size of the buffer that is used for reading from channels */
+	static final int CHANNEL_BUFFER_SIZE = 64 * 1024;
+
+	/** The size of the windows that are mapped into memory for hashing large files */
+	static final long MAPPED_WINDOW_SIZE = 64L * 1024 * 1024;
+
 	private HashExtensions()
 	{
 	}
@@ -52,6 +65,7 @@ public final class HashExtensions
 	 * Gets the hash value of the given queue and the given algorithm
 	 *
 	 * @see <a href="https://en.wikipedia.org/wiki/Merkle_tree">wikipedia Merkle tree</a>
+	 * @see MerkleTreeBuilder
 	 *
 	 * @param hashQueue
 	 *            the hash queue
@@ -62,33 +76,51 @@ public final class HashExtensions
 	public static byte[] getMerkleRootHash(Queue<byte[]> hashQueue, HashAlgorithm algorithm)
 	{
 		Objects.requireNonNull(algorithm);
-		while (hashQueue.size() > 1)
+		final MerkleTreeBuilder merkleTreeBuilder = new MerkleTreeBuilder(algorithm,
+			hashQueue.size());
+		while (!hashQueue.isEmpty())
 		{
-			byte[] hashValue = ArrayUtils.addAll(hashQueue.poll(), hashQueue.poll());
-			switch (algorithm)
-			{
-				case SHA1 :
-				case SHA_1 :
-					hashQueue.add(DigestUtils.sha1(hashValue));
-					break;
-				case SHA256 :
-				case SHA_256 :
-					hashQueue.add(DigestUtils.sha256(hashValue));
-					break;
-				case SHA384 :
-				case SHA_384 :
-					hashQueue.add(DigestUtils.sha384(hashValue));
-					break;
-				case SHA512 :
-				case SHA_512 :
-					hashQueue.add(DigestUtils.sha512(hashValue));
-					break;
-				default :
-					hashQueue.add(DigestUtils.sha256(hashValue));
-					break;
-			}
+			merkleTreeBuilder.add(hashQueue.poll());
 		}
-		return hashQueue.poll();
+		return merkleTreeBuilder.build();
+	}
+
+	/**
+	 * Gets the merkle root of the given leaf hashes and the given algorithm. Large trees are split
+	 * into subtrees that are hashed in parallel on the common {@link ForkJoinPool}
+	 *
+	 * @see ParallelMerkleTree
+	 *
+	 * @param leaves
+	 *            the leaf hashes
+	 * @param algorithm
+	 *            the algorithm
+	 * @return the merkle root tree
+	 */
+	public static byte[] getMerkleRootHashParallel(List<byte[]> leaves, HashAlgorithm algorithm)
+	{
+		return new ParallelMerkleTree(algorithm).getMerkleRootHash(leaves);
+	}
+
+	/**
+	 * Gets the merkle root of the given leaf hashes and the given algorithm. Subtrees with no more
+	 * leaves than the given threshold are hashed sequentially
+	 *
+	 * @see ParallelMerkleTree
+	 *
+	 * @param leaves
+	 *            the leaf hashes
+	 * @param algorithm
+	 *            the algorithm
+	 * @param threshold
+	 *            the number of leaves up to which a subtree is hashed sequentially
+	 * @return the merkle root tree
+	 */
+	public static byte[] getMerkleRootHashParallel(List<byte[]> leaves, HashAlgorithm algorithm,
+		int threshold)
+	{
+		return new ParallelMerkleTree(algorithm, ForkJoinPool.commonPool(), threshold)
+			.getMerkleRootHash(leaves);
 	}
 
 	/**
@@ -109,27 +141,8 @@ public final class HashExtensions
 	public static byte[] hash(byte[] input, byte[] hash, byte[] signature, long timestamp,
 		HashAlgorithm algorithm)
 	{
-		Objects.requireNonNull(algorithm);
-		byte[] hashValue = ArrayUtils.addAll(input, hash);
-		hashValue = ArrayUtils.addAll(hashValue, signature);
-		hashValue = ArrayUtils.addAll(hashValue, Longs.toByteArray(timestamp));
-		switch (algorithm)
-		{
-			case SHA1 :
-			case SHA_1 :
-				return DigestUtils.sha1(hashValue);
-			case SHA256 :
-			case SHA_256 :
-				return DigestUtils.sha256(hashValue);
-			case SHA384 :
-			case SHA_384 :
-				return DigestUtils.sha384(hashValue);
-			case SHA512 :
-			case SHA_512 :
-				return DigestUtils.sha512(hashValue);
-			default :
-				return DigestUtils.sha256(hashValue);
-		}
+		return HashInput.of(algorithm).put(input).put(hash).put(signature).putLong(timestamp)
+			.digest();
 	}
 
 	/**
@@ -145,25 +158,7 @@ public final class HashExtensions
 	 */
 	public static byte[] hash(byte[] input, byte[] publicKey, HashAlgorithm algorithm)
 	{
-		Objects.requireNonNull(algorithm);
-		byte[] hashValue = ArrayUtils.addAll(input, publicKey);
-		switch (algorithm)
-		{
-			case SHA1 :
-			case SHA_1 :
-				return DigestUtils.sha1(hashValue);
-			case SHA256 :
-			case SHA_256 :
-				return DigestUtils.sha256(hashValue);
-			case SHA384 :
-			case SHA_384 :
-				return DigestUtils.sha384(hashValue);
-			case SHA512 :
-			case SHA_512 :
-				return DigestUtils.sha512(hashValue);
-			default :
-				return DigestUtils.sha256(hashValue);
-		}
+		return HashInput.of(algorithm).put(input).put(publicKey).digest();
 	}
 
 	/**
@@ -184,27 +179,8 @@ public final class HashExtensions
 	public static byte[] hash(byte[] input, byte[] hash, long signature, long timestamp,
 		HashAlgorithm algorithm)
 	{
-		Objects.requireNonNull(algorithm);
-		byte[] hashValue = ArrayUtils.addAll(input, hash);
-		hashValue = ArrayUtils.addAll(hashValue, Longs.toByteArray(signature));
-		hashValue = ArrayUtils.addAll(hashValue, Longs.toByteArray(timestamp));
-		switch (algorithm)
-		{
-			case SHA1 :
-			case SHA_1 :
-				return DigestUtils.sha1(hashValue);
-			case SHA256 :
-			case SHA_256 :
-				return DigestUtils.sha256(hashValue);
-			case SHA384 :
-			case SHA_384 :
-				return DigestUtils.sha384(hashValue);
-			case SHA512 :
-			case SHA_512 :
-				return DigestUtils.sha512(hashValue);
-			default :
-				return DigestUtils.sha256(hashValue);
-		}
+		return HashInput.of(algorithm).put(input).put(hash).putLong(signature).putLong(timestamp)
+			.digest();
 	}
 
 	/**
@@ -224,9 +200,232 @@ public final class HashExtensions
 		return hash(hashIt, null, hashAlgorithm, null);
 	}
 
+	/**
+	 * Hashes the content of the given file. Files that are larger than the channel buffer are
+	 * mapped into memory in sliding windows, so the used heap does not grow with the file size
+	 *
+	 * @param path
+	 *            the path of the file to hash
+	 * @param hashAlgorithm
+	 *            the hash algorithm
+	 * @return the generated hash as byte array
+	 * @throws NoSuchAlgorithmException
+	 *             is thrown if instantiation of the MessageDigest object fails
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public static byte[] hash(final Path path, final HashAlgorithm hashAlgorithm)
+		throws NoSuchAlgorithmException, IOException
+	{
+		return hash(path, hashAlgorithm, MAPPED_WINDOW_SIZE);
+	}
+
+	/**
+	 * Hashes the content of the given file with the given size of the mapped windows
+	 *
+	 * @param path
+	 *            the path of the file to hash
+	 * @param hashAlgorithm
+	 *            the hash algorithm
+	 * @param windowSize
+	 *            the size of the windows that are mapped into memory
+	 * @return the generated hash as byte array
+	 * @throws NoSuchAlgorithmException
+	 *             is thrown if instantiation of the MessageDigest object fails
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	static byte[] hash(final Path path, final HashAlgorithm hashAlgorithm, final long windowSize)
+		throws NoSuchAlgorithmException, IOException
+	{
+		Objects.requireNonNull(path);
+		try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ))
+		{
+			final long size = fileChannel.size();
+			if (size <= CHANNEL_BUFFER_SIZE)
+			{
+				return hash(fileChannel, hashAlgorithm);
+			}
+			final MessageDigest messageDigest = DigestPool.getInstance()
+				.getThreadLocal(hashAlgorithm);
+			for (long position = 0; position < size; position += windowSize)
+			{
+				final MappedByteBuffer window = fileChannel.map(FileChannel.MapMode.READ_ONLY,
+					position, Math.min(windowSize, size - position));
+				messageDigest.update(window);
+			}
+			return messageDigest.digest();
+		}
+	}
+
+	/**
+	 * Hashes all bytes that can be read from the given channel. The channel is read in chunks of
+	 * a fixed size and is not closed
+	 *
+	 * @param channel
+	 *            the channel to hash
+	 * @param hashAlgorithm
+	 *            the hash algorithm
+	 * @return the generated hash as byte array
+	 * @throws NoSuchAlgorithmException
+	 *             is thrown if instantiation of the MessageDigest object fails
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public static byte[] hash(final ReadableByteChannel channel, final HashAlgorithm hashAlgorithm)
+		throws NoSuchAlgorithmException, IOException
+	{
+		Objects.requireNonNull(channel);
+		final MessageDigest messageDigest = DigestPool.getInstance().getThreadLocal(hashAlgorithm);
+		final ByteBuffer buffer = ByteBuffer.allocate(CHANNEL_BUFFER_SIZE);
+		while (channel.read(buffer) != -1)
+		{
+			buffer.flip();
+			messageDigest.update(buffer);
+			buffer.clear();
+		}
+		return messageDigest.digest();
+	}
+
+	/**
+	 * Hashes the remaining bytes of the given buffer. Direct buffers are passed to the digest
+	 * without copying them onto the heap. After this call the position of the given buffer is
+	 * equal to its limit
+	 *
+	 * @param buffer
+	 *            the buffer to hash
+	 * @param hashAlgorithm
+	 *            the hash algorithm
+	 * @return the generated hash as byte array
+	 * @throws NoSuchAlgorithmException
+	 *             is thrown if instantiation of the MessageDigest object fails
+	 */
+	public static byte[] hash(final ByteBuffer buffer, final HashAlgorithm hashAlgorithm)
+		throws NoSuchAlgorithmException
+	{
+		Objects.requireNonNull(buffer);
+		final MessageDigest messageDigest = DigestPool.getInstance().getThreadLocal(hashAlgorithm);
+		messageDigest.update(buffer);
+		return messageDigest.digest();
+	}
+
+	/**
+	 * Computes the chunked merkle digest of the given file. The chunks of the file are hashed in
+	 * parallel on the common {@link ForkJoinPool}
+	 *
+	 * @see ChunkedFileHasher
+	 * @see ChunkedMerkleDigest
+	 *
+	 * @param path
+	 *            the path of the file to hash
+	 * @param hashAlgorithm
+	 *            the hash algorithm
+	 * @param chunkSize
+	 *            the size of the chunks in bytes
+	 * @return the chunked merkle digest
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public static ChunkedMerkleDigest hashChunked(final Path path,
+		final HashAlgorithm hashAlgorithm, final int chunkSize) throws IOException
+	{
+		return new ChunkedFileHasher(hashAlgorithm, chunkSize, ForkJoinPool.commonPool())
+			.hash(path);
+	}
+
+	/**
+	 * Hashes the given byte array with all given algorithms in one pass
+	 *
+	 * @see MultiDigest
+	 *
+	 * @param hashIt
+	 *            the byte array to hash
+	 * @param algorithms
+	 *            the hash algorithms
+	 * @return the hashes mapped to their algorithm
+	 * @throws NoSuchAlgorithmException
+	 *             is thrown if instantiation of a MessageDigest object fails
+	 */
+	public static Map<HashAlgorithm, byte[]> hashAll(final byte[] hashIt,
+		final Set<HashAlgorithm> algorithms) throws NoSuchAlgorithmException
+	{
+		Objects.requireNonNull(hashIt);
+		return new MultiDigest(algorithms).update(hashIt).digest();
+	}
+
+	/**
+	 * Hashes the content of the given file with all given algorithms. The file is read only once
+	 * and large files are mapped into memory in windows
+	 *
+	 * @see MultiDigest
+	 *
+	 * @param path
+	 *            the path of the file to hash
+	 * @param algorithms
+	 *            the hash algorithms
+	 * @return the hashes mapped to their algorithm
+	 * @throws NoSuchAlgorithmException
+	 *             is thrown if instantiation of a MessageDigest object fails
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public static Map<HashAlgorithm, byte[]> hashAll(final Path path,
+		final Set<HashAlgorithm> algorithms) throws NoSuchAlgorithmException, IOException
+	{
+		Objects.requireNonNull(path);
+		try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ))
+		{
+			final long size = fileChannel.size();
+			if (size <= CHANNEL_BUFFER_SIZE)
+			{
+				return hashAll(fileChannel, algorithms);
+			}
+			final MultiDigest multiDigest = new MultiDigest(algorithms);
+			for (long position = 0; position < size; position += MAPPED_WINDOW_SIZE)
+			{
+				multiDigest.update(fileChannel.map(FileChannel.MapMode.READ_ONLY, position,
+					Math.min(MAPPED_WINDOW_SIZE, size - position)));
+			}
+			return multiDigest.digest();
+		}
+	}
+
+	/**
+	 * Hashes the remaining content of the given channel with all given algorithms. The channel is
+	 * read only once and is not closed
+	 *
+	 * @see MultiDigest
+	 *
+	 * @param channel
+	 *            the channel to hash
+	 * @param algorithms
+	 *            the hash algorithms
+	 * @return the hashes mapped to their algorithm
+	 * @throws NoSuchAlgorithmException
+	 *             is thrown if instantiation of a MessageDigest object fails
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public static Map<HashAlgorithm, byte[]> hashAll(final ReadableByteChannel channel,
+		final Set<HashAlgorithm> algorithms) throws NoSuchAlgorithmException, IOException
+	{
+		Objects.requireNonNull(channel);
+		final MultiDigest multiDigest = new MultiDigest(algorithms);
+		final ByteBuffer buffer = ByteBuffer.allocate(CHANNEL_BUFFER_SIZE);
+		while (channel.read(buffer) != -1)
+		{
+			buffer.flip();
+			multiDigest.update(buffer);
+			buffer.clear();
+		}
+		return multiDigest.digest();
+	}
+
 	/**
 	 * Hashes the given {@link byte[]} object with the given parameters
 	 *
+	 * @see SaltedHasher
+	 *
 	 * @param hashIt
 	 *            the byte array to hash
 	 * @param salt
@@ -242,8 +441,7 @@ public final class HashExtensions
 	public static byte[] hash(final byte[] hashIt, final String salt,
 		final HashAlgorithm hashAlgorithm, final Charset charset) throws NoSuchAlgorithmException
 	{
-		final MessageDigest messageDigest = MessageDigest.getInstance(hashAlgorithm.getAlgorithm());
-		messageDigest.reset();
+		final MessageDigest messageDigest = DigestPool.getInstance().getThreadLocal(hashAlgorithm);
 		if (salt != null)
 		{
 			messageDigest.update(salt.getBytes(charset));
@@ -271,8 +469,7 @@ public final class HashExtensions
 	public static String hash(final String hashIt, final String salt,
 		final HashAlgorithm hashAlgorithm, final Charset charset) throws NoSuchAlgorithmException
 	{
-		final MessageDigest messageDigest = MessageDigest.getInstance(hashAlgorithm.getAlgorithm());
-		messageDigest.reset();
+		final MessageDigest messageDigest = DigestPool.getInstance().getThreadLocal(hashAlgorithm);
 		messageDigest.update(salt.getBytes(charset));
 		return new String(messageDigest.digest(hashIt.getBytes(charset)), charset);
 	}
@@ -0,0 +1,175 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.hash;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.util.Objects;
+
+import io.github.astrapi69.crypt.api.algorithm.HashAlgorithm;
+
+/**
+ * The class {@link HashInput} composes the input of a hash from several fields and feeds every
+ * field straight into the digest, so no concatenated copy of the fields is created. The digest is
+ * the thread local digest of the {@link DigestPool} and <code>long</code> values are written
+ * through a reusable buffer of the current thread.
+ * <br>
+ * <br>
+ * The result is identical to the digest of the concatenated fields, where <code>long</code> values
+ * are encoded in big-endian byte order like {@link com.google.common.primitives.Longs#toByteArray}
+ * does and <code>null</code> arrays are skipped like
+ * {@link org.apache.commons.lang3.ArrayUtils#addAll(byte[], byte...)} does. A {@link HashInput}
+ * must be completed with {@link #digest()} before the next hash with the same algorithm is started
+ * on the same thread.
+ *
+ * <pre>
+ * byte[] hash = HashInput.of(HashAlgorithm.SHA256).put(previousBlockHash).put(merkleRoot)
+ * 	.putLong(tries).putLong(timestamp).digest();
+ * </pre>
+ */
+public final class HashInput
+{
+
+	/** The reusable buffers for the encoding of <code>long</code> values */
+	private static final ThreadLocal<byte[]> LONG_BUFFERS = ThreadLocal
+		.withInitial(() -> new byte[Long.BYTES]);
+
+	/** The digest that receives the fields */
+	private final MessageDigest messageDigest;
+
+	/** The buffer for the encoding of <code>long</code> values */
+	private final byte[] longBuffer;
+
+	private HashInput(final MessageDigest messageDigest)
+	{
+		this.messageDigest = messageDigest;
+		this.longBuffer = LONG_BUFFERS.get();
+	}
+
+	/**
+	 * Factory method for create a new {@link HashInput} for the given algorithm. Algorithms other
+	 * than SHA-1, SHA-384 and SHA-512 fall back to SHA-256
+	 *
+	 * @param algorithm
+	 *            the hash algorithm
+	 * @return the new {@link HashInput} object
+	 */
+	public static HashInput of(final HashAlgorithm algorithm)
+	{
+		Objects.requireNonNull(algorithm);
+		return new HashInput(DigestPool.getInstance().getResolvedThreadLocal(algorithm));
+	}
+
+	/**
+	 * Appends the given byte array. A <code>null</code> value is skipped
+	 *
+	 * @param bytes
+	 *            the byte array
+	 * @return this {@link HashInput} object
+	 */
+	public HashInput put(final byte[] bytes)
+	{
+		if (bytes != null)
+		{
+			messageDigest.update(bytes);
+		}
+		return this;
+	}
+
+	/**
+	 * Appends the given range of the given byte array
+	 *
+	 * @param bytes
+	 *            the byte array
+	 * @param offset
+	 *            the offset of the range
+	 * @param length
+	 *            the length of the range
+	 * @return this {@link HashInput} object
+	 */
+	public HashInput put(final byte[] bytes, final int offset, final int length)
+	{
+		messageDigest.update(bytes, offset, length);
+		return this;
+	}
+
+	/**
+	 * Appends the given <code>long</code> value in big-endian byte order
+	 *
+	 * @param value
+	 *            the <code>long</code> value
+	 * @return this {@link HashInput} object
+	 */
+	public HashInput putLong(final long value)
+	{
+		for (int i = 0; i < Long.BYTES; i++)
+		{
+			longBuffer[i] = (byte)(value >>> (Long.SIZE - Byte.SIZE * (i + 1)));
+		}
+		messageDigest.update(longBuffer, 0, Long.BYTES);
+		return this;
+	}
+
+	/**
+	 * Completes the hash computation
+	 *
+	 * @return the hash as byte array
+	 */
+	public byte[] digest()
+	{
+		return messageDigest.digest();
+	}
+
+	/**
+	 * Completes the hash computation and writes the hash into the given buffer
+	 *
+	 * @param buffer
+	 *            the buffer for the hash
+	 * @param offset
+	 *            the offset in the buffer
+	 * @return the number of bytes that are written
+	 */
+	public int digest(final byte[] buffer, final int offset)
+	{
+		try
+		{
+			return messageDigest.digest(buffer, offset, messageDigest.getDigestLength());
+		}
+		catch (DigestException e)
+		{
+			throw new IllegalArgumentException(e);
+		}
+	}
+
+	/**
+	 * Gets the length of the hash in bytes
+	 *
+	 * @return the length of the hash
+	 */
+	public int getDigestLength()
+	{
+		return messageDigest.getDigestLength();
+	}
+}
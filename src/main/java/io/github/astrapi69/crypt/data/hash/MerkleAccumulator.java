@@ -0,0 +1,170 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.hash;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import io.github.astrapi69.crypt.api.algorithm.HashAlgorithm;
+
+/**
+ * The class {@link MerkleAccumulator} maintains the merkle root of a list of leaves that grows one
+ * leaf at a time, so the current root can be read after every added leaf. The root is identical
+ * to the root of {@link HashExtensions#getMerkleRootHash(java.util.Queue, HashAlgorithm)} for the
+ * leaves that are added so far.
+ * <br>
+ * <br>
+ * In the tree of the queue based algorithm every added leaf moves all nodes above the deepest
+ * level by one position, so no inner node above that level survives an added leaf. The
+ * accumulator hashes the pairs of the deepest level once when they are complete, that is one hash
+ * for every second leaf, and computes the remaining levels lazily when the root is read. A root
+ * that is read twice without an added leaf in between is not computed again.
+ */
+public final class MerkleAccumulator
+{
+
+	/** The resolved hash algorithm of the message digest */
+	private final HashAlgorithm digestAlgorithm;
+
+	/** The added leaves */
+	private final List<byte[]> leaves = new ArrayList<>();
+
+	/** The hashes of the leaf pairs, the pair with index i holds the leaves 2i and 2i + 1 */
+	private final List<byte[]> pairs = new ArrayList<>();
+
+	/** The merkle root of the added leaves or null if it has to be computed */
+	private byte[] root;
+
+	/**
+	 * Instantiates a new {@link MerkleAccumulator} for the given hash algorithm
+	 *
+	 * @param algorithm
+	 *            the hash algorithm
+	 */
+	public MerkleAccumulator(final HashAlgorithm algorithm)
+	{
+		this.digestAlgorithm = DigestPool.resolveDigestAlgorithm(Objects.requireNonNull(algorithm));
+	}
+
+	/**
+	 * Adds the given leaf hash. The given array is referenced and not copied, so it must not be
+	 * modified afterwards
+	 *
+	 * @param leaf
+	 *            the leaf hash
+	 * @return this {@link MerkleAccumulator} object
+	 */
+	public MerkleAccumulator add(final byte[] leaf)
+	{
+		leaves.add(leaf);
+		final int leafCount = leaves.size();
+		if (leafCount % 2 == 0)
+		{
+			pairs.add(hash(getMessageDigest(), leaves.get(leafCount - 2), leaf));
+		}
+		root = null;
+		return this;
+	}
+
+	/**
+	 * Gets the merkle root of all added leaves
+	 *
+	 * @return the merkle root or null if no leaf is added
+	 */
+	public byte[] getRoot()
+	{
+		final int leafCount = leaves.size();
+		if (root == null && 0 < leafCount)
+		{
+			root = leafCount == 1 ? leaves.get(0) : computeRoot(leafCount);
+		}
+		return root;
+	}
+
+	/**
+	 * Gets the number of added leaves
+	 *
+	 * @return the number of added leaves
+	 */
+	public int getLeafCount()
+	{
+		return leaves.size();
+	}
+
+	private byte[] computeRoot(final int leafCount)
+	{
+		final int deepLeafCount = new MerkleTreeLayout(leafCount).getDeepLeafCount();
+		final int shallowLeafCount = leafCount - deepLeafCount;
+		int width = shallowLeafCount + deepLeafCount / 2;
+		final byte[][] nodes = new byte[width][];
+		for (int i = 0; i < shallowLeafCount; i++)
+		{
+			nodes[i] = leaves.get(deepLeafCount + i);
+		}
+		for (int i = 0; i < deepLeafCount / 2; i++)
+		{
+			nodes[shallowLeafCount + i] = pairs.get(i);
+		}
+		final MessageDigest messageDigest = getMessageDigest();
+		while (1 < width)
+		{
+			width /= 2;
+			for (int i = 0; i < width; i++)
+			{
+				nodes[i] = hash(messageDigest, nodes[2 * i], nodes[2 * i + 1]);
+			}
+		}
+		return nodes[0];
+	}
+
+	private MessageDigest getMessageDigest()
+	{
+		try
+		{
+			return DigestPool.getInstance().getThreadLocal(digestAlgorithm);
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static byte[] hash(final MessageDigest messageDigest, final byte[] left,
+		final byte[] right)
+	{
+		if (left != null)
+		{
+			messageDigest.update(left);
+		}
+		if (right != null)
+		{
+			messageDigest.update(right);
+		}
+		return messageDigest.digest();
+	}
+}
@@ -0,0 +1,214 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.hash;
+
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import io.github.astrapi69.crypt.api.algorithm.HashAlgorithm;
+
+/**
+ * The class {@link MerkleProof} holds the sibling hashes on the path from one leaf to the merkle
+ * root. With the proof the membership of a leaf can be verified with O(log n) hashes instead of
+ * rebuilding the whole tree. The proofs follow the pairing rules of
+ * {@link HashExtensions#getMerkleRootHash(java.util.Queue, HashAlgorithm)}, so they verify against
+ * existing merkle roots
+ */
+public final class MerkleProof
+{
+
+	/** The index of the leaf */
+	private final int leafIndex;
+
+	/** The sibling hashes from the leaf level up to the root */
+	private final byte[][] siblingHashes;
+
+	/** The flags if the sibling hash with the same index is the left operand of the pair */
+	private final boolean[] leftSiblings;
+
+	/**
+	 * Instantiates a new {@link MerkleProof} with the given parameters
+	 *
+	 * @param leafIndex
+	 *            the index of the leaf
+	 * @param siblingHashes
+	 *            the sibling hashes from the leaf level up to the root
+	 * @param leftSiblings
+	 *            the flags if the sibling hash with the same index is the left operand of the pair
+	 */
+	public MerkleProof(final int leafIndex, final byte[][] siblingHashes,
+		final boolean[] leftSiblings)
+	{
+		Objects.requireNonNull(siblingHashes);
+		Objects.requireNonNull(leftSiblings);
+		if (siblingHashes.length != leftSiblings.length)
+		{
+			throw new IllegalArgumentException(
+				"siblingHashes and leftSiblings must have the same length");
+		}
+		this.leafIndex = leafIndex;
+		this.siblingHashes = siblingHashes.clone();
+		this.leftSiblings = leftSiblings.clone();
+	}
+
+	/**
+	 * Factory method for create the {@link MerkleProof} of the leaf with the given index
+	 *
+	 * @param leaves
+	 *            the leaf hashes of the whole tree
+	 * @param leafIndex
+	 *            the index of the leaf
+	 * @param algorithm
+	 *            the hash algorithm
+	 * @return the new {@link MerkleProof} object
+	 */
+	public static MerkleProof of(final List<byte[]> leaves, final int leafIndex,
+		final HashAlgorithm algorithm)
+	{
+		Objects.requireNonNull(leaves);
+		Objects.requireNonNull(algorithm);
+		Objects.checkIndex(leafIndex, leaves.size());
+		final MerkleTreeLayout layout = new MerkleTreeLayout(leaves.size());
+		final int height = layout.getHeight();
+		final int startLevel = layout.getLeafLevel(leafIndex);
+		final byte[][] siblingHashes = new byte[height - startLevel][];
+		final boolean[] leftSiblings = new boolean[height - startLevel];
+		long position = layout.getLeafPosition(leafIndex);
+		for (int level = startLevel; level < height; level++)
+		{
+			final long siblingPosition = position ^ 1;
+			siblingHashes[level - startLevel] = layout.getSubtreeRoot(leaves, algorithm, level,
+				siblingPosition);
+			leftSiblings[level - startLevel] = siblingPosition < position;
+			position >>= 1;
+		}
+		return new MerkleProof(leafIndex, siblingHashes, leftSiblings);
+	}
+
+	/**
+	 * Verifies that the given leaf hash is part of the merkle tree with the given root
+	 *
+	 * @param leafHash
+	 *            the leaf hash
+	 * @param root
+	 *            the merkle root
+	 * @param algorithm
+	 *            the hash algorithm
+	 * @return true if the proof leads from the given leaf hash to the given root otherwise false
+	 */
+	public boolean verify(final byte[] leafHash, final byte[] root, final HashAlgorithm algorithm)
+	{
+		Objects.requireNonNull(leafHash);
+		Objects.requireNonNull(root);
+		Objects.requireNonNull(algorithm);
+		final MessageDigest messageDigest = DigestPool.getInstance()
+			.getResolvedThreadLocal(algorithm);
+		byte[] current = leafHash;
+		for (int i = 0; i < siblingHashes.length; i++)
+		{
+			if (leftSiblings[i])
+			{
+				messageDigest.update(siblingHashes[i]);
+				messageDigest.update(current);
+			}
+			else
+			{
+				messageDigest.update(current);
+				messageDigest.update(siblingHashes[i]);
+			}
+			current = messageDigest.digest();
+		}
+		return MessageDigest.isEqual(current, root);
+	}
+
+	/**
+	 * Gets the index of the leaf
+	 *
+	 * @return the index of the leaf
+	 */
+	public int getLeafIndex()
+	{
+		return leafIndex;
+	}
+
+	/**
+	 * Gets the sibling hashes from the leaf level up to the root
+	 *
+	 * @return the sibling hashes
+	 */
+	public byte[][] getSiblingHashes()
+	{
+		return siblingHashes.clone();
+	}
+
+	/**
+	 * Gets the flags if the sibling hash with the same index is the left operand of the pair
+	 *
+	 * @return the flags of the sibling hashes
+	 */
+	public boolean[] getLeftSiblings()
+	{
+		return leftSiblings.clone();
+	}
+
+	/**
+	 * Gets the number of hashes that are needed to verify this proof
+	 *
+	 * @return the number of sibling hashes
+	 */
+	public int size()
+	{
+		return siblingHashes.length;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public boolean equals(final Object o)
+	{
+		if (o == this)
+			return true;
+		if (!(o instanceof MerkleProof other))
+			return false;
+		if (this.leafIndex != other.leafIndex)
+			return false;
+		if (!Arrays.equals(this.leftSiblings, other.leftSiblings))
+			return false;
+		return Arrays.deepEquals(this.siblingHashes, other.siblingHashes);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public int hashCode()
+	{
+		final int PRIME = 59;
+		int result = 1;
+		result = result * PRIME + this.leafIndex;
+		result = result * PRIME + Arrays.hashCode(this.leftSiblings);
+		result = result * PRIME + Arrays.deepHashCode(this.siblingHashes);
+		return result;
+	}
+}
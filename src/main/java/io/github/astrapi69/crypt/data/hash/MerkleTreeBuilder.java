@@ -0,0 +1,271 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.hash;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Objects;
+
+import io.github.astrapi69.crypt.api.algorithm.HashAlgorithm;
+
+/**
+ * The class {@link MerkleTreeBuilder} computes a merkle root from leaves that are added one at a
+ * time. It keeps only the pending node hashes of each tree level, so the memory usage is
+ * O(log n), and it reuses one {@link MessageDigest} and one scratch buffer for all inner nodes.
+ * The digest is borrowed from the {@link DigestPool} and given back when the root is built.
+ * <br>
+ * <br>
+ * The computed root is identical to the root of
+ * {@link HashExtensions#getMerkleRootHash(java.util.Queue, HashAlgorithm)}. The queue based
+ * algorithm builds a complete binary tree in which the first <code>m</code> leaves are paired on
+ * the deepest level and the remaining leaves are placed one level above, in front of these pairs.
+ * Because of that the builder has to know the number of leaves in advance.
+ *
+ * @see <a href="https://en.wikipedia.org/wiki/Merkle_tree">wikipedia Merkle tree</a>
+ */
+public final class MerkleTreeBuilder
+{
+
+	/** The resolved hash algorithm of the message digest */
+	private final HashAlgorithm digestAlgorithm;
+
+	/** The message digest that is borrowed from the {@link DigestPool} for all inner nodes */
+	private final MessageDigest messageDigest;
+
+	/** The scratch buffer that receives the digest of an inner node */
+	private final byte[] scratch;
+
+	/** The number of leaves of the tree */
+	private final int leafCount;
+
+	/** The index of the first leaf that is placed one level above the deepest level */
+	private final int shallowLeafIndex;
+
+	/** The position of the first leaf on the deepest level */
+	private final long deepLeafOffset;
+
+	/** The level of the merkle root */
+	private final int height;
+
+	/** The pending node hashes, two slots per level */
+	private final byte[][] slots;
+
+	/** The owned buffers of the slots that are used for inner node hashes */
+	private final byte[][] buffers;
+
+	/** The positions of the pending node hashes or -1 if a slot is free */
+	private final long[] positions;
+
+	/** The number of leaves that are already added */
+	private int addedLeaves;
+
+	/** The merkle root */
+	private byte[] root;
+
+	/** The flag if the message digest is given back to the {@link DigestPool} */
+	private boolean released;
+
+	/**
+	 * Instantiates a new {@link MerkleTreeBuilder} for the given hash algorithm and the given
+	 * number of leaves
+	 *
+	 * @param algorithm
+	 *            the hash algorithm
+	 * @param leafCount
+	 *            the number of leaves that will be added
+	 */
+	public MerkleTreeBuilder(final HashAlgorithm algorithm, final int leafCount)
+	{
+		Objects.requireNonNull(algorithm);
+		final MerkleTreeLayout layout = new MerkleTreeLayout(leafCount);
+		this.digestAlgorithm = DigestPool.resolveDigestAlgorithm(algorithm);
+		this.messageDigest = borrowMessageDigest(digestAlgorithm);
+		this.scratch = new byte[messageDigest.getDigestLength()];
+		this.leafCount = leafCount;
+		this.height = layout.getHeight();
+		this.shallowLeafIndex = layout.getDeepLeafCount();
+		this.deepLeafOffset = layout.getLeafPosition(0);
+		this.slots = new byte[2 * height][];
+		this.buffers = new byte[2 * height][];
+		this.positions = new long[2 * height];
+		Arrays.fill(this.positions, -1L);
+	}
+
+	/**
+	 * Adds the given leaf hash. The given array is referenced and not copied, so it must not be
+	 * modified until the root is built
+	 *
+	 * @param leaf
+	 *            the leaf hash
+	 * @return this {@link MerkleTreeBuilder} object
+	 */
+	public MerkleTreeBuilder add(final byte[] leaf)
+	{
+		if (leafCount <= addedLeaves)
+		{
+			throw new IllegalStateException(
+				"All " + leafCount + " leaves of the merkle tree are already added");
+		}
+		int index = addedLeaves++;
+		if (leafCount == 1)
+		{
+			root = leaf;
+		}
+		else if (index < shallowLeafIndex)
+		{
+			push(0, deepLeafOffset + index, leaf);
+		}
+		else
+		{
+			push(1, index - (long)shallowLeafIndex, leaf);
+		}
+		return this;
+	}
+
+	/**
+	 * Builds the merkle root from all added leaves
+	 *
+	 * @return the merkle root or null if the tree has no leaves
+	 */
+	public byte[] build()
+	{
+		if (addedLeaves != leafCount)
+		{
+			throw new IllegalStateException("Only " + addedLeaves + " of " + leafCount
+				+ " leaves of the merkle tree are added");
+		}
+		if (!released)
+		{
+			released = true;
+			DigestPool.getInstance().release(digestAlgorithm, messageDigest);
+		}
+		return root;
+	}
+
+	/**
+	 * Gets the number of leaves of the tree
+	 *
+	 * @return the number of leaves
+	 */
+	public int getLeafCount()
+	{
+		return leafCount;
+	}
+
+	private static MessageDigest borrowMessageDigest(final HashAlgorithm digestAlgorithm)
+	{
+		try
+		{
+			return DigestPool.getInstance().borrow(digestAlgorithm);
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private void push(int level, long position, byte[] hash)
+	{
+		while (level < height)
+		{
+			int slot = findSlot(level, position ^ 1);
+			if (slot < 0)
+			{
+				store(level, position, hash);
+				return;
+			}
+			byte[] sibling = slots[slot];
+			slots[slot] = null;
+			positions[slot] = -1L;
+			if ((position & 1) == 0)
+			{
+				update(hash);
+				update(sibling);
+			}
+			else
+			{
+				update(sibling);
+				update(hash);
+			}
+			digestToScratch();
+			hash = scratch;
+			position >>= 1;
+			level++;
+		}
+		root = Arrays.copyOf(hash, hash.length);
+	}
+
+	private int findSlot(int level, long position)
+	{
+		int slot = 2 * level;
+		if (positions[slot] == position)
+		{
+			return slot;
+		}
+		if (positions[slot + 1] == position)
+		{
+			return slot + 1;
+		}
+		return -1;
+	}
+
+	private void store(int level, long position, byte[] hash)
+	{
+		int slot = positions[2 * level] < 0 ? 2 * level : 2 * level + 1;
+		if (hash == scratch)
+		{
+			if (buffers[slot] == null)
+			{
+				buffers[slot] = new byte[scratch.length];
+			}
+			System.arraycopy(scratch, 0, buffers[slot], 0, scratch.length);
+			hash = buffers[slot];
+		}
+		slots[slot] = hash;
+		positions[slot] = position;
+	}
+
+	private void update(byte[] hash)
+	{
+		if (hash != null)
+		{
+			messageDigest.update(hash);
+		}
+	}
+
+	private void digestToScratch()
+	{
+		try
+		{
+			messageDigest.digest(scratch, 0, scratch.length);
+		}
+		catch (DigestException e)
+		{
+			throw new IllegalStateException(e);
+		}
+	}
+}
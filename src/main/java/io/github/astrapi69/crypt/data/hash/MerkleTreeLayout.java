@@ -0,0 +1,174 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.hash;
+
+import java.util.List;
+
+import io.github.astrapi69.crypt.api.algorithm.HashAlgorithm;
+
+/**
+ * The class {@link MerkleTreeLayout} describes the shape of the merkle tree that the queue based
+ * algorithm of {@link HashExtensions#getMerkleRootHash(java.util.Queue, HashAlgorithm)} builds.
+ * <br>
+ * <br>
+ * For <code>n</code> leaves the tree is a complete binary tree of the given height. The first
+ * <code>deepLeafCount</code> leaves are paired on level 0. Level 1 holds the remaining leaves
+ * followed by the pairs of level 0, and all levels above are perfect. A node is identified by its
+ * level and its position on that level
+ */
+final class MerkleTreeLayout
+{
+
+	/** The number of leaves */
+	private final int leafCount;
+
+	/** The level of the merkle root */
+	private final int height;
+
+	/** The number of leaves that are paired on level 0 */
+	private final int deepLeafCount;
+
+	/**
+	 * Instantiates a new {@link MerkleTreeLayout} for the given number of leaves
+	 *
+	 * @param leafCount
+	 *            the number of leaves
+	 */
+	MerkleTreeLayout(final int leafCount)
+	{
+		if (leafCount < 0)
+		{
+			throw new IllegalArgumentException("leafCount must not be negative: " + leafCount);
+		}
+		this.leafCount = leafCount;
+		this.height = leafCount < 2 ? 0 : 63 - Long.numberOfLeadingZeros(2L * leafCount - 1);
+		this.deepLeafCount = leafCount < 2 ? leafCount : (int)(2L * leafCount - (1L << height));
+	}
+
+	int getLeafCount()
+	{
+		return leafCount;
+	}
+
+	int getHeight()
+	{
+		return height;
+	}
+
+	int getDeepLeafCount()
+	{
+		return deepLeafCount;
+	}
+
+	/**
+	 * Gets the level of the leaf with the given index
+	 *
+	 * @param index
+	 *            the index of the leaf
+	 * @return the level of the leaf
+	 */
+	int getLeafLevel(final int index)
+	{
+		return index < deepLeafCount ? 0 : 1;
+	}
+
+	/**
+	 * Gets the position of the leaf with the given index on its level
+	 *
+	 * @param index
+	 *            the index of the leaf
+	 * @return the position of the leaf
+	 */
+	long getLeafPosition(final int index)
+	{
+		return index < deepLeafCount
+			? 2L * (leafCount - deepLeafCount) + index
+			: index - deepLeafCount;
+	}
+
+	/**
+	 * Computes the root of the subtree with the given level and position sequentially
+	 *
+	 * @param leaves
+	 *            the leaf hashes of the whole tree
+	 * @param algorithm
+	 *            the hash algorithm
+	 * @param level
+	 *            the level of the subtree root
+	 * @param position
+	 *            the position of the subtree root
+	 * @return the root of the subtree
+	 */
+	byte[] getSubtreeRoot(final List<byte[]> leaves, final HashAlgorithm algorithm,
+		final int level, final long position)
+	{
+		if (level == 0)
+		{
+			return leaves.get((int)(position - 2L * (leafCount - deepLeafCount)));
+		}
+		final long shallowLeafCount = leafCount - deepLeafCount;
+		final long start = position << (level - 1);
+		final long end = (position + 1) << (level - 1);
+		final long shallowEnd = Math.min(end, shallowLeafCount);
+		final long pairStart = Math.max(start, shallowLeafCount) - shallowLeafCount;
+		final long pairEnd = Math.max(end, shallowLeafCount) - shallowLeafCount;
+		// the deepest leaves come first, so the builder pairs them like the whole tree
+		final MerkleTreeBuilder merkleTreeBuilder = new MerkleTreeBuilder(algorithm,
+			(int)getSubtreeLeafCount(level, position));
+		for (long i = 2 * pairStart; i < 2 * pairEnd; i++)
+		{
+			merkleTreeBuilder.add(leaves.get((int)i));
+		}
+		for (long i = start; i < shallowEnd; i++)
+		{
+			merkleTreeBuilder.add(leaves.get((int)(deepLeafCount + i)));
+		}
+		return merkleTreeBuilder.build();
+	}
+
+	/**
+	 * Gets the number of leaves of the subtree with the given level and position
+	 *
+	 * @param level
+	 *            the level of the subtree root
+	 * @param position
+	 *            the position of the subtree root
+	 * @return the number of leaves of the subtree
+	 */
+	long getSubtreeLeafCount(final int level, final long position)
+	{
+		if (level == 0)
+		{
+			return 1;
+		}
+		final long shallowLeafCount = leafCount - deepLeafCount;
+		final long start = position << (level - 1);
+		final long end = (position + 1) << (level - 1);
+		final long shallowEnd = Math.min(end, shallowLeafCount);
+		final long pairStart = Math.max(start, shallowLeafCount) - shallowLeafCount;
+		final long pairEnd = Math.max(end, shallowLeafCount) - shallowLeafCount;
+		return Math.max(0, shallowEnd - start) + 2 * (pairEnd - pairStart);
+	}
+}
@@ -0,0 +1,164 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.hash;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import io.github.astrapi69.crypt.api.algorithm.HashAlgorithm;
+
+/**
+ * The class {@link MultiDigest} computes the hashes of several algorithms in one pass over the
+ * input. Every chunk of the input is fed into the digests of all algorithms while it is still in
+ * the cache, so the input is read only once. The digests are borrowed from the {@link DigestPool}
+ * and given back when the hashes are computed.
+ *
+ * <pre>
+ * MultiDigest multiDigest = new MultiDigest(EnumSet.of(HashAlgorithm.SHA_256, HashAlgorithm.MD5));
+ * multiDigest.update(chunk, 0, length);
+ * Map&lt;HashAlgorithm, byte[]&gt; hashes = multiDigest.digest();
+ * </pre>
+ */
+public final class MultiDigest
+{
+
+	/** The requested hash algorithms */
+	private final HashAlgorithm[] algorithms;
+
+	/** The digests of the requested hash algorithms */
+	private final MessageDigest[] messageDigests;
+
+	/** The flag if the hashes are already computed */
+	private boolean completed;
+
+	/**
+	 * Instantiates a new {@link MultiDigest} for the given hash algorithms
+	 *
+	 * @param algorithms
+	 *            the hash algorithms
+	 * @throws NoSuchAlgorithmException
+	 *             is thrown if instantiation of a MessageDigest object fails
+	 */
+	public MultiDigest(final Set<HashAlgorithm> algorithms) throws NoSuchAlgorithmException
+	{
+		Objects.requireNonNull(algorithms);
+		if (algorithms.isEmpty())
+		{
+			throw new IllegalArgumentException("At least one hash algorithm is required");
+		}
+		this.algorithms = algorithms.toArray(new HashAlgorithm[0]);
+		this.messageDigests = new MessageDigest[this.algorithms.length];
+		for (int i = 0; i < this.algorithms.length; i++)
+		{
+			messageDigests[i] = DigestPool.getInstance().borrow(this.algorithms[i]);
+		}
+	}
+
+	/**
+	 * Feeds the given byte array into all digests
+	 *
+	 * @param bytes
+	 *            the byte array
+	 * @return this {@link MultiDigest} object
+	 */
+	public MultiDigest update(final byte[] bytes)
+	{
+		return update(bytes, 0, bytes.length);
+	}
+
+	/**
+	 * Feeds the given range of the given byte array into all digests
+	 *
+	 * @param bytes
+	 *            the byte array
+	 * @param offset
+	 *            the offset of the range
+	 * @param length
+	 *            the length of the range
+	 * @return this {@link MultiDigest} object
+	 */
+	public MultiDigest update(final byte[] bytes, final int offset, final int length)
+	{
+		checkNotCompleted();
+		for (MessageDigest messageDigest : messageDigests)
+		{
+			messageDigest.update(bytes, offset, length);
+		}
+		return this;
+	}
+
+	/**
+	 * Feeds the remaining bytes of the given buffer into all digests. The position of the buffer
+	 * is advanced to its limit
+	 *
+	 * @param buffer
+	 *            the buffer
+	 * @return this {@link MultiDigest} object
+	 */
+	public MultiDigest update(final ByteBuffer buffer)
+	{
+		checkNotCompleted();
+		final int position = buffer.position();
+		for (MessageDigest messageDigest : messageDigests)
+		{
+			buffer.position(position);
+			messageDigest.update(buffer);
+		}
+		return this;
+	}
+
+	/**
+	 * Completes the hash computation of all algorithms and gives the digests back to the
+	 * {@link DigestPool}
+	 *
+	 * @return the hashes mapped to their algorithm
+	 */
+	public Map<HashAlgorithm, byte[]> digest()
+	{
+		checkNotCompleted();
+		completed = true;
+		final Map<HashAlgorithm, byte[]> hashes = new EnumMap<>(HashAlgorithm.class);
+		for (int i = 0; i < algorithms.length; i++)
+		{
+			hashes.put(algorithms[i], messageDigests[i].digest());
+			DigestPool.getInstance().release(algorithms[i], messageDigests[i]);
+			messageDigests[i] = null;
+		}
+		return hashes;
+	}
+
+	private void checkNotCompleted()
+	{
+		if (completed)
+		{
+			throw new IllegalStateException("The hashes are already computed");
+		}
+	}
+}
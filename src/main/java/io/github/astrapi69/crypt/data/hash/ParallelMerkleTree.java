@@ -0,0 +1,175 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.hash;
+
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import io.github.astrapi69.crypt.api.algorithm.HashAlgorithm;
+
+/**
+ * The class {@link ParallelMerkleTree} computes a merkle root on a {@link ForkJoinPool}. The tree
+ * is split into subtrees that are hashed in parallel, each with its own {@link MerkleTreeBuilder}
+ * and so with its own {@link MessageDigest}. Subtrees with no more leaves than the configured
+ * threshold are hashed sequentially.
+ * <br>
+ * <br>
+ * The computed root is identical to the root of {@link MerkleTreeBuilder} and
+ * {@link HashExtensions#getMerkleRootHash(java.util.Queue, HashAlgorithm)}
+ */
+public final class ParallelMerkleTree
+{
+
+	/** The default number of leaves up to which a subtree is hashed sequentially */
+	public static final int DEFAULT_THRESHOLD = 4096;
+
+	/** The hash algorithm */
+	private final HashAlgorithm algorithm;
+
+	/** The pool that executes the subtree tasks */
+	private final ForkJoinPool pool;
+
+	/** The number of leaves up to which a subtree is hashed sequentially */
+	private final int threshold;
+
+	/**
+	 * Instantiates a new {@link ParallelMerkleTree} with the given hash algorithm that uses the
+	 * common pool and the default threshold
+	 *
+	 * @param algorithm
+	 *            the hash algorithm
+	 */
+	public ParallelMerkleTree(final HashAlgorithm algorithm)
+	{
+		this(algorithm, ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+	}
+
+	/**
+	 * Instantiates a new {@link ParallelMerkleTree} with the given parameters
+	 *
+	 * @param algorithm
+	 *            the hash algorithm
+	 * @param pool
+	 *            the pool that executes the subtree tasks
+	 * @param threshold
+	 *            the number of leaves up to which a subtree is hashed sequentially
+	 */
+	public ParallelMerkleTree(final HashAlgorithm algorithm, final ForkJoinPool pool,
+		final int threshold)
+	{
+		Objects.requireNonNull(algorithm);
+		Objects.requireNonNull(pool);
+		if (threshold < 2)
+		{
+			throw new IllegalArgumentException("threshold must be at least 2: " + threshold);
+		}
+		this.algorithm = algorithm;
+		this.pool = pool;
+		this.threshold = threshold;
+	}
+
+	/**
+	 * Gets the merkle root of the given leaf hashes
+	 *
+	 * @param leaves
+	 *            the leaf hashes
+	 * @return the merkle root or null if the given list is empty
+	 */
+	public byte[] getMerkleRootHash(final List<byte[]> leaves)
+	{
+		Objects.requireNonNull(leaves);
+		final List<byte[]> leafList = leaves instanceof RandomAccess
+			? leaves
+			: new ArrayList<>(leaves);
+		final int leafCount = leafList.size();
+		if (leafCount <= threshold)
+		{
+			final MerkleTreeBuilder merkleTreeBuilder = new MerkleTreeBuilder(algorithm, leafCount);
+			leafList.forEach(merkleTreeBuilder::add);
+			return merkleTreeBuilder.build();
+		}
+		final MerkleTreeLayout layout = new MerkleTreeLayout(leafCount);
+		return pool.invoke(new SubtreeTask(leafList, layout, layout.getHeight(), 0));
+	}
+
+	/**
+	 * Gets the number of leaves up to which a subtree is hashed sequentially
+	 *
+	 * @return the threshold
+	 */
+	public int getThreshold()
+	{
+		return threshold;
+	}
+
+	/**
+	 * The task that computes the root of one subtree of the given {@link MerkleTreeLayout}
+	 */
+	private final class SubtreeTask extends RecursiveTask<byte[]>
+	{
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<byte[]> leaves;
+
+		private final MerkleTreeLayout layout;
+
+		private final int level;
+
+		private final long position;
+
+		SubtreeTask(List<byte[]> leaves, MerkleTreeLayout layout, int level, long position)
+		{
+			this.leaves = leaves;
+			this.layout = layout;
+			this.level = level;
+			this.position = position;
+		}
+
+		@Override
+		protected byte[] compute()
+		{
+			if (level == 1 || layout.getSubtreeLeafCount(level, position) <= threshold)
+			{
+				return layout.getSubtreeRoot(leaves, algorithm, level, position);
+			}
+			final SubtreeTask left = new SubtreeTask(leaves, layout, level - 1, 2 * position);
+			final SubtreeTask right = new SubtreeTask(leaves, layout, level - 1, 2 * position + 1);
+			left.fork();
+			final byte[] rightHash = right.compute();
+			final byte[] leftHash = left.join();
+			final MessageDigest messageDigest = DigestPool.getInstance()
+				.getResolvedThreadLocal(algorithm);
+			messageDigest.update(leftHash);
+			messageDigest.update(rightHash);
+			return messageDigest.digest();
+		}
+	}
+}
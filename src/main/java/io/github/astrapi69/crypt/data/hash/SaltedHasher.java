@@ -0,0 +1,241 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.hash;
+
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+import io.github.astrapi69.crypt.api.algorithm.HashAlgorithm;
+
+/**
+ * The class {@link SaltedHasher} hashes many inputs under the same salt. The salt is encoded only
+ * once and, if it fills at least two blocks of the hash algorithm, absorbed into a prototype
+ * {@link MessageDigest} whose state is cloned for every input, so the digest of the salt is not
+ * repeated. For shorter salts the saved block compressions do not pay for the clone, so the reset
+ * digest of the current thread is fed with the encoded salt instead. The prototype is never
+ * modified after construction, so a {@link SaltedHasher} can be shared between threads.
+ * <br>
+ * <br>
+ * The result is identical to
+ * {@link HashExtensions#hash(byte[], String, HashAlgorithm, java.nio.charset.Charset)} with the
+ * same salt, charset and algorithm.
+ *
+ * <pre>
+ * SaltedHasher saltedHasher = new SaltedHasher(HashAlgorithm.SHA_256, tenantSalt, UTF_8);
+ * List&lt;byte[]&gt; hashes = saltedHasher.hashAll(values);
+ * </pre>
+ */
+public final class SaltedHasher
+{
+
+	/** The hash algorithm */
+	private final HashAlgorithm algorithm;
+
+	/** The salt */
+	private final byte[] salt;
+
+	/** The prototype digest that has already absorbed the salt */
+	private final MessageDigest prototype;
+
+	/** The flag if the prototype digest is cloned for every input */
+	private final boolean cloneable;
+
+	/**
+	 * Instantiates a new {@link SaltedHasher} with the given hash algorithm and the given salt
+	 *
+	 * @param algorithm
+	 *            the hash algorithm
+	 * @param salt
+	 *            the salt or null for no salt
+	 * @throws NoSuchAlgorithmException
+	 *             is thrown if instantiation of the MessageDigest object fails
+	 */
+	public SaltedHasher(final HashAlgorithm algorithm, final byte[] salt)
+		throws NoSuchAlgorithmException
+	{
+		Objects.requireNonNull(algorithm);
+		this.algorithm = algorithm;
+		this.salt = salt == null ? new byte[0] : salt.clone();
+		this.prototype = MessageDigest.getInstance(algorithm.getAlgorithm());
+		this.prototype.update(this.salt);
+		this.cloneable = 2 * getBlockSize(this.prototype.getAlgorithm()) <= this.salt.length
+			&& isCloneable(this.prototype);
+	}
+
+	/**
+	 * Instantiates a new {@link SaltedHasher} with the given hash algorithm and the given salt that
+	 * is encoded with the given charset
+	 *
+	 * @param algorithm
+	 *            the hash algorithm
+	 * @param salt
+	 *            the salt or null for no salt
+	 * @param charset
+	 *            the charset of the salt
+	 * @throws NoSuchAlgorithmException
+	 *             is thrown if instantiation of the MessageDigest object fails
+	 */
+	public SaltedHasher(final HashAlgorithm algorithm, final String salt, final Charset charset)
+		throws NoSuchAlgorithmException
+	{
+		this(algorithm, salt == null ? null : salt.getBytes(charset));
+	}
+
+	/**
+	 * Gets the number of bytes of the blocks that the given digest algorithm processes, that is
+	 * the block size of its HMAC. The truncated SHA-512/224 and SHA-512/256 process the blocks of
+	 * SHA-512, so the block size can not be derived from the digest length
+	 *
+	 * @param algorithm
+	 *            the name of the digest algorithm
+	 * @return the block size in bytes
+	 */
+	static int getBlockSize(final String algorithm)
+	{
+		switch (algorithm.toUpperCase(Locale.ROOT).replace("-", "").replace("_", ""))
+		{
+			case "MD2" :
+				return 16;
+			case "SHA384" :
+			case "SHA512" :
+			case "SHA512/224" :
+			case "SHA512/256" :
+				return 128;
+			case "SHA3224" :
+				return 144;
+			case "SHA3256" :
+				return 136;
+			case "SHA3384" :
+				return 104;
+			case "SHA3512" :
+				return 72;
+			default :
+				// MD5, SHA-1, SHA-224 and SHA-256
+				return 64;
+		}
+	}
+
+	private static boolean isCloneable(final MessageDigest messageDigest)
+	{
+		try
+		{
+			messageDigest.clone();
+			return true;
+		}
+		catch (CloneNotSupportedException e)
+		{
+			return false;
+		}
+	}
+
+	/**
+	 * Hashes the given byte array under the salt
+	 *
+	 * @param hashIt
+	 *            the byte array to hash
+	 * @return the generated hash as byte array
+	 */
+	public byte[] hash(final byte[] hashIt)
+	{
+		Objects.requireNonNull(hashIt);
+		return hash(hashIt, 0, hashIt.length);
+	}
+
+	/**
+	 * Hashes the given range of the given byte array under the salt
+	 *
+	 * @param hashIt
+	 *            the byte array to hash
+	 * @param offset
+	 *            the offset of the range
+	 * @param length
+	 *            the length of the range
+	 * @return the generated hash as byte array
+	 */
+	public byte[] hash(final byte[] hashIt, final int offset, final int length)
+	{
+		final MessageDigest messageDigest = newSaltedDigest();
+		messageDigest.update(hashIt, offset, length);
+		return messageDigest.digest();
+	}
+
+	/**
+	 * Hashes all given byte arrays under the salt
+	 *
+	 * @param values
+	 *            the byte arrays to hash
+	 * @return the generated hashes in the order of the given byte arrays
+	 */
+	public List<byte[]> hashAll(final List<byte[]> values)
+	{
+		Objects.requireNonNull(values);
+		final List<byte[]> hashes = new ArrayList<>(values.size());
+		for (byte[] value : values)
+		{
+			hashes.add(hash(value));
+		}
+		return hashes;
+	}
+
+	/**
+	 * Gets the hash algorithm
+	 *
+	 * @return the hash algorithm
+	 */
+	public HashAlgorithm getAlgorithm()
+	{
+		return algorithm;
+	}
+
+	private MessageDigest newSaltedDigest()
+	{
+		if (cloneable)
+		{
+			try
+			{
+				return (MessageDigest)prototype.clone();
+			}
+			catch (CloneNotSupportedException e)
+			{
+				throw new IllegalStateException(e);
+			}
+		}
+		try
+		{
+			final MessageDigest messageDigest = DigestPool.getInstance().getThreadLocal(algorithm);
+			messageDigest.update(salt);
+			return messageDigest;
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,180 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.hex;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+
+import org.apache.commons.codec.DecoderException;
+
+/**
+ * The class {@link HexDecodingInputStream} reads ASCII encoded hexadecimal digits in lower or upper
+ * case from the underlying stream and provides the decoded bytes. The digits are read in chunks
+ * into a buffer of fixed size, so the memory usage does not depend on the size of the payload.
+ * Invalid characters are rejected as soon as they are read with an {@link IOException} that has
+ * the {@link DecoderException} as cause
+ */
+public class HexDecodingInputStream extends InputStream
+{
+
+	/** The default number of bytes that are decoded in one chunk */
+	public static final int DEFAULT_CHUNK_SIZE = 4096;
+
+	/** The underlying input stream with the hexadecimal digits */
+	private final InputStream in;
+
+	/** The buffer with the hexadecimal digits of one chunk */
+	private final byte[] digits;
+
+	/** The buffer for a single byte that is read with {@link #read()} */
+	private final byte[] single = new byte[1];
+
+	/** The position of the next unread digit in the buffer */
+	private int position;
+
+	/** The number of digits in the buffer */
+	private int limit;
+
+	/** The index of the next unread digit in the underlying stream */
+	private long index;
+
+	/**
+	 * Instantiates a new {@link HexDecodingInputStream}
+	 *
+	 * @param in
+	 *            the underlying input stream with the hexadecimal digits
+	 */
+	public HexDecodingInputStream(final InputStream in)
+	{
+		this(in, DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * Instantiates a new {@link HexDecodingInputStream}
+	 *
+	 * @param in
+	 *            the underlying input stream with the hexadecimal digits
+	 * @param chunkSize
+	 *            the number of bytes that are decoded in one chunk
+	 */
+	public HexDecodingInputStream(final InputStream in, final int chunkSize)
+	{
+		Objects.requireNonNull(in);
+		if (chunkSize < 1)
+		{
+			throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+		}
+		this.in = in;
+		this.digits = new byte[2 * chunkSize];
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public int read() throws IOException
+	{
+		return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public int read(final byte[] b, final int off, final int len) throws IOException
+	{
+		Objects.checkFromIndexSize(off, len, b.length);
+		int decoded = 0;
+		while (decoded < len)
+		{
+			final int available = limit - position;
+			if (available < 2)
+			{
+				if (0 < decoded)
+				{
+					break;
+				}
+				if (!fill())
+				{
+					if (available == 1)
+					{
+						throw new IOException(new DecoderException("Odd number of characters."));
+					}
+					return -1;
+				}
+				continue;
+			}
+			final int pairs = Math.min(len - decoded, available >> 1);
+			try
+			{
+				for (int i = 0; i < pairs; i++)
+				{
+					b[off + decoded + i] = (byte)(HexExtensions.toDigit(digits[position] & 0xFF,
+						index) << 4
+						| HexExtensions.toDigit(digits[position + 1] & 0xFF, index + 1));
+					position += 2;
+					index += 2;
+				}
+			}
+			catch (DecoderException e)
+			{
+				throw new IOException(e.getMessage(), e);
+			}
+			decoded += pairs;
+		}
+		return decoded;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public int available()
+	{
+		return (limit - position) >> 1;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void close() throws IOException
+	{
+		in.close();
+	}
+
+	private boolean fill() throws IOException
+	{
+		final int remaining = limit - position;
+		System.arraycopy(digits, position, digits, 0, remaining);
+		position = 0;
+		limit = remaining;
+		int read;
+		do
+		{
+			read = in.read(digits, limit, digits.length - limit);
+		}
+		while (read == 0);
+		if (read < 0)
+		{
+			return false;
+		}
+		limit += read;
+		return true;
+	}
+}
@@ -0,0 +1,134 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.hex;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
+
+/**
+ * The class {@link HexEncodingChannel} encodes all written bytes to ASCII encoded hexadecimal
+ * digits and writes them to the underlying channel. The bytes are encoded in chunks through a
+ * buffer of fixed size, so the memory usage does not depend on the size of the payload. Every
+ * write blocks until all digits of the given bytes are written, so the underlying channel has to
+ * be in blocking mode
+ */
+public class HexEncodingChannel implements WritableByteChannel
+{
+
+	/** The default number of bytes that are encoded in one chunk */
+	public static final int DEFAULT_CHUNK_SIZE = 4096;
+
+	/** The underlying channel that receives the hexadecimal digits */
+	private final WritableByteChannel channel;
+
+	/** The flag if the hexadecimal digits are written in lower case */
+	private final boolean lowerCase;
+
+	/** The buffer that receives the hexadecimal digits of one chunk */
+	private final ByteBuffer encoded;
+
+	/**
+	 * Instantiates a new {@link HexEncodingChannel}
+	 *
+	 * @param channel
+	 *            the underlying channel that receives the hexadecimal digits
+	 * @param lowerCase
+	 *            the flag if the result shell be transform in lower case. If true the result is
+	 *            lowercase otherwise uppercase
+	 */
+	public HexEncodingChannel(final WritableByteChannel channel, final boolean lowerCase)
+	{
+		this(channel, lowerCase, DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * Instantiates a new {@link HexEncodingChannel}
+	 *
+	 * @param channel
+	 *            the underlying channel that receives the hexadecimal digits
+	 * @param lowerCase
+	 *            the flag if the result shell be transform in lower case. If true the result is
+	 *            lowercase otherwise uppercase
+	 * @param chunkSize
+	 *            the number of bytes that are encoded in one chunk
+	 */
+	public HexEncodingChannel(final WritableByteChannel channel, final boolean lowerCase,
+		final int chunkSize)
+	{
+		Objects.requireNonNull(channel);
+		if (chunkSize < 1)
+		{
+			throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+		}
+		this.channel = channel;
+		this.lowerCase = lowerCase;
+		this.encoded = ByteBuffer.allocate(2 * chunkSize);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public int write(final ByteBuffer src) throws IOException
+	{
+		final int length = src.remaining();
+		final int chunkSize = encoded.capacity() >> 1;
+		final int limit = src.limit();
+		try
+		{
+			while (src.hasRemaining())
+			{
+				src.limit(src.position() + Math.min(chunkSize, src.remaining()));
+				encoded.clear();
+				HexExtensions.encodeHex(src, encoded, lowerCase);
+				src.limit(limit);
+				encoded.flip();
+				while (encoded.hasRemaining())
+				{
+					channel.write(encoded);
+				}
+			}
+		}
+		finally
+		{
+			src.limit(limit);
+		}
+		return length;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public boolean isOpen()
+	{
+		return channel.isOpen();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void close() throws IOException
+	{
+		channel.close();
+	}
+}
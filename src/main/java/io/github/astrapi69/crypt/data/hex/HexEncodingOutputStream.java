@@ -0,0 +1,121 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.hex;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Objects;
+
+/**
+ * The class {@link HexEncodingOutputStream} encodes all written bytes to ASCII encoded hexadecimal
+ * digits and writes them to the underlying stream. The bytes are encoded in chunks through a buffer
+ * of fixed size, so the memory usage does not depend on the size of the payload
+ */
+public class HexEncodingOutputStream extends FilterOutputStream
+{
+
+	/** The default number of bytes that are encoded in one chunk */
+	public static final int DEFAULT_CHUNK_SIZE = 4096;
+
+	/** The flag if the hexadecimal digits are written in lower case */
+	private final boolean lowerCase;
+
+	/** The buffer that receives the hexadecimal digits of one chunk */
+	private final byte[] encoded;
+
+	/** The buffer for a single byte that is written with {@link #write(int)} */
+	private final byte[] single = new byte[1];
+
+	/**
+	 * Instantiates a new {@link HexEncodingOutputStream} that writes lower case digits
+	 *
+	 * @param out
+	 *            the underlying output stream
+	 */
+	public HexEncodingOutputStream(final OutputStream out)
+	{
+		this(out, true);
+	}
+
+	/**
+	 * Instantiates a new {@link HexEncodingOutputStream}
+	 *
+	 * @param out
+	 *            the underlying output stream
+	 * @param lowerCase
+	 *            the flag if the result shell be transform in lower case. If true the result is
+	 *            lowercase otherwise uppercase
+	 */
+	public HexEncodingOutputStream(final OutputStream out, final boolean lowerCase)
+	{
+		this(out, lowerCase, DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * Instantiates a new {@link HexEncodingOutputStream}
+	 *
+	 * @param out
+	 *            the underlying output stream
+	 * @param lowerCase
+	 *            the flag if the result shell be transform in lower case. If true the result is
+	 *            lowercase otherwise uppercase
+	 * @param chunkSize
+	 *            the number of bytes that are encoded in one chunk
+	 */
+	public HexEncodingOutputStream(final OutputStream out, final boolean lowerCase,
+		final int chunkSize)
+	{
+		super(Objects.requireNonNull(out));
+		if (chunkSize < 1)
+		{
+			throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+		}
+		this.lowerCase = lowerCase;
+		this.encoded = new byte[2 * chunkSize];
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void write(final int b) throws IOException
+	{
+		single[0] = (byte)b;
+		out.write(encoded, 0, HexExtensions.encodeHex(single, 0, 1, encoded, 0, lowerCase));
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void write(final byte[] b, final int off, final int len) throws IOException
+	{
+		Objects.checkFromIndexSize(off, len, b.length);
+		final int chunkSize = encoded.length >> 1;
+		for (int position = 0; position < len; position += chunkSize)
+		{
+			final int length = HexExtensions.encodeHex(b, off + position,
+				Math.min(chunkSize, len - position), encoded, 0, lowerCase);
+			out.write(encoded, 0, length);
+		}
+	}
+}
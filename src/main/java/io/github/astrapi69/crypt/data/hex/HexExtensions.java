@@ -24,15 +24,29 @@
  */
 package io.github.astrapi69.crypt.data.hex;
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Objects;
 
 import org.apache.commons.codec.DecoderException;
-import org.apache.commons.codec.binary.Hex;
 
 /**
  * The class {@link HexExtensions} provides methods for encode and decode hex encoded byte or char
  * arrays and {@link String} objects
+ * <br>
+ * <br>
+ * The encoding and decoding is table driven. The methods with an offset write into buffers of the
+ * caller and do not allocate, and {@link #toHexString(byte[], boolean)} builds its result from
+ * Latin-1 bytes, so only the {@link String} itself is allocated for small inputs
+ * <br>
+ * <br>
+ * If the incubator module jdk.incubator.vector is in the boot layer, for instance with the virtual
+ * machine option {@code --add-modules jdk.incubator.vector}, the encoding into byte arrays runs
+ * through {@link VectorHexCodec} and only the rest that does not fill a vector is encoded with the
+ * table. The output is the same
  */
 public final class HexExtensions
 {
@@ -40,10 +54,101 @@ public final class HexExtensions
 	private static final char[] HEXADECIMAL_DIGITS = { '0', '1', '2', '3', '4', '5', '6', '7', '8',
 			'9', 'A', 'B', 'C', 'D', 'E', 'F' };
 
+	/** The two lower case hexadecimal digits of every byte value, at index 2 * value */
+	private static final char[] LOWER_CASE_CHARS = newEncodeTable(true);
+
+	/** The two upper case hexadecimal digits of every byte value, at index 2 * value */
+	private static final char[] UPPER_CASE_CHARS = newEncodeTable(false);
+
+	/** The two lower case hexadecimal digits of every byte value as ASCII bytes */
+	private static final byte[] LOWER_CASE_BYTES = toAsciiBytes(LOWER_CASE_CHARS);
+
+	/** The two upper case hexadecimal digits of every byte value as ASCII bytes */
+	private static final byte[] UPPER_CASE_BYTES = toAsciiBytes(UPPER_CASE_CHARS);
+
+	/** The value of every hexadecimal digit in the Latin-1 range or -1 for other characters */
+	private static final byte[] DIGIT_VALUES = newDecodeTable();
+
+	/** The flag that indicates if the module of the vector API is in the boot layer */
+	static final boolean VECTOR_API_PRESENT = ModuleLayer.boot()
+		.findModule("jdk.incubator.vector").isPresent();
+
+	/** The maximum number of bytes that are encoded in the scratch buffer of the current thread */
+	private static final int MAX_SCRATCH_ENCODE_LENGTH = 512;
+
+	/** The scratch buffers for the Latin-1 bytes of {@link #toHexString(byte[], boolean)} */
+	private static final ThreadLocal<byte[]> SCRATCH_BUFFERS = ThreadLocal
+		.withInitial(() -> new byte[2 * MAX_SCRATCH_ENCODE_LENGTH]);
+
 	private HexExtensions()
 	{
 	}
 
+	private static char[] newEncodeTable(final boolean lowerCase)
+	{
+		final char[] table = new char[512];
+		for (int value = 0; value < 256; value++)
+		{
+			final char high = HEXADECIMAL_DIGITS[value >>> 4];
+			final char low = HEXADECIMAL_DIGITS[value & 0xF];
+			table[2 * value] = lowerCase ? Character.toLowerCase(high) : high;
+			table[2 * value + 1] = lowerCase ? Character.toLowerCase(low) : low;
+		}
+		return table;
+	}
+
+	private static byte[] toAsciiBytes(final char[] chars)
+	{
+		final byte[] bytes = new byte[chars.length];
+		for (int i = 0; i < chars.length; i++)
+		{
+			bytes[i] = (byte)chars[i];
+		}
+		return bytes;
+	}
+
+	private static byte[] newDecodeTable()
+	{
+		final byte[] table = new byte[256];
+		Arrays.fill(table, (byte)-1);
+		for (int value = 0; value < 16; value++)
+		{
+			table[HEXADECIMAL_DIGITS[value]] = (byte)value;
+			table[Character.toLowerCase(HEXADECIMAL_DIGITS[value])] = (byte)value;
+		}
+		return table;
+	}
+
+	/**
+	 * Gets the value of the given hexadecimal digit
+	 *
+	 * @param ch
+	 *            the hexadecimal digit
+	 * @param index
+	 *            the index of the digit for the error message
+	 * @return the value of the digit
+	 * @throws DecoderException
+	 *             is thrown if the given character is not a hexadecimal digit
+	 */
+	static int toDigit(final int ch, final long index) throws DecoderException
+	{
+		final int digit = ch < 256 ? DIGIT_VALUES[ch] : -1;
+		if (digit < 0)
+		{
+			throw new DecoderException(
+				"Illegal hexadecimal character " + (char)ch + " at index " + index);
+		}
+		return digit;
+	}
+
+	private static void checkEvenLength(final int length) throws DecoderException
+	{
+		if ((length & 1) != 0)
+		{
+			throw new DecoderException("Odd number of characters.");
+		}
+	}
+
 	/**
 	 * Transform the given byte array that contains the binary data decoded to a String object. The
 	 * given byte array comes usually from the {@link HexExtensions#decodeHex(char[])} method
@@ -70,7 +175,115 @@ public final class HexExtensions
 	 */
 	public static byte[] decodeHex(final char[] data) throws DecoderException
 	{
-		return Hex.decodeHex(data);
+		checkEvenLength(data.length);
+		final byte[] decoded = new byte[data.length >> 1];
+		decodeHex(data, 0, data.length, decoded, 0);
+		return decoded;
+	}
+
+	/**
+	 * Decodes the given range of the given array of characters representing hexadecimal values
+	 * into the given byte array
+	 *
+	 * @param data
+	 *            the array of characters
+	 * @param offset
+	 *            the offset of the range
+	 * @param length
+	 *            the length of the range
+	 * @param out
+	 *            the byte array that receives the decoded bytes
+	 * @param outOffset
+	 *            the offset in the byte array
+	 * @return the number of decoded bytes
+	 * @throws DecoderException
+	 *             is thrown if an odd number or illegal of characters is supplied
+	 */
+	public static int decodeHex(final char[] data, final int offset, final int length,
+		final byte[] out, final int outOffset) throws DecoderException
+	{
+		Objects.checkFromIndexSize(offset, length, data.length);
+		checkEvenLength(length);
+		final int decodedLength = length >> 1;
+		Objects.checkFromIndexSize(outOffset, decodedLength, out.length);
+		for (int i = 0; i < decodedLength; i++)
+		{
+			final int index = offset + 2 * i;
+			out[outOffset + i] = (byte)(toDigit(data[index], index) << 4
+				| toDigit(data[index + 1], index + 1));
+		}
+		return decodedLength;
+	}
+
+	/**
+	 * Decodes the given range of the given {@link CharSequence} representing hexadecimal values
+	 * into the given byte array
+	 *
+	 * @param data
+	 *            the {@link CharSequence} object
+	 * @param offset
+	 *            the offset of the range
+	 * @param length
+	 *            the length of the range
+	 * @param out
+	 *            the byte array that receives the decoded bytes
+	 * @param outOffset
+	 *            the offset in the byte array
+	 * @return the number of decoded bytes
+	 * @throws DecoderException
+	 *             is thrown if an odd number or illegal of characters is supplied
+	 */
+	public static int decodeHex(final CharSequence data, final int offset, final int length,
+		final byte[] out, final int outOffset) throws DecoderException
+	{
+		Objects.checkFromIndexSize(offset, length, data.length());
+		checkEvenLength(length);
+		final int decodedLength = length >> 1;
+		Objects.checkFromIndexSize(outOffset, decodedLength, out.length);
+		for (int i = 0; i < decodedLength; i++)
+		{
+			final int index = offset + 2 * i;
+			out[outOffset + i] = (byte)(toDigit(data.charAt(index), index) << 4
+				| toDigit(data.charAt(index + 1), index + 1));
+		}
+		return decodedLength;
+	}
+
+	/**
+	 * Decodes the remaining ASCII encoded hexadecimal digits of the given buffer into the given
+	 * output buffer. The positions of both buffers are only advanced if all digits are decoded
+	 *
+	 * @param data
+	 *            the buffer with the ASCII encoded hexadecimal digits
+	 * @param out
+	 *            the buffer that receives the decoded bytes
+	 * @return the number of decoded bytes
+	 * @throws DecoderException
+	 *             is thrown if an odd number or illegal of characters is supplied
+	 * @throws BufferOverflowException
+	 *             is thrown if the output buffer has not enough remaining space
+	 */
+	public static int decodeHex(final ByteBuffer data, final ByteBuffer out)
+		throws DecoderException
+	{
+		final int length = data.remaining();
+		checkEvenLength(length);
+		final int decodedLength = length >> 1;
+		if (out.remaining() < decodedLength)
+		{
+			throw new BufferOverflowException();
+		}
+		final int position = data.position();
+		final int outPosition = out.position();
+		for (int i = 0; i < decodedLength; i++)
+		{
+			final int index = position + 2 * i;
+			out.put(outPosition + i, (byte)(toDigit(data.get(index) & 0xFF, index) << 4
+				| toDigit(data.get(index + 1) & 0xFF, index + 1)));
+		}
+		data.position(position + length);
+		out.position(outPosition + decodedLength);
+		return decodedLength;
 	}
 
 	/**
@@ -85,7 +298,9 @@ public final class HexExtensions
 	 */
 	public static String decodeHex(final String hexString) throws DecoderException
 	{
-		byte[] decodedBytes = HexExtensions.decodeHex(hexString.toCharArray());
+		checkEvenLength(hexString.length());
+		byte[] decodedBytes = new byte[hexString.length() >> 1];
+		decodeHex(hexString, 0, hexString.length(), decodedBytes, 0);
 		String decodedString = HexExtensions.decodeHex(decodedBytes);
 		return decodedString;
 	}
@@ -101,7 +316,7 @@ public final class HexExtensions
 	 */
 	public static String decodeHexToString(final char[] data) throws DecoderException
 	{
-		return new String(Hex.decodeHex(data));
+		return new String(decodeHex(data));
 	}
 
 	/**
@@ -130,7 +345,136 @@ public final class HexExtensions
 	 */
 	public static char[] encodeHex(final byte[] data, final boolean lowerCase)
 	{
-		return Hex.encodeHex(data, lowerCase);
+		final char[] encoded = new char[2 * data.length];
+		encodeHex(data, 0, data.length, encoded, 0, lowerCase);
+		return encoded;
+	}
+
+	/**
+	 * Encodes the given range of the given byte array into the given char array
+	 *
+	 * @param data
+	 *            the byte array
+	 * @param offset
+	 *            the offset of the range
+	 * @param length
+	 *            the length of the range
+	 * @param out
+	 *            the char array that receives two hexadecimal digits for every byte
+	 * @param outOffset
+	 *            the offset in the char array
+	 * @param lowerCase
+	 *            the flag if the result shell be transform in lower case. If true the result is
+	 *            lowercase otherwise uppercase
+	 * @return the number of written characters
+	 */
+	public static int encodeHex(final byte[] data, final int offset, final int length,
+		final char[] out, final int outOffset, final boolean lowerCase)
+	{
+		Objects.checkFromIndexSize(offset, length, data.length);
+		Objects.checkFromIndexSize(outOffset, 2 * length, out.length);
+		final char[] table = lowerCase ? LOWER_CASE_CHARS : UPPER_CASE_CHARS;
+		for (int i = 0; i < length; i++)
+		{
+			final int index = 2 * (data[offset + i] & 0xFF);
+			out[outOffset + 2 * i] = table[index];
+			out[outOffset + 2 * i + 1] = table[index + 1];
+		}
+		return 2 * length;
+	}
+
+	/**
+	 * Encodes the given range of the given byte array into ASCII encoded hexadecimal digits in the
+	 * given byte array
+	 *
+	 * @param data
+	 *            the byte array
+	 * @param offset
+	 *            the offset of the range
+	 * @param length
+	 *            the length of the range
+	 * @param out
+	 *            the byte array that receives two hexadecimal digits for every byte
+	 * @param outOffset
+	 *            the offset in the output byte array
+	 * @param lowerCase
+	 *            the flag if the result shell be transform in lower case. If true the result is
+	 *            lowercase otherwise uppercase
+	 * @return the number of written bytes
+	 */
+	public static int encodeHex(final byte[] data, final int offset, final int length,
+		final byte[] out, final int outOffset, final boolean lowerCase)
+	{
+		Objects.checkFromIndexSize(offset, length, data.length);
+		Objects.checkFromIndexSize(outOffset, 2 * length, out.length);
+		// the class of the vector codec is only loaded if its module is present
+		final int encoded = VECTOR_API_PRESENT
+			? VectorHexCodec.encodeHex(data, offset, length, out, outOffset, lowerCase)
+			: 0;
+		encodeHexScalar(data, offset + encoded, length - encoded, out, outOffset + 2 * encoded,
+			lowerCase);
+		return 2 * length;
+	}
+
+	/**
+	 * Encodes the given range of the given byte array with the table into ASCII encoded
+	 * hexadecimal digits in the given byte array. The bounds are not checked
+	 *
+	 * @param data
+	 *            the byte array
+	 * @param offset
+	 *            the offset of the range
+	 * @param length
+	 *            the length of the range
+	 * @param out
+	 *            the byte array that receives two hexadecimal digits for every byte
+	 * @param outOffset
+	 *            the offset in the output byte array
+	 * @param lowerCase
+	 *            the flag if the result is lowercase otherwise uppercase
+	 */
+	static void encodeHexScalar(final byte[] data, final int offset, final int length,
+		final byte[] out, final int outOffset, final boolean lowerCase)
+	{
+		final byte[] table = lowerCase ? LOWER_CASE_BYTES : UPPER_CASE_BYTES;
+		for (int i = 0; i < length; i++)
+		{
+			final int index = 2 * (data[offset + i] & 0xFF);
+			out[outOffset + 2 * i] = table[index];
+			out[outOffset + 2 * i + 1] = table[index + 1];
+		}
+	}
+
+	/**
+	 * Encodes the remaining bytes of the given buffer into ASCII encoded hexadecimal digits in the
+	 * given output buffer. The positions of both buffers are advanced
+	 *
+	 * @param data
+	 *            the buffer with the bytes to encode
+	 * @param out
+	 *            the buffer that receives two hexadecimal digits for every byte
+	 * @param lowerCase
+	 *            the flag if the result shell be transform in lower case. If true the result is
+	 *            lowercase otherwise uppercase
+	 * @return the number of written bytes
+	 * @throws BufferOverflowException
+	 *             is thrown if the output buffer has not enough remaining space
+	 */
+	public static int encodeHex(final ByteBuffer data, final ByteBuffer out,
+		final boolean lowerCase)
+	{
+		final int length = data.remaining();
+		if (out.remaining() < 2 * length)
+		{
+			throw new BufferOverflowException();
+		}
+		final byte[] table = lowerCase ? LOWER_CASE_BYTES : UPPER_CASE_BYTES;
+		while (data.hasRemaining())
+		{
+			final int index = 2 * (data.get() & 0xFF);
+			out.put(table[index]).put(table[index + 1]);
+		}
+		return 2 * length;
 	}
 
 	/**
@@ -162,17 +506,11 @@ public final class HexExtensions
 		final boolean lowerCase)
 	{
 		Objects.requireNonNull(string);
-		char[] encodedCharArray;
 		if (charset != null)
 		{
-			encodedCharArray = HexExtensions.encodeHex(string.getBytes(charset), lowerCase);
-		}
-		else
-		{
-			encodedCharArray = HexExtensions.encodeHex(string.getBytes(), lowerCase);
+			return HexExtensions.toHexString(string.getBytes(charset), lowerCase);
 		}
-		final String encodedString = new String(encodedCharArray);
-		return encodedString;
+		return HexExtensions.toHexString(string.getBytes(), lowerCase);
 	}
 
 	/**
@@ -211,8 +549,10 @@ public final class HexExtensions
 	 */
 	public static String toHexString(final byte[] data, final boolean lowerCase)
 	{
-		final StringBuilder sb = new StringBuilder();
-		sb.append(HexExtensions.encodeHex(data, lowerCase));
-		return sb.toString();
+		final byte[] latin1 = data.length <= MAX_SCRATCH_ENCODE_LENGTH
+			? SCRATCH_BUFFERS.get()
+			: new byte[2 * data.length];
+		final int length = encodeHex(data, 0, data.length, latin1, 0, lowerCase);
+		return new String(latin1, 0, length, StandardCharsets.ISO_8859_1);
 	}
 }
@@ -0,0 +1,112 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.hex;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The class {@link VectorHexCodec} encodes bytes into ASCII encoded hexadecimal digits with the
+ * vector API of the incubator module jdk.incubator.vector. Every byte of a vector is widened to a
+ * short lane, the two digits are computed from the nibbles without a table and stored as the two
+ * bytes of the lane
+ * <br>
+ * <br>
+ * This class must only be loaded if the module is in the boot layer, {@link HexExtensions} checks
+ * this before the first call and encodes with its table otherwise
+ */
+final class VectorHexCodec
+{
+
+	/** The preferred species of the byte vectors of the platform */
+	private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_PREFERRED;
+
+	/** The species of the short vectors with the same shape as the byte vectors */
+	private static final VectorSpecies<Short> SHORTS = ShortVector.SPECIES_PREFERRED;
+
+	/** The distance from the digit '9' + 1 to the letter 'a' */
+	private static final short LOWER_CASE_LETTER_OFFSET = 'a' - '0' - 10;
+
+	/** The distance from the digit '9' + 1 to the letter 'A' */
+	private static final short UPPER_CASE_LETTER_OFFSET = 'A' - '0' - 10;
+
+	private VectorHexCodec()
+	{
+	}
+
+	/**
+	 * Encodes the longest prefix of the given range whose length is a multiple of the vector length
+	 * into ASCII encoded hexadecimal digits in the given byte array. The bounds are checked by the
+	 * caller
+	 *
+	 * @param data
+	 *            the byte array
+	 * @param offset
+	 *            the offset of the range
+	 * @param length
+	 *            the length of the range
+	 * @param out
+	 *            the byte array that receives two hexadecimal digits for every byte
+	 * @param outOffset
+	 *            the offset in the output byte array
+	 * @param lowerCase
+	 *            the flag if the result is lowercase otherwise uppercase
+	 * @return the number of encoded bytes of the range
+	 */
+	static int encodeHex(final byte[] data, final int offset, final int length, final byte[] out,
+		final int outOffset, final boolean lowerCase)
+	{
+		final short letterOffset = lowerCase ? LOWER_CASE_LETTER_OFFSET : UPPER_CASE_LETTER_OFFSET;
+		final int bound = BYTES.loopBound(length);
+		for (int i = 0; i < bound; i += BYTES.length())
+		{
+			final ByteVector bytes = ByteVector.fromArray(BYTES, data, offset + i);
+			encodePart(bytes, 0, letterOffset).intoArray(out, outOffset + 2 * i);
+			encodePart(bytes, 1, letterOffset).intoArray(out,
+				outOffset + 2 * i + BYTES.length());
+		}
+		return bound;
+	}
+
+	private static ByteVector encodePart(final ByteVector bytes, final int part,
+		final short letterOffset)
+	{
+		final ShortVector values = (ShortVector)bytes.convertShape(VectorOperators.B2S, SHORTS,
+			part);
+		final ShortVector high = toDigits(values.lanewise(VectorOperators.LSHR, 4).and((short)0xF),
+			letterOffset);
+		final ShortVector low = toDigits(values.and((short)0xF), letterOffset);
+		// the lanes are reinterpreted in little endian order, so the high digit comes first
+		return high.or(low.lanewise(VectorOperators.LSHL, 8)).reinterpretAsBytes();
+	}
+
+	private static ShortVector toDigits(final ShortVector nibbles, final short letterOffset)
+	{
+		return nibbles.add((short)'0').add(letterOffset,
+			nibbles.compare(VectorOperators.GT, (short)9));
+	}
+}
@@ -35,10 +35,12 @@ import java.security.cert.CertificateEncodingException;
 import java.security.cert.X509Certificate;
 import java.time.ZonedDateTime;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
 
 import javax.security.auth.x500.X500Principal;
 
-import org.apache.commons.codec.binary.Hex;
 import org.bouncycastle.asn1.ASN1ObjectIdentifier;
 import org.bouncycastle.asn1.ASN1Primitive;
 import org.bouncycastle.asn1.x500.RDN;
@@ -50,6 +52,8 @@ import org.bouncycastle.cert.X509CertificateHolder;
 import org.bouncycastle.cert.jcajce.JcaX509CertificateHolder;
 
 import io.github.astrapi69.crypt.api.algorithm.HashAlgorithm;
+import io.github.astrapi69.crypt.data.hash.DigestPool;
+import io.github.astrapi69.crypt.data.hash.HashExtensions;
 import io.github.astrapi69.crypt.data.hex.HexExtensions;
 import io.github.astrapi69.crypt.data.model.DistinguishedNameInfo;
 import io.github.astrapi69.crypt.data.model.ExtensionInfo;
@@ -79,9 +83,7 @@ public final class CertificateExtensions
 	 */
 	public static String toHex(final Certificate certificate) throws CertificateEncodingException
 	{
-		String base64 = KeyExtensions.toBase64(certificate.getEncoded());
-		byte[] decoded = KeyExtensions.decodeBase64(base64);
-		return Hex.encodeHexString(decoded);
+		return HexExtensions.toHexString(certificate.getEncoded());
 	}
 
 	/**
@@ -158,12 +160,37 @@ public final class CertificateExtensions
 		throws CertificateEncodingException, NoSuchAlgorithmException
 	{
 		final byte[] derEncoded = certificate.getEncoded();
-		final MessageDigest messageDigest = MessageDigest.getInstance(hashAlgorithm.getAlgorithm());
+		final MessageDigest messageDigest = DigestPool.getInstance().getThreadLocal(hashAlgorithm);
 		messageDigest.update(derEncoded);
 		final byte[] digest = messageDigest.digest();
 		return HexExtensions.toHexString(digest);
 	}
 
+	/**
+	 * Gets the fingerprints from the given {@link X509Certificate} and the given algorithms. The
+	 * certificate is encoded only once for all algorithms
+	 *
+	 * @param certificate
+	 *            the certificate
+	 * @param hashAlgorithms
+	 *            the hash algorithms
+	 * @return the fingerprints mapped to their algorithm
+	 * @throws CertificateEncodingException
+	 *             is thrown if an encoding error occurs.
+	 * @throws NoSuchAlgorithmException
+	 *             is thrown if instantiation of a MessageDigest object fails.
+	 */
+	public static Map<HashAlgorithm, String> getFingerprints(final X509Certificate certificate,
+		final Set<HashAlgorithm> hashAlgorithms)
+		throws CertificateEncodingException, NoSuchAlgorithmException
+	{
+		final Map<HashAlgorithm, String> fingerprints = new EnumMap<>(HashAlgorithm.class);
+		HashExtensions.hashAll(certificate.getEncoded(), hashAlgorithms).forEach(
+			(hashAlgorithm, digest) -> fingerprints.put(hashAlgorithm,
+				HexExtensions.toHexString(digest)));
+		return fingerprints;
+	}
+
 	/**
 	 * Gets the first value of the given {@link X509Certificate} and the given
 	 * {@link ASN1ObjectIdentifier}.
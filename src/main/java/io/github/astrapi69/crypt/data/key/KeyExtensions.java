@@ -43,15 +43,21 @@ public final class KeyExtensions
 	}
 
 	/**
-	 * Transform the given encoded key as byte array to a base64 encoded {@link String} value
+	 * Transform the given encoded key as byte array to a base64 encoded {@link String} value. The
+	 * encoding is done with {@link java.util.Base64} whose encoder is an intrinsic of the HotSpot
+	 * virtual machine and uses the vector instructions of the processor
 	 *
 	 * @param encodedKey
 	 *            the encoded key
-	 * @return the new base64 encoded {@link String} value
+	 * @return the new base64 encoded {@link String} value or null if the given byte array is null
 	 */
 	public static String toBase64(final byte[] encodedKey)
 	{
-		return Base64.encodeBase64String(encodedKey);
+		if (encodedKey == null)
+		{
+			return null;
+		}
+		return java.util.Base64.getEncoder().encodeToString(encodedKey);
 	}
 
 	/**
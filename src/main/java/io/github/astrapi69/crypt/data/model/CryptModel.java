@@ -67,6 +67,13 @@ public class CryptModel<C, K, T> implements Serializable
 	@Singular
 	List<CryptObjectDecorator<T>> decorators;
 
+	/**
+	 * The flag that indicates if the cipher key and the initialization vector that are derived
+	 * from the password are taken from the
+	 * {@link io.github.astrapi69.crypt.data.factory.DerivedKeyCache}
+	 */
+	boolean derivedKeyCached;
+
 	/**
 	 * The flag initialized that indicates if the cipher is initialized.
 	 */
@@ -34,9 +34,11 @@ module io.github.astrapisixtynine.crypt.data
 	requires io.github.astrapisixtynine.throwable;
 	requires io.github.astrapisixtynine.silly.collection;
 	requires org.checkerframework.checker.qual;
+	requires static jdk.incubator.vector;
 
 	exports io.github.astrapi69.crypt.data.algorithm;
 	exports io.github.astrapi69.crypt.data.blockchain;
+	exports io.github.astrapi69.crypt.data.cipher;
 	exports io.github.astrapi69.crypt.data.factory;
 	exports io.github.astrapi69.crypt.data.hash;
 	exports io.github.astrapi69.crypt.data.hex;
@@ -0,0 +1,87 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.blockchain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.crypt.api.blockchain.IAddress;
+
+/**
+ * The unit test class for the class {@link AddressCodec}
+ */
+public class AddressCodecTest
+{
+
+	/**
+	 * Test method for {@link AddressCodec#encode(IAddress)} and
+	 * {@link AddressCodec#decode(ByteBuffer)}
+	 */
+	@Test
+	public void testEncodeDecode()
+	{
+		Address address = new Address("Alice", new byte[] { 1, 2, 3, 4 });
+		byte[] encoded = AddressCodec.encode(address);
+		assertEquals(AddressCodec.getEncodedLength(address), encoded.length);
+
+		ByteBuffer buffer = ByteBuffer.wrap(encoded);
+		Address decoded = AddressCodec.decode(buffer);
+		assertEquals(encoded.length, buffer.position());
+		assertInstanceOf(LazyAddress.class, decoded);
+		assertEquals(address, decoded);
+		assertEquals(address.hashCode(), decoded.hashCode());
+	}
+
+	/**
+	 * Test method for {@link AddressCodec} with null fields
+	 */
+	@Test
+	public void testEncodeDecodeNullFields()
+	{
+		Address decoded = AddressCodec.decode(ByteBuffer.wrap(AddressCodec.encode(new Address())));
+
+		assertNull(decoded.getHash());
+		assertNull(decoded.getName());
+		assertNull(decoded.getPublicKey());
+	}
+
+	/**
+	 * Test method for {@link AddressCodec#decode(ByteBuffer)} with an unsupported version
+	 */
+	@Test
+	public void testDecodeUnsupportedVersion()
+	{
+		byte[] encoded = AddressCodec.encode(new Address("Bob", new byte[] { 5 }));
+		encoded[0] = 0;
+		assertThrows(IllegalArgumentException.class,
+			() -> AddressCodec.decode(ByteBuffer.wrap(encoded)));
+	}
+}
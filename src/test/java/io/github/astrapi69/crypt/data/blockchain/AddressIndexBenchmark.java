@@ -0,0 +1,118 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.blockchain;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Benchmark that looks up known and unknown hashes in an {@link AddressIndex} and in a
+ * {@link HashMap} with {@link ByteBuffer} keys and prints the nanoseconds per lookup. The number
+ * of stored hashes can be given as argument
+ */
+public class AddressIndexBenchmark
+{
+
+	private static long foundCount;
+
+	public static void main(String[] args)
+	{
+		int size = args.length == 0 ? 1_000_000 : Integer.parseInt(args[0]);
+		Random random = new Random(42);
+		byte[][] known = newHashes(random, size);
+		byte[][] unknown = newHashes(random, size);
+		AddressIndex addressIndex = new AddressIndex(size,
+			AddressIndex.DEFAULT_FALSE_POSITIVE_RATE);
+		Map<ByteBuffer, byte[]> hashMap = new HashMap<>();
+		for (byte[] hash : known)
+		{
+			addressIndex.add(hash);
+			hashMap.put(ByteBuffer.wrap(hash), hash);
+		}
+		System.out.println("hashes: " + size);
+		System.out.println("variant;lookup;ns/lookup");
+		for (int round = 0; round < 3; round++)
+		{
+			print(round, "index", "unknown", size, measure(addressIndex, unknown));
+			print(round, "index", "known", size, measure(addressIndex, known));
+			print(round, "hashmap", "unknown", size, measure(hashMap, unknown));
+			print(round, "hashmap", "known", size, measure(hashMap, known));
+		}
+		System.out.println("found: " + foundCount);
+	}
+
+	private static byte[][] newHashes(Random random, int count)
+	{
+		byte[][] hashes = new byte[count][AddressIndex.HASH_LENGTH];
+		for (byte[] hash : hashes)
+		{
+			random.nextBytes(hash);
+		}
+		return hashes;
+	}
+
+	private static long measure(AddressIndex addressIndex, byte[][] hashes)
+	{
+		long start = System.nanoTime();
+		int found = 0;
+		for (byte[] hash : hashes)
+		{
+			if (addressIndex.contains(hash))
+			{
+				found++;
+			}
+		}
+		long elapsedNanos = System.nanoTime() - start;
+		foundCount += found;
+		return elapsedNanos;
+	}
+
+	private static long measure(Map<ByteBuffer, byte[]> hashMap, byte[][] hashes)
+	{
+		long start = System.nanoTime();
+		int found = 0;
+		for (byte[] hash : hashes)
+		{
+			if (hashMap.containsKey(ByteBuffer.wrap(hash)))
+			{
+				found++;
+			}
+		}
+		long elapsedNanos = System.nanoTime() - start;
+		foundCount += found;
+		return elapsedNanos;
+	}
+
+	private static void print(int round, String variant, String lookup, int size,
+		long elapsedNanos)
+	{
+		if (round == 2)
+		{
+			System.out.printf("%s;%s;%.1f%n", variant, lookup, (double)elapsedNanos / size);
+		}
+	}
+}
@@ -0,0 +1,242 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.blockchain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.astrapi69.crypt.api.blockchain.IAddress;
+import io.github.astrapi69.crypt.api.blockchain.ITransaction;
+
+/**
+ * The unit test class for the class {@link AddressIndex}
+ */
+public class AddressIndexTest
+{
+
+	@TempDir
+	Path tempDir;
+
+	private static List<Address> newAddresses(int count)
+	{
+		List<Address> addresses = new ArrayList<>();
+		for (int i = 0; i < count; i++)
+		{
+			addresses.add(new Address("address-" + i, new byte[] { (byte)i, (byte)(i >> 8) }));
+		}
+		return addresses;
+	}
+
+	/**
+	 * Test method for {@link AddressIndex#put(IAddress)}, {@link AddressIndex#get(byte[])} and
+	 * {@link AddressIndex#contains(byte[])}
+	 */
+	@Test
+	public void testPutAndGet()
+	{
+		List<Address> addresses = newAddresses(5000);
+		AddressIndex addressIndex = new AddressIndex(100, AddressIndex.DEFAULT_FALSE_POSITIVE_RATE);
+		for (Address address : addresses)
+		{
+			addressIndex.put(address);
+		}
+		assertEquals(addresses.size(), addressIndex.size());
+		for (Address address : addresses)
+		{
+			assertSame(address, addressIndex.get(address.getHash().clone()));
+			assertTrue(addressIndex.contains(address.getHash()));
+			assertTrue(addressIndex.mightContain(address.getHash()));
+		}
+		Address replacement = new Address("address-0", new byte[] { 0, 0 });
+		addressIndex.put(replacement);
+		assertEquals(addresses.size(), addressIndex.size());
+		assertSame(replacement, addressIndex.get(addresses.get(0).getHash()));
+
+		assertNull(addressIndex.get(DigestUtils.sha256("unknown")));
+		assertFalse(addressIndex.contains(DigestUtils.sha256("unknown")));
+		assertFalse(addressIndex.contains(new byte[] { 1, 2, 3 }));
+		assertThrows(IllegalArgumentException.class,
+			() -> addressIndex.put(new Address("name", new byte[0])
+			{
+				@Override
+				public byte[] getHash()
+				{
+					return new byte[20];
+				}
+			}));
+	}
+
+	/**
+	 * Test method for {@link AddressIndex#add(byte[])}
+	 */
+	@Test
+	public void testAdd()
+	{
+		AddressIndex addressIndex = new AddressIndex();
+		Address address = newAddresses(1).get(0);
+
+		assertTrue(addressIndex.add(address.getHash()));
+		assertFalse(addressIndex.add(address.getHash()));
+		assertTrue(addressIndex.contains(address.getHash()));
+		assertNull(addressIndex.get(address.getHash()));
+
+		addressIndex.put(address);
+		assertEquals(1, addressIndex.size());
+		assertSame(address, addressIndex.get(address.getHash()));
+		assertThrows(IllegalArgumentException.class, () -> addressIndex.add(new byte[31]));
+	}
+
+	/**
+	 * Test method for {@link AddressIndex#mightContain(byte[])} with unknown hashes
+	 */
+	@Test
+	public void testMightContainFalsePositiveRate()
+	{
+		Random random = new Random(42);
+		AddressIndex addressIndex = new AddressIndex(1000, 0.01);
+		for (int i = 0; i < 10_000; i++)
+		{
+			byte[] hash = new byte[AddressIndex.HASH_LENGTH];
+			random.nextBytes(hash);
+			addressIndex.add(hash);
+		}
+		int falsePositives = 0;
+		for (int i = 0; i < 100_000; i++)
+		{
+			byte[] hash = new byte[AddressIndex.HASH_LENGTH];
+			random.nextBytes(hash);
+			if (addressIndex.mightContain(hash))
+			{
+				falsePositives++;
+			}
+		}
+		assertTrue(falsePositives < 1000, "false positives: " + falsePositives);
+	}
+
+	/**
+	 * Test method for {@link AddressIndex#writeTo(Path)} and {@link AddressIndex#readFrom(Path)}
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Test
+	public void testWriteToAndReadFrom() throws IOException
+	{
+		List<Address> addresses = newAddresses(3000);
+		AddressIndex addressIndex = new AddressIndex();
+		for (Address address : addresses)
+		{
+			addressIndex.put(address);
+		}
+		byte[] unknownHash = DigestUtils.sha256("unknown");
+		addressIndex.add(unknownHash);
+		Path path = tempDir.resolve("addresses.index");
+		addressIndex.writeTo(path);
+
+		AddressIndex readIndex = AddressIndex.readFrom(path);
+		assertEquals(addresses.size() + 1, readIndex.size());
+		for (Address address : addresses)
+		{
+			assertEquals(address, readIndex.get(address.getHash()));
+		}
+		assertTrue(readIndex.contains(unknownHash));
+		assertNull(readIndex.get(unknownHash));
+
+		new AddressIndex().writeTo(path);
+		assertEquals(0, AddressIndex.readFrom(path).size());
+
+		Files.write(path, new byte[] { 9, 0, 0, 0, 0 });
+		assertThrows(IllegalArgumentException.class, () -> AddressIndex.readFrom(path));
+	}
+
+	/**
+	 * Test method for {@link AddressIndex#rebuild(LedgerStore, java.util.function.Function)} and
+	 * {@link AddressIndex#addSenders(LedgerStore, long, java.util.function.Function)}
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Test
+	public void testRebuild() throws IOException
+	{
+		List<Address> addresses = newAddresses(20);
+		Map<ByteBuffer, Address> known = new HashMap<>();
+		for (int i = 0; i < addresses.size(); i += 2)
+		{
+			known.put(ByteBuffer.wrap(addresses.get(i).getHash()), addresses.get(i));
+		}
+		try (LedgerStore ledgerStore = new LedgerStore(tempDir))
+		{
+			byte[] previousBlockHash = null;
+			for (int i = 0; i < 10; i++)
+			{
+				List<ITransaction> transactions = new ArrayList<>();
+				for (int j = 0; j < 5; j++)
+				{
+					transactions.add(new Transaction("transaction-" + i + "-" + j,
+						addresses.get((i + j) % 10).getHash(), new byte[] { 1 }));
+				}
+				transactions.add(new Transaction("short", new byte[] { 1 }, new byte[] { 1 }));
+				Block block = new Block(previousBlockHash, transactions, i);
+				ledgerStore.append(block);
+				previousBlockHash = block.getHash();
+			}
+			AddressIndex addressIndex = AddressIndex.rebuild(ledgerStore,
+				hash -> known.get(ByteBuffer.wrap(hash)));
+			assertEquals(10, addressIndex.size());
+			for (int i = 0; i < 10; i++)
+			{
+				Address address = addresses.get(i);
+				assertTrue(addressIndex.contains(address.getHash()));
+				assertEquals(i % 2 == 0 ? address : null, addressIndex.get(address.getHash()));
+			}
+			assertFalse(addressIndex.contains(addresses.get(10).getHash()));
+
+			Block block = new Block(previousBlockHash, List.of(new Transaction("new",
+				addresses.get(15).getHash(), new byte[] { 1 })), 10);
+			ledgerStore.append(block);
+			assertEquals(1, addressIndex.addSenders(ledgerStore, 10, hash -> null));
+			assertTrue(addressIndex.contains(addresses.get(15).getHash()));
+		}
+	}
+}
@@ -0,0 +1,94 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.blockchain;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.crypt.api.blockchain.ITransaction;
+
+/**
+ * The unit test class for the class {@link BlockBuilder}
+ */
+public class BlockBuilderTest
+{
+
+	/**
+	 * Test method for {@link BlockBuilder#build()} compared with
+	 * {@link Block#Block(byte[], List, long)}
+	 */
+	@Test
+	public void testBuild()
+	{
+		byte[] previousBlockHash = new byte[32];
+		BlockBuilder blockBuilder = new BlockBuilder(previousBlockHash).tries(7L).data("data");
+		List<ITransaction> transactions = new ArrayList<>();
+		for (int i = 0; i < 25; i++)
+		{
+			Transaction transaction = new Transaction("transaction-" + i, new byte[] { (byte)i },
+				new byte[] { 1, 2, 3 });
+			transactions.add(transaction);
+			blockBuilder.addTransaction(transaction);
+
+			assertArrayEquals(Block.getMerkleRoot(transactions), blockBuilder.getMerkleRoot());
+		}
+		Block expected = new Block(previousBlockHash, transactions, 7L);
+		Block block = blockBuilder.timestamp(expected.getTimestamp()).build();
+
+		assertEquals(expected, block);
+		assertEquals(25, blockBuilder.getTransactionCount());
+		assertEquals("data", block.getData());
+		assertNull(ChainValidator.validateBlock(block));
+	}
+
+	/**
+	 * Test method for {@link BlockBuilder#getHash()} that is computed only after a change
+	 */
+	@Test
+	public void testGetHash()
+	{
+		BlockBuilder blockBuilder = new BlockBuilder(null).timestamp(1L);
+		byte[] emptyHash = blockBuilder.getHash();
+		assertArrayEquals(Block.calculateHash(null, null, 0L, 1L), emptyHash);
+		assertSame(emptyHash, blockBuilder.data("data").getHash());
+
+		byte[] triesHash = blockBuilder.tries(3L).getHash();
+		assertNotSame(emptyHash, triesHash);
+		assertArrayEquals(Block.calculateHash(null, null, 3L, 1L), triesHash);
+
+		Transaction transaction = new Transaction("text", new byte[] { 1 }, new byte[] { 2 });
+		byte[] hash = blockBuilder.addTransaction(transaction).getHash();
+		assertArrayEquals(Block.calculateHash(null, transaction.getHash(), 3L, 1L), hash);
+		assertSame(hash, blockBuilder.build().getHash());
+	}
+}
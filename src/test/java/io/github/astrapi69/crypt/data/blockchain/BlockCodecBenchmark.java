@@ -0,0 +1,170 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.blockchain;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.github.astrapi69.crypt.api.blockchain.ITransaction;
+
+/**
+ * Benchmark that encodes and decodes a list of blocks with the {@link BlockCodec} and with the
+ * java serialization and prints the size of the encoding and the throughput in blocks per second.
+ * The decoded blocks are fully read, and in addition the codec is measured when only the block
+ * hash is read. The number of blocks and the number of transactions per block can be given as
+ * arguments
+ */
+public class BlockCodecBenchmark
+{
+
+	private static final int ROUNDS = 5;
+
+	public static void main(String[] args) throws IOException, ClassNotFoundException
+	{
+		int blockCount = args.length == 0 ? 10_000 : Integer.parseInt(args[0]);
+		int transactionCount = args.length < 2 ? 20 : Integer.parseInt(args[1]);
+		List<Block> blocks = new ArrayList<>();
+		byte[] previousBlockHash = new byte[32];
+		for (int i = 0; i < blockCount; i++)
+		{
+			List<ITransaction> transactions = new ArrayList<>();
+			for (int j = 0; j < transactionCount; j++)
+			{
+				transactions.add(new Transaction("transaction-" + i + "-" + j, new byte[32],
+					new byte[64]));
+			}
+			Block block = new Block(previousBlockHash, transactions, i);
+			blocks.add(block);
+			previousBlockHash = block.getHash();
+		}
+		System.out.println("blocks: " + blockCount + ", transactions per block: "
+			+ transactionCount);
+		System.out.println("method;bytes per block;encode blocks/s;decode blocks/s");
+		for (int round = 0; round < ROUNDS; round++)
+		{
+			boolean last = round == ROUNDS - 1;
+			measureCodec(blocks, last);
+			measureSerialization(blocks, last);
+		}
+	}
+
+	private static void measureCodec(List<Block> blocks, boolean print)
+	{
+		long start = System.nanoTime();
+		int length = 0;
+		for (Block block : blocks)
+		{
+			length += BlockCodec.getEncodedLength(block);
+		}
+		ByteBuffer buffer = ByteBuffer.allocate(length);
+		for (Block block : blocks)
+		{
+			BlockCodec.encode(block, buffer);
+		}
+		long encodeNanos = System.nanoTime() - start;
+
+		buffer.flip();
+		start = System.nanoTime();
+		long checksum = 0;
+		while (buffer.hasRemaining())
+		{
+			checksum += readFully(BlockCodec.decode(buffer));
+		}
+		long decodeNanos = System.nanoTime() - start;
+
+		buffer.rewind();
+		start = System.nanoTime();
+		while (buffer.hasRemaining())
+		{
+			checksum += BlockCodec.decode(buffer).getHash()[0];
+		}
+		long hashOnlyNanos = System.nanoTime() - start;
+		if (print)
+		{
+			print("codec", blocks.size(), length, encodeNanos, decodeNanos, checksum);
+			print("codec hash only", blocks.size(), length, encodeNanos, hashOnlyNanos, checksum);
+		}
+	}
+
+	private static void measureSerialization(List<Block> blocks, boolean print)
+		throws IOException, ClassNotFoundException
+	{
+		long start = System.nanoTime();
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream))
+		{
+			for (Block block : blocks)
+			{
+				objectOutputStream.writeObject(block);
+				objectOutputStream.reset();
+			}
+		}
+		byte[] serialized = outputStream.toByteArray();
+		long encodeNanos = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		long checksum = 0;
+		try (ObjectInputStream objectInputStream = new ObjectInputStream(
+			new ByteArrayInputStream(serialized)))
+		{
+			for (int i = 0; i < blocks.size(); i++)
+			{
+				checksum += readFully((Block)objectInputStream.readObject());
+			}
+		}
+		long decodeNanos = System.nanoTime() - start;
+		if (print)
+		{
+			print("java serialization", blocks.size(), serialized.length, encodeNanos,
+				decodeNanos, checksum);
+		}
+	}
+
+	private static long readFully(Block block)
+	{
+		long checksum = block.getHash()[0] + block.getPreviousBlockHash()[0]
+			+ block.getMerkleRoot()[0] + block.getTimestamp() + block.getTries();
+		for (ITransaction transaction : block.getTransactions())
+		{
+			checksum += transaction.getHash()[0] + transaction.getSenderHash().length
+				+ transaction.getSignature().length + transaction.getText().length()
+				+ transaction.getTimestamp();
+		}
+		return checksum;
+	}
+
+	private static void print(String method, int blockCount, long bytes, long encodeNanos,
+		long decodeNanos, long checksum)
+	{
+		System.out.printf("%s;%d;%.0f;%.0f (%d)%n", method, bytes / blockCount,
+			blockCount * 1e9 / encodeNanos, blockCount * 1e9 / decodeNanos, checksum);
+	}
+}
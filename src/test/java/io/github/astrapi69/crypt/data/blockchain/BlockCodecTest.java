@@ -0,0 +1,227 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.blockchain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.crypt.api.blockchain.IBlock;
+import io.github.astrapi69.crypt.api.blockchain.ITransaction;
+
+/**
+ * The unit test class for the class {@link BlockCodec}
+ */
+public class BlockCodecTest
+{
+
+	private static Block newBlock(int transactionCount)
+	{
+		List<ITransaction> transactions = new ArrayList<>();
+		for (int i = 0; i < transactionCount; i++)
+		{
+			transactions.add(new Transaction("transaction-" + i, new byte[] { (byte)i },
+				new byte[] { 1, 2, 3 }));
+		}
+		Block block = new Block(new byte[32], transactions, 42L);
+		block.setData("data");
+		return block;
+	}
+
+	private static byte[] serialize(Object object) throws IOException
+	{
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream))
+		{
+			objectOutputStream.writeObject(object);
+		}
+		return outputStream.toByteArray();
+	}
+
+	/**
+	 * Test method for {@link BlockCodec#encode(IBlock)} and {@link BlockCodec#decode(ByteBuffer)}
+	 */
+	@Test
+	public void testEncodeDecode()
+	{
+		Block block = newBlock(5);
+		byte[] encoded = BlockCodec.encode(block);
+		assertEquals(BlockCodec.getEncodedLength(block), encoded.length);
+
+		ByteBuffer buffer = ByteBuffer.wrap(encoded);
+		Block decoded = BlockCodec.decode(buffer);
+		assertEquals(encoded.length, buffer.position());
+		assertInstanceOf(LazyBlock.class, decoded);
+		assertEquals(block, decoded);
+		assertEquals(block.getData(), decoded.getData());
+		assertEquals(block.getTimestamp(), decoded.getTimestamp());
+		assertEquals(block.getTries(), decoded.getTries());
+		assertEquals(block.getLeadingZerosCount(), decoded.getLeadingZerosCount());
+		assertInstanceOf(LazyTransaction.class, decoded.getTransactions().get(0));
+		assertEquals(ChainValidator.validateBlock(block), ChainValidator.validateBlock(decoded));
+		assertEquals(block.proofFor(block.getTransactions().get(3)),
+			decoded.proofFor(decoded.getTransactions().get(3)));
+	}
+
+	/**
+	 * Test method for {@link BlockCodec} with null fields and without transactions
+	 */
+	@Test
+	public void testEncodeDecodeEmpty()
+	{
+		Block block = new Block();
+		Block decoded = BlockCodec.decode(ByteBuffer.wrap(BlockCodec.encode(block)));
+
+		assertNull(decoded.getHash());
+		assertNull(decoded.getPreviousBlockHash());
+		assertNull(decoded.getMerkleRoot());
+		assertNull(decoded.getData());
+		assertTrue(decoded.getTransactions().isEmpty());
+	}
+
+	/**
+	 * Test method for {@link BlockCodec} with several blocks in one buffer
+	 */
+	@Test
+	public void testEncodeDecodeSequence()
+	{
+		Block first = newBlock(3);
+		Block second = newBlock(0);
+		ByteBuffer buffer = ByteBuffer
+			.allocate(BlockCodec.getEncodedLength(first) + BlockCodec.getEncodedLength(second));
+		BlockCodec.encode(first, buffer);
+		BlockCodec.encode(second, buffer);
+		assertEquals(0, buffer.remaining());
+
+		buffer.flip();
+		assertEquals(first, BlockCodec.decode(buffer));
+		assertEquals(second, BlockCodec.decode(buffer));
+		assertEquals(0, buffer.remaining());
+	}
+
+	/**
+	 * Test method for {@link BlockCodec#decode(ByteBuffer)} that reads the fields lazily
+	 */
+	@Test
+	public void testDecodeLazily()
+	{
+		Block block = newBlock(2);
+		byte[] encoded = BlockCodec.encode(block);
+		Block decoded = BlockCodec.decode(ByteBuffer.wrap(encoded));
+		decoded.setData("changed");
+
+		Arrays.fill(encoded, (byte)0);
+		assertEquals("changed", decoded.getData());
+		assertEquals(0L, decoded.getTries());
+	}
+
+	/**
+	 * Test method for {@link BlockCodec#decode(ByteBuffer)} that reads a field again after the
+	 * reading failed
+	 */
+	@Test
+	public void testDecodeLazilyAfterFailure()
+	{
+		Block block = newBlock(2);
+		ByteBuffer encoded = ByteBuffer.wrap(BlockCodec.encode(block));
+		Block decoded = BlockCodec.decode(encoded);
+		int hashLength = encoded.getInt(BlockCodec.HASH_INDEX);
+
+		encoded.putInt(BlockCodec.HASH_INDEX, encoded.capacity());
+		assertThrows(IndexOutOfBoundsException.class, decoded::getHash);
+		assertThrows(IndexOutOfBoundsException.class, decoded::getHash);
+
+		encoded.putInt(BlockCodec.HASH_INDEX, hashLength);
+		assertTrue(Arrays.equals(block.getHash(), decoded.getHash()));
+	}
+
+	/**
+	 * Test method for {@link BlockCodec#decode(ByteBuffer)} with invalid input
+	 */
+	@Test
+	public void testDecodeInvalid()
+	{
+		byte[] encoded = BlockCodec.encode(newBlock(2));
+		assertThrows(BufferUnderflowException.class, () -> BlockCodec
+			.decode(ByteBuffer.wrap(Arrays.copyOf(encoded, encoded.length - 1))));
+
+		encoded[0] = 2;
+		assertThrows(IllegalArgumentException.class,
+			() -> BlockCodec.decode(ByteBuffer.wrap(encoded)));
+	}
+
+	/**
+	 * Test method for {@link BlockCodec#encode(IBlock)} that is more compact than the java
+	 * serialization
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Test
+	public void testEncodedLengthSmallerThanJavaSerialization() throws IOException
+	{
+		Block block = newBlock(10);
+		assertTrue(BlockCodec.encode(block).length < serialize(block).length);
+	}
+
+	/**
+	 * Test method for the java serialization of a decoded block
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 * @throws ClassNotFoundException
+	 *             is thrown if the class of a serialized object can not be found
+	 */
+	@Test
+	public void testSerializeDecoded() throws IOException, ClassNotFoundException
+	{
+		Block block = newBlock(3);
+		Block decoded = BlockCodec.decode(ByteBuffer.wrap(BlockCodec.encode(block)));
+		try (ObjectInputStream objectInputStream = new ObjectInputStream(
+			new ByteArrayInputStream(serialize(decoded))))
+		{
+			Block deserialized = (Block)objectInputStream.readObject();
+			assertEquals(Block.class, deserialized.getClass());
+			assertEquals(Transaction.class, deserialized.getTransactions().get(0).getClass());
+			assertEquals(block, deserialized);
+			assertEquals(block.getData(), deserialized.getData());
+		}
+	}
+}
@@ -0,0 +1,60 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.blockchain;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.github.astrapi69.crypt.api.blockchain.ITransaction;
+
+/**
+ * Benchmark that mines blocks with a growing number of worker threads and prints the hash rate in
+ * total and per thread, so the hardware for a given difficulty can be sized from the output
+ */
+public class BlockMinerBenchmark
+{
+
+	public static void main(String[] args) throws InterruptedException
+	{
+		int difficultyBits = args.length == 0 ? 20 : Integer.parseInt(args[0]);
+		List<ITransaction> transactions = new ArrayList<>();
+		for (int i = 0; i < 100; i++)
+		{
+			transactions.add(new Transaction("transaction-" + i, new byte[] { (byte)i },
+				new byte[] { 1, 2, 3 }));
+		}
+		int processors = Runtime.getRuntime().availableProcessors();
+		System.out.println("difficulty bits: " + difficultyBits + ", processors: " + processors);
+		System.out.println("threads;hashes;ms;hashes/s;hashes/s per thread");
+		for (int threadCount = 1; threadCount <= processors; threadCount <<= 1)
+		{
+			MiningResult miningResult = new BlockMiner(difficultyBits, threadCount)
+				.mine(new byte[32], transactions);
+			System.out.printf("%d;%d;%d;%.0f;%.0f%n", threadCount, miningResult.getHashCount(),
+				miningResult.getElapsedNanos() / 1_000_000, miningResult.getHashesPerSecond(),
+				miningResult.getHashesPerSecondPerThread());
+		}
+	}
+}
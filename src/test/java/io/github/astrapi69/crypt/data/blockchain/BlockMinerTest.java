@@ -0,0 +1,131 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.blockchain;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.crypt.api.algorithm.HashAlgorithm;
+import io.github.astrapi69.crypt.api.blockchain.ITransaction;
+import io.github.astrapi69.crypt.data.hash.HashInput;
+
+/**
+ * The unit test class for the class {@link BlockMiner}
+ */
+public class BlockMinerTest
+{
+
+	private static List<ITransaction> newTransactions(int count)
+	{
+		List<ITransaction> transactions = new ArrayList<>();
+		for (int i = 0; i < count; i++)
+		{
+			transactions.add(new Transaction("transaction-" + i, new byte[] { (byte)i },
+				new byte[] { 1, 2, 3 }));
+		}
+		return transactions;
+	}
+
+	/**
+	 * Test method for {@link BlockMiner#mine(byte[], List)}
+	 *
+	 * @throws InterruptedException
+	 *             is thrown if the current thread is interrupted
+	 */
+	@Test
+	public void testMine() throws InterruptedException
+	{
+		byte[] previousBlockHash = new byte[32];
+		List<ITransaction> transactions = newTransactions(7);
+		BlockMiner blockMiner = new BlockMiner(10, 3);
+
+		MiningResult miningResult = blockMiner.mine(previousBlockHash, transactions);
+		Block block = miningResult.getBlock();
+
+		assertTrue(10 <= block.getLeadingZeroBitsCount());
+		assertArrayEquals(Block.getMerkleRoot(transactions), block.getMerkleRoot());
+		assertArrayEquals(previousBlockHash, block.getPreviousBlockHash());
+		assertEquals(transactions, block.getTransactions());
+		assertArrayEquals(HashInput.of(HashAlgorithm.SHA256).put(previousBlockHash)
+			.put(block.getMerkleRoot()).putLong(block.getTries()).putLong(block.getTimestamp())
+			.digest(), block.getHash());
+		assertEquals(3, miningResult.getThreadCount());
+		assertTrue(0 < miningResult.getHashCount());
+		assertTrue(0 < miningResult.getHashesPerSecond());
+		assertEquals(miningResult.getHashesPerSecond() / 3,
+			miningResult.getHashesPerSecondPerThread(), 1e-9);
+	}
+
+	/**
+	 * Test method for {@link BlockMiner#mine(byte[], List)} without previous block and without
+	 * difficulty
+	 *
+	 * @throws InterruptedException
+	 *             is thrown if the current thread is interrupted
+	 */
+	@Test
+	public void testMineGenesisWithoutDifficulty() throws InterruptedException
+	{
+		MiningResult miningResult = new BlockMiner(0, 2).mine(null, newTransactions(1));
+		Block block = miningResult.getBlock();
+
+		assertTrue(block.getTries() < 2);
+		assertArrayEquals(HashInput.of(HashAlgorithm.SHA256).put(block.getMerkleRoot())
+			.putLong(block.getTries()).putLong(block.getTimestamp()).digest(), block.getHash());
+	}
+
+	/**
+	 * Test method for {@link BlockMiner#hasLeadingZeroBits(byte[], int)}
+	 */
+	@Test
+	public void testHasLeadingZeroBits()
+	{
+		byte[] hash = { 0, 0x0f, (byte)0xff };
+		assertTrue(BlockMiner.hasLeadingZeroBits(hash, 0));
+		assertTrue(BlockMiner.hasLeadingZeroBits(hash, 8));
+		assertTrue(BlockMiner.hasLeadingZeroBits(hash, 12));
+		assertFalse(BlockMiner.hasLeadingZeroBits(hash, 13));
+		assertTrue(BlockMiner.hasLeadingZeroBits(new byte[] { 0, 0 }, 16));
+	}
+
+	/**
+	 * Test method for {@link BlockMiner} with invalid arguments
+	 */
+	@Test
+	public void testInvalidArguments()
+	{
+		assertThrows(IllegalArgumentException.class, () -> new BlockMiner(-1, 1));
+		assertThrows(IllegalArgumentException.class, () -> new BlockMiner(257, 1));
+		assertThrows(IllegalArgumentException.class, () -> new BlockMiner(8, 0));
+	}
+}
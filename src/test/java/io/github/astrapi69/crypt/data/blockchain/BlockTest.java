@@ -26,17 +26,23 @@ package io.github.astrapi69.crypt.data.blockchain;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
 import java.security.PublicKey;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.meanbean.test.BeanTester;
 
 import io.github.astrapi69.collection.list.ListFactory;
+import io.github.astrapi69.crypt.api.algorithm.HashAlgorithm;
+import io.github.astrapi69.crypt.api.blockchain.ITransaction;
+import io.github.astrapi69.crypt.data.hash.MerkleProof;
 import io.github.astrapi69.crypt.data.key.reader.PublicKeyReader;
 import io.github.astrapi69.evaluate.object.evaluator.EqualsHashCodeAndToStringEvaluator;
 import io.github.astrapi69.file.search.PathFinder;
@@ -159,6 +165,26 @@ public class BlockTest
 		assertEquals(3, block.getLeadingZerosCount());
 	}
 
+	/**
+	 * Test method for {@link Block#getLeadingZeroBitsCount()}
+	 */
+	@Test
+	public void testGetLeadingZeroBitsCount()
+	{
+		Block block = new Block();
+		block.setHash(new byte[] { 0, 0, 1 });
+		assertEquals(23, block.getLeadingZeroBitsCount());
+
+		block.setHash(new byte[] { (byte)0x80, 2, 3 });
+		assertEquals(0, block.getLeadingZeroBitsCount());
+
+		block.setHash(new byte[] { 0, 0x1f, 3 });
+		assertEquals(11, block.getLeadingZeroBitsCount());
+
+		block.setHash(new byte[] { 0, 0, 0 });
+		assertEquals(24, block.getLeadingZeroBitsCount());
+	}
+
 	/**
 	 * Test method for boundary conditions of {@link Block#setHash(byte[])} and
 	 * {@link Block#getHash()}
@@ -258,4 +284,29 @@ public class BlockTest
 		block.setData(longString);
 		assertEquals(longString, block.getData());
 	}
+
+	/**
+	 * Test method for {@link Block#proofFor(ITransaction)}
+	 */
+	@Test
+	public void testProofFor()
+	{
+		List<ITransaction> transactions = new ArrayList<>();
+		for (int i = 0; i < 5; i++)
+		{
+			transactions
+				.add(new Transaction("transaction-" + i, address.getHash(), fixedSignature));
+		}
+		Block block = new Block(null, transactions, 1);
+		for (ITransaction transaction : transactions)
+		{
+			MerkleProof merkleProof = block.proofFor(transaction);
+			assertTrue(merkleProof.verify(transaction.getHash(), block.getMerkleRoot(),
+				HashAlgorithm.SHA256));
+		}
+
+		Transaction foreignTransaction = new Transaction("foreign", address.getHash(),
+			fixedSignature);
+		assertThrows(IllegalArgumentException.class, () -> block.proofFor(foreignTransaction));
+	}
 }
@@ -0,0 +1,89 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.blockchain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link BloomFilter}
+ */
+public class BloomFilterTest
+{
+
+	/**
+	 * Test method for {@link BloomFilter#put(long, long)} and
+	 * {@link BloomFilter#mightContain(long, long)}
+	 */
+	@Test
+	public void testPutAndMightContain()
+	{
+		Random random = new Random(7);
+		BloomFilter bloomFilter = new BloomFilter(10_000, 0.01);
+		long[] keys = new long[20_000];
+		for (int i = 0; i < keys.length; i++)
+		{
+			keys[i] = random.nextLong();
+		}
+		for (int i = 0; i < 10_000; i++)
+		{
+			bloomFilter.put(keys[i], Long.rotateLeft(keys[i], 29) * 31);
+		}
+		int falsePositives = 0;
+		for (int i = 0; i < keys.length; i++)
+		{
+			boolean mightContain = bloomFilter.mightContain(keys[i],
+				Long.rotateLeft(keys[i], 29) * 31);
+			if (i < 10_000)
+			{
+				assertTrue(mightContain);
+			}
+			else if (mightContain)
+			{
+				falsePositives++;
+			}
+		}
+		assertTrue(falsePositives < 200, "false positives: " + falsePositives);
+	}
+
+	/**
+	 * Test method for {@link BloomFilter#BloomFilter(long, double)}
+	 */
+	@Test
+	public void testSize()
+	{
+		BloomFilter bloomFilter = new BloomFilter(1000, 0.01);
+		assertEquals(16_384, bloomFilter.getBitCount());
+		assertEquals(11, bloomFilter.getHashCount());
+		assertEquals(64, new BloomFilter(1, 0.5).getBitCount());
+		assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+		assertThrows(IllegalArgumentException.class, () -> new BloomFilter(10, 1.0));
+	}
+}
@@ -0,0 +1,81 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.blockchain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import io.github.astrapi69.crypt.api.blockchain.ITransaction;
+
+/**
+ * Benchmark that validates a chain of blocks with a growing number of threads and prints the
+ * validated blocks per second. The number of blocks and the number of transactions per block can
+ * be given as arguments
+ */
+public class ChainValidatorBenchmark
+{
+
+	public static void main(String[] args)
+	{
+		int blockCount = args.length == 0 ? 20_000 : Integer.parseInt(args[0]);
+		int transactionCount = args.length < 2 ? 50 : Integer.parseInt(args[1]);
+		List<Block> chain = new ArrayList<>();
+		byte[] previousBlockHash = null;
+		for (int i = 0; i < blockCount; i++)
+		{
+			List<ITransaction> transactions = new ArrayList<>();
+			for (int j = 0; j < transactionCount; j++)
+			{
+				transactions.add(new Transaction("transaction-" + i + "-" + j, new byte[32],
+					new byte[64]));
+			}
+			Block block = new Block(previousBlockHash, transactions, i);
+			chain.add(block);
+			previousBlockHash = block.getHash();
+		}
+		int processors = Runtime.getRuntime().availableProcessors();
+		System.out.println("blocks: " + blockCount + ", transactions per block: "
+			+ transactionCount + ", processors: " + processors);
+		System.out.println("threads;ms;blocks/s");
+		for (int threadCount = 1; threadCount <= processors; threadCount <<= 1)
+		{
+			ForkJoinPool pool = new ForkJoinPool(threadCount);
+			ChainValidator chainValidator = new ChainValidator(pool,
+				ChainValidator.DEFAULT_THRESHOLD);
+			chainValidator.validate(chain);
+			long start = System.nanoTime();
+			ChainValidationResult result = chainValidator.validate(chain);
+			long elapsedNanos = System.nanoTime() - start;
+			pool.shutdown();
+			if (!result.isValid())
+			{
+				throw new IllegalStateException(result.toString());
+			}
+			System.out.printf("%d;%d;%.0f%n", threadCount, elapsedNanos / 1_000_000,
+				blockCount * 1e9 / elapsedNanos);
+		}
+	}
+}
@@ -0,0 +1,171 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.blockchain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.crypt.api.blockchain.ITransaction;
+
+/**
+ * The unit test class for the class {@link ChainValidator}
+ */
+public class ChainValidatorTest
+{
+
+	ForkJoinPool pool;
+
+	ChainValidator chainValidator;
+
+	private static List<Block> newChain(int count)
+	{
+		List<Block> chain = new ArrayList<>();
+		byte[] previousBlockHash = null;
+		for (int i = 0; i < count; i++)
+		{
+			List<ITransaction> transactions = new ArrayList<>();
+			for (int j = 0; j < i % 5; j++)
+			{
+				transactions.add(new Transaction("transaction-" + i + "-" + j,
+					new byte[] { (byte)i, (byte)j }, new byte[] { 1, 2, 3 }));
+			}
+			Block block = new Block(previousBlockHash, transactions, i);
+			chain.add(block);
+			previousBlockHash = block.getHash();
+		}
+		return chain;
+	}
+
+	@BeforeEach
+	void setUp()
+	{
+		pool = new ForkJoinPool(4);
+		chainValidator = new ChainValidator(pool, 8);
+	}
+
+	@AfterEach
+	void tearDown()
+	{
+		pool.shutdown();
+	}
+
+	/**
+	 * Test method for {@link ChainValidator#validate(List)} with a valid chain
+	 */
+	@Test
+	public void testValidateValidChain()
+	{
+		List<Block> chain = newChain(300);
+		ChainValidationResult result = chainValidator.validate(chain);
+
+		assertTrue(result.isValid());
+		assertEquals(300, result.getBlockCount());
+		assertEquals(-1, result.getInvalidHeight());
+		assertNull(result.getReason());
+		assertTrue(new ChainValidator().validate(new LinkedList<>(chain)).isValid());
+		assertTrue(chainValidator.validate(List.of()).isValid());
+	}
+
+	/**
+	 * Test method for {@link ChainValidator#validate(List)} with an invalid transaction
+	 */
+	@Test
+	public void testValidateInvalidTransaction()
+	{
+		List<Block> chain = newChain(300);
+		chain.get(201).getTransactions().get(0).setText("forged");
+		chain.get(123).getTransactions().get(2).setTimestamp(42L);
+		ChainValidationResult result = chainValidator.validate(chain);
+
+		assertFalse(result.isValid());
+		assertEquals(123, result.getInvalidHeight());
+		assertEquals(ChainValidationResult.Reason.TRANSACTION_HASH, result.getReason());
+	}
+
+	/**
+	 * Test method for {@link ChainValidator#validate(List)} with an invalid merkle root and an
+	 * invalid block hash
+	 */
+	@Test
+	public void testValidateInvalidHeader()
+	{
+		List<Block> chain = newChain(100);
+		chain.get(77).setMerkleRoot(new byte[32]);
+		ChainValidationResult result = chainValidator.validate(chain);
+		assertEquals(77, result.getInvalidHeight());
+		assertEquals(ChainValidationResult.Reason.MERKLE_ROOT, result.getReason());
+
+		chain.get(40).setTries(-1L);
+		result = chainValidator.validate(chain);
+		assertEquals(40, result.getInvalidHeight());
+		assertEquals(ChainValidationResult.Reason.BLOCK_HASH, result.getReason());
+	}
+
+	/**
+	 * Test method for {@link ChainValidator#validate(List)} with a broken link between two valid
+	 * blocks
+	 */
+	@Test
+	public void testValidateBrokenLink()
+	{
+		List<Block> chain = newChain(100);
+		Block block = chain.get(60);
+		chain.set(60, new Block(new byte[32], block.getTransactions(), block.getTries()));
+		ChainValidationResult result = chainValidator.validate(chain);
+		assertEquals(60, result.getInvalidHeight());
+		assertEquals(ChainValidationResult.Reason.PREVIOUS_BLOCK_HASH, result.getReason());
+
+		chain.get(90).setTries(-1L);
+		assertEquals(60, chainValidator.validate(chain).getInvalidHeight());
+
+		chain.get(30).setTries(-1L);
+		result = chainValidator.validate(chain);
+		assertEquals(30, result.getInvalidHeight());
+		assertEquals(ChainValidationResult.Reason.BLOCK_HASH, result.getReason());
+	}
+
+	/**
+	 * Test method for {@link ChainValidator#ChainValidator(ForkJoinPool, int)} with invalid
+	 * arguments
+	 */
+	@Test
+	public void testInvalidArguments()
+	{
+		assertThrows(IllegalArgumentException.class, () -> new ChainValidator(pool, 0));
+		assertThrows(NullPointerException.class, () -> new ChainValidator(null, 8));
+	}
+}
@@ -0,0 +1,87 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.blockchain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The unit test class for the class {@link LedgerHashIndex}
+ */
+public class LedgerHashIndexTest
+{
+
+	@TempDir
+	Path tempDir;
+
+	private static byte[] newHash(long value)
+	{
+		return ByteBuffer.allocate(32).putLong(value * 0x9E3779B97F4A7C15L).putLong(value).array();
+	}
+
+	/**
+	 * Test method for {@link LedgerHashIndex#put(byte[], long)} and
+	 * {@link LedgerHashIndex#find(byte[], java.util.function.LongPredicate)} beyond the initial
+	 * capacity
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Test
+	public void testPutAndFind() throws IOException
+	{
+		Path path = tempDir.resolve(LedgerStore.HASH_INDEX_FILE_NAME);
+		int count = 100_000;
+		try (LedgerHashIndex hashIndex = new LedgerHashIndex(path))
+		{
+			for (int i = 0; i < count; i++)
+			{
+				hashIndex.put(newHash(i), i);
+			}
+			assertEquals(count, hashIndex.size());
+		}
+		try (LedgerHashIndex hashIndex = new LedgerHashIndex(path))
+		{
+			assertEquals(count, hashIndex.size());
+			for (int i = 0; i < count; i += 7)
+			{
+				long expected = i;
+				assertEquals(expected, hashIndex.find(newHash(i), height -> height == expected));
+			}
+			assertEquals(-1, hashIndex.find(newHash(count), height -> true));
+			assertEquals(-1, hashIndex.find(newHash(3), height -> false));
+
+			hashIndex.clear();
+			assertEquals(0, hashIndex.size());
+			assertEquals(-1, hashIndex.find(newHash(3), height -> true));
+		}
+	}
+}
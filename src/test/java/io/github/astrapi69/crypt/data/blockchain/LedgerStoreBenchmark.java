@@ -0,0 +1,97 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.blockchain;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import io.github.astrapi69.crypt.api.blockchain.ITransaction;
+
+/**
+ * Benchmark that appends a chain of blocks to a {@link LedgerStore}, opens the store again and
+ * replays all records, and prints the append rate and the replay rate in blocks and megabytes per
+ * second. The number of blocks can be given as first argument
+ */
+public class LedgerStoreBenchmark
+{
+
+	public static void main(String[] args) throws IOException
+	{
+		int blockCount = args.length == 0 ? 1_000_000 : Integer.parseInt(args[0]);
+		List<ITransaction> transactions = List.of(
+			new Transaction("transaction-1", new byte[32], new byte[64]),
+			new Transaction("transaction-2", new byte[32], new byte[64]));
+		Path directory = Files.createTempDirectory("ledger-store-benchmark");
+		try
+		{
+			long start = System.nanoTime();
+			try (LedgerStore ledgerStore = new LedgerStore(directory))
+			{
+				byte[] previousBlockHash = new byte[32];
+				for (int i = 0; i < blockCount; i++)
+				{
+					Block block = new Block(previousBlockHash, transactions, i);
+					ledgerStore.append(block);
+					previousBlockHash = block.getHash();
+				}
+			}
+			long appendNanos = System.nanoTime() - start;
+			System.out.printf("append: %d blocks in %d ms, %.0f blocks/s%n", blockCount,
+				appendNanos / 1_000_000, blockCount * 1e9 / appendNanos);
+
+			start = System.nanoTime();
+			long bytes = 0;
+			long checksum = 0;
+			try (LedgerStore ledgerStore = new LedgerStore(directory))
+			{
+				long[] totals = new long[2];
+				ledgerStore.replay(0, (record, height) -> {
+					totals[0] += record.remaining();
+					totals[1] += record.getLong(record.limit() - Long.BYTES);
+				});
+				bytes = totals[0];
+				checksum = totals[1];
+			}
+			long replayNanos = System.nanoTime() - start;
+			System.out.printf("replay: %d blocks in %d ms, %.0f blocks/s, %.1f MB/s (%d)%n",
+				blockCount, replayNanos / 1_000_000, blockCount * 1e9 / replayNanos,
+				bytes * 1e3 / replayNanos, checksum);
+		}
+		finally
+		{
+			try (Stream<Path> paths = Files.walk(directory))
+			{
+				for (Path path : paths.sorted(Comparator.reverseOrder()).toList())
+				{
+					Files.delete(path);
+				}
+			}
+		}
+	}
+}
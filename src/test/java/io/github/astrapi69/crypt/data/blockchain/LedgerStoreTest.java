@@ -0,0 +1,418 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.blockchain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.astrapi69.crypt.api.blockchain.ITransaction;
+
+/**
+ * The unit test class for the class {@link LedgerStore}
+ */
+public class LedgerStoreTest
+{
+
+	@TempDir
+	Path tempDir;
+
+	private static List<Block> newChain(int count)
+	{
+		List<Block> chain = new ArrayList<>();
+		byte[] previousBlockHash = null;
+		for (int i = 0; i < count; i++)
+		{
+			List<ITransaction> transactions = new ArrayList<>();
+			for (int j = 0; j < i % 4; j++)
+			{
+				transactions.add(new Transaction("transaction-" + i + "-" + j,
+					new byte[] { (byte)i, (byte)j }, new byte[] { 1, 2, 3 }));
+			}
+			Block block = new Block(previousBlockHash, transactions, i);
+			block.setData(i % 3 == 0 ? null : "data-" + i);
+			chain.add(block);
+			previousBlockHash = block.getHash();
+		}
+		return chain;
+	}
+
+	private void corrupt(byte[] body) throws IOException
+	{
+		for (int i = 0; Files.exists(tempDir.resolve(String.format("segment-%06d.ledger", i))); i++)
+		{
+			Path segment = tempDir.resolve(String.format("segment-%06d.ledger", i));
+			byte[] bytes = Files.readAllBytes(segment);
+			for (int offset = 0; offset + body.length <= bytes.length; offset++)
+			{
+				if (Arrays.equals(bytes, offset, offset + body.length, body, 0, body.length))
+				{
+					bytes[offset + 3] ^= 0xFF;
+					Files.write(segment, bytes);
+					return;
+				}
+			}
+		}
+		throw new IllegalStateException("The record is not found");
+	}
+
+	/**
+	 * Test method for {@link LedgerStore#append(io.github.astrapi69.crypt.api.blockchain.IBlock)}
+	 * and the read methods
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Test
+	public void testAppendAndGet() throws IOException
+	{
+		List<Block> chain = newChain(50);
+		try (LedgerStore ledgerStore = new LedgerStore(tempDir))
+		{
+			for (int i = 0; i < chain.size(); i++)
+			{
+				assertEquals(i, ledgerStore.append(chain.get(i)));
+			}
+			assertEquals(50, ledgerStore.size());
+			for (int i = 0; i < chain.size(); i++)
+			{
+				Block block = chain.get(i);
+				assertEquals(block, ledgerStore.getBlock(i));
+				assertEquals(block.getData(), ledgerStore.getBlock(i).getData());
+				assertEquals(block.getTimestamp(), ledgerStore.getBlock(i).getTimestamp());
+				assertEquals(block.getTries(), ledgerStore.getBlock(i).getTries());
+				assertEquals(i, ledgerStore.getHeight(block.getHash()));
+				assertEquals(block, ledgerStore.getBlock(block.getHash()));
+			}
+			assertEquals(-1, ledgerStore.getHeight(new byte[32]));
+			assertNull(ledgerStore.getBlock(new byte[32]));
+			assertThrows(IndexOutOfBoundsException.class, () -> ledgerStore.getBlock(50));
+		}
+	}
+
+	/**
+	 * Test method for {@link LedgerStore#getRecord(long)}
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Test
+	public void testGetRecord() throws IOException
+	{
+		Block block = newChain(3).get(2);
+		try (LedgerStore ledgerStore = new LedgerStore(tempDir))
+		{
+			ledgerStore.append(block);
+			ByteBuffer record = ledgerStore.getRecord(0);
+
+			assertTrue(record.isReadOnly());
+			assertTrue(LedgerRecords.hasHash(record, block.getHash()));
+			assertFalse(LedgerRecords.hasHash(record, new byte[32]));
+			assertEquals(block, BlockCodec.decode(record));
+			assertFalse(record.hasRemaining());
+		}
+	}
+
+	/**
+	 * Test method for {@link LedgerStore#replay(long, java.util.function.ObjLongConsumer)} over
+	 * several segments
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Test
+	public void testReplay() throws IOException
+	{
+		List<Block> chain = newChain(200);
+		try (LedgerStore ledgerStore = new LedgerStore(tempDir, 1024))
+		{
+			for (Block block : chain)
+			{
+				ledgerStore.append(block);
+			}
+			assertTrue(Files.exists(tempDir.resolve("segment-000010.ledger")));
+			List<Block> replayed = new ArrayList<>();
+			List<Long> heights = new ArrayList<>();
+			ledgerStore.replay(120, (record, height) -> {
+				replayed.add(BlockCodec.decode(record));
+				heights.add(height);
+			});
+			assertEquals(chain.subList(120, 200), replayed);
+			assertEquals(120L, heights.get(0).longValue());
+			assertEquals(199L, heights.get(heights.size() - 1).longValue());
+
+			ledgerStore.replay(200, (record, height) -> replayed.add(null));
+			assertEquals(80, replayed.size());
+			assertThrows(IndexOutOfBoundsException.class,
+				() -> ledgerStore.replay(201, (record, height) -> {
+				}));
+		}
+	}
+
+	/**
+	 * Test method for {@link LedgerStore} with a block that is larger than a segment
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Test
+	public void testAppendLargeBlock() throws IOException
+	{
+		List<Block> chain = newChain(3);
+		chain.get(1).setData("x".repeat(5000));
+		try (LedgerStore ledgerStore = new LedgerStore(tempDir, 256))
+		{
+			for (Block block : chain)
+			{
+				ledgerStore.append(block);
+			}
+		}
+		try (LedgerStore ledgerStore = new LedgerStore(tempDir, 256))
+		{
+			assertEquals(3, ledgerStore.size());
+			assertEquals(chain.get(1).getData(), ledgerStore.getBlock(1).getData());
+			assertEquals(chain.get(2), ledgerStore.getBlock(2));
+		}
+	}
+
+	/**
+	 * Test method for {@link LedgerStore} that is closed and opened again
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Test
+	public void testReopen() throws IOException
+	{
+		List<Block> chain = newChain(30);
+		try (LedgerStore ledgerStore = new LedgerStore(tempDir, 2048))
+		{
+			for (Block block : chain.subList(0, 20))
+			{
+				ledgerStore.append(block);
+			}
+		}
+		try (LedgerStore ledgerStore = new LedgerStore(tempDir, 2048))
+		{
+			assertEquals(20, ledgerStore.size());
+			for (Block block : chain.subList(20, 30))
+			{
+				ledgerStore.append(block);
+			}
+		}
+		try (LedgerStore ledgerStore = new LedgerStore(tempDir, 2048))
+		{
+			assertEquals(30, ledgerStore.size());
+			for (int i = 0; i < chain.size(); i++)
+			{
+				assertEquals(chain.get(i), ledgerStore.getBlock(i));
+				assertEquals(i, ledgerStore.getHeight(chain.get(i).getHash()));
+			}
+		}
+	}
+
+	/**
+	 * Test method for {@link LedgerStore} that rebuilds lost index files
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Test
+	public void testRecoverIndexes() throws IOException
+	{
+		List<Block> chain = newChain(40);
+		try (LedgerStore ledgerStore = new LedgerStore(tempDir, 4096))
+		{
+			for (Block block : chain)
+			{
+				ledgerStore.append(block);
+			}
+		}
+		Files.delete(tempDir.resolve(LedgerStore.HEIGHT_INDEX_FILE_NAME));
+		Files.delete(tempDir.resolve(LedgerStore.HASH_INDEX_FILE_NAME));
+		try (LedgerStore ledgerStore = new LedgerStore(tempDir, 4096))
+		{
+			assertEquals(40, ledgerStore.size());
+			for (int i = 0; i < chain.size(); i++)
+			{
+				assertEquals(chain.get(i), ledgerStore.getBlock(i));
+				assertEquals(i, ledgerStore.getHeight(chain.get(i).getHash()));
+			}
+		}
+	}
+
+	/**
+	 * Test method for {@link LedgerStore} that cuts off a corrupt tail
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Test
+	public void testRecoverCorruptTail() throws IOException
+	{
+		List<Block> chain = newChain(10);
+		int lastOffset;
+		try (LedgerStore ledgerStore = new LedgerStore(tempDir))
+		{
+			for (Block block : chain)
+			{
+				ledgerStore.append(block);
+			}
+			lastOffset = 0;
+			for (int i = 0; i < 9; i++)
+			{
+				lastOffset += LedgerRecords.HEADER_SIZE + ledgerStore.getRecord(i).remaining();
+			}
+		}
+		try (RandomAccessFile file = new RandomAccessFile(
+			tempDir.resolve("segment-000000.ledger").toFile(), "rw"))
+		{
+			file.seek(lastOffset + LedgerRecords.HEADER_SIZE + 3);
+			int value = file.read();
+			file.seek(lastOffset + LedgerRecords.HEADER_SIZE + 3);
+			file.write(value ^ 0xFF);
+		}
+		try (LedgerStore ledgerStore = new LedgerStore(tempDir))
+		{
+			assertEquals(9, ledgerStore.size());
+			assertEquals(-1, ledgerStore.getHeight(chain.get(9).getHash()));
+			assertEquals(9, ledgerStore.append(chain.get(9)));
+		}
+		try (LedgerStore ledgerStore = new LedgerStore(tempDir))
+		{
+			assertEquals(10, ledgerStore.size());
+			assertEquals(chain.get(9), ledgerStore.getBlock(9));
+			assertEquals(9, ledgerStore.getHeight(chain.get(9).getHash()));
+		}
+	}
+
+	/**
+	 * Test method for {@link LedgerStore} that validates every record behind the checkpoint
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Test
+	public void testRecoverCorruptRecordBehindCheckpoint() throws IOException
+	{
+		List<Block> chain = newChain(30);
+		byte[] body;
+		try (LedgerStore ledgerStore = new LedgerStore(tempDir, 2048))
+		{
+			for (Block block : chain)
+			{
+				ledgerStore.append(block);
+			}
+			ByteBuffer record = ledgerStore.getRecord(20);
+			body = new byte[record.remaining()];
+			record.get(body);
+		}
+		try (RandomAccessFile file = new RandomAccessFile(
+			tempDir.resolve(LedgerStore.HEIGHT_INDEX_FILE_NAME).toFile(), "rw"))
+		{
+			file.seek(Long.BYTES);
+			file.writeLong(10);
+		}
+		corrupt(body);
+		try (LedgerStore ledgerStore = new LedgerStore(tempDir, 2048))
+		{
+			assertEquals(20, ledgerStore.size());
+			assertEquals(chain.get(19), ledgerStore.getBlock(19));
+			assertEquals(-1, ledgerStore.getHeight(chain.get(20).getHash()));
+			assertEquals(-1, ledgerStore.getHeight(chain.get(29).getHash()));
+			assertEquals(20, ledgerStore.append(chain.get(20)));
+		}
+		try (LedgerStore ledgerStore = new LedgerStore(tempDir, 2048))
+		{
+			assertEquals(21, ledgerStore.size());
+			for (int i = 0; i < ledgerStore.size(); i++)
+			{
+				assertEquals(chain.get(i), ledgerStore.getBlock(i));
+			}
+		}
+	}
+
+	/**
+	 * Test method for {@link LedgerStore#close()}
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Test
+	public void testClose() throws IOException
+	{
+		LedgerStore ledgerStore = new LedgerStore(tempDir);
+		ledgerStore.close();
+		ledgerStore.close();
+		assertThrows(IllegalStateException.class, () -> ledgerStore.append(newChain(1).get(0)));
+		assertThrows(IllegalArgumentException.class, () -> new LedgerStore(tempDir, 4));
+		assertFalse(Files.exists(tempDir.resolve("segment-000000.ledger")));
+	}
+
+	/**
+	 * Test method for {@link LedgerStore#LedgerStore(Path)} that closes the opened files if the
+	 * recovery fails
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Test
+	public void testConstructorClosesFilesOnFailure() throws IOException
+	{
+		Path fileDescriptors = Path.of("/proc/self/fd");
+		assumeTrue(Files.isDirectory(fileDescriptors));
+		Files.createDirectories(tempDir.resolve("segment-000000.ledger"));
+		long before = countEntries(fileDescriptors);
+		for (int i = 0; i < 16; i++)
+		{
+			assertThrows(IOException.class, () -> new LedgerStore(tempDir));
+		}
+		assertTrue(countEntries(fileDescriptors) - before < 16);
+	}
+
+	private static long countEntries(Path directory) throws IOException
+	{
+		try (Stream<Path> entries = Files.list(directory))
+		{
+			return entries.count();
+		}
+	}
+}
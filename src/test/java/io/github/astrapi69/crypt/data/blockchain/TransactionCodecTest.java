@@ -0,0 +1,182 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.blockchain;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.crypt.api.blockchain.ITransaction;
+
+/**
+ * The unit test class for the class {@link TransactionCodec}
+ */
+public class TransactionCodecTest
+{
+
+	/**
+	 * Test method for {@link TransactionCodec#encode(ITransaction)}
+	 * and {@link TransactionCodec#decode(ByteBuffer)}
+	 */
+	@Test
+	public void testEncodeDecode()
+	{
+		Transaction transaction = new Transaction("Gr\u00fc\u00dfe \ud83d\ude00 \u20ac",
+			new byte[] { 1, 2 }, new byte[] { 3, 4, 5 });
+		byte[] encoded = TransactionCodec.encode(transaction);
+		assertEquals(TransactionCodec.getEncodedLength(transaction), encoded.length);
+
+		ByteBuffer buffer = ByteBuffer.wrap(encoded);
+		Transaction decoded = TransactionCodec.decode(buffer);
+		assertEquals(encoded.length, buffer.position());
+		assertEquals(transaction, decoded);
+		assertEquals(transaction.getTimestamp(), decoded.getTimestamp());
+		assertArrayEquals(transaction.getSignableData(), decoded.getSignableData());
+
+		transaction.setText("\ud83d \ude00\ud83d");
+		assertEquals(TransactionCodec.getEncodedLength(transaction),
+			TransactionCodec.encode(transaction).length);
+	}
+
+	/**
+	 * Test method for {@link TransactionCodec} with null fields
+	 */
+	@Test
+	public void testEncodeDecodeNullFields()
+	{
+		Transaction transaction = new Transaction();
+		transaction.setTimestamp(-7L);
+		Transaction decoded = TransactionCodec.decode(
+			ByteBuffer.wrap(TransactionCodec.encode(transaction)));
+
+		assertNull(decoded.getHash());
+		assertNull(decoded.getSenderHash());
+		assertNull(decoded.getSignature());
+		assertNull(decoded.getText());
+		assertEquals(-7L, decoded.getTimestamp());
+	}
+
+	/**
+	 * Test method for {@link TransactionCodec} with several transactions in one buffer of the
+	 * caller
+	 */
+	@Test
+	public void testEncodeDecodeSequence()
+	{
+		Transaction first = new Transaction("first", new byte[] { 1 }, new byte[] { 2 });
+		Transaction second = new Transaction("second", new byte[] { 3 }, new byte[] { 4 });
+		ByteBuffer buffer = ByteBuffer.allocate(256).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.position(10);
+		TransactionCodec.encode(first, buffer);
+		TransactionCodec.encode(second, buffer);
+		assertEquals(10 + TransactionCodec.getEncodedLength(first)
+			+ TransactionCodec.getEncodedLength(second), buffer.position());
+
+		buffer.flip().position(10);
+		assertEquals(first, TransactionCodec.decode(buffer));
+		assertEquals(second, TransactionCodec.decode(buffer));
+		assertEquals(0, buffer.remaining());
+	}
+
+	/**
+	 * Test method for {@link TransactionCodec#decode(ByteBuffer)} that reads the fields lazily
+	 */
+	@Test
+	public void testDecodeLazily()
+	{
+		Transaction transaction = new Transaction("text", new byte[] { 1 }, new byte[] { 2 });
+		byte[] encoded = TransactionCodec.encode(transaction);
+		Transaction decoded = TransactionCodec.decode(ByteBuffer.wrap(encoded));
+		assertInstanceOf(LazyTransaction.class, decoded);
+		assertArrayEquals(transaction.getHash(), decoded.getHash());
+
+		encoded[encoded.length - 1] = 'T';
+		assertArrayEquals(transaction.getHash(), decoded.getHash());
+		assertEquals("texT", decoded.getText());
+
+		encoded[encoded.length - 1] = 'x';
+		assertEquals("texT", decoded.getText());
+		decoded.setSenderHash(new byte[] { 9 });
+		assertArrayEquals(new byte[] { 9 }, decoded.getSenderHash());
+	}
+
+	/**
+	 * Test method for {@link TransactionCodec#decode(ByteBuffer)} with invalid input
+	 */
+	@Test
+	public void testDecodeInvalid()
+	{
+		byte[] encoded = TransactionCodec
+			.encode(new Transaction("text", new byte[] { 1 }, new byte[] { 2 }));
+		assertThrows(BufferUnderflowException.class, () -> TransactionCodec
+			.decode(ByteBuffer.wrap(Arrays.copyOf(encoded, encoded.length - 1))));
+
+		encoded[0] = 2;
+		assertThrows(IllegalArgumentException.class,
+			() -> TransactionCodec.decode(ByteBuffer.wrap(encoded)));
+	}
+
+	/**
+	 * Test method for the java serialization of a decoded transaction
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 * @throws ClassNotFoundException
+	 *             is thrown if the class of a serialized object can not be found
+	 */
+	@Test
+	public void testSerializeDecoded() throws IOException, ClassNotFoundException
+	{
+		Transaction transaction = new Transaction("text", new byte[] { 1 }, new byte[] { 2 });
+		Transaction decoded = TransactionCodec
+			.decode(ByteBuffer.wrap(TransactionCodec.encode(transaction)));
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream))
+		{
+			objectOutputStream.writeObject(decoded);
+		}
+		try (ObjectInputStream objectInputStream = new ObjectInputStream(
+			new ByteArrayInputStream(outputStream.toByteArray())))
+		{
+			Object deserialized = objectInputStream.readObject();
+			assertEquals(Transaction.class, deserialized.getClass());
+			assertEquals(transaction, deserialized);
+		}
+	}
+}
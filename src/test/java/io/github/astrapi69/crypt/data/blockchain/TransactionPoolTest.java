@@ -0,0 +1,339 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.blockchain;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.crypt.api.blockchain.ITransaction;
+
+/**
+ * The unit test class for the class {@link TransactionPool}
+ */
+public class TransactionPoolTest
+{
+
+	private static Transaction newTransaction(String text, long timestamp)
+	{
+		Transaction transaction = new Transaction(text, new byte[] { 1 }, new byte[] { 2 });
+		transaction.setTimestamp(timestamp);
+		return transaction;
+	}
+
+	/**
+	 * Test method for {@link TransactionPool#add(ITransaction)} with duplicates
+	 */
+	@Test
+	public void testAddDuplicate()
+	{
+		TransactionPool transactionPool = new TransactionPool();
+		Transaction transaction = newTransaction("first", 1L);
+
+		assertTrue(transactionPool.add(transaction));
+		assertFalse(transactionPool.add(transaction));
+		assertTrue(transactionPool.contains(transaction.getHash()));
+		assertEquals(1, transactionPool.size());
+
+		TransactionPoolMetrics metrics = transactionPool.getMetrics();
+		assertEquals(1, metrics.getInsertCount());
+		assertEquals(1, metrics.getDuplicateCount());
+		assertEquals(1, metrics.getPendingCount());
+		assertEquals(0.5, metrics.getDuplicateRate(), 1e-9);
+		assertTrue(0 < metrics.getInsertsPerSecond());
+	}
+
+	/**
+	 * Test method for {@link TransactionPool#drain(int)} in the order of the timestamps
+	 */
+	@Test
+	public void testDrainByTimestamp()
+	{
+		TransactionPool transactionPool = new TransactionPool();
+		for (long timestamp : new long[] { 30L, 10L, 50L, 20L, 40L })
+		{
+			transactionPool.add(newTransaction("transaction-" + timestamp, timestamp));
+		}
+		List<ITransaction> drained = transactionPool.drain(3);
+
+		assertEquals(3, drained.size());
+		assertEquals(10L, drained.get(0).getTimestamp());
+		assertEquals(20L, drained.get(1).getTimestamp());
+		assertEquals(30L, drained.get(2).getTimestamp());
+		assertEquals(2, transactionPool.size());
+		assertFalse(transactionPool.contains(drained.get(0).getHash()));
+		assertTrue(transactionPool.add(drained.get(0)));
+		assertEquals(3, transactionPool.drain(10).size());
+		assertEquals(0, transactionPool.drain(10).size());
+		assertEquals(6, transactionPool.getMetrics().getDrainedCount());
+		assertThrows(IllegalArgumentException.class, () -> transactionPool.drain(-1));
+	}
+
+	/**
+	 * Test method for {@link TransactionPool#drain(int)} in the order of a fee
+	 */
+	@Test
+	public void testDrainByFee()
+	{
+		TransactionPool transactionPool = new TransactionPool(
+			TransactionPool.byFee(transaction -> transaction.getText().length()));
+		transactionPool.add(newTransaction("a", 3L));
+		transactionPool.add(newTransaction("ccc", 2L));
+		transactionPool.add(newTransaction("bb", 1L));
+		transactionPool.add(newTransaction("dd", 0L));
+		List<String> texts = new ArrayList<>();
+		transactionPool.drain(4).forEach(transaction -> texts.add(transaction.getText()));
+
+		assertEquals(List.of("ccc", "dd", "bb", "a"), texts);
+	}
+
+	/**
+	 * Test method for {@link TransactionPool#remove(byte[])}
+	 */
+	@Test
+	public void testRemove()
+	{
+		TransactionPool transactionPool = new TransactionPool();
+		Transaction first = newTransaction("first", 1L);
+		Transaction second = newTransaction("second", 2L);
+		transactionPool.add(first);
+		transactionPool.add(second);
+
+		assertTrue(transactionPool.remove(first.getHash()));
+		assertFalse(transactionPool.remove(first.getHash()));
+		assertEquals(List.of(second), transactionPool.drain(10));
+	}
+
+	/**
+	 * Test method for {@link TransactionPool#drainToBlock(byte[], int)}
+	 */
+	@Test
+	public void testDrainToBlock()
+	{
+		TransactionPool transactionPool = new TransactionPool();
+		for (int i = 0; i < 10; i++)
+		{
+			transactionPool.add(newTransaction("transaction-" + i, i));
+		}
+		byte[] previousBlockHash = new byte[32];
+		Block block = transactionPool.drainToBlock(previousBlockHash, 4);
+
+		assertEquals(4, block.getTransactions().size());
+		assertEquals(0L, block.getTransactions().get(0).getTimestamp());
+		assertEquals(6, transactionPool.size());
+		assertArrayEquals(previousBlockHash, block.getPreviousBlockHash());
+		assertArrayEquals(Block.getMerkleRoot(block.getTransactions()), block.getMerkleRoot());
+	}
+
+	/**
+	 * Test method for {@link TransactionPool} with many virtual thread producers and a concurrent
+	 * consumer
+	 *
+	 * @throws Exception
+	 *             is thrown if a producer or the consumer fails
+	 */
+	@Test
+	public void testConcurrentProducers() throws Exception
+	{
+		int producerCount = 200;
+		int transactionsPerProducer = 100;
+		List<Transaction> transactions = new ArrayList<>();
+		for (int i = 0; i < producerCount * transactionsPerProducer / 2; i++)
+		{
+			transactions.add(newTransaction("transaction-" + i, i));
+		}
+		TransactionPool transactionPool = new TransactionPool();
+		AtomicBoolean producing = new AtomicBoolean(true);
+		List<ITransaction> drained = new ArrayList<>();
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor())
+		{
+			Future<?> consumer = executor.submit(() -> {
+				while (producing.get())
+				{
+					drained.addAll(transactionPool.drain(50));
+				}
+			});
+			List<Future<?>> producers = new ArrayList<>();
+			for (int producer = 0; producer < producerCount; producer++)
+			{
+				int first = producer * transactionsPerProducer / 2;
+				producers.add(executor.submit(() -> {
+					// every transaction is offered by two producers
+					for (int i = 0; i < transactionsPerProducer; i++)
+					{
+						transactionPool.add(transactions.get((first + i) % transactions.size()));
+					}
+				}));
+			}
+			for (Future<?> producer : producers)
+			{
+				producer.get();
+			}
+			producing.set(false);
+			consumer.get();
+		}
+		catch (ExecutionException e)
+		{
+			throw (Exception)e.getCause();
+		}
+		drained.addAll(transactionPool.drain(Integer.MAX_VALUE));
+		TransactionPoolMetrics metrics = transactionPool.getMetrics();
+
+		assertEquals(producerCount * transactionsPerProducer,
+			metrics.getInsertCount() + metrics.getDuplicateCount());
+		assertEquals(metrics.getInsertCount(), metrics.getDrainedCount());
+		assertEquals(metrics.getInsertCount(), drained.size());
+		assertEquals(0, transactionPool.size());
+		Set<ITransaction> unique = new HashSet<>(drained);
+		assertEquals(transactions.size(), unique.size());
+	}
+
+	/**
+	 * Test method for {@link TransactionPool#add(ITransaction)} and
+	 * {@link TransactionPool#remove(byte[])} that run concurrently for the same hash
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testConcurrentAddAndRemove() throws Exception
+	{
+		int rounds = 5000;
+		byte[] hash = newTransaction("transaction", 1L).getHash();
+		// every add offers a new object with an equal hash
+		Supplier<Transaction> equalTransaction = () -> {
+			Transaction transaction = newTransaction("transaction", 1L);
+			transaction.setHash(hash.clone());
+			return transaction;
+		};
+		// the priority yields to widen the window between the update of the map and the queue
+		TransactionPool transactionPool = new TransactionPool((left, right) -> {
+			Thread.yield();
+			return Long.compare(left.getTimestamp(), right.getTimestamp());
+		});
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor())
+		{
+			for (int round = 0; round < rounds; round++)
+			{
+				// another pending transaction, so every add of the queue calls the priority
+				transactionPool.add(newTransaction("other", 0L));
+				List<Future<?>> futures = List.of(
+					executor.submit(() -> transactionPool.add(equalTransaction.get())),
+					executor.submit(() -> transactionPool.remove(hash)),
+					executor.submit(() -> transactionPool.add(equalTransaction.get())));
+				for (Future<?> future : futures)
+				{
+					future.get();
+				}
+				int size = transactionPool.size();
+				assertEquals(size, transactionPool.drain(Integer.MAX_VALUE).size());
+				assertFalse(transactionPool.contains(hash));
+			}
+		}
+		catch (ExecutionException e)
+		{
+			throw (Exception)e.getCause();
+		}
+	}
+
+	/**
+	 * Test method for {@link TransactionPool#drain(int)}, {@link TransactionPool#remove(byte[])}
+	 * and {@link TransactionPool#add(ITransaction)} that run concurrently for the same hash
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testConcurrentDrainRemoveAndAdd() throws Exception
+	{
+		CountDownLatch polled = new CountDownLatch(1);
+		CountDownLatch resumed = new CountDownLatch(1);
+		AtomicBoolean armed = new AtomicBoolean();
+		// the drain stops after the poll of this transaction until the same hash is removed and
+		// added again by another thread
+		Transaction drained = new Transaction("transaction", new byte[] { 1 }, new byte[] { 2 })
+		{
+			@Override
+			public byte[] getHash()
+			{
+				if (armed.compareAndSet(true, false))
+				{
+					polled.countDown();
+					try
+					{
+						resumed.await(10, TimeUnit.SECONDS);
+					}
+					catch (InterruptedException e)
+					{
+						Thread.currentThread().interrupt();
+					}
+				}
+				return super.getHash();
+			}
+		};
+		Transaction added = newTransaction("transaction", drained.getTimestamp());
+		added.setHash(drained.getHash().clone());
+		assertEquals(drained, added);
+		TransactionPool transactionPool = new TransactionPool();
+		assertTrue(transactionPool.add(drained));
+		armed.set(true);
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor())
+		{
+			Future<List<ITransaction>> drain = executor.submit(() -> transactionPool.drain(1));
+			assertTrue(polled.await(10, TimeUnit.SECONDS));
+			transactionPool.remove(added.getHash());
+			assertTrue(transactionPool.add(added));
+			resumed.countDown();
+
+			List<ITransaction> transactions = drain.get();
+			assertEquals(1, transactions.size());
+			assertSame(drained, transactions.get(0));
+		}
+		// the equal transaction that is added after the poll stays pending
+		assertTrue(transactionPool.contains(added.getHash()));
+		assertEquals(1, transactionPool.size());
+		List<ITransaction> transactions = transactionPool.drain(Integer.MAX_VALUE);
+		assertEquals(1, transactions.size());
+		assertSame(added, transactions.get(0));
+	}
+}
@@ -0,0 +1,127 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.blockchain;
+
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import io.github.astrapi69.crypt.api.blockchain.IAddress;
+import io.github.astrapi69.crypt.api.blockchain.ITransaction;
+
+/**
+ * Benchmark that verifies the signatures of the transactions of a block, once sequentially with a
+ * new {@link Signature} and a new decoded public key per transaction and then with a
+ * {@link TransactionVerifier} with a growing number of threads. The number of transactions and the
+ * number of senders can be given as arguments
+ */
+public class TransactionVerifierBenchmark
+{
+
+	public static void main(String[] args) throws GeneralSecurityException
+	{
+		int transactionCount = args.length == 0 ? 5_000 : Integer.parseInt(args[0]);
+		int senderCount = args.length < 2 ? 50 : Integer.parseInt(args[1]);
+		KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+		keyPairGenerator.initialize(2048);
+		Map<ByteBuffer, IAddress> addresses = new HashMap<>();
+		List<Address> senders = new ArrayList<>();
+		List<KeyPair> keyPairs = new ArrayList<>();
+		for (int i = 0; i < senderCount; i++)
+		{
+			KeyPair keyPair = keyPairGenerator.generateKeyPair();
+			Address address = new Address("sender-" + i, keyPair.getPublic().getEncoded());
+			addresses.put(ByteBuffer.wrap(address.getHash()), address);
+			senders.add(address);
+			keyPairs.add(keyPair);
+		}
+		List<ITransaction> transactions = new ArrayList<>();
+		Signature signer = Signature.getInstance(TransactionVerifier.DEFAULT_SIGNATURE_ALGORITHM);
+		for (int i = 0; i < transactionCount; i++)
+		{
+			String text = "transaction-" + i;
+			signer.initSign(keyPairs.get(i % senderCount).getPrivate());
+			signer.update(text.getBytes());
+			transactions.add(new Transaction(text, senders.get(i % senderCount).getHash(),
+				signer.sign()));
+		}
+		Block block = new Block(null, transactions, 0);
+		int processors = Runtime.getRuntime().availableProcessors();
+		System.out.println("transactions: " + transactionCount + ", senders: " + senderCount
+			+ ", processors: " + processors);
+		System.out.println("variant;threads;ms;transactions/s");
+
+		long start = System.nanoTime();
+		for (ITransaction transaction : transactions)
+		{
+			IAddress sender = addresses.get(ByteBuffer.wrap(transaction.getSenderHash()));
+			Signature signature = Signature
+				.getInstance(TransactionVerifier.DEFAULT_SIGNATURE_ALGORITHM);
+			signature.initVerify(KeyFactory.getInstance(TransactionVerifier.DEFAULT_KEY_ALGORITHM)
+				.generatePublic(new X509EncodedKeySpec(sender.getPublicKey())));
+			signature.update(transaction.getSignableData());
+			if (!signature.verify(transaction.getSignature()))
+			{
+				throw new IllegalStateException("Invalid signature");
+			}
+		}
+		print("naive", 1, System.nanoTime() - start, transactionCount);
+
+		for (int threadCount = 1; threadCount <= processors; threadCount <<= 1)
+		{
+			ForkJoinPool pool = new ForkJoinPool(threadCount);
+			TransactionVerifier transactionVerifier = new TransactionVerifier(pool,
+				TransactionVerifier.DEFAULT_THRESHOLD,
+				TransactionVerifier.DEFAULT_SIGNATURE_ALGORITHM,
+				TransactionVerifier.DEFAULT_KEY_ALGORITHM);
+			start = System.nanoTime();
+			boolean valid = transactionVerifier.verify(block,
+				senderHash -> addresses.get(ByteBuffer.wrap(senderHash)));
+			long elapsedNanos = System.nanoTime() - start;
+			pool.shutdown();
+			if (!valid)
+			{
+				throw new IllegalStateException("Invalid signature");
+			}
+			print("verifier", threadCount, elapsedNanos, transactionCount);
+		}
+	}
+
+	private static void print(String variant, int threadCount, long elapsedNanos,
+		int transactionCount)
+	{
+		System.out.printf("%s;%d;%d;%.0f%n", variant, threadCount, elapsedNanos / 1_000_000,
+			transactionCount * 1e9 / elapsedNanos);
+	}
+}
@@ -0,0 +1,226 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.blockchain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.Signature;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.crypt.api.blockchain.IAddress;
+import io.github.astrapi69.crypt.api.blockchain.ITransaction;
+
+/**
+ * The unit test class for the class {@link TransactionVerifier}
+ */
+public class TransactionVerifierTest
+{
+
+	private static KeyPair newKeyPair() throws GeneralSecurityException
+	{
+		KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+		keyPairGenerator.initialize(2048);
+		return keyPairGenerator.generateKeyPair();
+	}
+
+	private static Transaction newTransaction(String text, Address sender, KeyPair keyPair)
+		throws GeneralSecurityException
+	{
+		Signature signature = Signature
+			.getInstance(TransactionVerifier.DEFAULT_SIGNATURE_ALGORITHM);
+		signature.initSign(keyPair.getPrivate());
+		signature.update(text.getBytes());
+		return new Transaction(text, sender.getHash(), signature.sign());
+	}
+
+	private static Function<byte[], IAddress> resolver(Address... addresses)
+	{
+		Map<ByteBuffer, IAddress> addressMap = new HashMap<>();
+		for (Address address : addresses)
+		{
+			addressMap.put(ByteBuffer.wrap(address.getHash()), address);
+		}
+		return senderHash -> addressMap.get(ByteBuffer.wrap(senderHash));
+	}
+
+	/**
+	 * Test method for {@link TransactionVerifier#verify(ITransaction, IAddress)}
+	 *
+	 * @throws GeneralSecurityException
+	 *             is thrown if a security error occurs
+	 */
+	@Test
+	public void testVerify() throws GeneralSecurityException
+	{
+		KeyPair keyPair = newKeyPair();
+		Address sender = new Address("alice", keyPair.getPublic().getEncoded());
+		Address other = new Address("bob", newKeyPair().getPublic().getEncoded());
+		TransactionVerifier transactionVerifier = new TransactionVerifier();
+		Transaction transaction = newTransaction("pay 10 to bob", sender, keyPair);
+
+		assertTrue(transactionVerifier.verify(transaction, sender));
+		assertFalse(transactionVerifier.verify(transaction, other));
+		assertFalse(transactionVerifier.verify(transaction, null));
+
+		transaction.setText("pay 1000 to bob");
+		assertFalse(transactionVerifier.verify(transaction, sender));
+
+		Transaction forged = newTransaction("pay 10 to bob", sender, newKeyPair());
+		assertFalse(transactionVerifier.verify(forged, sender));
+		forged.setSignature(null);
+		assertFalse(transactionVerifier.verify(forged, sender));
+	}
+
+	/**
+	 * Test method for {@link TransactionVerifier#verify(ITransaction, IAddress)} and
+	 * {@link TransactionVerifier#getPublicKey(IAddress)} with a forged address that pairs the hash
+	 * of the victim with the public key of the attacker
+	 *
+	 * @throws GeneralSecurityException
+	 *             is thrown if a security error occurs
+	 */
+	@Test
+	public void testVerifyForgedAddress() throws GeneralSecurityException
+	{
+		KeyPair victimKeyPair = newKeyPair();
+		KeyPair attackerKeyPair = newKeyPair();
+		Address victim = new Address("alice", victimKeyPair.getPublic().getEncoded());
+		Address forged = new Address();
+		forged.setName("alice");
+		forged.setHash(victim.getHash());
+		forged.setPublicKey(attackerKeyPair.getPublic().getEncoded());
+		TransactionVerifier transactionVerifier = new TransactionVerifier();
+		Transaction attackerTransaction = newTransaction("pay 1000 to mallory", victim,
+			attackerKeyPair);
+
+		assertFalse(transactionVerifier.verify(attackerTransaction, forged));
+		assertNull(transactionVerifier.getPublicKey(forged));
+		assertEquals(0, transactionVerifier.getCachedKeyCount());
+
+		Transaction victimTransaction = newTransaction("pay 10 to bob", victim, victimKeyPair);
+		assertTrue(transactionVerifier.verify(victimTransaction, victim));
+		assertFalse(transactionVerifier.verify(attackerTransaction, victim));
+		assertFalse(transactionVerifier.verify(attackerTransaction, forged));
+		assertEquals(victimKeyPair.getPublic(), transactionVerifier.getPublicKey(victim));
+	}
+
+	/**
+	 * Test method for {@link TransactionVerifier#findInvalid(List, Function)} and
+	 * {@link TransactionVerifier#verify(io.github.astrapi69.crypt.api.blockchain.IBlock, Function)}
+	 *
+	 * @throws GeneralSecurityException
+	 *             is thrown if a security error occurs
+	 */
+	@Test
+	public void testFindInvalid() throws GeneralSecurityException
+	{
+		KeyPair aliceKeyPair = newKeyPair();
+		KeyPair bobKeyPair = newKeyPair();
+		Address alice = new Address("alice", aliceKeyPair.getPublic().getEncoded());
+		Address bob = new Address("bob", bobKeyPair.getPublic().getEncoded());
+		Function<byte[], IAddress> addressResolver = resolver(alice, bob);
+		List<ITransaction> transactions = new ArrayList<>();
+		for (int i = 0; i < 100; i++)
+		{
+			transactions.add(i % 2 == 0
+				? newTransaction("transaction-" + i, alice, aliceKeyPair)
+				: newTransaction("transaction-" + i, bob, bobKeyPair));
+		}
+		ForkJoinPool pool = new ForkJoinPool(4);
+		TransactionVerifier transactionVerifier = new TransactionVerifier(pool, 4,
+			TransactionVerifier.DEFAULT_SIGNATURE_ALGORITHM,
+			TransactionVerifier.DEFAULT_KEY_ALGORITHM);
+
+		assertEquals(-1, transactionVerifier.findInvalid(transactions, addressResolver));
+		assertEquals(-1, transactionVerifier.findInvalid(List.of(), addressResolver));
+		assertTrue(transactionVerifier.verify(new Block(null, transactions, 0), addressResolver));
+		assertEquals(2, transactionVerifier.getCachedKeyCount());
+
+		transactions.get(80).setText("tampered");
+		transactions.get(37).setSenderHash(alice.getHash());
+		assertEquals(37, transactionVerifier.findInvalid(transactions, addressResolver));
+		assertFalse(transactionVerifier.verify(new Block(null, transactions, 0), addressResolver));
+		assertEquals(0, transactionVerifier.findInvalid(transactions, resolver()));
+		pool.shutdown();
+	}
+
+	/**
+	 * Test method for {@link TransactionVerifier#getPublicKey(IAddress)}
+	 *
+	 * @throws GeneralSecurityException
+	 *             is thrown if a security error occurs
+	 */
+	@Test
+	public void testGetPublicKey() throws GeneralSecurityException
+	{
+		KeyPair keyPair = newKeyPair();
+		Address address = new Address("alice", keyPair.getPublic().getEncoded());
+		TransactionVerifier transactionVerifier = new TransactionVerifier();
+
+		assertEquals(keyPair.getPublic(), transactionVerifier.getPublicKey(address));
+		assertSame(transactionVerifier.getPublicKey(address),
+			transactionVerifier.getPublicKey(address));
+		assertEquals(1, transactionVerifier.getCachedKeyCount());
+
+		assertNull(transactionVerifier.getPublicKey(new Address("bob", new byte[] { 1, 2, 3 })));
+		assertEquals(1, transactionVerifier.getCachedKeyCount());
+		transactionVerifier.clearCachedKeys();
+		assertEquals(0, transactionVerifier.getCachedKeyCount());
+	}
+
+	/**
+	 * Test method for
+	 * {@link TransactionVerifier#TransactionVerifier(ForkJoinPool, int, String, String)} with
+	 * invalid arguments
+	 */
+	@Test
+	public void testInvalidArguments()
+	{
+		ForkJoinPool pool = ForkJoinPool.commonPool();
+		assertThrows(IllegalArgumentException.class,
+			() -> new TransactionVerifier(pool, 0, "SHA256withRSA", "RSA"));
+		assertThrows(NoSuchAlgorithmException.class,
+			() -> new TransactionVerifier(pool, 1, "SHA256withUnknown", "RSA"));
+		assertThrows(NoSuchAlgorithmException.class,
+			() -> new TransactionVerifier(pool, 1, "SHA256withRSA", "Unknown"));
+	}
+}
@@ -0,0 +1,116 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.cipher;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+
+/**
+ * Benchmark that encrypts and decrypts a temporary file once as a single AES/GCM stream with the
+ * {@link CipherChannelExtensions} and once as a {@link ChunkedAeadContainer} and prints the
+ * throughput. The file size in MiB can be given as argument
+ */
+public class ChunkedAeadContainerBenchmark
+{
+
+	public static void main(String[] args) throws Exception
+	{
+		int sizeInMiB = args.length == 0 ? 128 : Integer.parseInt(args[0]);
+		Path directory = Files.createTempDirectory("aead-benchmark");
+		Path source = directory.resolve("source.bin");
+		Path encrypted = directory.resolve("source.bin.enc");
+		Path decrypted = directory.resolve("source.bin.dec");
+		byte[] data = new byte[1024 * 1024];
+		new Random(7).nextBytes(data);
+		for (int i = 0; i < sizeInMiB; i++)
+		{
+			Files.write(source, data, StandardOpenOption.CREATE,
+				StandardOpenOption.APPEND);
+		}
+		SecretKey key = ChunkedAeadContainer.newKey();
+		ChunkedAeadContainer container = new ChunkedAeadContainer(key);
+		System.out.println("file size MiB: " + sizeInMiB + ", cores: "
+			+ Runtime.getRuntime().availableProcessors());
+		System.out.println("variant;encrypt ms;encrypt MiB/s;decrypt ms;decrypt MiB/s");
+		try
+		{
+			for (int round = 0; round < 3; round++)
+			{
+				byte[] nonce = new byte[12];
+				new Random(round).nextBytes(nonce);
+				GCMParameterSpec paramSpec = new GCMParameterSpec(128, nonce);
+				long start = System.nanoTime();
+				CipherChannelExtensions.encryptFile(source, encrypted,
+					newCipher(Cipher.ENCRYPT_MODE, key, paramSpec));
+				long streamEncryptNanos = System.nanoTime() - start;
+				start = System.nanoTime();
+				CipherChannelExtensions.decryptFile(encrypted, decrypted,
+					newCipher(Cipher.DECRYPT_MODE, key, paramSpec));
+				long streamDecryptNanos = System.nanoTime() - start;
+
+				start = System.nanoTime();
+				container.encrypt(source, encrypted);
+				long containerEncryptNanos = System.nanoTime() - start;
+				start = System.nanoTime();
+				container.decrypt(encrypted, decrypted);
+				long containerDecryptNanos = System.nanoTime() - start;
+				if (round == 2)
+				{
+					print("stream", streamEncryptNanos, streamDecryptNanos, sizeInMiB);
+					print("container", containerEncryptNanos, containerDecryptNanos, sizeInMiB);
+				}
+			}
+		}
+		finally
+		{
+			Files.deleteIfExists(source);
+			Files.deleteIfExists(encrypted);
+			Files.deleteIfExists(decrypted);
+			Files.deleteIfExists(directory);
+		}
+	}
+
+	private static Cipher newCipher(int operationMode, SecretKey key, GCMParameterSpec paramSpec)
+		throws Exception
+	{
+		Cipher cipher = Cipher.getInstance(ChunkedAeadContainer.TRANSFORMATION);
+		cipher.init(operationMode, key, paramSpec);
+		return cipher;
+	}
+
+	private static void print(String variant, long encryptNanos, long decryptNanos,
+		int sizeInMiB)
+	{
+		System.out.printf("%s;%d;%.0f;%d;%.0f%n", variant, encryptNanos / 1_000_000,
+			sizeInMiB * 1e9 / encryptNanos, decryptNanos / 1_000_000,
+			sizeInMiB * 1e9 / decryptNanos);
+	}
+}
@@ -0,0 +1,209 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.cipher;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.crypto.SecretKey;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The unit test class for the class {@link ChunkedAeadContainer}
+ */
+public class ChunkedAeadContainerTest
+{
+
+	/** The segment size of the containers in this test */
+	private static final int SEGMENT_SIZE = 100;
+
+	/** The temporary directory for the files of this test */
+	@TempDir
+	Path tempDir;
+
+	private ChunkedAeadContainer newContainer(SecretKey key)
+	{
+		return new ChunkedAeadContainer(key, SEGMENT_SIZE, ForkJoinPool.commonPool());
+	}
+
+	private Path write(String name, byte[] data) throws IOException
+	{
+		return Files.write(tempDir.resolve(name), data);
+	}
+
+	private static byte[] newData(int length)
+	{
+		byte[] data = new byte[length];
+		new Random(length).nextBytes(data);
+		return data;
+	}
+
+	/**
+	 * Test method for {@link ChunkedAeadContainer#encrypt(Path, Path)} and
+	 * {@link ChunkedAeadContainer#decrypt(Path, Path)}
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testEncryptAndDecrypt() throws Exception
+	{
+		ChunkedAeadContainer container = newContainer(ChunkedAeadContainer.newKey());
+		for (int length : new int[] { 0, 1, 99, 100, 101, 250, 10_000 })
+		{
+			byte[] data = newData(length);
+			Path source = write("source.bin", data);
+			Path encrypted = tempDir.resolve("source.bin.enc");
+			Path decrypted = write("source.bin.dec", new byte[20_000]);
+			int segments = (length + SEGMENT_SIZE - 1) / SEGMENT_SIZE;
+
+			assertEquals(length, container.encrypt(source, encrypted));
+			assertEquals(ChunkedAeadContainer.HEADER_LENGTH + length
+				+ segments * ChunkedAeadContainer.TAG_LENGTH, Files.size(encrypted));
+			assertEquals(length, container.getPlaintextLength(encrypted));
+			assertEquals(length, container.decrypt(encrypted, decrypted));
+			assertArrayEquals(data, Files.readAllBytes(decrypted), "length " + length);
+		}
+	}
+
+	/**
+	 * Test method for {@link ChunkedAeadContainer#decrypt(Path, long, int)}
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testDecryptRange() throws Exception
+	{
+		ChunkedAeadContainer container = newContainer(ChunkedAeadContainer.newKey());
+		byte[] data = newData(1234);
+		Path encrypted = tempDir.resolve("range.enc");
+		container.encrypt(write("range.bin", data), encrypted);
+
+		int[][] ranges = { { 0, 0 }, { 0, 1 }, { 0, 100 }, { 99, 2 }, { 150, 500 }, { 1200, 34 },
+				{ 0, 1234 } };
+		for (int[] range : ranges)
+		{
+			assertArrayEquals(Arrays.copyOfRange(data, range[0], range[0] + range[1]),
+				container.decrypt(encrypted, range[0], range[1]),
+				"range " + range[0] + " " + range[1]);
+		}
+		assertThrows(IndexOutOfBoundsException.class,
+			() -> container.decrypt(encrypted, 1200, 35));
+	}
+
+	/**
+	 * Test method for {@link ChunkedAeadContainer#decrypt(Path, long, int)} that reads only the
+	 * segments of the range
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testDecryptRangeReadsOnlyCoveringSegments() throws Exception
+	{
+		ChunkedAeadContainer container = newContainer(ChunkedAeadContainer.newKey());
+		byte[] data = newData(1000);
+		Path encrypted = tempDir.resolve("partial.enc");
+		container.encrypt(write("partial.bin", data), encrypted);
+		byte[] bytes = Files.readAllBytes(encrypted);
+		bytes[ChunkedAeadContainer.HEADER_LENGTH + 5 * (SEGMENT_SIZE
+			+ ChunkedAeadContainer.TAG_LENGTH)] ^= 1;
+		Files.write(encrypted, bytes);
+
+		assertArrayEquals(Arrays.copyOfRange(data, 100, 500),
+			container.decrypt(encrypted, 100, 400));
+		assertThrows(IOException.class, () -> container.decrypt(encrypted, 450, 100));
+	}
+
+	/**
+	 * Test method for {@link ChunkedAeadContainer#decrypt(Path, Path)} with tampered containers
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testDecryptTampered() throws Exception
+	{
+		SecretKey key = ChunkedAeadContainer.newKey();
+		ChunkedAeadContainer container = newContainer(key);
+		Path encrypted = tempDir.resolve("tampered.enc");
+		Path decrypted = tempDir.resolve("tampered.dec");
+		container.encrypt(write("tampered.bin", newData(450)), encrypted);
+		byte[] original = Files.readAllBytes(encrypted);
+		int segmentLength = SEGMENT_SIZE + ChunkedAeadContainer.TAG_LENGTH;
+
+		byte[] header = original.clone();
+		header[12] ^= 1;
+		Files.write(encrypted, header);
+		assertThrows(IOException.class, () -> container.decrypt(encrypted, decrypted));
+
+		byte[] swapped = original.clone();
+		System.arraycopy(original, ChunkedAeadContainer.HEADER_LENGTH, swapped,
+			ChunkedAeadContainer.HEADER_LENGTH + segmentLength, segmentLength);
+		System.arraycopy(original, ChunkedAeadContainer.HEADER_LENGTH + segmentLength, swapped,
+			ChunkedAeadContainer.HEADER_LENGTH, segmentLength);
+		Files.write(encrypted, swapped);
+		assertThrows(IOException.class, () -> container.decrypt(encrypted, decrypted));
+		assertFalse(Files.exists(decrypted));
+
+		Files.write(encrypted, Arrays.copyOf(original, original.length - 1));
+		assertThrows(IOException.class, () -> container.decrypt(encrypted, decrypted));
+
+		Files.write(encrypted, Arrays.copyOf(original, original.length + 1));
+		assertThrows(IOException.class, () -> container.decrypt(encrypted, decrypted));
+		assertThrows(IOException.class, () -> container.getPlaintextLength(encrypted));
+
+		Files.write(encrypted, original);
+		assertThrows(IOException.class,
+			() -> newContainer(ChunkedAeadContainer.newKey()).decrypt(encrypted, decrypted));
+		assertEquals(450, container.decrypt(encrypted, decrypted));
+	}
+
+	/**
+	 * Test method for {@link ChunkedAeadContainer} constructor with an invalid segment size
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testInvalidSegmentSize() throws Exception
+	{
+		SecretKey key = ChunkedAeadContainer.newKey();
+		assertThrows(IllegalArgumentException.class,
+			() -> new ChunkedAeadContainer(key, 0, ForkJoinPool.commonPool()));
+	}
+}
@@ -0,0 +1,187 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.cipher;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.IvParameterSpec;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The unit test class for the class {@link CipherChannelExtensions}
+ */
+public class CipherChannelExtensionsTest
+{
+
+	/** The temporary directory for the files of this test */
+	@TempDir
+	Path tempDir;
+
+	/**
+	 * Test method for {@link CipherChannelExtensions#encryptFile(Path, Path, Cipher)} and
+	 * {@link CipherChannelExtensions#decryptFile(Path, Path, Cipher)}
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testEncryptFileAndDecryptFile() throws Exception
+	{
+		byte[] data = new byte[100_000];
+		new Random(41).nextBytes(data);
+		Path source = tempDir.resolve("source.bin");
+		Path encrypted = tempDir.resolve("source.bin.enc");
+		Path decrypted = tempDir.resolve("source.bin.dec");
+		Files.write(source, data);
+		Files.write(decrypted, new byte[200_000]);
+
+		assertEquals(data.length, CipherChannelExtensions.encryptFile(source, encrypted,
+			EncryptingChannelTest.newCipher(Cipher.ENCRYPT_MODE)));
+		assertArrayEquals(EncryptingChannelTest.newCipher(Cipher.ENCRYPT_MODE).doFinal(data),
+			Files.readAllBytes(encrypted));
+
+		assertEquals(data.length, CipherChannelExtensions.decryptFile(encrypted, decrypted,
+			EncryptingChannelTest.newCipher(Cipher.DECRYPT_MODE)));
+		assertArrayEquals(data, Files.readAllBytes(decrypted));
+	}
+
+	/**
+	 * Test method for {@link CipherChannelExtensions#decryptFile(Path, Path, Cipher)} that deletes
+	 * the target file if the authentication fails
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testDecryptFileDeletesTargetOnFailure() throws Exception
+	{
+		byte[] data = new byte[100_000];
+		new Random(43).nextBytes(data);
+		Path source = tempDir.resolve("source.bin");
+		Path encrypted = tempDir.resolve("source.bin.enc");
+		Path decrypted = tempDir.resolve("source.bin.dec");
+		Files.write(source, data);
+		Files.write(decrypted, new byte[200_000]);
+
+		CipherChannelExtensions.encryptFile(source, encrypted,
+			newGcmCipher(Cipher.ENCRYPT_MODE));
+		byte[] tampered = Files.readAllBytes(encrypted);
+		tampered[data.length / 2] ^= 1;
+		Files.write(encrypted, tampered);
+
+		assertThrows(IOException.class, () -> CipherChannelExtensions.decryptFile(encrypted,
+			decrypted, newGcmCipher(Cipher.DECRYPT_MODE)));
+		assertFalse(Files.exists(decrypted));
+	}
+
+	/**
+	 * Test method for {@link CipherChannelExtensions#encryptFile(Path, Path, Cipher)} with an
+	 * empty file
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testEncryptFileEmpty() throws Exception
+	{
+		Path source = Files.createFile(tempDir.resolve("empty.bin"));
+		Path encrypted = tempDir.resolve("empty.bin.enc");
+		Path decrypted = tempDir.resolve("empty.bin.dec");
+
+		assertEquals(0, CipherChannelExtensions.encryptFile(source, encrypted,
+			EncryptingChannelTest.newCipher(Cipher.ENCRYPT_MODE)));
+		assertEquals(16, Files.size(encrypted));
+		assertEquals(0, CipherChannelExtensions.decryptFile(encrypted, decrypted,
+			EncryptingChannelTest.newCipher(Cipher.DECRYPT_MODE)));
+		assertEquals(0, Files.size(decrypted));
+	}
+
+	/**
+	 * Test method for
+	 * {@link CipherChannelExtensions#newEncryptingChannel(java.nio.channels.WritableByteChannel, javax.crypto.SecretKey, java.security.spec.AlgorithmParameterSpec, String)}
+	 * and
+	 * {@link CipherChannelExtensions#newDecryptingChannel(java.nio.channels.ReadableByteChannel, javax.crypto.SecretKey, java.security.spec.AlgorithmParameterSpec, String)}
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testNewEncryptingChannelAndNewDecryptingChannel() throws Exception
+	{
+		String algorithm = "AES/CTR/NoPadding";
+		IvParameterSpec iv = new IvParameterSpec(new byte[16]);
+		byte[] data = new byte[1000];
+		new Random(43).nextBytes(data);
+		ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+		try (EncryptingChannel channel = CipherChannelExtensions.newEncryptingChannel(
+			Channels.newChannel(encrypted), EncryptingChannelTest.KEY, iv, algorithm))
+		{
+			channel.write(ByteBuffer.wrap(data));
+		}
+		assertEquals(data.length, encrypted.size());
+
+		byte[] decrypted;
+		try (DecryptingChannel channel = CipherChannelExtensions.newDecryptingChannel(
+			Channels.newChannel(new ByteArrayInputStream(encrypted.toByteArray())),
+			EncryptingChannelTest.KEY, iv, algorithm))
+		{
+			decrypted = Channels.newInputStream(channel).readAllBytes();
+		}
+		assertArrayEquals(data, decrypted);
+	}
+
+	/**
+	 * Creates a new initialized AES/GCM cipher
+	 *
+	 * @param operationMode
+	 *            the operation mode
+	 * @return the new cipher
+	 * @throws Exception
+	 *             is thrown if the cipher can not be created
+	 */
+	private static Cipher newGcmCipher(int operationMode) throws Exception
+	{
+		Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+		cipher.init(operationMode, EncryptingChannelTest.KEY,
+			new GCMParameterSpec(128, new byte[12]));
+		return cipher;
+	}
+}
@@ -0,0 +1,112 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.cipher;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Random;
+
+import javax.crypto.Cipher;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link DecryptingChannel}
+ */
+public class DecryptingChannelTest
+{
+
+	/**
+	 * Test method for {@link DecryptingChannel#read(ByteBuffer)}
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testRead() throws Exception
+	{
+		byte[] data = new byte[10000];
+		new Random(29).nextBytes(data);
+		byte[] encrypted = EncryptingChannelTest.newCipher(Cipher.ENCRYPT_MODE).doFinal(data);
+		for (int chunkSize : new int[] { 1, 15, 16, 100, 8192 })
+		{
+			DecryptingChannel channel = new DecryptingChannel(
+				Channels.newChannel(new ByteArrayInputStream(encrypted)),
+				EncryptingChannelTest.newCipher(Cipher.DECRYPT_MODE), chunkSize);
+			ByteArrayOutputStream target = new ByteArrayOutputStream();
+			ByteBuffer dst = ByteBuffer.allocate(777);
+			int read;
+			while ((read = channel.read(dst)) >= 0)
+			{
+				target.write(dst.array(), 0, read);
+				dst.clear();
+			}
+			assertEquals(-1, channel.read(dst));
+			channel.close();
+
+			assertArrayEquals(data, target.toByteArray(), "chunkSize " + chunkSize);
+			assertFalse(channel.isOpen());
+			assertThrows(ClosedChannelException.class, () -> channel.read(dst));
+		}
+	}
+
+	/**
+	 * Test method for {@link DecryptingChannel#read(ByteBuffer)} with a corrupted final block
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testReadCorrupted() throws Exception
+	{
+		byte[] encrypted = EncryptingChannelTest.newCipher(Cipher.ENCRYPT_MODE)
+			.doFinal(new byte[100]);
+		byte[] truncated = Arrays.copyOf(encrypted, encrypted.length - 1);
+		DecryptingChannel channel = new DecryptingChannel(
+			Channels.newChannel(new ByteArrayInputStream(truncated)),
+			EncryptingChannelTest.newCipher(Cipher.DECRYPT_MODE));
+		ByteBuffer dst = ByteBuffer.allocate(1000);
+
+		IOException exception = assertThrows(IOException.class, () -> {
+			while (channel.read(dst) >= 0)
+			{
+				dst.clear();
+			}
+		});
+		assertInstanceOf(GeneralSecurityException.class, exception.getCause());
+	}
+}
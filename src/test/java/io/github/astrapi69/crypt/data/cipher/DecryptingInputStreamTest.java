@@ -0,0 +1,74 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.cipher;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.Random;
+
+import javax.crypto.Cipher;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link DecryptingInputStream}
+ */
+public class DecryptingInputStreamTest
+{
+
+	/**
+	 * Test method for {@link DecryptingInputStream#read(byte[], int, int)} and
+	 * {@link DecryptingInputStream#read()}
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testRead() throws Exception
+	{
+		byte[] data = new byte[5000];
+		new Random(37).nextBytes(data);
+		byte[] encrypted = EncryptingChannelTest.newCipher(Cipher.ENCRYPT_MODE).doFinal(data);
+		ByteArrayOutputStream target = new ByteArrayOutputStream();
+		try (InputStream inputStream = new DecryptingInputStream(
+			new ByteArrayInputStream(encrypted),
+			EncryptingChannelTest.newCipher(Cipher.DECRYPT_MODE)))
+		{
+			target.write(inputStream.read());
+			byte[] buffer = new byte[333];
+			int read;
+			while ((read = inputStream.read(buffer, 0, buffer.length)) >= 0)
+			{
+				target.write(buffer, 0, read);
+			}
+			assertEquals(-1, inputStream.read());
+		}
+		assertArrayEquals(data, target.toByteArray());
+	}
+}
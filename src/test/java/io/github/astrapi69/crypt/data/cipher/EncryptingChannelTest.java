@@ -0,0 +1,122 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.cipher;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.security.spec.AlgorithmParameterSpec;
+import java.util.Random;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link EncryptingChannel}
+ */
+public class EncryptingChannelTest
+{
+
+	/** The transformation of the ciphers in this test */
+	static final String TRANSFORMATION = "AES/CBC/PKCS5Padding";
+
+	/** The key of the ciphers in this test */
+	static final SecretKey KEY = new SecretKeySpec(new byte[16], "AES");
+
+	/** The initialization vector of the ciphers in this test */
+	static final AlgorithmParameterSpec IV = new IvParameterSpec(new byte[16]);
+
+	/**
+	 * Creates a new initialized cipher with the transformation of this test
+	 *
+	 * @param operationMode
+	 *            the operation mode
+	 * @return the new cipher
+	 * @throws Exception
+	 *             is thrown if the cipher can not be created
+	 */
+	static Cipher newCipher(final int operationMode) throws Exception
+	{
+		Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+		cipher.init(operationMode, KEY, IV);
+		return cipher;
+	}
+
+	/**
+	 * Test method for {@link EncryptingChannel#write(ByteBuffer)} and
+	 * {@link EncryptingChannel#close()}
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testWrite() throws Exception
+	{
+		byte[] data = new byte[10000];
+		new Random(23).nextBytes(data);
+		byte[] expected = newCipher(Cipher.ENCRYPT_MODE).doFinal(data);
+		for (int chunkSize : new int[] { 1, 15, 16, 100, 8192 })
+		{
+			ByteArrayOutputStream target = new ByteArrayOutputStream();
+			EncryptingChannel channel = new EncryptingChannel(Channels.newChannel(target),
+				newCipher(Cipher.ENCRYPT_MODE), chunkSize);
+			ByteBuffer src = ByteBuffer.allocateDirect(data.length);
+			src.put(data).flip();
+			assertEquals(3000, channel.write(src.limit(3000)));
+			assertEquals(3000, src.position());
+			assertEquals(data.length - 3000, channel.write(src.limit(data.length)));
+			assertEquals(0, channel.write(src));
+			channel.close();
+
+			assertArrayEquals(expected, target.toByteArray(), "chunkSize " + chunkSize);
+			assertFalse(channel.isOpen());
+			assertThrows(ClosedChannelException.class, () -> channel.write(ByteBuffer.allocate(1)));
+		}
+	}
+
+	/**
+	 * Test method for {@link EncryptingChannel} constructor with an invalid chunk size
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testInvalidChunkSize() throws Exception
+	{
+		Cipher cipher = newCipher(Cipher.ENCRYPT_MODE);
+		assertThrows(IllegalArgumentException.class, () -> new EncryptingChannel(
+			Channels.newChannel(new ByteArrayOutputStream()), cipher, 0));
+	}
+}
@@ -0,0 +1,66 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.cipher;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.Random;
+
+import javax.crypto.Cipher;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link EncryptingOutputStream}
+ */
+public class EncryptingOutputStreamTest
+{
+
+	/**
+	 * Test method for {@link EncryptingOutputStream#write(byte[], int, int)} and
+	 * {@link EncryptingOutputStream#write(int)}
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testWrite() throws Exception
+	{
+		byte[] data = new byte[5000];
+		new Random(31).nextBytes(data);
+		ByteArrayOutputStream target = new ByteArrayOutputStream();
+		try (OutputStream outputStream = new EncryptingOutputStream(target,
+			EncryptingChannelTest.newCipher(Cipher.ENCRYPT_MODE)))
+		{
+			outputStream.write(data[0]);
+			outputStream.write(data, 1, 2000);
+			outputStream.write(data, 2001, data.length - 2001);
+		}
+		assertArrayEquals(EncryptingChannelTest.newCipher(Cipher.ENCRYPT_MODE).doFinal(data),
+			target.toByteArray());
+	}
+}
@@ -0,0 +1,114 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.cipher;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark for the {@link EnvelopeCryptor} that prints the envelopes per second for one
+ * recipient, the fan out to several recipients once as one envelope per recipient and once as
+ * one envelope for all recipients and the streaming throughput of a large payload. The number of
+ * messages can be given as argument
+ */
+public class EnvelopeCryptorBenchmark
+{
+
+	private static final int RECIPIENT_COUNT = 10;
+
+	public static void main(String[] args) throws Exception
+	{
+		int messageCount = args.length == 0 ? 2_000 : Integer.parseInt(args[0]);
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+		generator.initialize(2048);
+		List<PublicKey> recipients = new ArrayList<>();
+		for (int i = 0; i < RECIPIENT_COUNT; i++)
+		{
+			KeyPair keyPair = generator.generateKeyPair();
+			recipients.add(keyPair.getPublic());
+		}
+		EnvelopeCryptor cryptor = new EnvelopeCryptor();
+		byte[] message = new byte[1024];
+		new Random(3).nextBytes(message);
+		byte[] payload = new byte[64 * 1024 * 1024];
+		new Random(5).nextBytes(payload);
+		System.out.println("messages: " + messageCount + ", message size: " + message.length
+			+ ", recipients: " + RECIPIENT_COUNT);
+		System.out.println("variant;ms;envelopes/s");
+		for (int round = 0; round < 3; round++)
+		{
+			long start = System.nanoTime();
+			for (int i = 0; i < messageCount; i++)
+			{
+				cryptor.encrypt(message, recipients.get(0));
+			}
+			long singleNanos = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			for (int i = 0; i < messageCount / RECIPIENT_COUNT; i++)
+			{
+				for (PublicKey recipient : recipients)
+				{
+					cryptor.encrypt(message, recipient);
+				}
+			}
+			long perRecipientNanos = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			for (int i = 0; i < messageCount / RECIPIENT_COUNT; i++)
+			{
+				cryptor.encrypt(message, recipients);
+			}
+			long multiRecipientNanos = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			cryptor.encrypt(new ByteArrayInputStream(payload), OutputStream.nullOutputStream(),
+				recipients.subList(0, 1));
+			long streamNanos = System.nanoTime() - start;
+			if (round == 2)
+			{
+				print("single recipient", singleNanos, messageCount);
+				print("fan out, envelope per recipient", perRecipientNanos,
+					messageCount / RECIPIENT_COUNT);
+				print("fan out, one envelope", multiRecipientNanos,
+					messageCount / RECIPIENT_COUNT);
+				System.out.printf("stream 64 MiB;%d;%.0f MiB/s%n", streamNanos / 1_000_000,
+					64 * 1e9 / streamNanos);
+			}
+		}
+	}
+
+	private static void print(String variant, long elapsedNanos, int envelopeCount)
+	{
+		System.out.printf("%s;%d;%.0f%n", variant, elapsedNanos / 1_000_000,
+			envelopeCount * 1e9 / elapsedNanos);
+	}
+}
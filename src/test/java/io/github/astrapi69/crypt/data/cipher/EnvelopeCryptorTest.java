@@ -0,0 +1,220 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.cipher;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.InvalidKeyException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.crypt.data.model.AesRsaCryptModel;
+
+/**
+ * The unit test class for the class {@link EnvelopeCryptor}
+ */
+public class EnvelopeCryptorTest
+{
+
+	/** The key pairs of the recipients */
+	private static KeyPair[] keyPairs;
+
+	/** The cryptor under test */
+	private EnvelopeCryptor cryptor;
+
+	/**
+	 * Sets up the key pairs of the recipients and the cryptor
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@BeforeEach
+	public void setUp() throws Exception
+	{
+		if (keyPairs == null)
+		{
+			KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+			generator.initialize(2048);
+			keyPairs = new KeyPair[] { generator.generateKeyPair(), generator.generateKeyPair(),
+					generator.generateKeyPair() };
+		}
+		cryptor = new EnvelopeCryptor();
+	}
+
+	private static byte[] newPayload(int length)
+	{
+		byte[] payload = new byte[length];
+		new Random(length).nextBytes(payload);
+		return payload;
+	}
+
+	/**
+	 * Test method for {@link EnvelopeCryptor#encrypt(byte[], PublicKey)} and
+	 * {@link EnvelopeCryptor#decrypt(AesRsaCryptModel, PrivateKey)}
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testEncryptAndDecryptModel() throws Exception
+	{
+		for (int length : new int[] { 0, 1, 1000 })
+		{
+			byte[] payload = newPayload(length);
+			AesRsaCryptModel model = cryptor.encrypt(payload, keyPairs[0].getPublic());
+
+			assertEquals(256, model.getEncryptedKey().length);
+			assertEquals(EnvelopeCryptor.NONCE_LENGTH + length + EnvelopeCryptor.TAG_LENGTH,
+				model.getSymmetricKeyEncryptedObject().length);
+			assertArrayEquals(payload, cryptor.decrypt(model, keyPairs[0].getPrivate()));
+		}
+	}
+
+	/**
+	 * Test method for {@link EnvelopeCryptor#decrypt(AesRsaCryptModel, PrivateKey)} with a
+	 * tampered model and a wrong private key
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testDecryptModelTampered() throws Exception
+	{
+		AesRsaCryptModel model = cryptor.encrypt(newPayload(100), keyPairs[0].getPublic());
+		model.getSymmetricKeyEncryptedObject()[20] ^= 1;
+
+		assertThrows(GeneralSecurityException.class,
+			() -> cryptor.decrypt(model, keyPairs[0].getPrivate()));
+		assertThrows(GeneralSecurityException.class,
+			() -> cryptor.decrypt(cryptor.encrypt(newPayload(100), keyPairs[0].getPublic()),
+				keyPairs[1].getPrivate()));
+	}
+
+	/**
+	 * Test method for {@link EnvelopeCryptor#encrypt(byte[], java.util.Collection)} and
+	 * {@link EnvelopeCryptor#decrypt(byte[], PrivateKey, PublicKey)} with several recipients
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testEncryptAndDecryptMultipleRecipients() throws Exception
+	{
+		byte[] payload = newPayload(5000);
+		List<PublicKey> recipients = List.of(keyPairs[0].getPublic(), keyPairs[1].getPublic());
+		byte[] envelope = cryptor.encrypt(payload, recipients);
+
+		assertEquals(4 + 1 + 2 + 2 * (EnvelopeCryptor.KEY_ID_LENGTH + 2 + 256)
+			+ EnvelopeCryptor.NONCE_LENGTH + payload.length + EnvelopeCryptor.TAG_LENGTH,
+			envelope.length);
+		for (int i = 0; i < 2; i++)
+		{
+			assertArrayEquals(payload, cryptor.decrypt(envelope, keyPairs[i].getPrivate()));
+			assertArrayEquals(payload, cryptor.decrypt(envelope, keyPairs[i].getPrivate(),
+				keyPairs[i].getPublic()));
+		}
+		assertThrows(InvalidKeyException.class,
+			() -> cryptor.decrypt(envelope, keyPairs[2].getPrivate()));
+		assertThrows(InvalidKeyException.class, () -> cryptor.decrypt(envelope,
+			keyPairs[2].getPrivate(), keyPairs[2].getPublic()));
+	}
+
+	/**
+	 * Test method for {@link EnvelopeCryptor#decrypt(byte[], PrivateKey)} with tampered
+	 * envelopes
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testDecryptEnvelopeTampered() throws Exception
+	{
+		byte[] envelope = cryptor.encrypt(newPayload(300),
+			List.of(keyPairs[0].getPublic(), keyPairs[1].getPublic()));
+		PrivateKey privateKey = keyPairs[0].getPrivate();
+
+		byte[] payload = envelope.clone();
+		payload[payload.length - 100] ^= 1;
+		assertThrows(GeneralSecurityException.class, () -> cryptor.decrypt(payload, privateKey));
+
+		byte[] recipientId = envelope.clone();
+		recipientId[7 + EnvelopeCryptor.KEY_ID_LENGTH + 2 + 256 + 3] ^= 1;
+		assertThrows(GeneralSecurityException.class,
+			() -> cryptor.decrypt(recipientId, privateKey));
+
+		byte[] magic = envelope.clone();
+		magic[0] ^= 1;
+		assertThrows(IOException.class, () -> cryptor.decrypt(magic, privateKey));
+	}
+
+	/**
+	 * Test method for
+	 * {@link EnvelopeCryptor#encrypt(java.io.InputStream, java.io.OutputStream, java.util.Collection)}
+	 * and
+	 * {@link EnvelopeCryptor#decrypt(java.io.InputStream, java.io.OutputStream, PrivateKey, PublicKey)}
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testEncryptAndDecryptStreams() throws Exception
+	{
+		byte[] payload = newPayload(200_000);
+		ByteArrayOutputStream envelope = new ByteArrayOutputStream();
+		cryptor.encrypt(new ByteArrayInputStream(payload), envelope,
+			List.of(keyPairs[2].getPublic()));
+		ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+		cryptor.decrypt(new ByteArrayInputStream(envelope.toByteArray()), decrypted,
+			keyPairs[2].getPrivate(), null);
+
+		assertArrayEquals(payload, decrypted.toByteArray());
+	}
+
+	/**
+	 * Test method for {@link EnvelopeCryptor} constructor and
+	 * {@link EnvelopeCryptor#encrypt(byte[], java.util.Collection)} with invalid arguments
+	 */
+	@Test
+	public void testInvalidArguments()
+	{
+		assertEquals(128, new EnvelopeCryptor(128).getKeySize());
+		assertThrows(IllegalArgumentException.class, () -> new EnvelopeCryptor(100));
+		assertThrows(IllegalArgumentException.class,
+			() -> cryptor.encrypt(new byte[1], List.<PublicKey> of()));
+	}
+}
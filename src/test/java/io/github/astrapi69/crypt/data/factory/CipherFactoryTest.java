@@ -24,12 +24,17 @@
  */
 package io.github.astrapi69.crypt.data.factory;
 
+import static javax.crypto.Cipher.DECRYPT_MODE;
 import static javax.crypto.Cipher.ENCRYPT_MODE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.io.UnsupportedEncodingException;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
+import java.security.Key;
 import java.security.NoSuchAlgorithmException;
 import java.security.Security;
 import java.security.spec.AlgorithmParameterSpec;
@@ -40,6 +45,8 @@ import javax.crypto.Cipher;
 import javax.crypto.NoSuchPaddingException;
 import javax.crypto.SecretKey;
 import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
 
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.junit.jupiter.api.BeforeEach;
@@ -99,6 +106,47 @@ public class CipherFactoryTest
 		assertNotNull(actual);
 	}
 
+	/**
+	 * Test method for {@link CipherFactory#newCipher(CryptModel)} with a cached derived key
+	 */
+	@Test
+	public void testNewCipherCryptModelWithDerivedKeyCache() throws Exception
+	{
+		CryptModel<Cipher, String, String> encryptorModel;
+		CryptModel<Cipher, String, String> decryptorModel;
+		Cipher cipher;
+		byte[] encrypted;
+		long hitCount;
+		long missCount;
+
+		encryptorModel = CryptModel.<Cipher, String, String> builder().key("D1D15ED36B887AF1")
+			.algorithm(SunJCEAlgorithm.PBEWithMD5AndDES).salt(CompoundAlgorithm.SALT)
+			.iterationCount(CompoundAlgorithm.ITERATIONCOUNT).operationMode(ENCRYPT_MODE)
+			.derivedKeyCached(true).build();
+		decryptorModel = encryptorModel.toBuilder().operationMode(DECRYPT_MODE).build();
+
+		cipher = CipherFactory.newCipher(encryptorModel);
+		// the cached key and iv are used with the underlying cipher, so Cipher.init does not
+		// run the iterations of the PBE cipher
+		assertEquals("DES/CBC/PKCS5Padding", cipher.getAlgorithm());
+		encrypted = cipher.doFinal("secret".getBytes());
+		hitCount = DerivedKeyCache.getInstance().getHitCount();
+		missCount = DerivedKeyCache.getInstance().getMissCount();
+
+		cipher = CipherFactory.newCipher(decryptorModel);
+		assertEquals("DES/CBC/PKCS5Padding", cipher.getAlgorithm());
+		assertArrayEquals("secret".getBytes(), cipher.doFinal(encrypted));
+		assertEquals(hitCount + 1, DerivedKeyCache.getInstance().getHitCount());
+		assertEquals(missCount, DerivedKeyCache.getInstance().getMissCount());
+
+		assertThrows(NoSuchAlgorithmException.class, () -> CipherFactory.newCipher(encryptorModel
+			.toBuilder().algorithm(CompoundAlgorithm.PBE_WITH_SHA1_AND_DES_EDE).build()));
+
+		encryptorModel.setDerivedKeyCached(false);
+		assertArrayEquals(encrypted,
+			CipherFactory.newCipher(encryptorModel).doFinal("secret".getBytes()));
+	}
+
 	/**
 	 * Test method for
 	 * {@link CipherFactory#newCipher(int, SecretKey, AlgorithmParameterSpec, String)}
@@ -248,6 +296,63 @@ public class CipherFactoryTest
 		assertNotNull(cipher);
 	}
 
+	/**
+	 * Test method for {@link CipherFactory#borrowCipher(int, Key, AlgorithmParameterSpec, String)}
+	 * and {@link CipherFactory#releaseCipher(String, Cipher)}
+	 */
+	@Test
+	public void testBorrowCipher() throws Exception
+	{
+		String algorithm;
+		SecretKey key;
+		AlgorithmParameterSpec paramSpec;
+		Cipher cipher;
+		byte[] encrypted;
+		long borrowedCount;
+
+		algorithm = "AES/CBC/PKCS5Padding";
+		key = new SecretKeySpec(new byte[16], "AES");
+		paramSpec = new IvParameterSpec(new byte[16]);
+		borrowedCount = CipherPool.getInstance().getBorrowedCount();
+
+		cipher = CipherFactory.borrowCipher(ENCRYPT_MODE, key, paramSpec, algorithm);
+		encrypted = cipher.doFinal("secret".getBytes());
+		CipherFactory.releaseCipher(algorithm, cipher);
+
+		cipher = CipherFactory.borrowCipher(DECRYPT_MODE, key, paramSpec, algorithm);
+		assertArrayEquals("secret".getBytes(), cipher.doFinal(encrypted));
+		CipherFactory.releaseCipher(algorithm, cipher);
+		assertEquals(borrowedCount, CipherPool.getInstance().getBorrowedCount());
+
+		assertThrows(InvalidKeyException.class, () -> CipherFactory.borrowCipher(ENCRYPT_MODE,
+			new SecretKeySpec(new byte[5], "AES"), paramSpec, algorithm));
+		assertEquals(borrowedCount, CipherPool.getInstance().getBorrowedCount());
+	}
+
+	/**
+	 * Test method for {@link CipherFactory#borrowCipher(int, Key, String)} and
+	 * {@link CipherFactory#releaseCipher(String, String, Cipher)}
+	 */
+	@Test
+	public void testBorrowCipherWithoutParameterSpec() throws Exception
+	{
+		String algorithm;
+		SecretKey key;
+		Cipher cipher;
+
+		algorithm = "AES/ECB/PKCS5Padding";
+		key = new SecretKeySpec(new byte[16], "AES");
+
+		cipher = CipherFactory.borrowCipher(ENCRYPT_MODE, key, algorithm);
+		assertEquals(16, cipher.doFinal("secret".getBytes()).length);
+		CipherFactory.releaseCipher(algorithm, cipher);
+
+		cipher = CipherFactory.borrowCipher(ENCRYPT_MODE, key, null, algorithm,
+			SecurityProvider.BC.name());
+		assertEquals(SecurityProvider.BC.name(), cipher.getProvider().getName());
+		CipherFactory.releaseCipher(algorithm, SecurityProvider.BC.name(), cipher);
+	}
+
 	/**
 	 * Test method for {@link CipherFactory} with {@link BeanTester}
 	 */
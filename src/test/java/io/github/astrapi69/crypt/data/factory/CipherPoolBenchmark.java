@@ -0,0 +1,87 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.factory;
+
+import java.security.GeneralSecurityException;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Benchmark that encrypts small messages once with a new {@link Cipher} per message and once with
+ * a {@link Cipher} that is borrowed from the {@link CipherPool} and prints the encryptions per
+ * second and the average borrow time. The number of messages can be given as argument
+ */
+public class CipherPoolBenchmark
+{
+
+	private static final String ALGORITHM = "AES/CBC/PKCS5Padding";
+
+	public static void main(String[] args) throws GeneralSecurityException
+	{
+		int messageCount = args.length == 0 ? 200_000 : Integer.parseInt(args[0]);
+		SecretKey key = new SecretKeySpec(new byte[16], "AES");
+		IvParameterSpec paramSpec = new IvParameterSpec(new byte[16]);
+		byte[] message = new byte[64];
+		System.out.println("messages: " + messageCount + ", message size: " + message.length);
+		System.out.println("variant;ms;encryptions/s");
+		for (int round = 0; round < 3; round++)
+		{
+			long start = System.nanoTime();
+			for (int i = 0; i < messageCount; i++)
+			{
+				CipherFactory.newCipher(Cipher.ENCRYPT_MODE, key, paramSpec, ALGORITHM)
+					.doFinal(message);
+			}
+			long newNanos = System.nanoTime() - start;
+
+			CipherPool.getInstance().resetStatistics();
+			start = System.nanoTime();
+			for (int i = 0; i < messageCount; i++)
+			{
+				Cipher cipher = CipherFactory.borrowCipher(Cipher.ENCRYPT_MODE, key, paramSpec,
+					ALGORITHM);
+				cipher.doFinal(message);
+				CipherFactory.releaseCipher(ALGORITHM, cipher);
+			}
+			long pooledNanos = System.nanoTime() - start;
+			if (round == 2)
+			{
+				print("new", newNanos, messageCount);
+				print("pooled", pooledNanos, messageCount);
+				System.out.printf("average borrow ns: %.0f%n",
+					CipherPool.getInstance().getAverageBorrowNanos());
+			}
+		}
+	}
+
+	private static void print(String variant, long elapsedNanos, int messageCount)
+	{
+		System.out.printf("%s;%d;%.0f%n", variant, elapsedNanos / 1_000_000,
+			messageCount * 1e9 / elapsedNanos);
+	}
+}
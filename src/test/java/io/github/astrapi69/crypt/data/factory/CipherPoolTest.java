@@ -0,0 +1,211 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.factory;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.NoSuchProviderException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link CipherPool}
+ */
+public class CipherPoolTest
+{
+
+	private static final String TRANSFORMATION = "AES/CBC/PKCS5Padding";
+
+	/**
+	 * Test method for {@link CipherPool#borrow(String)} and
+	 * {@link CipherPool#release(String, Cipher)}
+	 *
+	 * @throws Exception
+	 *             is thrown if a cipher can not be created
+	 */
+	@Test
+	public void testBorrowAndRelease() throws Exception
+	{
+		CipherPool cipherPool = new CipherPool(4);
+		Cipher cipher = cipherPool.borrow(TRANSFORMATION);
+		assertEquals(TRANSFORMATION, cipher.getAlgorithm());
+		assertEquals(1, cipherPool.getMissCount());
+		assertEquals(1, cipherPool.getBorrowedCount());
+		assertEquals(0, cipherPool.getIdleCount());
+
+		cipherPool.release(TRANSFORMATION, cipher);
+		assertEquals(0, cipherPool.getBorrowedCount());
+		assertEquals(1, cipherPool.getIdleCount());
+
+		assertSame(cipher, cipherPool.borrow(TRANSFORMATION));
+		assertEquals(1, cipherPool.getHitCount());
+		assertEquals(1, cipherPool.getMissCount());
+		assertTrue(0 < cipherPool.getAverageBorrowNanos());
+
+		cipherPool.resetStatistics();
+		assertEquals(0, cipherPool.getHitCount());
+		assertEquals(0, cipherPool.getMissCount());
+		assertEquals(0.0, cipherPool.getAverageBorrowNanos());
+	}
+
+	/**
+	 * Test method for {@link CipherPool#release(String, Cipher)} that resets the cipher, so the
+	 * next borrower can not use it before it is initialized
+	 *
+	 * @throws Exception
+	 *             is thrown if a cipher can not be created
+	 */
+	@Test
+	public void testReleaseResetsCipher() throws Exception
+	{
+		CipherPool cipherPool = new CipherPool(4);
+		SecretKeySpec key = new SecretKeySpec(new byte[16], "AES");
+		IvParameterSpec iv = new IvParameterSpec(new byte[16]);
+		Cipher cipher = cipherPool.borrow(TRANSFORMATION);
+		cipher.init(Cipher.ENCRYPT_MODE, key, iv);
+		byte[] encrypted = cipher.doFinal("secret".getBytes());
+		cipherPool.release(TRANSFORMATION, cipher);
+
+		Cipher borrowed = cipherPool.borrow(TRANSFORMATION);
+		assertSame(cipher, borrowed);
+		assertThrows(IllegalStateException.class, () -> borrowed.doFinal("secret".getBytes()));
+		assertThrows(IllegalStateException.class, () -> borrowed.update(encrypted));
+		assertEquals(0, cipherPool.getDropCount());
+
+		borrowed.init(Cipher.DECRYPT_MODE, key, iv);
+		assertArrayEquals("secret".getBytes(), borrowed.doFinal(encrypted));
+	}
+
+	/**
+	 * Test method for {@link CipherPool#borrow(String, String)} and
+	 * {@link CipherPool#release(String, String, Cipher)}
+	 *
+	 * @throws Exception
+	 *             is thrown if a cipher can not be created
+	 */
+	@Test
+	public void testBorrowWithProvider() throws Exception
+	{
+		CipherPool cipherPool = new CipherPool(4);
+		Cipher cipher = cipherPool.borrow(TRANSFORMATION, "SunJCE");
+		assertEquals("SunJCE", cipher.getProvider().getName());
+		cipherPool.release(TRANSFORMATION, "SunJCE", cipher);
+
+		assertNotSame(cipher, cipherPool.borrow(TRANSFORMATION));
+		assertSame(cipher, cipherPool.borrow(TRANSFORMATION, "SunJCE"));
+		assertEquals(1, cipherPool.getHitCount());
+		assertEquals(2, cipherPool.getMissCount());
+	}
+
+	/**
+	 * Test method for {@link CipherPool#release(String, Cipher)} with a full pool
+	 *
+	 * @throws Exception
+	 *             is thrown if a cipher can not be created
+	 */
+	@Test
+	public void testReleaseToFullPool() throws Exception
+	{
+		CipherPool cipherPool = new CipherPool(2);
+		List<Cipher> ciphers = new ArrayList<>();
+		for (int i = 0; i < 3; i++)
+		{
+			ciphers.add(cipherPool.borrow(TRANSFORMATION));
+		}
+		for (Cipher cipher : ciphers)
+		{
+			cipherPool.release(TRANSFORMATION, cipher);
+		}
+		assertEquals(2, cipherPool.getIdleCount());
+		assertEquals(1, cipherPool.getDropCount());
+		assertEquals(0, cipherPool.getBorrowedCount());
+
+		cipherPool.clear();
+		assertEquals(0, cipherPool.getIdleCount());
+	}
+
+	/**
+	 * Test method for {@link CipherPool#borrow(String)} from several threads
+	 *
+	 * @throws Exception
+	 *             is thrown if a cipher can not be created
+	 */
+	@Test
+	public void testConcurrentBorrow() throws Exception
+	{
+		CipherPool cipherPool = new CipherPool(4);
+		ExecutorService executorService = Executors.newFixedThreadPool(8);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < 8; i++)
+		{
+			futures.add(executorService.submit(() -> {
+				for (int j = 0; j < 1000; j++)
+				{
+					Cipher cipher = cipherPool.borrow(TRANSFORMATION);
+					cipherPool.release(TRANSFORMATION, cipher);
+				}
+				return null;
+			}));
+		}
+		for (Future<?> future : futures)
+		{
+			future.get();
+		}
+		executorService.shutdown();
+		assertEquals(0, cipherPool.getBorrowedCount());
+		assertEquals(8000, cipherPool.getHitCount() + cipherPool.getMissCount());
+		assertTrue(cipherPool.getMissCount() <= 8 + cipherPool.getDropCount());
+		assertTrue(cipherPool.getIdleCount() <= 4);
+	}
+
+	/**
+	 * Test method for {@link CipherPool} with invalid arguments
+	 */
+	@Test
+	public void testInvalidArguments()
+	{
+		CipherPool cipherPool = new CipherPool(1);
+		assertThrows(IllegalArgumentException.class, () -> new CipherPool(0));
+		assertThrows(NoSuchAlgorithmException.class, () -> cipherPool.borrow("Unknown"));
+		assertThrows(NoSuchProviderException.class,
+			() -> cipherPool.borrow(TRANSFORMATION, "UnknownProvider"));
+		assertEquals(0, cipherPool.getBorrowedCount());
+	}
+}
@@ -0,0 +1,75 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.factory;
+
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * Benchmark that derives the same PBKDF2 key repeatedly, once with a {@link SecretKeyFactory} per
+ * request and once from a {@link DerivedKeyCache}, and prints the microseconds per request. The
+ * number of requests and the iteration count can be given as arguments
+ */
+public class DerivedKeyCacheBenchmark
+{
+
+	private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+
+	public static void main(String[] args) throws GeneralSecurityException
+	{
+		int requestCount = args.length == 0 ? 100 : Integer.parseInt(args[0]);
+		int iterationCount = args.length < 2 ? 100_000 : Integer.parseInt(args[1]);
+		char[] password = "secret".toCharArray();
+		byte[] salt = new byte[16];
+		DerivedKeyCache derivedKeyCache = new DerivedKeyCache(DerivedKeyCache.DEFAULT_MAX_SIZE,
+			Duration.ofMinutes(1));
+		System.out.println("requests: " + requestCount + ", iterations: " + iterationCount);
+		System.out.println("variant;us/request");
+
+		long start = System.nanoTime();
+		for (int i = 0; i < requestCount; i++)
+		{
+			SecretKeyFactory.getInstance(ALGORITHM)
+				.generateSecret(new PBEKeySpec(password, salt, iterationCount, 256));
+		}
+		print("derived", System.nanoTime() - start, requestCount);
+
+		start = System.nanoTime();
+		for (int i = 0; i < requestCount; i++)
+		{
+			derivedKeyCache.getOrDerive(ALGORITHM, password, salt, iterationCount, 256);
+		}
+		print("cached", System.nanoTime() - start, requestCount);
+		System.out.printf("hit rate: %.2f%n", derivedKeyCache.getHitRate());
+	}
+
+	private static void print(String variant, long elapsedNanos, int requestCount)
+	{
+		System.out.printf("%s;%.1f%n", variant, elapsedNanos / 1e3 / requestCount);
+	}
+}
@@ -0,0 +1,248 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.factory;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.spec.InvalidKeySpecException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.PBEParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link DerivedKeyCache}
+ */
+public class DerivedKeyCacheTest
+{
+
+	private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+
+	private static final int KEY_LENGTH = 128;
+
+	private static final byte[] SALT = { 1, 2, 3, 4, 5, 6, 7, 8 };
+
+	private static void assertSameKey(SecretKey expected, SecretKey actual)
+	{
+		assertNotSame(expected, actual);
+		assertEquals(expected.getAlgorithm(), actual.getAlgorithm());
+		assertArrayEquals(expected.getEncoded(), actual.getEncoded());
+	}
+
+	private static void assertUsable(SecretKey key) throws Exception
+	{
+		Cipher cipher = Cipher.getInstance("AES/ECB/PKCS5Padding");
+		cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key.getEncoded(), "AES"));
+		assertEquals(16, cipher.doFinal(new byte[8]).length);
+	}
+
+	/**
+	 * Test method for {@link DerivedKeyCache#getOrDerive(String, char[], byte[], int)} and
+	 * {@link DerivedKeyCache#getOrDerive(String, char[], byte[], int, int)}
+	 *
+	 * @throws Exception
+	 *             is thrown if the key can not be derived
+	 */
+	@Test
+	public void testGetOrDerive() throws Exception
+	{
+		DerivedKeyCache derivedKeyCache = new DerivedKeyCache(16, Duration.ofMinutes(1));
+		SecretKey key = derivedKeyCache.getOrDerive(ALGORITHM, "secret".toCharArray(), SALT, 1000,
+			KEY_LENGTH);
+		assertEquals(ALGORITHM, key.getAlgorithm());
+		assertEquals(16, key.getEncoded().length);
+		assertEquals(0.0, derivedKeyCache.getHitRate());
+
+		assertSameKey(key, derivedKeyCache.getOrDerive(ALGORITHM, "secret".toCharArray(), SALT,
+			1000, KEY_LENGTH));
+		assertEquals(1, derivedKeyCache.getHitCount());
+		assertEquals(1, derivedKeyCache.getMissCount());
+		assertEquals(0.5, derivedKeyCache.getHitRate());
+
+		assertNotSame(key, derivedKeyCache.getOrDerive(ALGORITHM, "Secret".toCharArray(), SALT,
+			1000, KEY_LENGTH));
+		assertNotSame(key, derivedKeyCache.getOrDerive(ALGORITHM, "secret".toCharArray(),
+			new byte[] { 1, 2, 3, 4, 5, 6, 7, 9 }, 1000, KEY_LENGTH));
+		assertNotSame(key, derivedKeyCache.getOrDerive(ALGORITHM, "secret".toCharArray(), SALT,
+			999, KEY_LENGTH));
+		assertNotSame(key, derivedKeyCache.getOrDerive("PBKDF2WithHmacSHA1",
+			"secret".toCharArray(), SALT, 1000, KEY_LENGTH));
+		SecretKey longKey = derivedKeyCache.getOrDerive(ALGORITHM, "secret".toCharArray(), SALT,
+			1000, 256);
+		assertEquals(32, longKey.getEncoded().length);
+		assertSameKey(longKey,
+			derivedKeyCache.getOrDerive(ALGORITHM, "secret".toCharArray(), SALT, 1000, 256));
+		assertEquals(6, derivedKeyCache.size());
+		assertEquals(6, derivedKeyCache.getMissCount());
+
+		derivedKeyCache.resetStatistics();
+		assertEquals(0, derivedKeyCache.getHitCount());
+		derivedKeyCache.clear();
+		assertEquals(0, derivedKeyCache.size());
+		assertFalse(key.isDestroyed());
+		assertUsable(key);
+	}
+
+	/**
+	 * Test method for {@link DerivedKeyCache#getOrDerive(String, char[], byte[], int)} with an
+	 * algorithm whose SecretKeyFactory does not derive a key
+	 */
+	@Test
+	public void testGetOrDerivePBEWith()
+	{
+		DerivedKeyCache derivedKeyCache = new DerivedKeyCache(16, Duration.ofMinutes(1));
+		assertThrows(InvalidKeySpecException.class, () -> derivedKeyCache
+			.getOrDerive("PBEWithMD5AndDES", "secret".toCharArray(), SALT, 1000));
+		assertThrows(InvalidKeySpecException.class, () -> derivedKeyCache
+			.getOrDerive("pbewithsha1anddesede", "secret".toCharArray(), SALT, 1000));
+		assertEquals(0, derivedKeyCache.size());
+		assertEquals(0, derivedKeyCache.getMissCount());
+	}
+
+	/**
+	 * Test method for {@link DerivedKeyCache#getOrDeriveCipherKey(String, char[], byte[], int)}
+	 *
+	 * @throws Exception
+	 *             is thrown if the key can not be derived
+	 */
+	@Test
+	public void testGetOrDeriveCipherKey() throws Exception
+	{
+		DerivedKeyCache derivedKeyCache = new DerivedKeyCache(16, Duration.ofMinutes(1));
+		SecretKey key = derivedKeyCache.getOrDeriveCipherKey("PBEWithMD5AndDES",
+			"secret".toCharArray(), SALT, 1000);
+		assertEquals(16, key.getEncoded().length);
+		assertSameKey(key, derivedKeyCache.getOrDeriveCipherKey("PBEWithMD5AndDES",
+			"secret".toCharArray(), SALT, 1000));
+		assertEquals(1, derivedKeyCache.getHitCount());
+		assertEquals(1, derivedKeyCache.getMissCount());
+
+		byte[] encoded = key.getEncoded();
+		Cipher cipher = Cipher.getInstance("DES/CBC/PKCS5Padding");
+		cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(encoded, 0, 8, "DES"),
+			new IvParameterSpec(encoded, 8, 8));
+		Cipher pbeCipher = Cipher.getInstance("PBEWithMD5AndDES");
+		pbeCipher.init(Cipher.ENCRYPT_MODE,
+			SecretKeyFactory.getInstance("PBEWithMD5AndDES")
+				.generateSecret(new PBEKeySpec("secret".toCharArray())),
+			new PBEParameterSpec(SALT, 1000));
+		assertArrayEquals(pbeCipher.doFinal("plain".getBytes()),
+			cipher.doFinal("plain".getBytes()));
+
+		SecretKey tripleDesKey = derivedKeyCache.getOrDeriveCipherKey("PBEWithMD5AndTripleDES",
+			"secret".toCharArray(), SALT, 1000);
+		assertEquals(32, tripleDesKey.getEncoded().length);
+		assertThrows(NoSuchAlgorithmException.class, () -> derivedKeyCache
+			.getOrDeriveCipherKey("PBEWithSHA1AndDESede", "secret".toCharArray(), SALT, 1000));
+		assertEquals(2, derivedKeyCache.size());
+	}
+
+	/**
+	 * Test method for {@link DerivedKeyCache} with a full cache
+	 *
+	 * @throws Exception
+	 *             is thrown if the key can not be derived
+	 */
+	@Test
+	public void testMaxSize() throws Exception
+	{
+		DerivedKeyCache derivedKeyCache = new DerivedKeyCache(2, Duration.ofMinutes(1));
+		SecretKey first = derivedKeyCache.getOrDerive(ALGORITHM, "first".toCharArray(), SALT, 10,
+			KEY_LENGTH);
+		SecretKey second = derivedKeyCache.getOrDerive(ALGORITHM, "second".toCharArray(), SALT,
+			10, KEY_LENGTH);
+		assertSameKey(first,
+			derivedKeyCache.getOrDerive(ALGORITHM, "first".toCharArray(), SALT, 10, KEY_LENGTH));
+		derivedKeyCache.getOrDerive(ALGORITHM, "third".toCharArray(), SALT, 10, KEY_LENGTH);
+
+		assertEquals(2, derivedKeyCache.size());
+		assertEquals(1, derivedKeyCache.getEvictionCount());
+		assertUsable(second);
+		assertSameKey(first,
+			derivedKeyCache.getOrDerive(ALGORITHM, "first".toCharArray(), SALT, 10, KEY_LENGTH));
+		assertEquals(2, derivedKeyCache.getHitCount());
+		assertSameKey(second,
+			derivedKeyCache.getOrDerive(ALGORITHM, "second".toCharArray(), SALT, 10, KEY_LENGTH));
+		assertEquals(4, derivedKeyCache.getMissCount());
+	}
+
+	/**
+	 * Test method for {@link DerivedKeyCache} with expired keys
+	 *
+	 * @throws Exception
+	 *             is thrown if the key can not be derived
+	 */
+	@Test
+	public void testTimeToLive() throws Exception
+	{
+		AtomicLong nanoTime = new AtomicLong();
+		DerivedKeyCache derivedKeyCache = new DerivedKeyCache(16, Duration.ofSeconds(10),
+			nanoTime::get);
+		SecretKey key = derivedKeyCache.getOrDerive(ALGORITHM, "secret".toCharArray(), SALT, 10,
+			KEY_LENGTH);
+		nanoTime.addAndGet(Duration.ofSeconds(9).toNanos());
+		assertSameKey(key,
+			derivedKeyCache.getOrDerive(ALGORITHM, "secret".toCharArray(), SALT, 10, KEY_LENGTH));
+		assertEquals(1, derivedKeyCache.getHitCount());
+
+		nanoTime.addAndGet(Duration.ofSeconds(1).toNanos());
+		SecretKey renewed = derivedKeyCache.getOrDerive(ALGORITHM, "secret".toCharArray(), SALT,
+			10, KEY_LENGTH);
+		assertSameKey(key, renewed);
+		assertEquals(2, derivedKeyCache.getMissCount());
+		assertEquals(1, derivedKeyCache.getEvictionCount());
+		assertUsable(key);
+		assertEquals(1, derivedKeyCache.size());
+	}
+
+	/**
+	 * Test method for {@link DerivedKeyCache} with invalid arguments
+	 */
+	@Test
+	public void testInvalidArguments()
+	{
+		DerivedKeyCache derivedKeyCache = new DerivedKeyCache(1, Duration.ofSeconds(1));
+		assertThrows(IllegalArgumentException.class,
+			() -> new DerivedKeyCache(0, Duration.ofSeconds(1)));
+		assertThrows(IllegalArgumentException.class,
+			() -> new DerivedKeyCache(1, Duration.ZERO));
+		assertThrows(NoSuchAlgorithmException.class, () -> derivedKeyCache.getOrDerive("Unknown",
+			"secret".toCharArray(), SALT, 10, KEY_LENGTH));
+		assertEquals(0, derivedKeyCache.size());
+	}
+}
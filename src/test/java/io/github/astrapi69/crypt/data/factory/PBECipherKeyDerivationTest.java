@@ -0,0 +1,132 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.factory;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.spec.InvalidKeySpecException;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.PBEParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link PBECipherKeyDerivation}
+ */
+public class PBECipherKeyDerivationTest
+{
+
+	private static final byte[] SALT = { 1, 2, 3, 4, 5, 6, 7, 8 };
+
+	private static final byte[] PLAIN = "The quick brown fox jumps over the lazy dog".getBytes();
+
+	private static void assertSameCiphertext(String algorithm, String password, byte[] salt,
+		int iterationCount) throws Exception
+	{
+		byte[] derived = PBECipherKeyDerivation.derive(algorithm, password.toCharArray(), salt,
+			iterationCount);
+		int keyLength = derived.length - PBECipherKeyDerivation.IV_LENGTH;
+		Cipher cipher = Cipher.getInstance(PBECipherKeyDerivation.getTransformation(algorithm));
+		cipher.init(Cipher.ENCRYPT_MODE,
+			new SecretKeySpec(derived, 0, keyLength,
+				PBECipherKeyDerivation.getKeyAlgorithm(algorithm)),
+			new IvParameterSpec(derived, keyLength, PBECipherKeyDerivation.IV_LENGTH));
+
+		Cipher pbeCipher = Cipher.getInstance(algorithm);
+		pbeCipher.init(Cipher.ENCRYPT_MODE,
+			SecretKeyFactory.getInstance(algorithm)
+				.generateSecret(new PBEKeySpec(password.toCharArray())),
+			new PBEParameterSpec(salt, iterationCount));
+		assertArrayEquals(pbeCipher.doFinal(PLAIN), cipher.doFinal(PLAIN));
+	}
+
+	/**
+	 * Test method for {@link PBECipherKeyDerivation#derive(String, char[], byte[], int)}
+	 *
+	 * @throws Exception
+	 *             is thrown if the key can not be derived
+	 */
+	@Test
+	public void testDerive() throws Exception
+	{
+		assertEquals(16, PBECipherKeyDerivation
+			.derive("PBEWithMD5AndDES", "secret".toCharArray(), SALT, 1).length);
+		assertEquals(32, PBECipherKeyDerivation
+			.derive("PBEWithMD5AndTripleDES", "secret".toCharArray(), SALT, 1).length);
+		for (int iterationCount : new int[] { 1, 2, 1000 })
+		{
+			assertSameCiphertext("PBEWithMD5AndDES", "secret", SALT, iterationCount);
+			assertSameCiphertext("PBEWithMD5AndTripleDES", "secret", SALT, iterationCount);
+		}
+		assertSameCiphertext("PBEWithMD5AndDES", "", SALT, 19);
+		assertSameCiphertext("PBEWithMD5AndTripleDES", "secret",
+			new byte[] { 1, 2, 3, 4, 1, 2, 3, 4 }, 19);
+	}
+
+	/**
+	 * Test method for {@link PBECipherKeyDerivation#isSupported(String)},
+	 * {@link PBECipherKeyDerivation#getKeyAlgorithm(String)} and
+	 * {@link PBECipherKeyDerivation#getTransformation(String)}
+	 */
+	@Test
+	public void testAlgorithms()
+	{
+		assertTrue(PBECipherKeyDerivation.isSupported("PBEWithMD5AndDES"));
+		assertTrue(PBECipherKeyDerivation.isSupported("pbewithmd5andtripledes"));
+		assertFalse(PBECipherKeyDerivation.isSupported("PBEWithSHA1AndDESede"));
+		assertEquals("DES", PBECipherKeyDerivation.getKeyAlgorithm("PBEWithMD5AndDES"));
+		assertEquals("DESede/CBC/PKCS5Padding",
+			PBECipherKeyDerivation.getTransformation("PBEWithMD5AndTripleDES"));
+		assertNull(PBECipherKeyDerivation.getKeyAlgorithm("PBKDF2WithHmacSHA256"));
+	}
+
+	/**
+	 * Test method for {@link PBECipherKeyDerivation#derive(String, char[], byte[], int)} with
+	 * invalid arguments
+	 */
+	@Test
+	public void testDeriveInvalidArguments()
+	{
+		assertThrows(NoSuchAlgorithmException.class, () -> PBECipherKeyDerivation
+			.derive("PBEWithSHA1AndDESede", "secret".toCharArray(), SALT, 1));
+		assertThrows(InvalidKeySpecException.class, () -> PBECipherKeyDerivation
+			.derive("PBEWithMD5AndDES", "secret".toCharArray(), new byte[7], 1));
+		assertThrows(InvalidKeySpecException.class, () -> PBECipherKeyDerivation
+			.derive("PBEWithMD5AndDES", "secret".toCharArray(), SALT, 0));
+		assertThrows(InvalidKeySpecException.class, () -> PBECipherKeyDerivation
+			.derive("PBEWithMD5AndDES", "s\u00e4cret".toCharArray(), SALT, 1));
+	}
+}
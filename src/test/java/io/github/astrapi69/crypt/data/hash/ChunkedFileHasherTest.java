@@ -0,0 +1,166 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.hash;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.astrapi69.crypt.api.algorithm.HashAlgorithm;
+
+/**
+ * The unit test class for the class {@link ChunkedFileHasher}
+ */
+public class ChunkedFileHasherTest
+{
+
+	@TempDir
+	Path tempDir;
+
+	ForkJoinPool pool;
+
+	ChunkedFileHasher hasher;
+
+	@BeforeEach
+	void setUp()
+	{
+		pool = new ForkJoinPool(4);
+		hasher = new ChunkedFileHasher(HashAlgorithm.SHA_256, 1000, pool);
+	}
+
+	@AfterEach
+	void tearDown()
+	{
+		pool.shutdown();
+	}
+
+	/**
+	 * Test method for {@link ChunkedFileHasher#hash(Path)}
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Test
+	public void testHash() throws IOException
+	{
+		byte[] data = new byte[10 * 1000 + 7];
+		new Random(3).nextBytes(data);
+		Path file = Files.write(tempDir.resolve("archive.bin"), data);
+
+		ChunkedMerkleDigest digest = hasher.hash(file);
+
+		assertEquals(HashAlgorithm.SHA_256, digest.getAlgorithm());
+		assertEquals(1000, digest.getChunkSize());
+		assertEquals(data.length, digest.getLength());
+		assertEquals(11, digest.getChunkCount());
+		Queue<byte[]> chunkHashes = new LinkedList<>();
+		for (int i = 0; i < 11; i++)
+		{
+			byte[] chunkHash = DigestUtils
+				.sha256(Arrays.copyOfRange(data, i * 1000, Math.min(data.length, (i + 1) * 1000)));
+			assertArrayEquals(chunkHash, digest.getChunkHash(i));
+			chunkHashes.add(chunkHash);
+		}
+		assertArrayEquals(HashExtensions.getMerkleRootHash(chunkHashes, HashAlgorithm.SHA_256),
+			digest.getRoot());
+		assertEquals(digest, new ChunkedFileHasher(HashAlgorithm.SHA_256, 1000, pool).hash(file));
+	}
+
+	/**
+	 * Test method for {@link ChunkedFileHasher#hash(Path)} with files that fit into one chunk
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Test
+	public void testHashSingleChunk() throws IOException
+	{
+		byte[] data = new byte[1000];
+		new Random(5).nextBytes(data);
+		Path file = Files.write(tempDir.resolve("single.bin"), data);
+		Path emptyFile = Files.write(tempDir.resolve("empty.bin"), new byte[0]);
+
+		ChunkedMerkleDigest digest = hasher.hash(file);
+		assertEquals(1, digest.getChunkCount());
+		assertArrayEquals(DigestUtils.sha256(data), digest.getRoot());
+
+		digest = hasher.hash(emptyFile);
+		assertEquals(1, digest.getChunkCount());
+		assertEquals(0, digest.getChunkLength(0));
+		assertArrayEquals(DigestUtils.sha256(new byte[0]), digest.getRoot());
+	}
+
+	/**
+	 * Test method for {@link ChunkedFileHasher#verifyChunks(Path, ChunkedMerkleDigest, int, int)}
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Test
+	public void testVerifyChunks() throws IOException
+	{
+		byte[] data = new byte[5 * 1000 + 1];
+		new Random(9).nextBytes(data);
+		Path file = Files.write(tempDir.resolve("verify.bin"), data);
+		ChunkedMerkleDigest digest = hasher.hash(file);
+
+		assertEquals(-1, ChunkedFileHasher.verifyChunks(file, digest, 0, 6));
+
+		data[3 * 1000 + 17]++;
+		Files.write(file, data);
+		assertEquals(-1, ChunkedFileHasher.verifyChunks(file, digest, 0, 3));
+		assertEquals(3, ChunkedFileHasher.verifyChunks(file, digest, 1, 6));
+
+		Files.write(file, Arrays.copyOf(data, 5 * 1000));
+		assertEquals(5, ChunkedFileHasher.verifyChunks(file, digest, 4, 6));
+		assertThrows(IndexOutOfBoundsException.class,
+			() -> ChunkedFileHasher.verifyChunks(file, digest, 0, 7));
+	}
+
+	/**
+	 * Test method for {@link ChunkedFileHasher} with an invalid chunk size
+	 */
+	@Test
+	public void testInvalidChunkSize()
+	{
+		assertThrows(IllegalArgumentException.class,
+			() -> new ChunkedFileHasher(HashAlgorithm.SHA_256, 0, pool));
+	}
+}
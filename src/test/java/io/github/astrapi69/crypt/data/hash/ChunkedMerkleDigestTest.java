@@ -0,0 +1,97 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.hash;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.crypt.api.algorithm.HashAlgorithm;
+
+/**
+ * The unit test class for the class {@link ChunkedMerkleDigest}
+ */
+public class ChunkedMerkleDigestTest
+{
+
+	/**
+	 * Test method for {@link ChunkedMerkleDigest#verifyChunk(int, ByteBuffer)}
+	 */
+	@Test
+	public void testVerifyChunk()
+	{
+		byte[] first = "abcd".getBytes(StandardCharsets.US_ASCII);
+		byte[] second = "ef".getBytes(StandardCharsets.US_ASCII);
+		byte[][] chunkHashes = { DigestUtils.sha256(first), DigestUtils.sha256(second) };
+		ChunkedMerkleDigest digest = new ChunkedMerkleDigest(HashAlgorithm.SHA_256, 4, 6,
+			new byte[32], chunkHashes);
+
+		assertEquals(4, digest.getChunkOffset(1));
+		assertEquals(2, digest.getChunkLength(1));
+		assertTrue(digest.verifyChunk(0, ByteBuffer.wrap(first)));
+		assertTrue(digest.verifyChunk(1, ByteBuffer.wrap(second)));
+		assertFalse(digest.verifyChunk(1, ByteBuffer.wrap(first)));
+		assertFalse(digest.verifyChunk(0, ByteBuffer.wrap(first, 0, 3)));
+	}
+
+	/**
+	 * Test method for {@link ChunkedMerkleDigest} with an invalid number of chunk hashes
+	 */
+	@Test
+	public void testInvalidChunkHashes()
+	{
+		assertThrows(IllegalArgumentException.class, () -> new ChunkedMerkleDigest(
+			HashAlgorithm.SHA_256, 4, 5, new byte[32], new byte[][] { new byte[32] }));
+		assertThrows(IllegalArgumentException.class, () -> new ChunkedMerkleDigest(
+			HashAlgorithm.SHA_256, 4, -1, new byte[32], new byte[][] { new byte[32] }));
+	}
+
+	/**
+	 * Test method for {@link ChunkedMerkleDigest#equals(Object)} and
+	 * {@link ChunkedMerkleDigest#hashCode()}
+	 */
+	@Test
+	public void testEqualsAndHashCode()
+	{
+		ChunkedMerkleDigest digest = new ChunkedMerkleDigest(HashAlgorithm.SHA_256, 8, 8,
+			new byte[] { 1 }, new byte[][] { { 1 } });
+		ChunkedMerkleDigest same = new ChunkedMerkleDigest(HashAlgorithm.SHA_256, 8, 8,
+			new byte[] { 1 }, new byte[][] { { 1 } });
+		ChunkedMerkleDigest otherChunkSize = new ChunkedMerkleDigest(HashAlgorithm.SHA_256, 16, 8,
+			new byte[] { 1 }, new byte[][] { { 1 } });
+
+		assertEquals(digest, same);
+		assertEquals(digest.hashCode(), same.hashCode());
+		assertNotEquals(digest, otherChunkSize);
+	}
+}
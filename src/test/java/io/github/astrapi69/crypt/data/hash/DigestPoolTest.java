@@ -0,0 +1,132 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.hash;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.crypt.api.algorithm.HashAlgorithm;
+
+/**
+ * The unit test class for the class {@link DigestPool}
+ */
+public class DigestPoolTest
+{
+
+	/**
+	 * Test method for {@link DigestPool#getThreadLocal(HashAlgorithm)}
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution of the test
+	 */
+	@Test
+	public void testGetThreadLocal() throws Exception
+	{
+		DigestPool digestPool = new DigestPool(2);
+		MessageDigest messageDigest = digestPool.getThreadLocal(HashAlgorithm.SHA_256);
+		messageDigest.update("dirty".getBytes(StandardCharsets.UTF_8));
+		assertEquals(0, digestPool.getHitCount());
+		assertEquals(1, digestPool.getMissCount());
+
+		MessageDigest reused = digestPool.getThreadLocal(HashAlgorithm.SHA_256);
+		assertSame(messageDigest, reused);
+		assertArrayEquals(DigestUtils.sha256("foo"),
+			reused.digest("foo".getBytes(StandardCharsets.UTF_8)));
+		assertEquals(1, digestPool.getHitCount());
+
+		AtomicReference<MessageDigest> otherThreadDigest = new AtomicReference<>();
+		Thread thread = new Thread(() -> {
+			try
+			{
+				otherThreadDigest.set(digestPool.getThreadLocal(HashAlgorithm.SHA_256));
+			}
+			catch (NoSuchAlgorithmException e)
+			{
+				throw new IllegalStateException(e);
+			}
+		});
+		thread.start();
+		thread.join();
+		assertNotSame(messageDigest, otherThreadDigest.get());
+		assertEquals(2, digestPool.getMissCount());
+	}
+
+	/**
+	 * Test method for {@link DigestPool#borrow(HashAlgorithm)} and
+	 * {@link DigestPool#release(HashAlgorithm, MessageDigest)}
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution of the test
+	 */
+	@Test
+	public void testBorrowAndRelease() throws Exception
+	{
+		DigestPool digestPool = new DigestPool(1);
+		MessageDigest first = digestPool.borrow(HashAlgorithm.SHA_512);
+		MessageDigest second = digestPool.borrow(HashAlgorithm.SHA_512);
+		assertNotSame(first, second);
+		assertEquals(2, digestPool.getMissCount());
+
+		first.update("dirty".getBytes(StandardCharsets.UTF_8));
+		digestPool.release(HashAlgorithm.SHA_512, first);
+		// the pool holds only one idle digest, so this one is dropped
+		digestPool.release(HashAlgorithm.SHA_512, second);
+
+		MessageDigest reused = digestPool.borrow(HashAlgorithm.SHA_512);
+		assertSame(first, reused);
+		assertArrayEquals(DigestUtils.sha512("foo"),
+			reused.digest("foo".getBytes(StandardCharsets.UTF_8)));
+		assertEquals(1, digestPool.getHitCount());
+
+		assertNotSame(second, digestPool.borrow(HashAlgorithm.SHA_512));
+		assertEquals(3, digestPool.getMissCount());
+
+		digestPool.resetStatistics();
+		assertEquals(0, digestPool.getHitCount());
+		assertEquals(0, digestPool.getMissCount());
+	}
+
+	/**
+	 * Test method for {@link DigestPool} with invalid arguments
+	 */
+	@Test
+	public void testInvalidArguments()
+	{
+		assertThrows(IllegalArgumentException.class, () -> new DigestPool(0));
+		assertThrows(NullPointerException.class,
+			() -> DigestPool.getInstance().getThreadLocal(null));
+	}
+}
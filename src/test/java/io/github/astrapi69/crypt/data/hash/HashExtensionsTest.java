@@ -25,19 +25,31 @@
 package io.github.astrapi69.crypt.data.hash;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.LinkedList;
+import java.util.Map;
 import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
 
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.ArrayUtils;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.meanbean.test.BeanTester;
 
 import com.google.common.primitives.Longs;
@@ -50,6 +62,9 @@ import io.github.astrapi69.crypt.api.algorithm.HashAlgorithm;
 public class HashExtensionsTest
 {
 
+	@TempDir
+	Path tempDir;
+
 	/**
 	 * Test method for {@link HashExtensions#hash(String, String, HashAlgorithm, Charset)}
 	 *
@@ -909,4 +924,132 @@ public class HashExtensionsTest
 		assertArrayEquals(expectedHash, actualHash);
 	}
 
+
+	/**
+	 * Test method for {@link HashExtensions#hash(Path, HashAlgorithm)}
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution of the test
+	 */
+	@Test
+	public void testHashPath() throws Exception
+	{
+		byte[] small = "small file content".getBytes(StandardCharsets.UTF_8);
+		Path smallFile = Files.write(tempDir.resolve("small.bin"), small);
+		assertArrayEquals(DigestUtils.sha256(small),
+			HashExtensions.hash(smallFile, HashAlgorithm.SHA_256));
+
+		byte[] large = new byte[3 * HashExtensions.CHANNEL_BUFFER_SIZE + 17];
+		new Random(42).nextBytes(large);
+		Path largeFile = Files.write(tempDir.resolve("large.bin"), large);
+		assertArrayEquals(DigestUtils.sha512(large),
+			HashExtensions.hash(largeFile, HashAlgorithm.SHA_512));
+		assertArrayEquals(DigestUtils.sha512(large),
+			HashExtensions.hash(largeFile, HashAlgorithm.SHA_512, 4096 + 3));
+
+		Path emptyFile = Files.write(tempDir.resolve("empty.bin"), new byte[0]);
+		assertArrayEquals(DigestUtils.sha256(new byte[0]),
+			HashExtensions.hash(emptyFile, HashAlgorithm.SHA_256));
+	}
+
+	/**
+	 * Test method for {@link HashExtensions#hash(ReadableByteChannel, HashAlgorithm)}
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution of the test
+	 */
+	@Test
+	public void testHashReadableByteChannel() throws Exception
+	{
+		byte[] data = new byte[2 * HashExtensions.CHANNEL_BUFFER_SIZE + 5];
+		new Random(7).nextBytes(data);
+		try (ReadableByteChannel channel = Channels
+			.newChannel(new ByteArrayInputStream(data)))
+		{
+			assertArrayEquals(DigestUtils.sha1(data),
+				HashExtensions.hash(channel, HashAlgorithm.SHA_1));
+		}
+	}
+
+	/**
+	 * Test method for {@link HashExtensions#hash(ByteBuffer, HashAlgorithm)} with heap and direct
+	 * buffers
+	 *
+	 * @throws NoSuchAlgorithmException
+	 *             is thrown if instantiation of the MessageDigest object fails
+	 */
+	@Test
+	public void testHashByteBuffer() throws NoSuchAlgorithmException
+	{
+		byte[] data = "byte buffer content".getBytes(StandardCharsets.UTF_8);
+
+		ByteBuffer heapBuffer = ByteBuffer.wrap(data);
+		assertArrayEquals(DigestUtils.sha256(data),
+			HashExtensions.hash(heapBuffer, HashAlgorithm.SHA_256));
+		assertEquals(heapBuffer.limit(), heapBuffer.position());
+
+		ByteBuffer directBuffer = ByteBuffer.allocateDirect(data.length + 4);
+		directBuffer.put(new byte[] { 1, 2 }).put(data).put(new byte[] { 3, 4 });
+		directBuffer.position(2).limit(2 + data.length);
+		assertArrayEquals(DigestUtils.sha256(data),
+			HashExtensions.hash(directBuffer, HashAlgorithm.SHA_256));
+	}
+
+	/**
+	 * Test method for {@link HashExtensions#hashAll(byte[], Set)},
+	 * {@link HashExtensions#hashAll(Path, Set)} and
+	 * {@link HashExtensions#hashAll(ReadableByteChannel, Set)}
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution of the test
+	 */
+	@Test
+	public void testHashAll() throws Exception
+	{
+		Set<HashAlgorithm> algorithms = EnumSet.of(HashAlgorithm.SHA_1, HashAlgorithm.SHA_256,
+			HashAlgorithm.SHA_512);
+		byte[] data = new byte[5 * HashExtensions.CHANNEL_BUFFER_SIZE / 2];
+		new Random(11).nextBytes(data);
+		Path file = Files.write(tempDir.resolve("artifact.bin"), data);
+		Path smallFile = Files.write(tempDir.resolve("small.bin"), Arrays.copyOf(data, 100));
+
+		Map<HashAlgorithm, byte[]> fromBytes = HashExtensions.hashAll(data, algorithms);
+		Map<HashAlgorithm, byte[]> fromFile = HashExtensions.hashAll(file, algorithms);
+		Map<HashAlgorithm, byte[]> fromChannel;
+		try (ReadableByteChannel channel = Channels.newChannel(new ByteArrayInputStream(data)))
+		{
+			fromChannel = HashExtensions.hashAll(channel, algorithms);
+		}
+		for (Map<HashAlgorithm, byte[]> hashes : Arrays.asList(fromBytes, fromFile, fromChannel))
+		{
+			assertEquals(algorithms, hashes.keySet());
+			assertArrayEquals(DigestUtils.sha1(data), hashes.get(HashAlgorithm.SHA_1));
+			assertArrayEquals(DigestUtils.sha256(data), hashes.get(HashAlgorithm.SHA_256));
+			assertArrayEquals(DigestUtils.sha512(data), hashes.get(HashAlgorithm.SHA_512));
+		}
+		assertArrayEquals(DigestUtils.sha256(Arrays.copyOf(data, 100)),
+			HashExtensions.hashAll(smallFile, algorithms).get(HashAlgorithm.SHA_256));
+	}
+
+	/**
+	 * Test method for {@link HashExtensions#hashChunked(Path, HashAlgorithm, int)}
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution of the test
+	 */
+	@Test
+	public void testHashChunked() throws Exception
+	{
+		byte[] data = new byte[3 * 4096 + 1];
+		new Random(13).nextBytes(data);
+		Path file = Files.write(tempDir.resolve("chunked.bin"), data);
+
+		ChunkedMerkleDigest digest = HashExtensions.hashChunked(file, HashAlgorithm.SHA_512, 4096);
+		assertEquals(4, digest.getChunkCount());
+		assertEquals(4096, digest.getChunkSize());
+		assertArrayEquals(DigestUtils.sha512(Arrays.copyOfRange(data, 4096, 2 * 4096)),
+			digest.getChunkHash(1));
+		assertArrayEquals(DigestUtils.sha512(data),
+			HashExtensions.hashChunked(file, HashAlgorithm.SHA_512, data.length).getRoot());
+	}
 }
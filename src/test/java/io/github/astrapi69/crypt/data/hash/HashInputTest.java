@@ -0,0 +1,101 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.hash;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.ArrayUtils;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.primitives.Longs;
+
+import io.github.astrapi69.crypt.api.algorithm.HashAlgorithm;
+
+/**
+ * The unit test class for the class {@link HashInput}
+ */
+public class HashInputTest
+{
+
+	/**
+	 * Test method for {@link HashInput#digest()} compared with the digest of the concatenated
+	 * fields
+	 */
+	@Test
+	public void testDigestEqualsConcatenatedFields()
+	{
+		byte[] input = "input".getBytes(StandardCharsets.UTF_8);
+		byte[] hash = "hash".getBytes(StandardCharsets.UTF_8);
+		long tries = -4847556L;
+		long timestamp = 1234567890L;
+
+		byte[] hashValue = ArrayUtils.addAll(input, hash);
+		hashValue = ArrayUtils.addAll(hashValue, Longs.toByteArray(tries));
+		hashValue = ArrayUtils.addAll(hashValue, Longs.toByteArray(timestamp));
+
+		assertArrayEquals(DigestUtils.sha256(hashValue), HashInput.of(HashAlgorithm.SHA256)
+			.put(input).put(hash).putLong(tries).putLong(timestamp).digest());
+		assertArrayEquals(DigestUtils.sha512(hashValue), HashInput.of(HashAlgorithm.SHA_512)
+			.put(input).put(hash).putLong(tries).putLong(timestamp).digest());
+	}
+
+	/**
+	 * Test method for {@link HashInput#put(byte[])} with <code>null</code> values and
+	 * {@link HashInput#put(byte[], int, int)}
+	 */
+	@Test
+	public void testPutNullAndRange()
+	{
+		byte[] input = "input".getBytes(StandardCharsets.UTF_8);
+
+		assertArrayEquals(DigestUtils.sha1(input),
+			HashInput.of(HashAlgorithm.SHA1).put(null).put(input).put(null).digest());
+		assertArrayEquals(DigestUtils.sha256("put"),
+			HashInput.of(HashAlgorithm.SHA_256).put(input, 2, 3).digest());
+		assertArrayEquals(DigestUtils.sha256(new byte[0]),
+			HashInput.of(HashAlgorithm.UNKNOWN).digest());
+	}
+
+	/**
+	 * Test method for {@link HashInput#digest(byte[], int)}
+	 */
+	@Test
+	public void testDigestIntoBuffer()
+	{
+		HashInput hashInput = HashInput.of(HashAlgorithm.SHA384).put("foo".getBytes());
+		byte[] buffer = new byte[hashInput.getDigestLength() + 2];
+
+		assertEquals(48, hashInput.digest(buffer, 2));
+		assertArrayEquals(DigestUtils.sha384("foo"), ArrayUtils.subarray(buffer, 2, 50));
+		assertThrows(IllegalArgumentException.class,
+			() -> HashInput.of(HashAlgorithm.SHA384).digest(new byte[10], 0));
+		assertThrows(NullPointerException.class, () -> HashInput.of(null));
+	}
+}
@@ -0,0 +1,98 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.hash;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.ArrayUtils;
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.crypt.api.algorithm.HashAlgorithm;
+
+/**
+ * The unit test class for the class {@link MerkleAccumulator}
+ */
+public class MerkleAccumulatorTest
+{
+
+	/**
+	 * Test method for {@link MerkleAccumulator#getRoot()} after every added leaf compared with
+	 * {@link HashExtensions#getMerkleRootHash(java.util.Queue, HashAlgorithm)}
+	 */
+	@Test
+	public void testGetRootAfterEveryLeaf()
+	{
+		MerkleAccumulator merkleAccumulator = new MerkleAccumulator(HashAlgorithm.SHA256);
+		List<byte[]> leaves = new LinkedList<>();
+		assertNull(merkleAccumulator.getRoot());
+		for (int leafCount = 1; leafCount <= 300; leafCount++)
+		{
+			byte[] leaf = DigestUtils.sha256("leaf" + leafCount);
+			leaves.add(leaf);
+			merkleAccumulator.add(leaf);
+
+			assertEquals(leafCount, merkleAccumulator.getLeafCount());
+			assertArrayEquals(
+				HashExtensions.getMerkleRootHash(new LinkedList<>(leaves), HashAlgorithm.SHA256),
+				merkleAccumulator.getRoot(), "leaf count: " + leafCount);
+		}
+	}
+
+	/**
+	 * Test method for {@link MerkleAccumulator#getRoot()} with few leaves and another algorithm
+	 */
+	@Test
+	public void testGetRootWithFewLeaves()
+	{
+		byte[] leaf1 = DigestUtils.sha1("leaf1");
+		byte[] leaf2 = DigestUtils.sha1("leaf2");
+		byte[] leaf3 = DigestUtils.sha1("leaf3");
+		MerkleAccumulator merkleAccumulator = new MerkleAccumulator(HashAlgorithm.SHA_1);
+
+		assertSame(leaf1, merkleAccumulator.add(leaf1).getRoot());
+		byte[] pair = DigestUtils.sha1(ArrayUtils.addAll(leaf1, leaf2));
+		assertArrayEquals(pair, merkleAccumulator.add(leaf2).getRoot());
+		byte[] root = merkleAccumulator.add(leaf3).getRoot();
+		assertArrayEquals(DigestUtils.sha1(ArrayUtils.addAll(leaf3, pair)), root);
+		assertSame(root, merkleAccumulator.getRoot());
+	}
+
+	/**
+	 * Test method for {@link MerkleAccumulator#MerkleAccumulator(HashAlgorithm)} without algorithm
+	 */
+	@Test
+	public void testNullAlgorithm()
+	{
+		assertThrows(NullPointerException.class, () -> new MerkleAccumulator(null));
+	}
+}
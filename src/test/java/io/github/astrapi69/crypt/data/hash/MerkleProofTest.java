@@ -0,0 +1,126 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.hash;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.crypt.api.algorithm.HashAlgorithm;
+
+/**
+ * The unit test class for the class {@link MerkleProof}
+ */
+public class MerkleProofTest
+{
+
+	private static List<byte[]> newLeaves(int count)
+	{
+		List<byte[]> leaves = new ArrayList<>();
+		for (int i = 0; i < count; i++)
+		{
+			leaves.add(DigestUtils.sha256("leaf" + i));
+		}
+		return leaves;
+	}
+
+	/**
+	 * Test method for {@link MerkleProof#of(List, int, HashAlgorithm)} and
+	 * {@link MerkleProof#verify(byte[], byte[], HashAlgorithm)} for every leaf of trees with
+	 * different sizes
+	 */
+	@Test
+	public void testVerifyEveryLeaf()
+	{
+		for (int leafCount = 1; leafCount <= 40; leafCount++)
+		{
+			List<byte[]> leaves = newLeaves(leafCount);
+			byte[] root = HashExtensions.getMerkleRootHash(new LinkedList<>(leaves),
+				HashAlgorithm.SHA256);
+			for (int leafIndex = 0; leafIndex < leafCount; leafIndex++)
+			{
+				MerkleProof merkleProof = MerkleProof.of(leaves, leafIndex, HashAlgorithm.SHA256);
+
+				assertEquals(leafIndex, merkleProof.getLeafIndex());
+				assertTrue(merkleProof.size() <= 32 - Integer.numberOfLeadingZeros(leafCount));
+				assertTrue(
+					merkleProof.verify(leaves.get(leafIndex), root, HashAlgorithm.SHA256),
+					"leaf count: " + leafCount + ", leaf index: " + leafIndex);
+			}
+		}
+	}
+
+	/**
+	 * Test method for {@link MerkleProof#verify(byte[], byte[], HashAlgorithm)} with a leaf or a
+	 * root that does not match
+	 */
+	@Test
+	public void testVerifyFails()
+	{
+		List<byte[]> leaves = newLeaves(5);
+		byte[] root = HashExtensions.getMerkleRootHash(new LinkedList<>(leaves),
+			HashAlgorithm.SHA256);
+		MerkleProof merkleProof = MerkleProof.of(leaves, 2, HashAlgorithm.SHA256);
+
+		assertFalse(merkleProof.verify(leaves.get(3), root, HashAlgorithm.SHA256));
+		assertFalse(merkleProof.verify(leaves.get(2), leaves.get(0), HashAlgorithm.SHA256));
+		assertFalse(merkleProof.verify(leaves.get(2), root, HashAlgorithm.SHA512));
+	}
+
+	/**
+	 * Test method for {@link MerkleProof#equals(Object)} and {@link MerkleProof#hashCode()}
+	 */
+	@Test
+	public void testEqualsAndHashCode()
+	{
+		List<byte[]> leaves = newLeaves(7);
+		MerkleProof merkleProof = MerkleProof.of(leaves, 4, HashAlgorithm.SHA256);
+		MerkleProof copy = new MerkleProof(merkleProof.getLeafIndex(),
+			merkleProof.getSiblingHashes(), merkleProof.getLeftSiblings());
+
+		assertEquals(merkleProof, copy);
+		assertEquals(merkleProof.hashCode(), copy.hashCode());
+	}
+
+	/**
+	 * Test method for {@link MerkleProof} with invalid arguments
+	 */
+	@Test
+	public void testInvalidArguments()
+	{
+		assertThrows(IndexOutOfBoundsException.class,
+			() -> MerkleProof.of(newLeaves(3), 3, HashAlgorithm.SHA256));
+		assertThrows(IllegalArgumentException.class,
+			() -> new MerkleProof(0, new byte[1][], new boolean[2]));
+	}
+}
@@ -0,0 +1,139 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.hash;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.ArrayUtils;
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.crypt.api.algorithm.HashAlgorithm;
+
+/**
+ * The unit test class for the class {@link MerkleTreeBuilder}
+ */
+public class MerkleTreeBuilderTest
+{
+
+	/**
+	 * Computes the merkle root with the queue based algorithm as reference
+	 */
+	private static byte[] getQueueMerkleRootHash(List<byte[]> leaves)
+	{
+		Queue<byte[]> hashQueue = new LinkedList<>(leaves);
+		while (hashQueue.size() > 1)
+		{
+			byte[] hashValue = ArrayUtils.addAll(hashQueue.poll(), hashQueue.poll());
+			hashQueue.add(DigestUtils.sha256(hashValue));
+		}
+		return hashQueue.poll();
+	}
+
+	private static List<byte[]> newLeaves(int count)
+	{
+		List<byte[]> leaves = new ArrayList<>();
+		for (int i = 0; i < count; i++)
+		{
+			leaves.add(DigestUtils.sha256("leaf" + i));
+		}
+		return leaves;
+	}
+
+	/**
+	 * Test method for {@link MerkleTreeBuilder#build()} compared with the queue based algorithm
+	 */
+	@Test
+	public void testBuildEqualsQueueAlgorithm()
+	{
+		for (int leafCount = 0; leafCount <= 130; leafCount++)
+		{
+			List<byte[]> leaves = newLeaves(leafCount);
+			MerkleTreeBuilder merkleTreeBuilder = new MerkleTreeBuilder(HashAlgorithm.SHA256,
+				leafCount);
+			leaves.forEach(merkleTreeBuilder::add);
+
+			assertArrayEquals(getQueueMerkleRootHash(leaves), merkleTreeBuilder.build(),
+				"leaf count: " + leafCount);
+		}
+	}
+
+	/**
+	 * Test method for {@link MerkleTreeBuilder#build()} with an odd number of leaves
+	 */
+	@Test
+	public void testBuildWithThreeLeaves()
+	{
+		byte[] leaf1 = DigestUtils.sha1("leaf1");
+		byte[] leaf2 = DigestUtils.sha1("leaf2");
+		byte[] leaf3 = DigestUtils.sha1("leaf3");
+		byte[] expected = DigestUtils
+			.sha1(ArrayUtils.addAll(leaf3, DigestUtils.sha1(ArrayUtils.addAll(leaf1, leaf2))));
+
+		byte[] actual = new MerkleTreeBuilder(HashAlgorithm.SHA_1, 3).add(leaf1).add(leaf2)
+			.add(leaf3).build();
+		assertArrayEquals(expected, actual);
+	}
+
+	/**
+	 * Test method for {@link MerkleTreeBuilder#build()} with no and with one leaf
+	 */
+	@Test
+	public void testBuildWithNoAndOneLeaf()
+	{
+		assertNull(new MerkleTreeBuilder(HashAlgorithm.SHA256, 0).build());
+
+		byte[] leaf = DigestUtils.sha256("leaf");
+		assertSame(leaf, new MerkleTreeBuilder(HashAlgorithm.SHA256, 1).add(leaf).build());
+	}
+
+	/**
+	 * Test method for {@link MerkleTreeBuilder} with invalid usage
+	 */
+	@Test
+	public void testInvalidUsage()
+	{
+		assertThrows(NullPointerException.class, () -> new MerkleTreeBuilder(null, 2));
+		assertThrows(IllegalArgumentException.class,
+			() -> new MerkleTreeBuilder(HashAlgorithm.SHA256, -1));
+
+		MerkleTreeBuilder merkleTreeBuilder = new MerkleTreeBuilder(HashAlgorithm.SHA256, 2);
+		merkleTreeBuilder.add(DigestUtils.sha256("leaf1"));
+		assertThrows(IllegalStateException.class, merkleTreeBuilder::build);
+		merkleTreeBuilder.add(DigestUtils.sha256("leaf2"));
+		assertThrows(IllegalStateException.class,
+			() -> merkleTreeBuilder.add(DigestUtils.sha256("leaf3")));
+		assertEquals(2, merkleTreeBuilder.getLeafCount());
+	}
+}
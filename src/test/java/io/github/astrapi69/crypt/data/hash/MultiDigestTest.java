@@ -0,0 +1,106 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.hash;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumSet;
+import java.util.Map;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.crypt.api.algorithm.HashAlgorithm;
+
+/**
+ * The unit test class for the class {@link MultiDigest}
+ */
+public class MultiDigestTest
+{
+
+	/**
+	 * Test method for {@link MultiDigest#update(byte[], int, int)} and {@link MultiDigest#digest()}
+	 *
+	 * @throws NoSuchAlgorithmException
+	 *             is thrown if instantiation of a MessageDigest object fails
+	 */
+	@Test
+	public void testUpdateAndDigest() throws NoSuchAlgorithmException
+	{
+		byte[] data = "the quick brown fox jumps over the dog".getBytes(StandardCharsets.UTF_8);
+		MultiDigest multiDigest = new MultiDigest(
+			EnumSet.of(HashAlgorithm.MD5, HashAlgorithm.SHA_1, HashAlgorithm.SHA_256));
+		multiDigest.update(data, 0, 10).update(data, 10, data.length - 10);
+		Map<HashAlgorithm, byte[]> hashes = multiDigest.digest();
+
+		assertEquals(3, hashes.size());
+		assertArrayEquals(DigestUtils.md5(data), hashes.get(HashAlgorithm.MD5));
+		assertArrayEquals(DigestUtils.sha1(data), hashes.get(HashAlgorithm.SHA_1));
+		assertArrayEquals(DigestUtils.sha256(data), hashes.get(HashAlgorithm.SHA_256));
+	}
+
+	/**
+	 * Test method for {@link MultiDigest#update(ByteBuffer)}
+	 *
+	 * @throws NoSuchAlgorithmException
+	 *             is thrown if instantiation of a MessageDigest object fails
+	 */
+	@Test
+	public void testUpdateByteBuffer() throws NoSuchAlgorithmException
+	{
+		byte[] data = "direct buffer content".getBytes(StandardCharsets.UTF_8);
+		ByteBuffer buffer = ByteBuffer.allocateDirect(data.length);
+		buffer.put(data).flip();
+		Map<HashAlgorithm, byte[]> hashes = new MultiDigest(
+			EnumSet.of(HashAlgorithm.SHA_384, HashAlgorithm.SHA_512)).update(buffer).digest();
+
+		assertEquals(buffer.limit(), buffer.position());
+		assertArrayEquals(DigestUtils.sha384(data), hashes.get(HashAlgorithm.SHA_384));
+		assertArrayEquals(DigestUtils.sha512(data), hashes.get(HashAlgorithm.SHA_512));
+	}
+
+	/**
+	 * Test method for {@link MultiDigest} with invalid arguments and states
+	 *
+	 * @throws NoSuchAlgorithmException
+	 *             is thrown if instantiation of a MessageDigest object fails
+	 */
+	@Test
+	public void testInvalidUsage() throws NoSuchAlgorithmException
+	{
+		assertThrows(IllegalArgumentException.class,
+			() -> new MultiDigest(EnumSet.noneOf(HashAlgorithm.class)));
+
+		MultiDigest multiDigest = new MultiDigest(EnumSet.of(HashAlgorithm.SHA_256));
+		multiDigest.digest();
+		assertThrows(IllegalStateException.class, () -> multiDigest.update(new byte[1]));
+		assertThrows(IllegalStateException.class, multiDigest::digest);
+	}
+}
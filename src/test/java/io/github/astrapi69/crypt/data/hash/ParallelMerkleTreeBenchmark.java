@@ -0,0 +1,92 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.hash;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.commons.codec.digest.DigestUtils;
+
+import io.github.astrapi69.crypt.api.algorithm.HashAlgorithm;
+
+/**
+ * Benchmark that compares the sequential {@link MerkleTreeBuilder} with the
+ * {@link ParallelMerkleTree} for growing numbers of leaves, so the crossover point of the current
+ * machine can be read from the output
+ */
+public class ParallelMerkleTreeBenchmark
+{
+
+	private static final int ROUNDS = 20;
+
+	private static long measureSequential(List<byte[]> leaves)
+	{
+		long start = System.nanoTime();
+		for (int round = 0; round < ROUNDS; round++)
+		{
+			MerkleTreeBuilder merkleTreeBuilder = new MerkleTreeBuilder(HashAlgorithm.SHA256,
+				leaves.size());
+			leaves.forEach(merkleTreeBuilder::add);
+			merkleTreeBuilder.build();
+		}
+		return (System.nanoTime() - start) / ROUNDS;
+	}
+
+	private static long measureParallel(List<byte[]> leaves, ParallelMerkleTree parallelMerkleTree)
+	{
+		long start = System.nanoTime();
+		for (int round = 0; round < ROUNDS; round++)
+		{
+			parallelMerkleTree.getMerkleRootHash(leaves);
+		}
+		return (System.nanoTime() - start) / ROUNDS;
+	}
+
+	public static void main(String[] args)
+	{
+		int threshold = args.length == 0 ? 256 : Integer.parseInt(args[0]);
+		ParallelMerkleTree parallelMerkleTree = new ParallelMerkleTree(HashAlgorithm.SHA256,
+			ForkJoinPool.commonPool(), threshold);
+		System.out.println("parallelism: " + ForkJoinPool.commonPool().getParallelism()
+			+ ", threshold: " + threshold);
+		System.out.println("leaves;sequential us;parallel us;speedup");
+		for (int leafCount = 1 << 6; leafCount <= 1 << 20; leafCount <<= 1)
+		{
+			List<byte[]> leaves = new ArrayList<>(leafCount);
+			for (int i = 0; i < leafCount; i++)
+			{
+				leaves.add(DigestUtils.sha256("leaf" + i));
+			}
+			// warm up both paths before measuring
+			measureSequential(leaves);
+			measureParallel(leaves, parallelMerkleTree);
+			long sequential = measureSequential(leaves);
+			long parallel = measureParallel(leaves, parallelMerkleTree);
+			System.out.printf("%d;%d;%d;%.2f%n", leafCount, sequential / 1000, parallel / 1000,
+				(double)sequential / parallel);
+		}
+	}
+}
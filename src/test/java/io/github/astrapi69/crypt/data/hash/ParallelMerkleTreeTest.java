@@ -0,0 +1,117 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.hash;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.crypt.api.algorithm.HashAlgorithm;
+
+/**
+ * The unit test class for the class {@link ParallelMerkleTree}
+ */
+public class ParallelMerkleTreeTest
+{
+
+	private static List<byte[]> newLeaves(int count)
+	{
+		List<byte[]> leaves = new ArrayList<>();
+		for (int i = 0; i < count; i++)
+		{
+			leaves.add(DigestUtils.sha512("leaf" + i));
+		}
+		return leaves;
+	}
+
+	/**
+	 * Test method for {@link ParallelMerkleTree#getMerkleRootHash(List)} compared with the
+	 * sequential algorithm
+	 */
+	@Test
+	public void testGetMerkleRootHashEqualsSequential()
+	{
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try
+		{
+			for (int threshold : new int[] { 2, 3, 8 })
+			{
+				ParallelMerkleTree parallelMerkleTree = new ParallelMerkleTree(
+					HashAlgorithm.SHA512, pool, threshold);
+				for (int leafCount = 0; leafCount <= 100; leafCount++)
+				{
+					List<byte[]> leaves = newLeaves(leafCount);
+					byte[] expected = HashExtensions
+						.getMerkleRootHash(new LinkedList<>(leaves), HashAlgorithm.SHA512);
+
+					assertArrayEquals(expected, parallelMerkleTree.getMerkleRootHash(leaves),
+						"threshold: " + threshold + ", leaf count: " + leafCount);
+				}
+			}
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Test method for {@link ParallelMerkleTree#getMerkleRootHash(List)} with a list that has no
+	 * random access
+	 */
+	@Test
+	public void testGetMerkleRootHashWithLinkedList()
+	{
+		List<byte[]> leaves = newLeaves(77);
+		byte[] expected = HashExtensions.getMerkleRootHash(new LinkedList<>(leaves),
+			HashAlgorithm.SHA_512);
+		byte[] actual = new ParallelMerkleTree(HashAlgorithm.SHA_512, ForkJoinPool.commonPool(),
+			4).getMerkleRootHash(new LinkedList<>(leaves));
+		assertArrayEquals(expected, actual);
+	}
+
+	/**
+	 * Test method for {@link ParallelMerkleTree} with invalid arguments
+	 */
+	@Test
+	public void testInvalidArguments()
+	{
+		assertThrows(NullPointerException.class, () -> new ParallelMerkleTree(null));
+		assertThrows(IllegalArgumentException.class,
+			() -> new ParallelMerkleTree(HashAlgorithm.SHA256, ForkJoinPool.commonPool(), 1));
+		assertNull(new ParallelMerkleTree(HashAlgorithm.SHA256).getMerkleRootHash(newLeaves(0)));
+		assertEquals(ParallelMerkleTree.DEFAULT_THRESHOLD,
+			new ParallelMerkleTree(HashAlgorithm.SHA256).getThreshold());
+	}
+}
@@ -0,0 +1,90 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.hash;
+
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.github.astrapi69.crypt.api.algorithm.HashAlgorithm;
+
+/**
+ * Benchmark that compares {@link HashExtensions#hash(byte[], String, HashAlgorithm,
+ * java.nio.charset.Charset)} with {@link SaltedHasher#hashAll(List)} for a column of values that
+ * are hashed under one salt, for a short and for a long salt
+ */
+public class SaltedHasherBenchmark
+{
+
+	private static final int ROUNDS = 5;
+
+	private static long measureHashExtensions(List<byte[]> values, String salt)
+		throws NoSuchAlgorithmException
+	{
+		long start = System.nanoTime();
+		for (int round = 0; round < ROUNDS; round++)
+		{
+			for (byte[] value : values)
+			{
+				HashExtensions.hash(value, salt, HashAlgorithm.SHA_256, StandardCharsets.UTF_8);
+			}
+		}
+		return (System.nanoTime() - start) / ROUNDS;
+	}
+
+	private static long measureSaltedHasher(List<byte[]> values, String salt)
+		throws NoSuchAlgorithmException
+	{
+		long start = System.nanoTime();
+		for (int round = 0; round < ROUNDS; round++)
+		{
+			new SaltedHasher(HashAlgorithm.SHA_256, salt, StandardCharsets.UTF_8).hashAll(values);
+		}
+		return (System.nanoTime() - start) / ROUNDS;
+	}
+
+	public static void main(String[] args) throws NoSuchAlgorithmException
+	{
+		int valueCount = args.length == 0 ? 1_000_000 : Integer.parseInt(args[0]);
+		List<byte[]> values = new ArrayList<>(valueCount);
+		for (int i = 0; i < valueCount; i++)
+		{
+			values.add(("value-" + i).getBytes(StandardCharsets.UTF_8));
+		}
+		System.out.println("salt length;HashExtensions ms;SaltedHasher ms;speedup");
+		for (String salt : new String[] { "tenant-salt", "tenant-salt-".repeat(6),
+				"tenant-salt-".repeat(12), "tenant-salt-".repeat(32) })
+		{
+			// warm up both paths before measuring
+			measureHashExtensions(values, salt);
+			measureSaltedHasher(values, salt);
+			long hashExtensions = measureHashExtensions(values, salt);
+			long saltedHasher = measureSaltedHasher(values, salt);
+			System.out.printf("%d;%d;%d;%.2f%n", salt.length(), hashExtensions / 1_000_000,
+				saltedHasher / 1_000_000, (double)hashExtensions / saltedHasher);
+		}
+	}
+}
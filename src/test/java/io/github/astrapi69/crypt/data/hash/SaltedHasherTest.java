@@ -0,0 +1,121 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.hash;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.crypt.api.algorithm.HashAlgorithm;
+
+/**
+ * The unit test class for the class {@link SaltedHasher}
+ */
+public class SaltedHasherTest
+{
+
+	/**
+	 * Test method for {@link SaltedHasher#hash(byte[])}
+	 *
+	 * @throws NoSuchAlgorithmException
+	 *             is thrown if instantiation of the MessageDigest object fails
+	 */
+	@Test
+	public void testHash() throws NoSuchAlgorithmException
+	{
+		byte[] value = "column value".getBytes(StandardCharsets.UTF_8);
+		// a short salt uses the thread local digest, a long salt the cloned prototype
+		for (String salt : new String[] { "tenant-salt", "tenant-salt-".repeat(30) })
+		{
+			for (HashAlgorithm algorithm : new HashAlgorithm[] { HashAlgorithm.MD5,
+					HashAlgorithm.SHA_1, HashAlgorithm.SHA_256, HashAlgorithm.SHA_512 })
+			{
+				SaltedHasher saltedHasher = new SaltedHasher(algorithm, salt,
+					StandardCharsets.UTF_8);
+				byte[] expected = HashExtensions.hash(value, salt, algorithm,
+					StandardCharsets.UTF_8);
+				assertArrayEquals(expected, saltedHasher.hash(value));
+				// the salted state must not be changed from a previous hash
+				assertArrayEquals(expected, saltedHasher.hash(value));
+			}
+		}
+	}
+
+	/**
+	 * Test method for {@link SaltedHasher#hash(byte[], int, int)} and a hasher without salt
+	 *
+	 * @throws NoSuchAlgorithmException
+	 *             is thrown if instantiation of the MessageDigest object fails
+	 */
+	@Test
+	public void testHashRangeWithoutSalt() throws NoSuchAlgorithmException
+	{
+		byte[] value = "xxpayloadxx".getBytes(StandardCharsets.UTF_8);
+		SaltedHasher saltedHasher = new SaltedHasher(HashAlgorithm.SHA_256, (byte[])null);
+		assertArrayEquals(DigestUtils.sha256("payload"), saltedHasher.hash(value, 2, 7));
+	}
+
+	/**
+	 * Test method for {@link SaltedHasher#hashAll(List)}
+	 *
+	 * @throws NoSuchAlgorithmException
+	 *             is thrown if instantiation of the MessageDigest object fails
+	 */
+	@Test
+	public void testHashAll() throws NoSuchAlgorithmException
+	{
+		byte[] salt = { 1, 2, 3 };
+		List<byte[]> values = Arrays.asList(new byte[0], new byte[] { 4 }, new byte[] { 5, 6 });
+		List<byte[]> hashes = new SaltedHasher(HashAlgorithm.SHA_384, salt).hashAll(values);
+
+		assertEquals(values.size(), hashes.size());
+		assertArrayEquals(DigestUtils.sha384(new byte[] { 1, 2, 3 }), hashes.get(0));
+		assertArrayEquals(DigestUtils.sha384(new byte[] { 1, 2, 3, 4 }), hashes.get(1));
+		assertArrayEquals(DigestUtils.sha384(new byte[] { 1, 2, 3, 5, 6 }), hashes.get(2));
+	}
+
+	/**
+	 * Test method for {@link SaltedHasher#getBlockSize(String)}
+	 */
+	@Test
+	public void testGetBlockSize()
+	{
+		assertEquals(64, SaltedHasher.getBlockSize("MD5"));
+		assertEquals(64, SaltedHasher.getBlockSize("SHA1"));
+		assertEquals(64, SaltedHasher.getBlockSize("SHA-256"));
+		assertEquals(128, SaltedHasher.getBlockSize("SHA-384"));
+		assertEquals(128, SaltedHasher.getBlockSize("sha512"));
+		assertEquals(128, SaltedHasher.getBlockSize("SHA-512/224"));
+		assertEquals(128, SaltedHasher.getBlockSize("SHA-512/256"));
+		assertEquals(136, SaltedHasher.getBlockSize("SHA3-256"));
+	}
+}
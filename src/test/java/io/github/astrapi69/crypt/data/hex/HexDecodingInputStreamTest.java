@@ -0,0 +1,118 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.hex;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Hex;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link HexDecodingInputStream}
+ */
+public class HexDecodingInputStreamTest
+{
+
+	private static InputStream newInputStream(String hex, int chunkSize)
+	{
+		return new HexDecodingInputStream(
+			new ByteArrayInputStream(hex.getBytes(StandardCharsets.US_ASCII)), chunkSize);
+	}
+
+	/**
+	 * Test method for {@link HexDecodingInputStream#read(byte[], int, int)} with a payload that is
+	 * larger than one chunk and mixed letter case
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Test
+	public void testRead() throws IOException
+	{
+		byte[] data = new byte[10_000];
+		new Random(6).nextBytes(data);
+		String hex = Hex.encodeHexString(data, false).substring(0, 10_000)
+			+ Hex.encodeHexString(data).substring(10_000);
+		try (InputStream in = newInputStream(hex, 63))
+		{
+			assertArrayEquals(data, in.readAllBytes());
+			assertEquals(-1, in.read());
+		}
+	}
+
+	/**
+	 * Test method for {@link HexDecodingInputStream#read()}
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Test
+	public void testReadSingleBytes() throws IOException
+	{
+		try (InputStream in = newInputStream("00ff7F", 1))
+		{
+			assertEquals(0x00, in.read());
+			assertEquals(0xff, in.read());
+			assertEquals(0x7f, in.read());
+			assertEquals(-1, in.read());
+		}
+	}
+
+	/**
+	 * Test method for {@link HexDecodingInputStream} with invalid characters and an odd number of
+	 * characters
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Test
+	public void testReadInvalid() throws IOException
+	{
+		try (InputStream in = newInputStream("0011zz", 1))
+		{
+			assertEquals(0x00, in.read());
+			assertEquals(0x11, in.read());
+			IOException exception = assertThrows(IOException.class, in::read);
+			assertInstanceOf(DecoderException.class, exception.getCause());
+			assertEquals("Illegal hexadecimal character z at index 4", exception.getMessage());
+		}
+		try (InputStream in = newInputStream("001", 16))
+		{
+			assertEquals(0x00, in.read());
+			IOException exception = assertThrows(IOException.class, in::read);
+			assertInstanceOf(DecoderException.class, exception.getCause());
+		}
+	}
+}
@@ -0,0 +1,73 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.hex;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.apache.commons.codec.binary.Hex;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link HexEncodingChannel}
+ */
+public class HexEncodingChannelTest
+{
+
+	/**
+	 * Test method for {@link HexEncodingChannel#write(ByteBuffer)}
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Test
+	public void testWrite() throws IOException
+	{
+		byte[] data = new byte[5000];
+		new Random(8).nextBytes(data);
+		ByteBuffer src = ByteBuffer.allocateDirect(data.length + 2);
+		src.put((byte)1).put(data).put((byte)2);
+		src.position(1).limit(1 + data.length);
+		ByteArrayOutputStream target = new ByteArrayOutputStream();
+		WritableByteChannel channel = new HexEncodingChannel(Channels.newChannel(target), false,
+			100);
+
+		assertEquals(data.length, channel.write(src));
+		assertEquals(src.limit(), src.position());
+		assertEquals(1 + data.length, src.limit());
+		assertEquals(Hex.encodeHexString(data, false), target.toString(StandardCharsets.US_ASCII));
+
+		channel.close();
+		assertFalse(channel.isOpen());
+	}
+}
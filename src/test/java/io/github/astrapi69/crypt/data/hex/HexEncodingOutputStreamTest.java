@@ -0,0 +1,93 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.hex;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.apache.commons.codec.binary.Hex;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link HexEncodingOutputStream}
+ */
+public class HexEncodingOutputStreamTest
+{
+
+	/**
+	 * Test method for {@link HexEncodingOutputStream#write(byte[], int, int)} with a payload that
+	 * is larger than one chunk
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Test
+	public void testWrite() throws IOException
+	{
+		byte[] data = new byte[10_000];
+		new Random(4).nextBytes(data);
+		ByteArrayOutputStream target = new ByteArrayOutputStream();
+		try (OutputStream out = new HexEncodingOutputStream(target, true, 64))
+		{
+			out.write(data, 0, 5000);
+			out.write(data[5000]);
+			out.write(data, 5001, data.length - 5001);
+		}
+		assertEquals(Hex.encodeHexString(data), target.toString(StandardCharsets.US_ASCII));
+	}
+
+	/**
+	 * Test method for {@link HexEncodingOutputStream} with upper case digits
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Test
+	public void testWriteUpperCase() throws IOException
+	{
+		ByteArrayOutputStream target = new ByteArrayOutputStream();
+		try (OutputStream out = new HexEncodingOutputStream(target, false))
+		{
+			out.write(new byte[] { (byte)0xca, (byte)0xfe, 0x0b });
+		}
+		assertEquals("CAFE0B", target.toString(StandardCharsets.US_ASCII));
+	}
+
+	/**
+	 * Test method for {@link HexEncodingOutputStream} with an invalid chunk size
+	 */
+	@Test
+	public void testInvalidChunkSize()
+	{
+		assertThrows(IllegalArgumentException.class,
+			() -> new HexEncodingOutputStream(new ByteArrayOutputStream(), true, 0));
+	}
+}
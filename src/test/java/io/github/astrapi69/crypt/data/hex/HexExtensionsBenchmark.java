@@ -0,0 +1,123 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.hex;
+
+import java.util.Random;
+
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Hex;
+
+/**
+ * Benchmark that compares the table driven encoding and decoding of {@link HexExtensions} with the
+ * previous implementation on top of commons-codec for inputs of fingerprint size and larger
+ */
+public class HexExtensionsBenchmark
+{
+
+	private static final int ITERATIONS = 1_000_000;
+
+	private static long sink;
+
+	private static long measurePreviousEncode(byte[] data)
+	{
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++)
+		{
+			final StringBuilder sb = new StringBuilder();
+			sb.append(Hex.encodeHex(data, true));
+			sink += sb.toString().length();
+		}
+		return (System.nanoTime() - start) / ITERATIONS;
+	}
+
+	private static long measureToHexString(byte[] data)
+	{
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++)
+		{
+			sink += HexExtensions.toHexString(data).length();
+		}
+		return (System.nanoTime() - start) / ITERATIONS;
+	}
+
+	private static long measureEncodeIntoBuffer(byte[] data, char[] out)
+	{
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++)
+		{
+			sink += HexExtensions.encodeHex(data, 0, data.length, out, 0, true);
+		}
+		return (System.nanoTime() - start) / ITERATIONS;
+	}
+
+	private static long measurePreviousDecode(String hex) throws DecoderException
+	{
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++)
+		{
+			sink += Hex.decodeHex(hex.toCharArray()).length;
+		}
+		return (System.nanoTime() - start) / ITERATIONS;
+	}
+
+	private static long measureDecodeIntoBuffer(String hex, byte[] out) throws DecoderException
+	{
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++)
+		{
+			sink += HexExtensions.decodeHex(hex, 0, hex.length(), out, 0);
+		}
+		return (System.nanoTime() - start) / ITERATIONS;
+	}
+
+	public static void main(String[] args) throws DecoderException
+	{
+		System.out.println("bytes;previous encode ns;toHexString ns;encode into buffer ns;"
+			+ "previous decode ns;decode into buffer ns");
+		for (int length : new int[] { 20, 32, 64, 256, 4096 })
+		{
+			byte[] data = new byte[length];
+			new Random(length).nextBytes(data);
+			String hex = Hex.encodeHexString(data);
+			char[] chars = new char[2 * length];
+			byte[] bytes = new byte[length];
+			for (int round = 0; round < 2; round++)
+			{
+				// the first round warms up all paths and the second round is printed
+				long previousEncode = measurePreviousEncode(data);
+				long toHexString = measureToHexString(data);
+				long encodeIntoBuffer = measureEncodeIntoBuffer(data, chars);
+				long previousDecode = measurePreviousDecode(hex);
+				long decodeIntoBuffer = measureDecodeIntoBuffer(hex, bytes);
+				if (round == 1)
+				{
+					System.out.printf("%d;%d;%d;%d;%d;%d%n", length, previousEncode, toHexString,
+						encodeIntoBuffer, previousDecode, decodeIntoBuffer);
+				}
+			}
+		}
+		System.out.println("checksum: " + sink);
+	}
+}
@@ -24,13 +24,21 @@
  */
 package io.github.astrapi69.crypt.data.hex;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
 
 import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.codec.binary.StringUtils;
 import org.junit.jupiter.api.Test;
 import org.meanbean.test.BeanTester;
@@ -224,6 +232,110 @@ public class HexExtensionsTest
 		assertTrue(actual == 'A');
 	}
 
+	/**
+	 * Test method for {@link HexExtensions#toHexString(byte[], boolean)} against commons-codec for
+	 * all byte values and for inputs that do not fit into the scratch buffer
+	 */
+	@Test
+	public void testToHexString()
+	{
+		byte[] allValues = new byte[256];
+		for (int i = 0; i < allValues.length; i++)
+		{
+			allValues[i] = (byte)i;
+		}
+		assertEquals(Hex.encodeHexString(allValues), HexExtensions.toHexString(allValues));
+		assertEquals(Hex.encodeHexString(allValues, false),
+			HexExtensions.toHexString(allValues, false));
+		assertEquals("", HexExtensions.toHexString(new byte[0]));
+
+		byte[] large = new byte[2048];
+		new Random(1).nextBytes(large);
+		assertEquals(Hex.encodeHexString(large), HexExtensions.toHexString(large));
+	}
+
+	/**
+	 * Test method for {@link HexExtensions#encodeHex(byte[], int, int, char[], int, boolean)} and
+	 * {@link HexExtensions#decodeHex(char[], int, int, byte[], int)}
+	 *
+	 * @throws DecoderException
+	 *             is thrown if an odd number or illegal of characters is supplied
+	 */
+	@Test
+	public void testEncodeAndDecodeHexWithOffsets() throws DecoderException
+	{
+		byte[] data = { 0x00, 0x1f, (byte)0xab, 0x7f, (byte)0x80 };
+		char[] chars = new char[12];
+		Arrays.fill(chars, '-');
+
+		assertEquals(6, HexExtensions.encodeHex(data, 1, 3, chars, 2, false));
+		assertEquals("--1FAB7F----", new String(chars));
+
+		byte[] decoded = new byte[5];
+		assertEquals(3, HexExtensions.decodeHex(chars, 2, 6, decoded, 1));
+		assertArrayEquals(new byte[] { 0, 0x1f, (byte)0xab, 0x7f, 0 }, decoded);
+
+		byte[] ascii = new byte[10];
+		assertEquals(10, HexExtensions.encodeHex(data, 0, 5, ascii, 0, true));
+		assertEquals("001fab7f80", new String(ascii, StandardCharsets.US_ASCII));
+
+		decoded = new byte[5];
+		assertEquals(2, HexExtensions.decodeHex("xxab7F", 2, 4, decoded, 3));
+		assertArrayEquals(new byte[] { 0, 0, 0, (byte)0xab, 0x7f }, decoded);
+
+		assertThrows(IndexOutOfBoundsException.class,
+			() -> HexExtensions.encodeHex(data, 0, 5, new char[9], 0, true));
+	}
+
+	/**
+	 * Test method for {@link HexExtensions#encodeHex(ByteBuffer, ByteBuffer, boolean)} and
+	 * {@link HexExtensions#decodeHex(ByteBuffer, ByteBuffer)}
+	 *
+	 * @throws DecoderException
+	 *             is thrown if an odd number or illegal of characters is supplied
+	 */
+	@Test
+	public void testEncodeAndDecodeHexByteBuffer() throws DecoderException
+	{
+		ByteBuffer data = ByteBuffer.wrap("Secret message".getBytes(StandardCharsets.UTF_8));
+		ByteBuffer encoded = ByteBuffer.allocateDirect(28);
+
+		assertEquals(28, HexExtensions.encodeHex(data, encoded, true));
+		assertFalse(data.hasRemaining());
+		encoded.flip();
+		byte[] ascii = new byte[28];
+		encoded.duplicate().get(ascii);
+		assertEquals("536563726574206d657373616765", new String(ascii, StandardCharsets.US_ASCII));
+
+		ByteBuffer decoded = ByteBuffer.allocate(14);
+		assertEquals(14, HexExtensions.decodeHex(encoded, decoded));
+		assertEquals("Secret message", new String(decoded.array(), StandardCharsets.UTF_8));
+
+		assertThrows(BufferOverflowException.class, () -> HexExtensions
+			.encodeHex(ByteBuffer.allocate(4), ByteBuffer.allocate(7), true));
+	}
+
+	/**
+	 * Test method for the decode methods of {@link HexExtensions} with invalid input
+	 */
+	@Test
+	public void testDecodeHexInvalid()
+	{
+		DecoderException exception = assertThrows(DecoderException.class,
+			() -> HexExtensions.decodeHex("abc"));
+		assertEquals("Odd number of characters.", exception.getMessage());
+
+		exception = assertThrows(DecoderException.class,
+			() -> HexExtensions.decodeHex("0g".toCharArray()));
+		assertEquals("Illegal hexadecimal character g at index 1", exception.getMessage());
+
+		ByteBuffer data = ByteBuffer.wrap("00zz".getBytes(StandardCharsets.US_ASCII));
+		ByteBuffer out = ByteBuffer.allocate(2);
+		assertThrows(DecoderException.class, () -> HexExtensions.decodeHex(data, out));
+		assertEquals(0, data.position());
+		assertEquals(0, out.position());
+	}
+
 	/**
 	 * Test method for {@link HexExtensions} with {@link BeanTester}
 	 */
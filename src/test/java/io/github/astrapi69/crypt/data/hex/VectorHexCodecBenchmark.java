@@ -0,0 +1,93 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.hex;
+
+import java.util.Random;
+
+/**
+ * Benchmark that compares the throughput of the table driven hex encoding of
+ * {@link HexExtensions} with the encoding of {@link VectorHexCodec} for inputs from 32 bytes to 1
+ * megabyte. The benchmark must be started with the virtual machine option
+ * {@code --add-modules jdk.incubator.vector}
+ */
+public class VectorHexCodecBenchmark
+{
+
+	/** The number of bytes that are encoded for every measurement */
+	private static final long BYTES_PER_MEASUREMENT = 256L * 1024 * 1024;
+
+	private static long sink;
+
+	private interface Encoder
+	{
+		void encode(byte[] data, byte[] out);
+	}
+
+	private static double measure(Encoder encoder, byte[] data, byte[] out)
+	{
+		long iterations = Math.max(1, BYTES_PER_MEASUREMENT / data.length);
+		long start = System.nanoTime();
+		for (long i = 0; i < iterations; i++)
+		{
+			encoder.encode(data, out);
+			sink += out[out.length - 1];
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		return iterations * data.length / seconds / (1024 * 1024);
+	}
+
+	public static void main(String[] args)
+	{
+		if (!HexExtensions.VECTOR_API_PRESENT)
+		{
+			System.out.println("Start the benchmark with --add-modules jdk.incubator.vector");
+			return;
+		}
+		System.out.println("bytes;table MB/s;vector MB/s");
+		for (int length : new int[] { 32, 256, 4096, 65536, 1024 * 1024 })
+		{
+			byte[] data = new byte[length];
+			new Random(length).nextBytes(data);
+			byte[] out = new byte[2 * length];
+			for (int round = 0; round < 2; round++)
+			{
+				// the first round warms up all paths and the second round is printed
+				double table = measure(
+					(input, output) -> HexExtensions.encodeHexScalar(input, 0, input.length,
+						output, 0, true),
+					data, out);
+				double vector = measure(
+					(input, output) -> HexExtensions.encodeHex(input, 0, input.length, output, 0,
+						true),
+					data, out);
+				if (round == 1)
+				{
+					System.out.printf("%d;%.0f;%.0f%n", length, table, vector);
+				}
+			}
+		}
+		System.out.println("checksum: " + sink);
+	}
+}
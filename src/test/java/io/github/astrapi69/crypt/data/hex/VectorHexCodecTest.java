@@ -0,0 +1,95 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.hex;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.apache.commons.codec.binary.Hex;
+import org.junit.jupiter.api.Test;
+
+import jdk.incubator.vector.ByteVector;
+
+/**
+ * The unit test class for the class {@link VectorHexCodec}
+ */
+public class VectorHexCodecTest
+{
+
+	/**
+	 * Test method for {@link VectorHexCodec#encodeHex(byte[], int, int, byte[], int, boolean)}
+	 * against the encoding of commons-codec
+	 */
+	@Test
+	public void testEncodeHex()
+	{
+		assumeTrue(HexExtensions.VECTOR_API_PRESENT, "jdk.incubator.vector is not present");
+		int vectorLength = ByteVector.SPECIES_PREFERRED.length();
+		Random random = new Random(16);
+		for (int length = 0; length <= 4 * vectorLength + 1; length++)
+		{
+			byte[] data = new byte[length + 3];
+			random.nextBytes(data);
+			byte[] out = new byte[2 * length + 5];
+			for (boolean lowerCase : new boolean[] { true, false })
+			{
+				int encoded = VectorHexCodec.encodeHex(data, 3, length, out, 5, lowerCase);
+				assertEquals(length - length % vectorLength, encoded);
+				String expected = Hex.encodeHexString(Arrays.copyOfRange(data, 3, 3 + encoded),
+					lowerCase);
+				assertEquals(expected,
+					new String(out, 5, 2 * encoded, StandardCharsets.ISO_8859_1));
+			}
+		}
+	}
+
+	/**
+	 * Test method for {@link HexExtensions#toHexString(byte[], boolean)} with the vector codec and
+	 * the table for the rest
+	 */
+	@Test
+	public void testToHexString()
+	{
+		assumeTrue(HexExtensions.VECTOR_API_PRESENT, "jdk.incubator.vector is not present");
+		Random random = new Random(61);
+		for (int length = 0; length <= 1024; length++)
+		{
+			byte[] data = new byte[length];
+			random.nextBytes(data);
+			assertEquals(Hex.encodeHexString(data), HexExtensions.toHexString(data));
+			assertEquals(Hex.encodeHexString(data, false), HexExtensions.toHexString(data, false));
+		}
+		byte[] all = new byte[256];
+		for (int value = 0; value < all.length; value++)
+		{
+			all[value] = (byte)value;
+		}
+		assertEquals(Hex.encodeHexString(all), HexExtensions.toHexString(all));
+	}
+}
@@ -44,6 +44,9 @@ import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
 
 import org.bouncycastle.asn1.x500.style.BCStyle;
 import org.bouncycastle.asn1.x509.Extensions;
@@ -233,6 +236,30 @@ public class CertificateExtensionsTest
 		assertEquals(expected, actual);
 	}
 
+	/**
+	 * Test method for {@link CertificateExtensions#getFingerprints(X509Certificate, Set)}
+	 *
+	 * @throws CertificateEncodingException
+	 *             is thrown if an encoding error occurs
+	 * @throws NoSuchAlgorithmException
+	 *             is thrown if instantiation of a MessageDigest object fails
+	 */
+	@Test
+	public void testGetFingerprints() throws CertificateEncodingException, NoSuchAlgorithmException
+	{
+		Map<HashAlgorithm, String> actual;
+
+		actual = CertificateExtensions.getFingerprints(certificate,
+			EnumSet.of(HashAlgorithm.SHA1, HashAlgorithm.SHA_256, HashAlgorithm.SHA_512));
+		assertEquals(3, actual.size());
+		assertEquals("98e12b1607890c76daa0b594be26616ceee93102", actual.get(HashAlgorithm.SHA1));
+		assertEquals("3a3dc338c7b444c3dd80e4f997d027a72451f9d5641783b3c810bf2d89bbd699",
+			actual.get(HashAlgorithm.SHA_256));
+		assertEquals(
+			CertificateExtensions.getFingerprint(certificate, HashAlgorithm.SHA_512),
+			actual.get(HashAlgorithm.SHA_512));
+	}
+
 	/**
 	 * Test method for
 	 * {@link CertificateExtensions#getFirstValueOf(X509Certificate, org.bouncycastle.asn1.ASN1ObjectIdentifier)}
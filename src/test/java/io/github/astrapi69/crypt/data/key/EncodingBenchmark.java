@@ -0,0 +1,88 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.crypt.data.key;
+
+import java.util.Random;
+
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.binary.Hex;
+
+import io.github.astrapi69.crypt.data.hex.HexExtensions;
+
+/**
+ * Benchmark that compares the throughput of the hex and base64 encoding of
+ * {@link HexExtensions#toHexString(byte[])} and {@link KeyExtensions#toBase64(byte[])} with the
+ * encoding of commons-codec for inputs from 32 bytes to 1 megabyte
+ */
+public class EncodingBenchmark
+{
+
+	/** The number of bytes that are encoded for every measurement */
+	private static final long BYTES_PER_MEASUREMENT = 256L * 1024 * 1024;
+
+	private static long sink;
+
+	private interface Encoder
+	{
+		String encode(byte[] data);
+	}
+
+	private static double measure(Encoder encoder, byte[] data)
+	{
+		long iterations = Math.max(1, BYTES_PER_MEASUREMENT / data.length);
+		long start = System.nanoTime();
+		for (long i = 0; i < iterations; i++)
+		{
+			sink += encoder.encode(data).length();
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		return iterations * data.length / seconds / (1024 * 1024);
+	}
+
+	public static void main(String[] args)
+	{
+		System.out.println("bytes;commons hex MB/s;HexExtensions MB/s;commons base64 MB/s;"
+			+ "KeyExtensions base64 MB/s");
+		for (int length : new int[] { 32, 256, 4096, 65536, 1024 * 1024 })
+		{
+			byte[] data = new byte[length];
+			new Random(length).nextBytes(data);
+			for (int round = 0; round < 2; round++)
+			{
+				// the first round warms up all paths and the second round is printed
+				double commonsHex = measure(Hex::encodeHexString, data);
+				double hexExtensions = measure(HexExtensions::toHexString, data);
+				double commonsBase64 = measure(Base64::encodeBase64String, data);
+				double keyExtensions = measure(KeyExtensions::toBase64, data);
+				if (round == 1)
+				{
+					System.out.printf("%d;%.0f;%.0f;%.0f;%.0f%n", length, commonsHex,
+						hexExtensions, commonsBase64, keyExtensions);
+				}
+			}
+		}
+		System.out.println("checksum: " + sink);
+	}
+}
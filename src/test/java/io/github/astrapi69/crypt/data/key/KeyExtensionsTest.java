@@ -35,10 +35,12 @@ import java.security.KeyPairGenerator;
 import java.security.NoSuchAlgorithmException;
 import java.security.PrivateKey;
 import java.security.PublicKey;
+import java.util.Random;
 
 import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
 
+import org.apache.commons.codec.binary.Base64;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.meanbean.test.BeanTester;
@@ -110,6 +112,23 @@ class KeyExtensionsTest
 		assertArrayEquals(originalKey, decodedKey);
 	}
 
+	/**
+	 * Test method for {@link KeyExtensions#toBase64(byte[])} against the base64 encoding of
+	 * commons-codec for all lengths up to three blocks of the intrinsic encoder
+	 */
+	@Test
+	@DisplayName("Test toBase64 produces the same output as commons-codec")
+	void testToBase64SameAsCommonsCodec()
+	{
+		Random random = new Random(12);
+		for (int length = 0; length <= 3 * 48 + 1; length++)
+		{
+			byte[] encodedKey = new byte[length];
+			random.nextBytes(encodedKey);
+			assertEquals(Base64.encodeBase64String(encodedKey), KeyExtensions.toBase64(encodedKey));
+		}
+	}
+
 	/**
 	 * Test method for base64 binary encoding and decoding
 	 */